@@ -0,0 +1,307 @@
+package com.praktikum.database.testing.library.config;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Limiter adaptif untuk jumlah query in-flight ke database (AIMD)
+ *
+ * Setiap koneksi yang dipinjam dihitung sebagai satu query in-flight, latency diukur
+ * per eksekusi statement (execute*) pada lease ConnectionPool, bukan lama koneksi ditahan:
+ * - latency di bawah db.limiter.latencyThresholdMillis: limit naik +1 per window (additive increase)
+ * - latency di atas threshold atau pool timeout: limit dikali db.limiter.backoffRatio (multiplicative decrease),
+ *   maksimal sekali per window: statement yang mulai sebelum decrease terakhir tidak menurunkan limit lagi
+ *
+ * Jika limit tercapai, caller antri (db.limiter.maxQueue, db.limiter.maxWaitMillis)
+ * lalu ditolak dengan ConcurrencyLimitExceededException
+ */
+public class AdaptiveConcurrencyLimiter implements ConcurrencyLimiterMXBean {
+    private static final Logger logger = Logger.getLogger(AdaptiveConcurrencyLimiter.class.getName());
+
+    private final String name;
+    private final LimiterSettings settings;
+    private final long latencyThresholdNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+
+    // State di bawah lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    // System.nanoTime() saat limit terakhir diturunkan (awal window decrease berikutnya)
+    private long lastDecreaseNanos = System.nanoTime();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder limitIncreases = new LongAdder();
+    private final LongAdder limitDecreases = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    private final LongAdder latencySumNanos = new LongAdder();
+
+    private ObjectName registeredMBeanName;
+
+    public AdaptiveConcurrencyLimiter(String name, LimiterSettings settings) {
+        settings.validate();
+        this.name = name;
+        this.settings = settings;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLatencyThresholdMillis());
+        this.limit = settings.getInitialLimit();
+    }
+
+    /**
+     * Meminjam koneksi sebagai satu query in-flight
+     * Latency dicatat dari eksekusi statement jika source adalah ConnectionPool,
+     * koneksi dari source lain hanya memakai slot in-flight
+     * @param source Sumber koneksi (pool primary atau replica router)
+     * @return Connection yang mencatat latency statement dan melepas slot ketika di-close
+     * @throws ConcurrencyLimitExceededException jika limit tercapai dan antrian penuh atau timeout
+     * @throws java.sql.SQLTimeoutException jika deadline operasi (Deadline) habis sebelum slot didapat
+     * @throws SQLException jika source gagal memberikan koneksi
+     */
+    public Connection getConnection(ConnectionFactory source) throws SQLException {
+        acquire();
+        long startNanos = System.nanoTime();
+        Connection connection;
+        try {
+            connection = source.createConnection();
+        } catch (SQLException | RuntimeException e) {
+            // Timeout menunggu pool berarti database sudah jenuh
+            if (e instanceof SQLTransientConnectionException) {
+                onSample(startNanos, System.nanoTime() - startNanos, true);
+            }
+            release();
+            throw e;
+        }
+        PooledConnection.setExecutionListener(connection,
+                (statementStart, elapsedNanos) -> onSample(statementStart, elapsedNanos, false));
+        return CloseCallbackConnection.wrap(connection, this::release);
+    }
+
+    private void acquire() throws SQLException {
+        if (Deadline.isExpired()) {
+            rejected.increment();
+            throw Deadline.expired("slot query in-flight '" + name + "'");
+        }
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                acquired.increment();
+                return;
+            }
+            if (queued >= settings.getMaxQueue()) {
+                throw reject("Limit query in-flight tercapai dan antrian penuh");
+            }
+
+            queued++;
+            try {
+                // Menunggu paling lama maxWaitMillis atau sisa deadline operasi, mana yang lebih dulu
+                long remainingNanos = Deadline.capWaitNanos(settings.getMaxWaitMillis());
+                while (inFlight >= currentLimit()) {
+                    if (remainingNanos <= 0) {
+                        if (Deadline.isExpired()) {
+                            rejected.increment();
+                            throw Deadline.expired("slot query in-flight '" + name + "'");
+                        }
+                        throw reject("Timeout menunggu slot query in-flight setelah "
+                                + settings.getMaxWaitMillis() + " ms");
+                    }
+                    remainingNanos = slotAvailable.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted saat menunggu slot query", "08001", e);
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            acquired.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ConcurrencyLimitExceededException reject(String reason) {
+        rejected.increment();
+        return new ConcurrencyLimitExceededException(reason, currentLimit(), inFlight);
+    }
+
+    /**
+     * Melepas slot in-flight ketika koneksi di-close
+     */
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mencatat latency satu statement dan menyesuaikan limit (AIMD)
+     * @param startNanos System.nanoTime() saat statement (atau peminjaman pool) dimulai
+     * @param latencyNanos Lama eksekusi statement
+     * @param dropped true jika query gagal karena database jenuh (misalnya pool timeout)
+     */
+    void onSample(long startNanos, long latencyNanos, boolean dropped) {
+        latencyCount.increment();
+        latencySumNanos.add(latencyNanos);
+
+        lock.lock();
+        try {
+            int before = currentLimit();
+
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                // Statement yang sudah jalan sebelum decrease terakhir masih melihat beban lama,
+                // sehingga burst query lambat hanya menurunkan limit sekali
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+                    lastDecreaseNanos = System.nanoTime();
+                }
+            } else if (inFlight * 2 >= before) {
+                // Hanya naik jika limit benar-benar terpakai, supaya tidak tumbuh saat traffic sepi
+                limit = Math.min(settings.getMaxLimit(), limit + 1.0 / limit);
+            }
+
+            int after = currentLimit();
+            if (after > before) {
+                limitIncreases.increment();
+                slotAvailable.signalAll();
+            } else if (after < before) {
+                limitDecreases.increment();
+                logger.fine("Limit query '" + name + "' turun ke " + after);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Mendaftarkan MBean limiter ke platform MBeanServer
+     * ObjectName: com.praktikum.database.testing.library:type=ConcurrencyLimiter,name=&lt;name&gt;
+     */
+    public synchronized void registerMBean() {
+        if (registeredMBeanName != null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(
+                    "com.praktikum.database.testing.library:type=ConcurrencyLimiter,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new StandardMBean(this, ConcurrencyLimiterMXBean.class, true), objectName);
+            registeredMBeanName = objectName;
+        } catch (JMException e) {
+            logger.warning("Gagal mendaftarkan MBean untuk limiter '" + name + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menghapus MBean limiter dari platform MBeanServer
+     */
+    public synchronized void unregisterMBean() {
+        if (registeredMBeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredMBeanName);
+        } catch (JMException e) {
+            logger.fine("Gagal unregister MBean: " + e.getMessage());
+        }
+        registeredMBeanName = null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LimiterSettings getSettings() {
+        return settings;
+    }
+
+    @Override
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getLimitIncreases() {
+        return limitIncreases.sum();
+    }
+
+    @Override
+    public long getLimitDecreases() {
+        return limitDecreases.sum();
+    }
+
+    @Override
+    public double getAverageLatencyMillis() {
+        long count = latencyCount.sum();
+        return count == 0 ? 0.0 : latencySumNanos.sum() / (count * 1_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{" + name
+                + ", limit=" + getLimit()
+                + ", inFlight=" + getInFlight()
+                + ", queued=" + getQueued()
+                + ", rejected=" + getRejectedCount() + "}";
+    }
+}
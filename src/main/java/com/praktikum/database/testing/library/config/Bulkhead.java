@@ -0,0 +1,173 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead untuk satu WorkloadClass: membatasi jumlah koneksi yang dipinjam bersamaan
+ * dan panjang antrian thread yang menunggu
+ *
+ * Permit dilepas ketika koneksi ditutup, atau oleh Cleaner jika koneksi bocor
+ */
+public class Bulkhead {
+    private final WorkloadClass workloadClass;
+    private final int maxConnections;
+    private final int queueDepth;
+    private final long maxWaitMillis;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(WorkloadClass workloadClass, int maxConnections, int queueDepth, long maxWaitMillis) {
+        if (maxConnections <= 0) {
+            throw new RuntimeException("db.workload." + workloadClass.getPropertyName()
+                    + ".maxConnections harus lebih besar dari 0");
+        }
+        if (queueDepth < 0) {
+            throw new RuntimeException("db.workload." + workloadClass.getPropertyName()
+                    + ".queueDepth tidak boleh negatif");
+        }
+        this.workloadClass = workloadClass;
+        this.maxConnections = maxConnections;
+        this.queueDepth = queueDepth;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Membuat bulkhead dari db.workload.&lt;nama&gt;.maxConnections/queueDepth/maxWaitMillis
+     * Default: oltp 60%, reporting 25%, background 15% dari db.pool.maxTotal (minimal 1)
+     */
+    public static Bulkhead fromProperties(WorkloadClass workloadClass, Properties properties,
+                                          PoolSettings poolSettings) {
+        String prefix = "db.workload." + workloadClass.getPropertyName() + ".";
+        int defaultConnections = Math.max(1, poolSettings.getMaxTotal() * defaultSharePercent(workloadClass) / 100);
+        return new Bulkhead(workloadClass,
+                PoolSettings.intProperty(properties, prefix + "maxConnections", defaultConnections),
+                PoolSettings.intProperty(properties, prefix + "queueDepth", defaultConnections * 4),
+                PoolSettings.longProperty(properties, prefix + "maxWaitMillis", poolSettings.getMaxWaitMillis()));
+    }
+
+    private static int defaultSharePercent(WorkloadClass workloadClass) {
+        switch (workloadClass) {
+            case REPORTING:
+                return 25;
+            case BACKGROUND:
+                return 15;
+            default:
+                return 60;
+        }
+    }
+
+    /**
+     * Meminjam koneksi di dalam budget bulkhead ini
+     * @param source Sumber koneksi (pool primary atau replica router)
+     * @return Connection yang melepas permit bulkhead ketika di-close
+     * @throws SQLTransientConnectionException jika antrian penuh atau timeout menunggu permit
+     * @throws java.sql.SQLTimeoutException jika deadline operasi (Deadline) habis sebelum permit didapat
+     */
+    public Connection getConnection(ConnectionFactory source) throws SQLException {
+        acquirePermit();
+        try {
+            Connection connection = source.createConnection();
+            acquired.increment();
+            // Permit dilepas saat koneksi di-close (atau oleh Cleaner jika bocor)
+            return CloseCallbackConnection.wrap(connection, permits::release);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (Deadline.isExpired()) {
+            rejected.increment();
+            throw Deadline.expired("bulkhead '" + workloadClass.getPropertyName() + "'");
+        }
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > queueDepth) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException("Bulkhead '" + workloadClass.getPropertyName()
+                    + "' penuh: " + maxConnections + " koneksi aktif dan " + queueDepth
+                    + " thread menunggu", "08001");
+        }
+        try {
+            // Menunggu paling lama maxWaitMillis atau sisa deadline operasi, mana yang lebih dulu
+            if (!permits.tryAcquire(Deadline.capWaitNanos(maxWaitMillis), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                if (Deadline.isExpired()) {
+                    throw Deadline.expired("bulkhead '" + workloadClass.getPropertyName() + "'");
+                }
+                throw new SQLTransientConnectionException("Timeout menunggu bulkhead '"
+                        + workloadClass.getPropertyName() + "' setelah " + maxWaitMillis + " ms", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted saat menunggu bulkhead", "08001", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return true jika batas (maxConnections, queueDepth, maxWaitMillis) sama dengan bulkhead lain
+     */
+    boolean hasSameLimits(Bulkhead other) {
+        return other != null
+                && maxConnections == other.maxConnections
+                && queueDepth == other.queueDepth
+                && maxWaitMillis == other.maxWaitMillis;
+    }
+
+    public WorkloadClass getWorkloadClass() {
+        return workloadClass;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public int getActiveConnections() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    public int getWaitingThreads() {
+        return waiting.get();
+    }
+
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{" + workloadClass.getPropertyName()
+                + ", active=" + getActiveConnections() + "/" + maxConnections
+                + ", waiting=" + getWaitingThreads() + "/" + queueDepth
+                + ", acquired=" + getAcquiredCount()
+                + ", rejected=" + getRejectedCount() + "}";
+    }
+}
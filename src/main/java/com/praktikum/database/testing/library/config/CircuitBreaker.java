@@ -0,0 +1,396 @@
+package com.praktikum.database.testing.library.config;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker untuk satu ConnectionPool
+ *
+ * - CLOSED: semua panggilan diteruskan, kegagalan koneksi dihitung
+ * - OPEN: setelah kegagalan berturut-turut atau failure rate tinggi, getConnection() langsung
+ *   gagal dengan CircuitBreakerOpenException selama db.circuit.openDurationMillis
+ * - HALF_OPEN: sejumlah trial call (peminjaman koneksi) diizinkan; semua sukses = CLOSED, satu gagal = OPEN lagi.
+ *   Hasil statement hanya masuk sliding window, tidak dihitung sebagai trial call yang sukses
+ *
+ * Yang dihitung gagal hanya error yang menandakan database tidak tersedia (SQLState 08xxx,
+ * 57P0x, 53300). Error SQL biasa (constraint, syntax) berarti database menjawab, jadi dihitung sukses
+ */
+public class CircuitBreaker implements CircuitBreakerMXBean {
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    /**
+     * State circuit breaker
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitBreakerSettings settings;
+    private final List<Consumer<CircuitBreakerEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    // State di bawah lock (this)
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private long lastTransitionMillis = System.currentTimeMillis();
+    private int consecutiveFailures;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+
+    // Naik setiap kali masuk HALF_OPEN, token trial dari periode half-open sebelumnya tidak dihitung
+    private long halfOpenGeneration;
+
+    // Sliding window hasil panggilan terakhir (true = gagal)
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private final LongAdder successfulCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder notPermittedCalls = new LongAdder();
+    private final LongAdder transitionsToOpen = new LongAdder();
+    private final LongAdder transitionsToHalfOpen = new LongAdder();
+    private final LongAdder transitionsToClosed = new LongAdder();
+
+    private ObjectName registeredMBeanName;
+
+    public CircuitBreaker(String name, CircuitBreakerSettings settings) {
+        settings.validate();
+        this.name = name;
+        this.settings = settings;
+        this.window = new boolean[settings.getSlidingWindowSize()];
+    }
+
+    /**
+     * Mendaftarkan listener untuk event perubahan state
+     */
+    public void addListener(Consumer<CircuitBreakerEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Dipanggil sebelum meminjam koneksi
+     * @return token trial call (diteruskan ke onSuccess/onFailure hasil peminjaman), 0 jika bukan trial call
+     * @throws CircuitBreakerOpenException jika breaker OPEN atau trial call half-open sudah penuh
+     */
+    public long acquirePermission() throws CircuitBreakerOpenException {
+        long trial = 0;
+        CircuitBreakerEvent event = null;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                long elapsed = System.currentTimeMillis() - openedAtMillis;
+                if (elapsed < settings.getOpenDurationMillis()) {
+                    notPermittedCalls.increment();
+                    throw new CircuitBreakerOpenException(name, settings.getOpenDurationMillis() - elapsed);
+                }
+                event = transitionTo(State.HALF_OPEN, "open duration " + settings.getOpenDurationMillis()
+                        + " ms selesai, mencoba trial call");
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermitted >= settings.getHalfOpenTrialCalls()) {
+                    notPermittedCalls.increment();
+                    throw new CircuitBreakerOpenException(name, 0);
+                }
+                halfOpenPermitted++;
+                trial = halfOpenGeneration;
+            }
+        }
+        publish(event);
+        return trial;
+    }
+
+    /**
+     * Mencatat statement yang berhasil dijalankan (hanya sliding window)
+     */
+    public void onSuccess() {
+        onSuccess(0);
+    }
+
+    /**
+     * Mencatat peminjaman koneksi yang sukses
+     * @param trial Token dari acquirePermission(), hanya trial call yang bisa menutup breaker HALF_OPEN
+     */
+    public void onSuccess(long trial) {
+        CircuitBreakerEvent event = null;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return;
+            }
+            successfulCalls.increment();
+            consecutiveFailures = 0;
+            record(false);
+            if (isCurrentTrial(trial) && ++halfOpenSucceeded >= settings.getHalfOpenTrialCalls()) {
+                event = transitionTo(State.CLOSED, halfOpenSucceeded + " trial call sukses");
+            }
+        }
+        publish(event);
+    }
+
+    /**
+     * Mencatat statement yang gagal
+     */
+    public void onFailure(SQLException error) {
+        onFailure(error, 0);
+    }
+
+    /**
+     * Mencatat panggilan gagal. Error yang bukan tanda database down dihitung sukses,
+     * sedangkan pool timeout (database jenuh, bukan down) tidak dihitung sama sekali
+     * @param trial Token dari acquirePermission(), 0 untuk hasil statement
+     */
+    public void onFailure(SQLException error, long trial) {
+        if (isIgnored(error)) {
+            synchronized (this) {
+                // Kembalikan slot trial supaya half-open tidak macet
+                if (isCurrentTrial(trial)) {
+                    halfOpenPermitted--;
+                }
+            }
+            return;
+        }
+        if (!isFailure(error)) {
+            onSuccess(trial);
+            return;
+        }
+
+        CircuitBreakerEvent event = null;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return;
+            }
+            failedCalls.increment();
+            consecutiveFailures++;
+            record(true);
+            if (state == State.HALF_OPEN) {
+                event = transitionTo(State.OPEN, "trial call gagal: " + error.getMessage());
+            } else if (consecutiveFailures >= settings.getConsecutiveFailureThreshold()) {
+                event = transitionTo(State.OPEN, consecutiveFailures + " kegagalan berturut-turut: "
+                        + error.getMessage());
+            } else if (windowCount >= settings.getMinimumCalls()
+                    && failureRatePercent() >= settings.getFailureRateThreshold()) {
+                event = transitionTo(State.OPEN, String.format("failure rate %.1f%% dari %d panggilan",
+                        failureRatePercent(), windowCount));
+            }
+        }
+        publish(event);
+    }
+
+    /**
+     * @return true jika token berasal dari trial call periode HALF_OPEN yang sedang berjalan
+     */
+    private boolean isCurrentTrial(long trial) {
+        return state == State.HALF_OPEN && trial != 0 && trial == halfOpenGeneration;
+    }
+
+    /**
+     * Error yang menandakan database tidak bisa dijangkau atau menolak koneksi
+     */
+    static boolean isFailure(SQLException error) {
+        String sqlState = error.getSQLState();
+        if (sqlState == null) {
+            return false;
+        }
+        return sqlState.startsWith("08")
+                || sqlState.startsWith("57P")
+                || "53300".equals(sqlState);
+    }
+
+    /**
+     * Error yang tidak mengatakan apa-apa tentang kesehatan database:
+     * pool timeout, bulkhead/limiter penuh, dan query timeout per statement
+     */
+    private static boolean isIgnored(SQLException error) {
+        return error instanceof SQLTransientConnectionException
+                || error instanceof SQLTimeoutException
+                || QueryTimeouts.QUERY_CANCELED_SQL_STATE.equals(error.getSQLState());
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private double failureRatePercent() {
+        return windowCount == 0 ? 0.0 : windowFailures * 100.0 / windowCount;
+    }
+
+    private CircuitBreakerEvent transitionTo(State newState, String reason) {
+        State previous = state;
+        state = newState;
+        lastTransitionMillis = System.currentTimeMillis();
+        halfOpenPermitted = 0;
+        halfOpenSucceeded = 0;
+        switch (newState) {
+            case OPEN:
+                openedAtMillis = lastTransitionMillis;
+                transitionsToOpen.increment();
+                break;
+            case HALF_OPEN:
+                halfOpenGeneration++;
+                transitionsToHalfOpen.increment();
+                break;
+            default:
+                transitionsToClosed.increment();
+                consecutiveFailures = 0;
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+                break;
+        }
+        return CircuitBreakerEvent.builder()
+                .breakerName(name)
+                .fromState(previous)
+                .toState(newState)
+                .timestampMillis(lastTransitionMillis)
+                .reason(reason)
+                .build();
+    }
+
+    private void publish(CircuitBreakerEvent event) {
+        if (event == null) {
+            return;
+        }
+        if (event.getToState() == State.OPEN) {
+            logger.severe("Circuit breaker '" + name + "' OPEN: " + event.getReason());
+        } else {
+            logger.info("Circuit breaker '" + name + "' " + event.getFromState() + " -> "
+                    + event.getToState() + ": " + event.getReason());
+        }
+        for (Consumer<CircuitBreakerEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warning("Listener circuit breaker gagal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mendaftarkan MBean breaker ke platform MBeanServer
+     * ObjectName: com.praktikum.database.testing.library:type=CircuitBreaker,name=&lt;name&gt;
+     */
+    public synchronized void registerMBean() {
+        if (registeredMBeanName != null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(
+                    "com.praktikum.database.testing.library:type=CircuitBreaker,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new StandardMBean(this, CircuitBreakerMXBean.class, true), objectName);
+            registeredMBeanName = objectName;
+        } catch (JMException e) {
+            logger.warning("Gagal mendaftarkan MBean untuk circuit breaker '" + name + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menghapus MBean breaker dari platform MBeanServer
+     */
+    public synchronized void unregisterMBean() {
+        if (registeredMBeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredMBeanName);
+        } catch (JMException e) {
+            logger.fine("Gagal unregister MBean: " + e.getMessage());
+        }
+        registeredMBeanName = null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreakerSettings getSettings() {
+        return settings;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    @Override
+    public String getStateName() {
+        return getState().name();
+    }
+
+    @Override
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    @Override
+    public synchronized double getFailureRatePercent() {
+        return failureRatePercent();
+    }
+
+    @Override
+    public long getSuccessfulCalls() {
+        return successfulCalls.sum();
+    }
+
+    @Override
+    public long getFailedCalls() {
+        return failedCalls.sum();
+    }
+
+    @Override
+    public long getNotPermittedCalls() {
+        return notPermittedCalls.sum();
+    }
+
+    @Override
+    public long getTransitionsToOpen() {
+        return transitionsToOpen.sum();
+    }
+
+    @Override
+    public long getTransitionsToHalfOpen() {
+        return transitionsToHalfOpen.sum();
+    }
+
+    @Override
+    public long getTransitionsToClosed() {
+        return transitionsToClosed.sum();
+    }
+
+    @Override
+    public synchronized long getLastTransitionMillis() {
+        return lastTransitionMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" + name + ", state=" + getState()
+                + ", consecutiveFailures=" + getConsecutiveFailures()
+                + ", failureRate=" + String.format("%.1f%%", getFailureRatePercent())
+                + ", notPermitted=" + getNotPermittedCalls() + "}";
+    }
+}
@@ -0,0 +1,27 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Event perubahan state CircuitBreaker (CLOSED -> OPEN -> HALF_OPEN -> CLOSED)
+ * Dikirim ke listener yang didaftarkan lewat CircuitBreaker.addListener()
+ */
+@Getter
+@Builder
+@ToString
+public class CircuitBreakerEvent {
+    // Nama breaker (sama dengan nama pool)
+    private final String breakerName;
+
+    private final CircuitBreaker.State fromState;
+    private final CircuitBreaker.State toState;
+
+    // Waktu transisi (epoch millis)
+    private final long timestampMillis;
+
+    // Penyebab transisi, misalnya "5 kegagalan berturut-turut" atau "trial call sukses"
+    private final String reason;
+}
@@ -0,0 +1,28 @@
+package com.praktikum.database.testing.library.config;
+
+/**
+ * Interface JMX untuk memantau CircuitBreaker
+ * ObjectName: com.praktikum.database.testing.library:type=CircuitBreaker,name=&lt;pool name&gt;
+ */
+public interface CircuitBreakerMXBean {
+
+    String getStateName();
+
+    int getConsecutiveFailures();
+
+    double getFailureRatePercent();
+
+    long getSuccessfulCalls();
+
+    long getFailedCalls();
+
+    long getNotPermittedCalls();
+
+    long getTransitionsToOpen();
+
+    long getTransitionsToHalfOpen();
+
+    long getTransitionsToClosed();
+
+    long getLastTransitionMillis();
+}
@@ -0,0 +1,30 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Dilempar tanpa menunggu ketika CircuitBreaker sedang OPEN (atau trial call half-open penuh)
+ * sehingga thread tidak menumpuk menunggu connect timeout saat database tidak bisa dijangkau
+ */
+public class CircuitBreakerOpenException extends SQLTransientConnectionException {
+    private final String breakerName;
+    private final long retryAfterMillis;
+
+    public CircuitBreakerOpenException(String breakerName, long retryAfterMillis) {
+        super("Circuit breaker '" + breakerName + "' OPEN, database dianggap tidak tersedia"
+                + " (coba lagi dalam " + retryAfterMillis + " ms)", "08001");
+        this.breakerName = breakerName;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String getBreakerName() {
+        return breakerName;
+    }
+
+    /**
+     * @return perkiraan sisa waktu sampai breaker mencoba half-open (ms)
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,95 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Properties;
+
+/**
+ * Konfigurasi untuk CircuitBreaker
+ * Nilai dibaca dari key db.circuit.* di database.properties
+ */
+@Getter
+@Builder(toBuilder = true)
+@EqualsAndHashCode
+@ToString
+public class CircuitBreakerSettings {
+    // Aktifkan circuit breaker pada setiap connection pool (primary dan replica)
+    @Builder.Default
+    private final boolean enabled = true;
+
+    // Breaker terbuka setelah sekian kegagalan berturut-turut
+    @Builder.Default
+    private final int consecutiveFailureThreshold = 5;
+
+    // Breaker terbuka jika persentase gagal di sliding window mencapai nilai ini
+    @Builder.Default
+    private final double failureRateThreshold = 50.0;
+
+    // Jumlah panggilan terakhir yang dihitung untuk failure rate
+    @Builder.Default
+    private final int slidingWindowSize = 20;
+
+    // Failure rate baru dievaluasi setelah minimal sekian panggilan di window
+    @Builder.Default
+    private final int minimumCalls = 10;
+
+    // Lama breaker terbuka (fail fast) sebelum mencoba half-open
+    @Builder.Default
+    private final long openDurationMillis = 10_000;
+
+    // Jumlah trial call saat half-open, semua harus sukses untuk menutup breaker
+    @Builder.Default
+    private final int halfOpenTrialCalls = 3;
+
+    /**
+     * Membaca CircuitBreakerSettings dari properties database.properties
+     * @param properties Properties hasil load database.properties
+     * @return CircuitBreakerSettings yang sudah divalidasi
+     */
+    public static CircuitBreakerSettings fromProperties(Properties properties) {
+        CircuitBreakerSettings defaults = CircuitBreakerSettings.builder().build();
+
+        CircuitBreakerSettings settings = CircuitBreakerSettings.builder()
+                .enabled(PoolSettings.booleanProperty(properties, "db.circuit.enabled", defaults.enabled))
+                .consecutiveFailureThreshold(PoolSettings.intProperty(properties,
+                        "db.circuit.consecutiveFailureThreshold", defaults.consecutiveFailureThreshold))
+                .failureRateThreshold(PoolSettings.doubleProperty(properties, "db.circuit.failureRateThreshold",
+                        defaults.failureRateThreshold))
+                .slidingWindowSize(PoolSettings.intProperty(properties, "db.circuit.slidingWindowSize",
+                        defaults.slidingWindowSize))
+                .minimumCalls(PoolSettings.intProperty(properties, "db.circuit.minimumCalls", defaults.minimumCalls))
+                .openDurationMillis(PoolSettings.longProperty(properties, "db.circuit.openDurationMillis",
+                        defaults.openDurationMillis))
+                .halfOpenTrialCalls(PoolSettings.intProperty(properties, "db.circuit.halfOpenTrialCalls",
+                        defaults.halfOpenTrialCalls))
+                .build();
+
+        settings.validate();
+        return settings;
+    }
+
+    /**
+     * Validasi bahwa kombinasi nilai circuit breaker masuk akal
+     */
+    public void validate() {
+        if (consecutiveFailureThreshold < 1) {
+            throw new RuntimeException("db.circuit.consecutiveFailureThreshold minimal 1");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new RuntimeException("db.circuit.failureRateThreshold harus di antara 0 dan 100");
+        }
+        if (slidingWindowSize < 1 || minimumCalls < 1 || minimumCalls > slidingWindowSize) {
+            throw new RuntimeException("db.circuit.minimumCalls harus di antara 1 dan slidingWindowSize");
+        }
+        if (openDurationMillis <= 0) {
+            throw new RuntimeException("db.circuit.openDurationMillis harus lebih besar dari 0");
+        }
+        if (halfOpenTrialCalls < 1) {
+            throw new RuntimeException("db.circuit.halfOpenTrialCalls minimal 1");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.praktikum.database.testing.library.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proxy koneksi yang menjalankan callback tepat satu kali ketika koneksi di-close
+ * Dipakai oleh Bulkhead dan AdaptiveConcurrencyLimiter untuk melepas permit
+ *
+ * Jika koneksi tidak pernah di-close, callback dijalankan oleh Cleaner saat proxy di-GC
+ */
+final class CloseCallbackConnection implements InvocationHandler {
+    private final Connection delegate;
+    private final Runnable onClose;
+
+    private CloseCallbackConnection(Connection delegate, Runnable onClose) {
+        this.delegate = delegate;
+        this.onClose = onClose;
+    }
+
+    /**
+     * @param delegate Koneksi yang dibungkus (semua method diteruskan)
+     * @param onClose Callback setelah close(), tidak boleh mereferensikan proxy
+     */
+    static Connection wrap(Connection delegate, Runnable onClose) {
+        AtomicBoolean done = new AtomicBoolean();
+        Runnable once = () -> {
+            if (done.compareAndSet(false, true)) {
+                onClose.run();
+            }
+        };
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new CloseCallbackConnection(delegate, once));
+        ConnectionPool.CLEANER.register(proxy, once);
+        return proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                try {
+                    delegate.close();
+                } finally {
+                    onClose.run();
+                }
+                return null;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Dilempar ketika AdaptiveConcurrencyLimiter menolak query baru
+ * karena jumlah query in-flight sudah mencapai limit dan antrian penuh atau timeout
+ *
+ * Transient: caller boleh retry setelah beberapa saat
+ */
+public class ConcurrencyLimitExceededException extends SQLTransientConnectionException {
+    private final int limit;
+    private final int inFlight;
+
+    public ConcurrencyLimitExceededException(String reason, int limit, int inFlight) {
+        super(reason + " (limit=" + limit + ", inFlight=" + inFlight + ")", "08001");
+        this.limit = limit;
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * @return limit in-flight saat query ditolak
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return jumlah query in-flight saat query ditolak
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,24 @@
+package com.praktikum.database.testing.library.config;
+
+/**
+ * Interface JMX untuk memantau AdaptiveConcurrencyLimiter
+ * ObjectName: com.praktikum.database.testing.library:type=ConcurrencyLimiter,name=&lt;name&gt;
+ */
+public interface ConcurrencyLimiterMXBean {
+
+    int getLimit();
+
+    int getInFlight();
+
+    int getQueued();
+
+    long getAcquiredCount();
+
+    long getRejectedCount();
+
+    long getLimitIncreases();
+
+    long getLimitDecreases();
+
+    double getAverageLatencyMillis();
+}
@@ -0,0 +1,123 @@
+package com.praktikum.database.testing.library.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Memantau satu file konfigurasi dan memanggil callback ketika file berubah
+ * Editor biasanya menulis file dalam beberapa langkah (truncate, write, rename), jadi event
+ * yang berdekatan dikumpulkan dulu selama debounceMillis lalu callback dipanggil sekali
+ */
+final class ConfigFileWatcher implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ConfigFileWatcher.class.getName());
+
+    private final Path file;
+    private final long debounceMillis;
+    private final Runnable onChange;
+
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+
+    ConfigFileWatcher(Path file, long debounceMillis, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.onChange = onChange;
+    }
+
+    /**
+     * Mulai memantau direktori file di daemon thread
+     * Jika WatchService tidak tersedia, watcher tidak aktif dan hanya menulis warning
+     */
+    synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watchService = service;
+        } catch (IOException e) {
+            logger.warning("Gagal memantau " + file + ": " + e.getMessage());
+            return;
+        }
+        thread = new Thread(this::watchLoop, "db-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Memantau perubahan konfigurasi: " + file);
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean relevant = drain(key);
+
+                // Kumpulkan event lanjutan dari penulisan yang sama sebelum reload
+                WatchKey next;
+                while ((next = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(next);
+                }
+                if (relevant) {
+                    logger.info("File konfigurasi berubah: " + file);
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException e) {
+                        logger.warning("Reload konfigurasi gagal: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() dipanggil
+        }
+    }
+
+    /**
+     * @return true jika salah satu event menyangkut file yang dipantau
+     */
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path changed && changed.equals(file.getFileName()))) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        Thread current = thread;
+        thread = null;
+        if (current != null) {
+            current.interrupt();
+        }
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                logger.fine("Gagal menutup WatchService: " + e.getMessage());
+            }
+        }
+    }
+}
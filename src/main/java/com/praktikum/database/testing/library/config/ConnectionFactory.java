@@ -0,0 +1,20 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Factory untuk membuat koneksi fisik baru ke database
+ * Dipakai oleh ConnectionPool sehingga cara membuka koneksi bisa diganti
+ * (misalnya DriverManager untuk production, atau stand-in untuk testing)
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    /**
+     * Membuka koneksi fisik baru ke database
+     * @return Connection baru yang belum pernah dipakai
+     * @throws SQLException jika gagal membuat koneksi
+     */
+    Connection createConnection() throws SQLException;
+}
@@ -0,0 +1,635 @@
+package com.praktikum.database.testing.library.config;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Connection pool sederhana di belakang DatabaseConfig.getConnection()
+ * Menyimpan koneksi fisik yang sudah terbuka supaya DAO tidak perlu
+ * melakukan handshake TCP/TLS baru ke PostgreSQL di setiap query
+ *
+ * Fitur: batas maxTotal dengan acquire timeout, idle eviction,
+ * menjaga minIdle, validasi koneksi saat dipinjam (testOnBorrow),
+ * dan leak detection untuk koneksi yang ditahan terlalu lama atau tidak pernah di-close
+ *
+ * Ukuran pool dan ConnectionFactory bisa diganti saat runtime lewat reconfigure()
+ * (hot reload konfigurasi) tanpa menutup pool
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+    // Logger untuk mencatat aktivitas pool
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    // Interval cek ulang slot saat borrower menunggu koneksi yang sedang dibuat fill()
+    private static final long SLOT_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Cleaner untuk mendeteksi Connection proxy yang di-garbage collect tanpa close()
+    static final Cleaner CLEANER = Cleaner.create();
+
+    private final String name;
+    private volatile ConnectionFactory connectionFactory;
+    private volatile PoolSettings settings;
+
+    // Naik setiap kali ConnectionFactory diganti; koneksi dari generasi lama di-drain
+    private volatile int generation;
+
+    // Koneksi idle disimpan LIFO supaya koneksi yang paling "hangat" dipakai lebih dulu
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    // Koneksi yang sedang dipinjam caller
+    private final Set<PooledConnection> activeConnections = ConcurrentHashMap.newKeySet();
+
+    // Satu permit untuk setiap koneksi yang boleh dipinjam bersamaan (maxTotal)
+    private final ResizableSemaphore permits;
+
+    // Jumlah koneksi fisik yang sedang terbuka (active + idle)
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    // Thread background untuk eviction dan menjaga minIdle
+    private final ScheduledExecutorService housekeeper;
+
+    // Counter hit/miss prepared statement cache dari semua koneksi di pool ini
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+
+    // Counter leak detection
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder leaksReclaimed = new LongAdder();
+
+    // Counter dan histogram acquire/creation, juga dipublikasikan lewat JMX
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(this);
+    private volatile ObjectName registeredMBeanName;
+
+    // Circuit breaker untuk acquire koneksi dan eksekusi statement (null = nonaktif)
+    private volatile CircuitBreaker circuitBreaker;
+
+    private volatile boolean closed;
+
+    /**
+     * Membuat pool baru. Constructor tidak membuka koneksi apapun,
+     * gunakan fill() untuk membuka koneksi awal (initialSize)
+     * @param name Nama pool untuk logging
+     * @param connectionFactory Factory untuk membuat koneksi fisik
+     * @param settings Konfigurasi pool
+     */
+    public ConnectionPool(String name, ConnectionFactory connectionFactory, PoolSettings settings) {
+        settings.validate();
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+        this.settings = settings;
+        this.permits = new ResizableSemaphore(settings.getMaxTotal());
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-" + name + "-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.getTimeBetweenEvictionRunsMillis();
+        housekeeper.scheduleWithFixedDelay(this::runHousekeeping, interval, interval, TimeUnit.MILLISECONDS);
+
+        if (settings.getLeakDetectionThresholdMillis() > 0) {
+            long leakCheckInterval = Math.max(1_000, settings.getLeakDetectionThresholdMillis() / 2);
+            housekeeper.scheduleWithFixedDelay(this::detectLeaks, leakCheckInterval, leakCheckInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        logger.info("Connection pool '" + name + "' dibuat: " + settings);
+    }
+
+    /**
+     * Meminjam koneksi dari pool. Koneksi harus ditutup (close) untuk
+     * dikembalikan ke pool, sebaiknya dengan try-with-resources
+     * @return Connection yang siap dipakai
+     * @throws SQLException jika timeout menunggu koneksi (maxWaitMillis atau sisa Deadline operasi)
+     *                      atau gagal membuat koneksi
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + name + "' sudah ditutup", "08003");
+        }
+
+        if (Deadline.isExpired()) {
+            throw Deadline.expired("koneksi dari pool '" + name + "'");
+        }
+
+        // Fail fast tanpa menunggu connect timeout jika database sedang dianggap down
+        CircuitBreaker breaker = circuitBreaker;
+        long trial = breaker != null ? breaker.acquirePermission() : 0;
+
+        // Menunggu paling lama maxWaitMillis atau sisa deadline operasi, mana yang lebih dulu
+        long startNanos = System.nanoTime();
+        long waitNanos = Deadline.capWaitNanos(settings.getMaxWaitMillis());
+        try {
+            acquirePermit(waitNanos);
+        } catch (SQLException e) {
+            if (breaker != null) {
+                breaker.onFailure(e, trial);
+            }
+            throw e;
+        }
+        PooledConnection pooled = null;
+        try {
+            pooled = borrowOrCreate(startNanos + waitNanos);
+            activeConnections.add(pooled);
+            metrics.recordAcquire(System.nanoTime() - startNanos);
+            Connection lease = pooled.lease(settings.getLeakDetectionThresholdMillis() > 0);
+            if (breaker != null) {
+                breaker.onSuccess(trial);
+            }
+            return lease;
+        } catch (SQLException | RuntimeException e) {
+            // Koneksi yang sudah diambil tapi gagal di-lease tidak boleh tertinggal di activeConnections
+            if (pooled != null) {
+                activeConnections.remove(pooled);
+                destroy(pooled);
+            }
+            permits.release();
+            if (breaker != null && e instanceof SQLException sqlException) {
+                breaker.onFailure(sqlException, trial);
+            }
+            throw e;
+        }
+    }
+
+    private void acquirePermit(long waitNanos) throws SQLException {
+        long maxWait = settings.getMaxWaitMillis();
+        try {
+            if (!permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                if (Deadline.isExpired()) {
+                    throw Deadline.expired("koneksi dari pool '" + name + "'");
+                }
+                metrics.recordAcquireTimeout();
+                throw new SQLTransientConnectionException("Timeout menunggu koneksi dari pool '" + name
+                        + "' setelah " + maxWait + " ms (active: " + activeConnections.size()
+                        + ", maxTotal: " + settings.getMaxTotal() + ")", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted saat menunggu koneksi dari pool '"
+                    + name + "'", "08001", e);
+        }
+    }
+
+    /**
+     * Ambil koneksi idle (dengan validasi jika testOnBorrow aktif),
+     * atau buat koneksi baru jika tidak ada yang idle
+     * Slot koneksi baru di-reserve lebih dulu (sama dengan fill()), jadi koneksi fisik tidak pernah
+     * melewati maxTotal. Jika semua slot sedang dipakai koneksi yang dibuat fill() atau sedang ditutup,
+     * caller menunggu koneksi idle sampai deadline
+     * @param deadlineNanos Batas waktu menunggu (System.nanoTime), dari maxWaitMillis atau sisa Deadline operasi
+     */
+    private PooledConnection borrowOrCreate(long deadlineNanos) throws SQLException {
+        while (true) {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (pooled.getGeneration() != generation) {
+                    destroy(pooled);
+                    continue;
+                }
+                if (!settings.isTestOnBorrow() || pooled.isValid(settings.getValidationQueryTimeout())) {
+                    return pooled;
+                }
+                logger.fine("Koneksi idle tidak valid, dibuang dari pool '" + name + "'");
+                destroy(pooled);
+            }
+            if (reserveSlot()) {
+                try {
+                    return newPooledConnection();
+                } catch (SQLException | RuntimeException e) {
+                    totalConnections.decrementAndGet();
+                    throw e;
+                }
+            }
+
+            // Cek ulang secara berkala, slot juga bisa bebas tanpa koneksi idle baru (fill gagal, koneksi ditutup)
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                if (Deadline.isExpired()) {
+                    throw Deadline.expired("slot koneksi di pool '" + name + "'");
+                }
+                metrics.recordAcquireTimeout();
+                throw new SQLTransientConnectionException("Timeout menunggu slot koneksi di pool '" + name
+                        + "' (total: " + totalConnections.get() + ", maxTotal: " + settings.getMaxTotal() + ")",
+                        "08001");
+            }
+            try {
+                pooled = idleConnections.pollFirst(Math.min(remainingNanos, SLOT_RECHECK_NANOS), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted saat menunggu koneksi dari pool '"
+                        + name + "'", "08001", e);
+            }
+            if (pooled != null) {
+                // Divalidasi lewat jalur idle di atas
+                idleConnections.offerFirst(pooled);
+            }
+        }
+    }
+
+    private PooledConnection newPooledConnection() throws SQLException {
+        int currentGeneration = generation;
+        Connection physical;
+        try {
+            physical = connectionFactory.createConnection();
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordConnectionCreationFailure();
+            throw e;
+        }
+        metrics.recordConnectionCreated();
+        try {
+            int cacheSize = settings.isPoolPreparedStatements() ? settings.getMaxOpenPreparedStatements() : 0;
+            return new PooledConnection(this, physical, currentGeneration, cacheSize, statementCacheStats);
+        } catch (SQLException | RuntimeException e) {
+            physical.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Dipanggil oleh PooledConnection ketika caller menutup koneksi
+     * @param pooled Koneksi yang dikembalikan
+     * @param broken true jika koneksi mengalami error level koneksi
+     */
+    void release(PooledConnection pooled, boolean broken) {
+        activeConnections.remove(pooled);
+        try {
+            pooled.markReturned();
+            if (closed || broken || pooled.getGeneration() != generation
+                    || !pooled.reset() || idleConnections.size() >= settings.getMaxIdle()) {
+                destroy(pooled);
+            } else {
+                idleConnections.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        metrics.recordConnectionDestroyed();
+        pooled.closePhysical();
+    }
+
+    /**
+     * Membuka koneksi sampai jumlah koneksi idle mencapai target
+     * Dipakai untuk initialSize saat startup dan minIdle oleh housekeeper
+     * @param targetIdle Jumlah koneksi idle yang diinginkan
+     * @return jumlah koneksi baru yang berhasil dibuat
+     */
+    public int fill(int targetIdle) {
+        CircuitBreaker breaker = circuitBreaker;
+        if (breaker != null && breaker.getState() == CircuitBreaker.State.OPEN) {
+            // Jangan menunggu connect timeout di housekeeper selama database dianggap down
+            return 0;
+        }
+        int created = 0;
+        while (!closed && idleConnections.size() < targetIdle && reserveSlot()) {
+            try {
+                idleConnections.offerLast(newPooledConnection());
+                created++;
+            } catch (SQLException e) {
+                totalConnections.decrementAndGet();
+                logger.warning("Gagal membuat koneksi untuk pool '" + name + "': " + e.getMessage());
+                break;
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Menerapkan konfigurasi baru tanpa menutup pool (hot reload)
+     *
+     * - maxTotal naik/turun langsung: permit ditambah atau dikurangi, jika turun
+     *   peminjam baru menunggu sampai koneksi aktif yang berlebih dikembalikan
+     * - maxIdle/minIdle/maxWait/eviction/testOnBorrow berlaku di operasi berikutnya
+     * - Jika newFactory tidak null (URL/credentials/timeout koneksi berubah), koneksi idle lama
+     *   langsung ditutup dan koneksi aktif lama ditutup saat dikembalikan (graceful drain);
+     *   koneksi baru dibuat dengan factory baru
+     *
+     * Interval housekeeper dan jadwal leak detection tetap mengikuti settings saat pool dibuat
+     * @param newFactory Factory koneksi baru, atau null jika tidak berubah
+     * @param newSettings Konfigurasi pool baru
+     */
+    public synchronized void reconfigure(ConnectionFactory newFactory, PoolSettings newSettings) {
+        newSettings.validate();
+        PoolSettings previous = settings;
+        int delta = newSettings.getMaxTotal() - previous.getMaxTotal();
+        settings = newSettings;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+
+        int drained = 0;
+        if (newFactory != null) {
+            connectionFactory = newFactory;
+            generation++;
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                destroy(pooled);
+                drained++;
+            }
+        } else {
+            PooledConnection pooled;
+            while (idleConnections.size() > newSettings.getMaxIdle()
+                    && (pooled = idleConnections.pollLast()) != null) {
+                destroy(pooled);
+                drained++;
+            }
+        }
+        logger.info("Connection pool '" + name + "' dikonfigurasi ulang: maxTotal " + previous.getMaxTotal()
+                + " -> " + newSettings.getMaxTotal() + (newFactory != null ? ", factory baru" : "")
+                + ", " + drained + " koneksi idle ditutup, " + activeConnections.size()
+                + " koneksi aktif di-drain saat dikembalikan");
+    }
+
+    /**
+     * Reserve slot koneksi baru tanpa melewati maxTotal
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= settings.getMaxTotal()) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Eviction koneksi yang idle terlalu lama, lalu jaga jumlah minIdle
+     */
+    void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            fill(settings.getMinIdle());
+        } catch (RuntimeException e) {
+            logger.warning("Housekeeping pool '" + name + "' gagal: " + e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        // Iterasi dari koneksi yang paling lama idle (ujung belakang deque)
+        Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext() && idleConnections.size() > settings.getMinIdle()) {
+            PooledConnection pooled = iterator.next();
+            if (pooled.getIdleMillis(now) >= settings.getMinEvictableIdleTimeMillis()
+                    && idleConnections.removeLastOccurrence(pooled)) {
+                logger.fine("Evict koneksi idle dari pool '" + name + "'");
+                destroy(pooled);
+            }
+        }
+    }
+
+    /**
+     * Cek koneksi aktif yang ditahan lebih lama dari leakDetectionThresholdMillis
+     * Setiap peminjaman hanya dilaporkan sekali
+     */
+    void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : activeConnections) {
+            if (pooled.reportIfHeldTooLong(now, settings.getLeakDetectionThresholdMillis())) {
+                leaksDetected.increment();
+            }
+        }
+    }
+
+    void recordLeakReclaimed() {
+        leaksReclaimed.increment();
+    }
+
+    /**
+     * Snapshot semua koneksi yang sedang dipinjam, urut dari yang paling lama ditahan
+     * Berisi hold time, thread peminjam, stack trace, dan jumlah statement/ResultSet yang terbuka
+     * @return List of ConnectionUsage
+     */
+    public List<ConnectionUsage> getActiveConnectionUsages() {
+        long now = System.currentTimeMillis();
+        List<ConnectionUsage> usages = new ArrayList<>();
+        for (PooledConnection pooled : activeConnections) {
+            ConnectionUsage usage = pooled.usage(now, settings.getLeakDetectionThresholdMillis());
+            if (usage != null) {
+                usages.add(usage);
+            }
+        }
+        usages.sort((a, b) -> Long.compare(b.getHeldMillis(), a.getHeldMillis()));
+        return usages;
+    }
+
+    /**
+     * @return jumlah koneksi yang dilaporkan ditahan melewati leak threshold
+     */
+    public long getLeaksDetected() {
+        return leaksDetected.sum();
+    }
+
+    /**
+     * @return jumlah koneksi yang tidak pernah di-close dan diambil kembali oleh pool
+     */
+    public long getLeaksReclaimed() {
+        return leaksReclaimed.sum();
+    }
+
+    /**
+     * @return snapshot metrics pool saat ini (acquire wait, active/idle, creation, timeout)
+     */
+    public PoolMetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Reset histogram latency acquire, misalnya sebelum menjalankan satu skenario benchmark
+     */
+    public void resetAcquireWaitHistogram() {
+        metrics.resetAcquireWaitHistogram();
+    }
+
+    /**
+     * Mendaftarkan MBean pool ini ke platform MBeanServer
+     * ObjectName: com.praktikum.database.testing.library:type=ConnectionPool,name=&lt;name&gt;
+     */
+    public synchronized void registerMBean() {
+        if (registeredMBeanName != null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(
+                    "com.praktikum.database.testing.library:type=ConnectionPool,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new StandardMBean(metrics, ConnectionPoolMXBean.class, true), objectName);
+            registeredMBeanName = objectName;
+            logger.info("MBean terdaftar: " + objectName);
+        } catch (JMException e) {
+            logger.warning("Gagal mendaftarkan MBean untuk pool '" + name + "': " + e.getMessage());
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (registeredMBeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredMBeanName);
+        } catch (JMException e) {
+            logger.fine("Gagal unregister MBean: " + e.getMessage());
+        }
+        registeredMBeanName = null;
+    }
+
+    /**
+     * Menutup pool beserta semua koneksi idle
+     * Koneksi yang masih dipinjam akan ditutup saat dikembalikan
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+        unregisterMBean();
+
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        logger.info("Connection pool '" + name + "' ditutup");
+    }
+
+    /**
+     * Memasang circuit breaker untuk pool ini (null untuk menonaktifkan)
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PoolSettings getSettings() {
+        return settings;
+    }
+
+    public int getActiveCount() {
+        return activeConnections.size();
+    }
+
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return counter hit/miss prepared statement cache untuk pool ini
+     */
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Semaphore yang jumlah permit-nya bisa dikurangi saat maxTotal diturunkan
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    // ================================
+    // DataSource methods yang tidak dipakai oleh pool ini
+    // ================================
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool hanya mendukung credentials dari konfigurasi");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // Logging memakai java.util.logging
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // Timeout dikonfigurasi lewat PoolSettings.maxWaitMillis
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(settings.getMaxWaitMillis());
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() {
+        return logger;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool bukan wrapper untuk " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
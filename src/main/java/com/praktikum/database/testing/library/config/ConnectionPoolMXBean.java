@@ -0,0 +1,57 @@
+package com.praktikum.database.testing.library.config;
+
+/**
+ * Interface JMX untuk memantau ConnectionPool (misalnya lewat JConsole atau VisualVM)
+ * ObjectName: com.praktikum.database.testing.library:type=ConnectionPool,name=&lt;pool name&gt;
+ */
+public interface ConnectionPoolMXBean {
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getTotalConnections();
+
+    int getMaxTotal();
+
+    int getThreadsAwaitingConnection();
+
+    long getAcquireCount();
+
+    long getAcquireTimeouts();
+
+    double getAcquireWaitMeanMicros();
+
+    long getAcquireWaitP50Micros();
+
+    long getAcquireWaitP95Micros();
+
+    long getAcquireWaitP99Micros();
+
+    long getAcquireWaitMaxMicros();
+
+    long[] getAcquireWaitBucketCounts();
+
+    long[] getAcquireWaitBucketBoundsMicros();
+
+    long getConnectionsCreated();
+
+    long getConnectionsDestroyed();
+
+    long getConnectionCreationFailures();
+
+    double getConnectionCreationRatePerMinute();
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+
+    long getLeaksDetected();
+
+    long getLeaksReclaimed();
+
+    /**
+     * Reset histogram latency acquire (counter total tidak di-reset)
+     */
+    void resetAcquireWaitHistogram();
+}
@@ -0,0 +1,197 @@
+package com.praktikum.database.testing.library.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter dan histogram untuk satu ConnectionPool
+ * Juga menjadi implementasi ConnectionPoolMXBean yang didaftarkan ke JMX
+ */
+class ConnectionPoolMetrics implements ConnectionPoolMXBean {
+    private final ConnectionPool pool;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsDestroyed = new LongAdder();
+    private final LongAdder connectionCreationFailures = new LongAdder();
+
+    ConnectionPoolMetrics(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    void recordAcquire(long waitNanos) {
+        acquireCount.increment();
+        acquireWait.record(waitNanos);
+    }
+
+    void recordAcquireTimeout() {
+        acquireTimeouts.increment();
+    }
+
+    void recordConnectionCreated() {
+        connectionsCreated.increment();
+    }
+
+    void recordConnectionDestroyed() {
+        connectionsDestroyed.increment();
+    }
+
+    void recordConnectionCreationFailure() {
+        connectionCreationFailures.increment();
+    }
+
+    /**
+     * @return snapshot semua metrics saat ini
+     */
+    PoolMetricsSnapshot snapshot() {
+        StatementCacheStats cacheStats = pool.getStatementCacheStats();
+        return PoolMetricsSnapshot.builder()
+                .poolName(pool.getName())
+                .timestampMillis(System.currentTimeMillis())
+                .activeConnections(getActiveConnections())
+                .idleConnections(getIdleConnections())
+                .totalConnections(getTotalConnections())
+                .maxTotal(getMaxTotal())
+                .threadsAwaitingConnection(getThreadsAwaitingConnection())
+                .acquireCount(getAcquireCount())
+                .acquireTimeouts(getAcquireTimeouts())
+                .acquireWaitMeanMicros(getAcquireWaitMeanMicros())
+                .acquireWaitP50Micros(getAcquireWaitP50Micros())
+                .acquireWaitP95Micros(getAcquireWaitP95Micros())
+                .acquireWaitP99Micros(getAcquireWaitP99Micros())
+                .acquireWaitMaxMicros(getAcquireWaitMaxMicros())
+                .acquireWaitBucketCounts(getAcquireWaitBucketCounts())
+                .acquireWaitBucketBoundsMicros(getAcquireWaitBucketBoundsMicros())
+                .connectionsCreated(getConnectionsCreated())
+                .connectionsDestroyed(getConnectionsDestroyed())
+                .connectionCreationFailures(getConnectionCreationFailures())
+                .connectionCreationRatePerMinute(getConnectionCreationRatePerMinute())
+                .statementCacheHits(cacheStats.getHits())
+                .statementCacheMisses(cacheStats.getMisses())
+                .leaksDetected(pool.getLeaksDetected())
+                .leaksReclaimed(pool.getLeaksReclaimed())
+                .build();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return pool.getActiveCount();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return pool.getIdleCount();
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return pool.getTotalCount();
+    }
+
+    @Override
+    public int getMaxTotal() {
+        return pool.getSettings().getMaxTotal();
+    }
+
+    @Override
+    public int getThreadsAwaitingConnection() {
+        return pool.getThreadsAwaitingConnection();
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    @Override
+    public long getAcquireTimeouts() {
+        return acquireTimeouts.sum();
+    }
+
+    @Override
+    public double getAcquireWaitMeanMicros() {
+        return acquireWait.getMeanMicros();
+    }
+
+    @Override
+    public long getAcquireWaitP50Micros() {
+        return acquireWait.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getAcquireWaitP95Micros() {
+        return acquireWait.getPercentileMicros(95);
+    }
+
+    @Override
+    public long getAcquireWaitP99Micros() {
+        return acquireWait.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getAcquireWaitMaxMicros() {
+        return acquireWait.getMaxMicros();
+    }
+
+    @Override
+    public long[] getAcquireWaitBucketCounts() {
+        return acquireWait.getBucketCounts();
+    }
+
+    @Override
+    public long[] getAcquireWaitBucketBoundsMicros() {
+        return LatencyHistogram.getBucketBoundsMicros();
+    }
+
+    @Override
+    public long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    @Override
+    public long getConnectionsDestroyed() {
+        return connectionsDestroyed.sum();
+    }
+
+    @Override
+    public long getConnectionCreationFailures() {
+        return connectionCreationFailures.sum();
+    }
+
+    /**
+     * Rata-rata pembuatan koneksi fisik per menit sejak pool dibuat
+     * Nilai tinggi berarti koneksi sering dibuang (maxIdle terlalu kecil, atau banyak koneksi rusak)
+     */
+    @Override
+    public double getConnectionCreationRatePerMinute() {
+        double minutes = Math.max(1, System.currentTimeMillis() - startedAtMillis) / 60_000.0;
+        return getConnectionsCreated() / minutes;
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        return pool.getStatementCacheStats().getHits();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return pool.getStatementCacheStats().getMisses();
+    }
+
+    @Override
+    public long getLeaksDetected() {
+        return pool.getLeaksDetected();
+    }
+
+    @Override
+    public long getLeaksReclaimed() {
+        return pool.getLeaksReclaimed();
+    }
+
+    @Override
+    public void resetAcquireWaitHistogram() {
+        acquireWait.reset();
+    }
+}
@@ -0,0 +1,39 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot pemakaian satu koneksi yang sedang dipinjam dari ConnectionPool
+ * Dipakai untuk mencari koneksi yang ditahan terlalu lama atau bocor (tidak pernah di-close)
+ */
+@Getter
+@Builder
+@ToString(exclude = "acquiredStackTrace")
+public class ConnectionUsage {
+    // Nama pool asal koneksi
+    private final String poolName;
+
+    // Nama thread yang meminjam koneksi
+    private final String threadName;
+
+    // Waktu koneksi dipinjam (epoch millis)
+    private final long acquiredAtMillis;
+
+    // Lama koneksi sudah ditahan (ms)
+    private final long heldMillis;
+
+    // Jumlah Statement yang belum ditutup pada koneksi ini
+    private final int openStatements;
+
+    // Jumlah ResultSet yang belum ditutup pada koneksi ini
+    private final int openResultSets;
+
+    // true jika heldMillis melewati db.pool.leakDetectionThresholdMillis
+    private final boolean leakSuspected;
+
+    // Stack trace saat koneksi dipinjam (null jika capture dimatikan)
+    private final StackTraceElement[] acquiredStackTrace;
+}
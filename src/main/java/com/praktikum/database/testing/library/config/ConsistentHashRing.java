@@ -0,0 +1,72 @@
+package com.praktikum.database.testing.library.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring dengan virtual nodes
+ *
+ * Setiap node ditempatkan virtualNodes kali di ring (hash dari "nama#i"), key dipetakan ke
+ * node pertama searah jarum jam dari hash key. Menambah satu node hanya memindahkan
+ * sekitar 1/N key ke node baru; key lain tetap di node yang sama
+ * @param <T> Tipe node (misalnya index shard)
+ */
+public final class ConsistentHashRing<T> {
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+    private final int nodeCount;
+
+    /**
+     * @param nodes Node berdasarkan nama yang stabil (nama menentukan posisi di ring)
+     * @param virtualNodes Jumlah posisi per node, makin banyak makin rata distribusinya
+     */
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new RuntimeException("Consistent hash ring membutuhkan minimal satu node");
+        }
+        if (virtualNodes < 1) {
+            throw new RuntimeException("virtualNodes minimal 1");
+        }
+        for (Map.Entry<String, T> node : nodes.entrySet()) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node.getKey() + "#" + i), node.getValue());
+            }
+        }
+        this.nodeCount = nodes.size();
+    }
+
+    /**
+     * @return node yang memiliki key
+     */
+    public T nodeFor(String key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 64 bit pertama dari MD5: stabil antar JVM dan versi Java (berbeda dengan String.hashCode)
+     */
+    static long hash(String key) {
+        byte[] digest = md5().digest(key.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 tidak tersedia", e);
+        }
+    }
+}
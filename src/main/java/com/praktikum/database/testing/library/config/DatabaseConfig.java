@@ -2,35 +2,448 @@ package com.praktikum.database.testing.library.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 
 /**
  * Singleton class untuk mengelola koneksi database
  * Handle loading configuration, establishing connection, dan error handling
+ *
+ * Lifecycle: initialize() (load config, dipanggil otomatis saat class di-load),
+ * start() (test koneksi + warm-up pool secara async), awaitReady() dan shutdown()
+ *
+ * Konfigurasi bisa di-reload tanpa restart JVM lewat reload() atau otomatis ketika
+ * file database.properties berubah (db.config.watch=true)
  */
 public class DatabaseConfig {
     // Logger untuk mencatat aktivitas dan error
     private static final Logger logger = Logger.getLogger(DatabaseConfig.class.getName());
 
     // Properties object untuk menyimpan configuration dari file
-    private static Properties properties = new Properties();
+    private static volatile Properties properties = new Properties();
 
     // Database connection parameters
-    private static String DB_URL;
-    private static String DB_USERNAME;
-    private static String DB_PASSWORD;
-    private static String DB_DRIVER;
+    private static volatile String DB_URL;
+    private static volatile String DB_USERNAME;
+    private static volatile String DB_PASSWORD;
+    private static volatile String DB_DRIVER;
+
+    // Default batas waktu test koneksi + warm-up saat startup (ms)
+    private static final long DEFAULT_STARTUP_TIMEOUT_MILLIS = 30_000;
+    private static final int DEFAULT_WARMUP_LOOKUP_ITERATIONS = 3;
+    private static final int DEFAULT_STREAM_FETCH_SIZE = 500;
+    private static final String DEFAULT_SEARCH_TEXT_CONFIG = "simple";
+    private static final double DEFAULT_SEARCH_SIMILARITY_THRESHOLD = 0.3;
+
+    // Connection pool yang dipakai oleh getConnection() (null sebelum start())
+    private static volatile ConnectionPool connectionPool;
+
+    // Router read/write splitting ke read replicas (db.replica.urls)
+    private static volatile ReplicaRouter replicaRouter;
+
+    // Routing users/borrowings per user_id ke shard (null jika db.shard.urls kosong)
+    private static volatile ShardRouter shardRouter;
+
+    // Bulkhead koneksi per workload class (oltp, reporting, background)
+    private static volatile Map<WorkloadClass, Bulkhead> bulkheads;
+
+    // Limiter adaptif untuk query in-flight (null jika db.limiter.enabled=false)
+    private static volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    // Future yang selesai ketika startup async selesai (true jika database reachable)
+    private static volatile CompletableFuture<Boolean> readyFuture;
+
+    private static volatile boolean initialized;
+
+    // Query timeout per operasi DAO/service (db.timeout.*)
+    private static volatile QueryTimeouts queryTimeouts;
+
+    // Retry untuk kegagalan transient (db.retry.*)
+    private static volatile RetryPolicy retryPolicy;
+
+    // System property untuk memakai file konfigurasi di luar classpath
+    private static final String CONFIG_FILE_PROPERTY = "db.config.file";
+
+    // Property yang mempengaruhi koneksi fisik: jika berubah, ConnectionFactory diganti
+    private static final String[] CONNECTION_KEYS = {
+            "db.url", "db.username", "db.password", "db.connection.timeout", "db.socket.timeout"};
+
+    // Naik setiap kali reload() berhasil diterapkan
+    private static volatile long configVersion;
+
+    // Watcher file database.properties (null jika db.config.watch=false)
+    private static volatile ConfigFileWatcher configWatcher;
+
+    // Metrics waktu startup (time-to-ready, time-to-first-query)
+    private static final StartupMetrics startupMetrics = new StartupMetrics();
+
+    // Executor untuk startup async, memakai daemon thread supaya tidak menahan JVM shutdown
+    private static final Executor startupExecutor = task -> {
+        Thread thread = new Thread(task, "db-config-startup");
+        thread.setDaemon(true);
+        thread.start();
+    };
 
     // Static initialization block - dieksekusi sekali ketika class pertama kali loaded
+    // Hanya load configuration (tanpa network round trip), koneksi dibuka oleh start()
     static {
-        // Load configuration ketika class pertama kali di-load
+        initialize();
+    }
+
+    /**
+     * Load dan validasi configuration dari database.properties
+     * Dipanggil otomatis saat class di-load, aman dipanggil berkali-kali
+     */
+    public static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        startupMetrics.recordInitializeStarted();
         loadProperties();
-        // Test koneksi database saat startup
-        testConnection();
+        queryTimeouts = QueryTimeouts.fromProperties(properties);
+        retryPolicy = new RetryPolicy(RetrySettings.fromProperties(properties));
+        startupMetrics.recordConfigLoaded();
+        initialized = true;
+    }
+
+    /**
+     * Memulai connection pool secara non-blocking
+     * Test koneksi (jika db.test.on.startup=true) dan warm-up initialsize koneksi
+     * dijalankan di background thread dengan batas waktu db.startup.timeoutMillis
+     * @return Future yang selesai dengan true jika database siap, false jika gagal/timeout
+     */
+    public static synchronized CompletableFuture<Boolean> start() {
+        initialize();
+        if (readyFuture != null) {
+            return readyFuture;
+        }
+
+        startupMetrics.recordStartRequested();
+        ConnectionPool pool = createConnectionPool();
+        pool.registerMBean();
+        ReplicaRouter router = createReplicaRouter(pool);
+        router.getReplicas().forEach(ConnectionPool::registerMBean);
+        ShardRouter shards = createShardRouter(pool.getSettings());
+        if (shards != null) {
+            shards.getShards().forEach(ConnectionPool::registerMBean);
+        }
+        attachCircuitBreakers(managedPools(router, shards));
+        bulkheads = createBulkheads(properties, pool.getSettings());
+        concurrencyLimiter = createConcurrencyLimiter(pool.getSettings());
+        connectionPool = pool;
+        replicaRouter = router;
+        shardRouter = shards;
+        configWatcher = createConfigWatcher();
+
+        long timeoutMillis = PoolSettings.longProperty(properties, "db.startup.timeoutMillis",
+                DEFAULT_STARTUP_TIMEOUT_MILLIS);
+        boolean testOnStartup = Boolean.parseBoolean(
+                properties.getProperty("db.test.on.startup", "true").trim());
+        List<SqlStatement> warmupStatements = loadWarmupStatements(properties);
+        int lookupIterations = PoolSettings.booleanProperty(properties, "db.warmup.runLookups", true)
+                ? PoolSettings.intProperty(properties, "db.warmup.lookupIterations", DEFAULT_WARMUP_LOOKUP_ITERATIONS)
+                : 0;
+
+        readyFuture = CompletableFuture
+                .supplyAsync(() -> warmUp(router, shards, testOnStartup, warmupStatements, lookupIterations),
+                        startupExecutor)
+                .completeOnTimeout(false, timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    logger.severe("Startup database gagal: " + e.getMessage());
+                    return false;
+                });
+        return readyFuture;
+    }
+
+    /**
+     * Test koneksi, buka koneksi awal pool, lalu siapkan statement DAO (dijalankan di startup thread)
+     */
+    private static boolean warmUp(ReplicaRouter router, ShardRouter shards, boolean testOnStartup,
+                                  List<SqlStatement> warmupStatements, int lookupIterations) {
+        if (testOnStartup) {
+            boolean connected = testConnection();
+            startupMetrics.recordConnectivityChecked();
+            if (!connected) {
+                return false;
+            }
+        }
+        ConnectionPool pool = router.getPrimary();
+        int warmed = pool.fill(pool.getSettings().getInitialSize());
+        for (ConnectionPool replica : router.getReplicas()) {
+            // Replica yang belum reachable tidak menggagalkan startup, read fallback ke primary
+            replica.fill(replica.getSettings().getInitialSize());
+        }
+        if (shards != null) {
+            for (ConnectionPool shard : shards.getShards()) {
+                shard.fill(shard.getSettings().getInitialSize());
+            }
+        }
+        warmStatements(router, shards, warmupStatements, lookupIterations);
+        startupMetrics.recordPoolWarmed(warmed);
+        logger.info("Database siap - " + startupMetrics);
+        return true;
+    }
+
+    /**
+     * Memuat class registry SQL (db.warmup.statements) supaya statement-nya terdaftar di SqlRegistry
+     * @return statement yang akan di-warm, kosong jika db.warmup.enabled=false
+     */
+    private static List<SqlStatement> loadWarmupStatements(Properties config) {
+        if (!PoolSettings.booleanProperty(config, "db.warmup.enabled", true)) {
+            return Collections.emptyList();
+        }
+        String registry = config.getProperty("db.warmup.statements");
+        if (!isBlank(registry)) {
+            try {
+                Class.forName(registry.trim());
+            } catch (ClassNotFoundException e) {
+                logger.warning("Registry SQL " + registry + " tidak ditemukan, warm-up statement dilewati");
+            }
+        }
+        return SqlRegistry.all();
+    }
+
+    /**
+     * Menyiapkan statement di setiap koneksi primary dan shard, replica hanya statement read-only
+     * Kegagalan warm-up tidak menggagalkan startup: statement akan di-prepare saat pertama dipakai
+     */
+    private static void warmStatements(ReplicaRouter router, ShardRouter shards,
+                                       List<SqlStatement> statements, int lookupIterations) {
+        if (statements.isEmpty()) {
+            return;
+        }
+        int prepared = warmStatements(router.getPrimary(), statements, lookupIterations);
+        List<SqlStatement> readOnly = new ArrayList<>();
+        for (SqlStatement statement : statements) {
+            if (statement.isReadOnly()) {
+                readOnly.add(statement);
+            }
+        }
+        for (ConnectionPool replica : router.getReplicas()) {
+            prepared += warmStatements(replica, readOnly, lookupIterations);
+        }
+        if (shards != null) {
+            for (ConnectionPool shard : shards.getShards()) {
+                prepared += warmStatements(shard, statements, lookupIterations);
+            }
+        }
+        startupMetrics.recordStatementsWarmed(prepared);
+    }
+
+    private static int warmStatements(ConnectionPool pool, List<SqlStatement> statements, int lookupIterations) {
+        try {
+            WarmupReport report = StatementWarmer.warmUp(pool, statements, lookupIterations);
+            logger.info("Warm-up statement selesai: " + report);
+            return report.getStatementsPrepared();
+        } catch (SQLException e) {
+            logger.warning("Warm-up statement " + pool.getName() + " gagal: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Menunggu sampai startup selesai (memanggil start() jika belum)
+     * @param timeout Batas waktu menunggu
+     * @param unit Satuan waktu timeout
+     * @return true jika database siap dalam batas waktu, false jika gagal atau timeout
+     */
+    public static boolean awaitReady(long timeout, TimeUnit unit) {
+        try {
+            return start().get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warning("Database belum siap setelah " + unit.toMillis(timeout) + " ms");
+            return false;
+        }
+    }
+
+    /**
+     * @return true jika startup sudah selesai dan database reachable
+     */
+    public static boolean isReady() {
+        CompletableFuture<Boolean> future = readyFuture;
+        return future != null && future.isDone() && future.getNow(false);
+    }
+
+    /**
+     * Menutup connection pool. Setelah shutdown, start() atau getConnection()
+     * berikutnya akan membuat pool baru
+     */
+    public static synchronized void shutdown() {
+        ConfigFileWatcher watcher = configWatcher;
+        configWatcher = null;
+        if (watcher != null) {
+            watcher.close();
+        }
+        ConnectionPool pool = connectionPool;
+        ReplicaRouter router = replicaRouter;
+        ShardRouter shards = shardRouter;
+        connectionPool = null;
+        replicaRouter = null;
+        shardRouter = null;
+        bulkheads = null;
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+        concurrencyLimiter = null;
+        if (limiter != null) {
+            limiter.unregisterMBean();
+        }
+        readyFuture = null;
+        if (router != null) {
+            detachCircuitBreakers(managedPools(router, shards));
+            router.close();
+        }
+        if (shards != null) {
+            shards.close();
+        }
+        if (pool != null) {
+            pool.close();
+        }
+        startupMetrics.resetRuntimeEvents();
+        logger.info("DatabaseConfig shutdown selesai");
+    }
+
+    /**
+     * Getter untuk query timeout per operasi dan jumlah timeout yang sudah terjadi
+     */
+    public static QueryTimeouts getQueryTimeouts() {
+        initialize();
+        return queryTimeouts;
+    }
+
+    /**
+     * Jumlah baris per fetch untuk query streaming (db.stream.fetchSize)
+     * Dibaca ulang setiap kali supaya ikut hot reload
+     */
+    public static int getStreamFetchSize() {
+        initialize();
+        int fetchSize = PoolSettings.intProperty(properties, "db.stream.fetchSize", DEFAULT_STREAM_FETCH_SIZE);
+        return fetchSize > 0 ? fetchSize : DEFAULT_STREAM_FETCH_SIZE;
+    }
+
+    /**
+     * Text search configuration untuk full-text search books (db.search.textConfig)
+     * Nilainya ikut ditulis ke DDL kolom search_vector, jadi hanya nama identifier yang diterima
+     */
+    public static String getSearchTextConfig() {
+        initialize();
+        String textConfig = properties.getProperty("db.search.textConfig", DEFAULT_SEARCH_TEXT_CONFIG).trim();
+        if (!textConfig.matches("[a-z_][a-z0-9_]*")) {
+            throw new RuntimeException("db.search.textConfig bukan nama text search configuration: " + textConfig);
+        }
+        return textConfig;
+    }
+
+    /**
+     * Batas minimal similarity pg_trgm untuk fuzzy search books (db.search.similarityThreshold)
+     */
+    public static double getSearchSimilarityThreshold() {
+        initialize();
+        double threshold = PoolSettings.doubleProperty(properties, "db.search.similarityThreshold",
+                DEFAULT_SEARCH_SIMILARITY_THRESHOLD);
+        if (threshold <= 0 || threshold > 1) {
+            throw new RuntimeException("db.search.similarityThreshold harus di antara 0 (eksklusif) dan 1");
+        }
+        return threshold;
+    }
+
+    /**
+     * Getter untuk retry policy beserta statistik retry per operasi
+     */
+    public static RetryPolicy getRetryPolicy() {
+        initialize();
+        return retryPolicy;
+    }
+
+    /**
+     * Menjalankan seluruh transaksi di satu koneksi (autocommit off), commit jika sukses
+     * dan rollback jika gagal. Jika gagal karena error transient (deadlock, serialization
+     * failure, koneksi putus), seluruh transaksi diulang sesuai RetryPolicy
+     * @param operation Nama operasi untuk statistik retry (misalnya BorrowingService.borrowBook)
+     * @param callback Isi transaksi, harus idempotent jika dijalankan ulang dari awal
+     * @return hasil callback
+     * @throws SQLException jika transaksi tetap gagal
+     */
+    public static <T> T inTransaction(String operation, TransactionCallback<T> callback) throws SQLException {
+        return inTransaction(operation, DatabaseConfig::getConnection, callback);
+    }
+
+    /**
+     * Sama dengan inTransaction, tetapi di shard milik user (tanpa sharding: primary)
+     * Transaksi hanya mencakup satu shard, tidak ada commit atomik antar shard
+     * @param operation Nama operasi untuk statistik retry
+     * @param userId User yang menentukan shard
+     * @param callback Isi transaksi, harus idempotent jika dijalankan ulang dari awal
+     * @return hasil callback
+     * @throws SQLException jika transaksi tetap gagal
+     */
+    public static <T> T inShardTransaction(String operation, int userId, TransactionCallback<T> callback)
+            throws SQLException {
+        return inTransaction(operation, () -> getShardConnection(userId), callback);
+    }
+
+    /**
+     * Sama dengan inTransaction, tetapi di koneksi read-only (read replica jika tersedia)
+     * Dipakai untuk query yang butuh setting sesi lokal (set_config(..., true)) yang hilang saat commit
+     * @param operation Nama operasi untuk statistik retry
+     * @param workload Workload class untuk bulkhead koneksi
+     * @param callback Isi transaksi, hanya boleh membaca data
+     * @return hasil callback
+     * @throws SQLException jika transaksi tetap gagal
+     */
+    public static <T> T inReadTransaction(String operation, WorkloadClass workload,
+                                          TransactionCallback<T> callback) throws SQLException {
+        return inTransaction(operation, () -> getReadConnection(workload), callback);
+    }
+
+    private static <T> T inTransaction(String operation, ConnectionFactory source,
+                                       TransactionCallback<T> callback) throws SQLException {
+        return getRetryPolicy().execute(operation, () -> {
+            try (Connection conn = source.createConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    T result = callback.doInTransaction(conn);
+                    conn.commit();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException rollbackError) {
+                        e.addSuppressed(rollbackError);
+                    }
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Getter untuk startup metrics (time-to-ready dan time-to-first-query)
+     */
+    public static StartupMetrics getStartupMetrics() {
+        return startupMetrics;
     }
 
     /**
@@ -38,10 +451,27 @@ public class DatabaseConfig {
      * Method ini dipanggil otomatis ketika class pertama kali di-load
      */
     private static void loadProperties() {
+        Properties loaded = readProperties();
+
+        // Validasi bahwa semua configuration required ada
+        validateConfiguration(loaded);
+
+        applyProperties(loaded);
+        logger.info("Database configuration berhasil di-load");
+    }
+
+    /**
+     * Baca database.properties dari file -Ddb.config.file (jika di-set) atau dari classpath
+     * @return Properties baru, belum divalidasi
+     */
+    private static Properties readProperties() {
+        Properties loaded = new Properties();
+        String configFile = System.getProperty(CONFIG_FILE_PROPERTY);
+
         // Try-with-resources untuk auto-close InputStream
-        try (InputStream input = DatabaseConfig.class
-                .getClassLoader()
-                .getResourceAsStream("database.properties")) {
+        try (InputStream input = configFile != null
+                ? Files.newInputStream(Paths.get(configFile))
+                : DatabaseConfig.class.getClassLoader().getResourceAsStream("database.properties")) {
 
             // Check jika file properties tidak ditemukan
             if (input == null) {
@@ -49,56 +479,785 @@ public class DatabaseConfig {
             }
 
             // Load properties dari file
-            properties.load(input);
-
-            // Baca nilai dari properties file
-            DB_URL = properties.getProperty("db.url");
-            DB_USERNAME = properties.getProperty("db.username");
-            DB_PASSWORD = properties.getProperty("db.password");
-            DB_DRIVER = properties.getProperty("db.driver");
-
-            // Validasi bahwa semua configuration required ada
-            validateConfiguration();
+            loaded.load(input);
+            return loaded;
 
-            // Load JDBC driver class
-            Class.forName(DB_DRIVER);
-
-            logger.info("Database configuration berhasil di-load");
-
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             // Log error dan throw runtime exception
             logger.severe("Error: Gagal load database configuration: " + e.getMessage());
             throw new RuntimeException("Error konfigurasi database", e);
         }
     }
 
+    /**
+     * Simpan properties yang sudah divalidasi ke static fields
+     */
+    private static void applyProperties(Properties loaded) {
+        properties = loaded;
+
+        // Baca nilai dari properties file
+        DB_URL = loaded.getProperty("db.url");
+        DB_USERNAME = loaded.getProperty("db.username");
+        DB_PASSWORD = loaded.getProperty("db.password");
+        DB_DRIVER = loaded.getProperty("db.driver");
+    }
+
     /**
      * Validasi bahwa semua configuration required sudah di-set
-     * Memastikan tidak ada property yang null atau empty
+     * Memastikan tidak ada property yang null atau empty dan JDBC driver bisa di-load
      */
-    private static void validateConfiguration() {
-        if (DB_URL == null || DB_URL.trim().isEmpty()) {
+    private static void validateConfiguration(Properties candidate) {
+        if (isBlank(candidate.getProperty("db.url"))) {
             throw new RuntimeException("Database URL harus diisi");
         }
-        if (DB_USERNAME == null || DB_USERNAME.trim().isEmpty()) {
+        if (isBlank(candidate.getProperty("db.username"))) {
             throw new RuntimeException("Database username harus diisi");
         }
-        if (DB_PASSWORD == null || DB_PASSWORD.trim().isEmpty()) {
+        if (isBlank(candidate.getProperty("db.password"))) {
             throw new RuntimeException("Database password harus diisi");
         }
-        if (DB_DRIVER == null || DB_DRIVER.trim().isEmpty()) {
+        String driver = candidate.getProperty("db.driver");
+        if (isBlank(driver)) {
             throw new RuntimeException("Database driver harus diisi");
         }
+
+        // Load JDBC driver class
+        try {
+            Class.forName(driver.trim());
+        } catch (ClassNotFoundException e) {
+            logger.severe("Error: Gagal load database configuration: " + e.getMessage());
+            throw new RuntimeException("Error konfigurasi database", e);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Reload database.properties (file -Ddb.config.file atau classpath) tanpa restart
+     * @throws RuntimeException jika konfigurasi baru tidak valid (konfigurasi lama tetap dipakai)
+     */
+    public static synchronized void reload() {
+        reload(readProperties());
+    }
+
+    /**
+     * Menerapkan konfigurasi baru tanpa restart JVM (dipanggil lewat API atau file watcher)
+     *
+     * Semua setting divalidasi dulu; jika ada yang invalid tidak ada yang berubah.
+     * Setelah valid, perubahan diterapkan ke pool yang sedang berjalan:
+     * - db.pool.*: ukuran pool berubah live (ConnectionPool.reconfigure)
+     * - db.url/credentials/timeout koneksi: ConnectionFactory diganti, koneksi lama di-drain
+     * - db.replica.*: router baru dipasang, replica pool lama ditutup setelah koneksinya kembali
+     * - db.workload.*, db.limiter.*, db.circuit.*: hanya komponen yang berubah yang diganti
+     * - db.timeout.*, db.retry.*: berlaku untuk query berikutnya
+     * @param candidate Properties baru (format sama dengan database.properties)
+     * @throws RuntimeException jika konfigurasi baru tidak valid (konfigurasi lama tetap dipakai)
+     */
+    public static synchronized void reload(Properties candidate) {
+        initialize();
+        Properties next = new Properties();
+        next.putAll(candidate);
+
+        // Validasi semua setting sebelum mengubah apapun
+        PoolSettings poolSettings;
+        QueryTimeouts newQueryTimeouts;
+        RetrySettings retrySettings;
+        LimiterSettings limiterSettings;
+        CircuitBreakerSettings breakerSettings;
+        Map<WorkloadClass, Bulkhead> newBulkheads;
+        try {
+            validateConfiguration(next);
+            poolSettings = PoolSettings.fromProperties(next);
+            newQueryTimeouts = QueryTimeouts.fromProperties(next);
+            retrySettings = RetrySettings.fromProperties(next);
+            limiterSettings = LimiterSettings.fromProperties(next, poolSettings);
+            breakerSettings = CircuitBreakerSettings.fromProperties(next);
+            ReplicaRouter.LoadBalancing.fromProperty(next.getProperty("db.replica.loadBalancing"));
+            newBulkheads = createBulkheads(next, poolSettings);
+            if (connectionPool != null && changed(properties, next, "db.shard.urls", "db.shard.virtualNodes")) {
+                throw new RuntimeException("db.shard.* tidak bisa diubah saat runtime, "
+                        + "perubahan jumlah shard membutuhkan migrasi data dan restart");
+            }
+        } catch (RuntimeException e) {
+            logger.severe("Reload konfigurasi database ditolak, konfigurasi lama tetap dipakai: "
+                    + e.getMessage());
+            throw new RuntimeException("Reload konfigurasi database ditolak: " + e.getMessage(), e);
+        }
+
+        Properties previous = properties;
+        boolean connectionChanged = changed(previous, next, CONNECTION_KEYS);
+        boolean replicasChanged = connectionChanged
+                || changed(previous, next, "db.replica.urls", "db.replica.loadBalancing");
+
+        applyProperties(next);
+        queryTimeouts = newQueryTimeouts;
+        if (!retrySettings.equals(retryPolicy.getSettings())) {
+            retryPolicy = new RetryPolicy(retrySettings);
+        }
+
+        ConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.reconfigure(connectionChanged ? primaryConnectionFactory() : null, poolSettings);
+            reloadReplicas(pool, poolSettings, breakerSettings, replicasChanged);
+            reloadShards(poolSettings, connectionChanged);
+            refreshCircuitBreakers(managedPools(replicaRouter, shardRouter), breakerSettings);
+            reloadBulkheads(newBulkheads);
+            reloadConcurrencyLimiter(limiterSettings);
+        }
+
+        configVersion++;
+        logger.info("Konfigurasi database di-reload (versi " + configVersion + ")"
+                + (connectionChanged ? ", koneksi lama di-drain" : "")
+                + (replicasChanged ? ", replica router diganti" : ""));
+    }
+
+    private static boolean changed(Properties previous, Properties next, String... keys) {
+        for (String key : keys) {
+            if (!Objects.equals(previous.getProperty(key), next.getProperty(key))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replica dengan endpoint sama cukup di-resize; jika endpoint berubah, router baru dipasang
+     * lebih dulu lalu replica pool lama ditutup (koneksi aktif ditutup saat dikembalikan)
+     */
+    private static void reloadReplicas(ConnectionPool pool, PoolSettings poolSettings,
+                                       CircuitBreakerSettings breakerSettings, boolean replicasChanged) {
+        ReplicaRouter oldRouter = replicaRouter;
+        if (!replicasChanged) {
+            for (ConnectionPool replica : oldRouter.getReplicas()) {
+                replica.reconfigure(null, poolSettings);
+            }
+            return;
+        }
+
+        ReplicaRouter newRouter = createReplicaRouter(pool);
+        if (breakerSettings.isEnabled()) {
+            for (ConnectionPool replica : newRouter.getReplicas()) {
+                replica.setCircuitBreaker(new CircuitBreaker(replica.getName(), breakerSettings));
+            }
+        }
+        replicaRouter = newRouter;
+
+        // Nama MBean sama dengan replica lama, jadi yang lama di-unregister lebih dulu
+        for (ConnectionPool replica : oldRouter.getReplicas()) {
+            CircuitBreaker breaker = replica.getCircuitBreaker();
+            if (breaker != null) {
+                breaker.unregisterMBean();
+            }
+        }
+        oldRouter.close();
+        for (ConnectionPool replica : newRouter.getReplicas()) {
+            replica.registerMBean();
+            if (replica.getCircuitBreaker() != null) {
+                replica.getCircuitBreaker().registerMBean();
+            }
+        }
+    }
+
+    /**
+     * Topologi shard tetap; hanya ukuran pool dan (jika credentials berubah) factory koneksi
+     */
+    private static void reloadShards(PoolSettings poolSettings, boolean connectionChanged) {
+        ShardRouter shards = shardRouter;
+        if (shards == null) {
+            return;
+        }
+        List<String> urls = shardUrls();
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            shards.getShards().get(i).reconfigure(
+                    connectionChanged ? urlConnectionFactory(urls.get(i)) : null, poolSettings);
+        }
+    }
+
+    /**
+     * Ganti circuit breaker yang setting-nya berubah (state breaker lain dipertahankan)
+     */
+    private static void refreshCircuitBreakers(List<ConnectionPool> pools, CircuitBreakerSettings settings) {
+        for (ConnectionPool pool : pools) {
+            CircuitBreaker current = pool.getCircuitBreaker();
+            if (current != null && settings.isEnabled() && current.getSettings().equals(settings)) {
+                continue;
+            }
+            if (current != null) {
+                current.unregisterMBean();
+            }
+            CircuitBreaker replacement = null;
+            if (settings.isEnabled()) {
+                replacement = new CircuitBreaker(pool.getName(), settings);
+                replacement.registerMBean();
+            }
+            pool.setCircuitBreaker(replacement);
+        }
+    }
+
+    /**
+     * Bulkhead yang batasnya tidak berubah dipertahankan (counter dan permit yang sedang dipakai)
+     * Koneksi yang dipinjam lewat bulkhead lama tetap mengembalikan permit ke bulkhead lama
+     */
+    private static void reloadBulkheads(Map<WorkloadClass, Bulkhead> candidates) {
+        Map<WorkloadClass, Bulkhead> current = bulkheads;
+        Map<WorkloadClass, Bulkhead> merged = new EnumMap<>(WorkloadClass.class);
+        for (Map.Entry<WorkloadClass, Bulkhead> entry : candidates.entrySet()) {
+            Bulkhead existing = current == null ? null : current.get(entry.getKey());
+            merged.put(entry.getKey(), entry.getValue().hasSameLimits(existing) ? existing : entry.getValue());
+        }
+        bulkheads = Collections.unmodifiableMap(merged);
     }
 
     /**
-     * Mendapatkan koneksi database baru
+     * Limiter diganti hanya jika db.limiter.* berubah, supaya limit hasil adaptasi tidak hilang
+     */
+    private static void reloadConcurrencyLimiter(LimiterSettings settings) {
+        AdaptiveConcurrencyLimiter current = concurrencyLimiter;
+        if (current != null && current.getSettings().equals(settings)) {
+            return;
+        }
+        if (current != null) {
+            current.unregisterMBean();
+        }
+        AdaptiveConcurrencyLimiter replacement = null;
+        if (settings.isEnabled()) {
+            replacement = new AdaptiveConcurrencyLimiter("database", settings);
+            replacement.registerMBean();
+        }
+        concurrencyLimiter = replacement;
+    }
+
+    /**
+     * Membuat watcher untuk file konfigurasi jika db.config.watch=true
+     * File yang di-watch: -Ddb.config.file, atau database.properties di classpath jika berupa file
+     */
+    private static ConfigFileWatcher createConfigWatcher() {
+        if (!PoolSettings.booleanProperty(properties, "db.config.watch", false)) {
+            return null;
+        }
+        Path configFile = configFilePath();
+        if (configFile == null) {
+            logger.warning("db.config.watch=true tapi database.properties bukan file (misalnya di dalam jar), "
+                    + "gunakan -D" + CONFIG_FILE_PROPERTY + " atau DatabaseConfig.reload()");
+            return null;
+        }
+        ConfigFileWatcher watcher = new ConfigFileWatcher(configFile,
+                PoolSettings.longProperty(properties, "db.config.watch.debounceMillis", 500),
+                DatabaseConfig::reloadFromWatcher);
+        watcher.start();
+        return watcher;
+    }
+
+    private static Path configFilePath() {
+        String configFile = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (configFile != null) {
+            return Paths.get(configFile).toAbsolutePath();
+        }
+        URL resource = DatabaseConfig.class.getClassLoader().getResource("database.properties");
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static void reloadFromWatcher() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Sudah di-log oleh reload(), watcher tetap berjalan untuk perubahan berikutnya
+        }
+    }
+
+    /**
+     * @return versi konfigurasi, naik setiap kali reload() berhasil (0 = belum pernah reload)
+     */
+    public static long getConfigVersion() {
+        return configVersion;
+    }
+
+    /**
+     * Membuat connection pool untuk database utama
+     * Koneksi fisik tetap dibuat lewat DriverManager, tapi dipakai ulang oleh pool
+     */
+    private static ConnectionPool createConnectionPool() {
+        PoolSettings settings = PoolSettings.fromProperties(properties);
+        return new ConnectionPool("primary", primaryConnectionFactory(), settings);
+    }
+
+    /**
+     * Factory koneksi fisik ke primary dengan URL dan credentials saat ini
+     * Nilai di-capture supaya koneksi dari konfigurasi lama dan baru tidak tercampur saat reload
+     */
+    private static ConnectionFactory primaryConnectionFactory() {
+        return urlConnectionFactory(DB_URL);
+    }
+
+    /**
+     * Factory koneksi fisik ke URL tertentu (replica/shard) dengan credentials saat ini
+     */
+    private static ConnectionFactory urlConnectionFactory(String url) {
+        Properties connectionProps = connectionProperties();
+        return () -> DriverManager.getConnection(url, connectionProps);
+    }
+
+    /**
+     * Properties untuk DriverManager: credentials ditambah db.connection.timeout
+     * (connectTimeout) dan db.socket.timeout (socketTimeout), keduanya dalam ms
+     * Driver PostgreSQL memakai satuan detik, jadi nilai dibulatkan ke atas
+     */
+    private static Properties connectionProperties() {
+        Properties connectionProps = new Properties();
+        connectionProps.setProperty("user", DB_USERNAME);
+        connectionProps.setProperty("password", DB_PASSWORD);
+        long connectTimeoutMillis = PoolSettings.longProperty(properties, "db.connection.timeout", 0);
+        if (connectTimeoutMillis > 0) {
+            connectionProps.setProperty("connectTimeout", String.valueOf(toSeconds(connectTimeoutMillis)));
+            connectionProps.setProperty("loginTimeout", String.valueOf(toSeconds(connectTimeoutMillis)));
+        }
+        long socketTimeoutMillis = PoolSettings.longProperty(properties, "db.socket.timeout", 0);
+        if (socketTimeoutMillis > 0) {
+            connectionProps.setProperty("socketTimeout", String.valueOf(toSeconds(socketTimeoutMillis)));
+        }
+        return connectionProps;
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /**
+     * Membuat pool untuk setiap URL di db.replica.urls (dipisah koma)
+     * Replica memakai username, password, dan setting db.pool.* yang sama dengan primary
+     */
+    private static ReplicaRouter createReplicaRouter(ConnectionPool primary) {
+        List<ConnectionPool> replicas = new ArrayList<>();
+        String urls = properties.getProperty("db.replica.urls", "");
+        for (String url : urls.split(",")) {
+            String replicaUrl = url.trim();
+            if (replicaUrl.isEmpty()) {
+                continue;
+            }
+            replicas.add(new ConnectionPool("replica-" + replicas.size(),
+                    urlConnectionFactory(replicaUrl), primary.getSettings()));
+        }
+        ReplicaRouter.LoadBalancing loadBalancing = ReplicaRouter.LoadBalancing.fromProperty(
+                properties.getProperty("db.replica.loadBalancing"));
+        if (!replicas.isEmpty()) {
+            logger.info("Read replicas aktif: " + replicas.size() + " (" + loadBalancing + ")");
+        }
+        return new ReplicaRouter(primary, replicas, loadBalancing);
+    }
+
+    /**
+     * Membuat bulkhead untuk setiap WorkloadClass dari db.workload.*
+     */
+    private static Map<WorkloadClass, Bulkhead> createBulkheads(Properties source, PoolSettings poolSettings) {
+        Map<WorkloadClass, Bulkhead> created = new EnumMap<>(WorkloadClass.class);
+        int totalBudget = 0;
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            Bulkhead bulkhead = Bulkhead.fromProperties(workloadClass, source, poolSettings);
+            created.put(workloadClass, bulkhead);
+            totalBudget += bulkhead.getMaxConnections();
+        }
+        if (totalBudget > poolSettings.getMaxTotal()) {
+            logger.warning("Total db.workload.*.maxConnections (" + totalBudget + ") melebihi db.pool.maxTotal ("
+                    + poolSettings.getMaxTotal() + "), workload bisa saling berebut koneksi");
+        }
+        return Collections.unmodifiableMap(created);
+    }
+
+    /**
+     * Membuat ShardRouter dari db.shard.urls (dipisah koma), null jika kosong
+     * Shard memakai username, password, dan setting db.pool.* yang sama dengan primary
+     */
+    private static ShardRouter createShardRouter(PoolSettings poolSettings) {
+        List<String> urls = shardUrls();
+        if (urls.isEmpty()) {
+            return null;
+        }
+        List<ConnectionPool> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(new ConnectionPool(ShardRouter.shardName(i), urlConnectionFactory(urls.get(i)), poolSettings));
+        }
+        int virtualNodes = PoolSettings.intProperty(properties, "db.shard.virtualNodes", 128);
+        logger.info("Sharding aktif: " + shards.size() + " shard, " + virtualNodes + " virtual node per shard");
+        return new ShardRouter(shards, virtualNodes);
+    }
+
+    private static List<String> shardUrls() {
+        List<String> urls = new ArrayList<>();
+        for (String url : properties.getProperty("db.shard.urls", "").split(",")) {
+            if (!url.trim().isEmpty()) {
+                urls.add(url.trim());
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Semua pool yang dikelola: primary, replica, dan shard
+     */
+    private static List<ConnectionPool> managedPools(ReplicaRouter router, ShardRouter shards) {
+        List<ConnectionPool> pools = new ArrayList<>();
+        pools.add(router.getPrimary());
+        pools.addAll(router.getReplicas());
+        if (shards != null) {
+            pools.addAll(shards.getShards());
+        }
+        return pools;
+    }
+
+    /**
+     * Memasang circuit breaker (db.circuit.*) pada setiap pool
+     * Breaker replica yang OPEN membuat ReplicaRouter langsung fallback ke replica berikutnya/primary
+     */
+    private static void attachCircuitBreakers(List<ConnectionPool> pools) {
+        CircuitBreakerSettings settings = CircuitBreakerSettings.fromProperties(properties);
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (ConnectionPool pool : pools) {
+            CircuitBreaker breaker = new CircuitBreaker(pool.getName(), settings);
+            breaker.registerMBean();
+            pool.setCircuitBreaker(breaker);
+        }
+    }
+
+    private static void detachCircuitBreakers(List<ConnectionPool> pools) {
+        for (ConnectionPool pool : pools) {
+            CircuitBreaker breaker = pool.getCircuitBreaker();
+            if (breaker != null) {
+                breaker.unregisterMBean();
+            }
+        }
+    }
+
+    /**
+     * Membuat limiter adaptif dari db.limiter.*
+     */
+    private static AdaptiveConcurrencyLimiter createConcurrencyLimiter(PoolSettings poolSettings) {
+        LimiterSettings settings = LimiterSettings.fromProperties(properties, poolSettings);
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("database", settings);
+        limiter.registerMBean();
+        return limiter;
+    }
+
+    /**
+     * Mendapatkan koneksi database dari connection pool (workload oltp)
+     * Koneksi wajib ditutup (close) supaya dikembalikan ke pool
      * @return Connection object untuk berinteraksi dengan database
-     * @throws SQLException jika gagal membuat koneksi
+     * @throws SQLException jika gagal mendapatkan koneksi atau timeout menunggu pool
      */
     public static Connection getConnection() throws SQLException {
-        // Gunakan DriverManager untuk membuat koneksi
-        return DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+        return getConnection(WorkloadClass.OLTP);
+    }
+
+    /**
+     * Mendapatkan koneksi database di dalam budget bulkhead workload tertentu
+     * Jika thread berada di dalam WorkloadClass.enter(), workload dari scope yang dipakai
+     * @param workloadClass Workload default untuk pemanggil (tag dari DAO method)
+     * @return Connection object untuk berinteraksi dengan database
+     * @throws SQLException jika bulkhead penuh, atau gagal/timeout mendapatkan koneksi
+     */
+    public static Connection getConnection(WorkloadClass workloadClass) throws SQLException {
+        ConnectionPool pool = currentPool();
+        Connection connection = borrow(workloadClass, pool::getConnection);
+        startupMetrics.recordFirstConnection();
+        return connection;
+    }
+
+    /**
+     * Mendapatkan koneksi untuk read-only query (findAll, search, laporan)
+     * Dikirim ke read replica jika db.replica.urls di-set, selain itu ke primary
+     * Read-after-write atau read di dalam transaksi harus memakai getConnection()
+     * atau dibungkus pinToPrimary()
+     * @return Connection read-only dari replica, atau koneksi primary
+     * @throws SQLException jika gagal mendapatkan koneksi
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return getReadConnection(WorkloadClass.OLTP);
+    }
+
+    /**
+     * Mendapatkan koneksi read-only di dalam budget bulkhead workload tertentu
+     * @param workloadClass Workload default untuk pemanggil (tag dari DAO method)
+     * @return Connection read-only dari replica, atau koneksi primary
+     * @throws SQLException jika bulkhead penuh, atau gagal mendapatkan koneksi
+     */
+    public static Connection getReadConnection(WorkloadClass workloadClass) throws SQLException {
+        currentPool();
+        ReplicaRouter router = replicaRouter;
+        Connection connection = borrow(workloadClass, router::getReadConnection);
+        startupMetrics.recordFirstConnection();
+        return connection;
+    }
+
+    /**
+     * Meminjam koneksi lewat bulkhead workload efektif dan limiter adaptif
+     */
+    private static Connection borrow(WorkloadClass workloadClass, ConnectionFactory source) throws SQLException {
+        Bulkhead bulkhead = getBulkhead(workloadClass);
+        return bulkhead.getConnection(limited(bulkhead, source));
+    }
+
+    /**
+     * Sumber koneksi di belakang limiter adaptif (jika aktif)
+     * Urutan: bulkhead workload -> limiter in-flight -> pool
+     * Hanya workload oltp yang melewati limiter: query reporting/background yang lambat
+     * (stream, COPY, laporan) sudah dibatasi bulkhead-nya sendiri dan tidak boleh menurunkan limit oltp
+     */
+    private static ConnectionFactory limited(Bulkhead bulkhead, ConnectionFactory source) {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null || bulkhead.getWorkloadClass() != WorkloadClass.OLTP) {
+            return source;
+        }
+        return () -> limiter.getConnection(source);
+    }
+
+    /**
+     * Getter untuk limiter adaptif (current limit, in-flight, rejection count)
+     * Data yang sama dipublikasikan lewat JMX MBean
+     * com.praktikum.database.testing.library:type=ConcurrencyLimiter,name="database"
+     * @return AdaptiveConcurrencyLimiter, atau null jika db.limiter.enabled=false
+     */
+    public static AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        currentPool();
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Getter untuk circuit breaker primary (state, failure rate, event listener)
+     * Data yang sama dipublikasikan lewat JMX MBean
+     * com.praktikum.database.testing.library:type=CircuitBreaker,name=&lt;nama pool&gt;
+     * @return CircuitBreaker primary, atau null jika db.circuit.enabled=false
+     */
+    public static CircuitBreaker getCircuitBreaker() {
+        return currentPool().getCircuitBreaker();
+    }
+
+    /**
+     * Bulkhead untuk workload efektif (scope aktif atau tag default)
+     */
+    private static Bulkhead getBulkhead(WorkloadClass workloadClass) {
+        currentPool();
+        return bulkheads.get(WorkloadClass.resolve(workloadClass));
+    }
+
+    /**
+     * Getter untuk bulkhead semua workload class (monitoring: active, waiting, rejected)
+     */
+    public static Map<WorkloadClass, Bulkhead> getBulkheads() {
+        currentPool();
+        return bulkheads;
+    }
+
+    /**
+     * Memaksa getReadConnection() di thread ini memakai primary sampai scope ditutup
+     * @return scope yang wajib ditutup (try-with-resources)
+     */
+    public static ReplicaRouter.PrimaryScope pinToPrimary() {
+        return ReplicaRouter.pinToPrimary();
+    }
+
+    /**
+     * Getter untuk router read replicas (digunakan untuk monitoring dan testing)
+     */
+    public static ReplicaRouter getReplicaRouter() {
+        currentPool();
+        return replicaRouter;
+    }
+
+    /**
+     * @return true jika db.shard.urls di-set (users dan borrowings tersebar di beberapa database)
+     */
+    public static boolean isSharded() {
+        currentPool();
+        return shardRouter != null;
+    }
+
+    /**
+     * Getter untuk router shard (digunakan untuk monitoring dan testing)
+     * @return ShardRouter, atau null jika sharding tidak aktif
+     */
+    public static ShardRouter getShardRouter() {
+        currentPool();
+        return shardRouter;
+    }
+
+    /**
+     * Mendapatkan koneksi ke database yang menyimpan data user (users, borrowings)
+     * Tanpa sharding, sama dengan getConnection()
+     * @param userId Key routing
+     * @return Connection ke shard milik user
+     * @throws SQLException jika bulkhead penuh, atau gagal mendapatkan koneksi
+     */
+    public static Connection getShardConnection(int userId) throws SQLException {
+        ShardRouter shards = getShardRouter();
+        if (shards == null) {
+            return getConnection();
+        }
+        ConnectionPool shard = shards.getShard(userId);
+        Connection connection = borrow(WorkloadClass.OLTP, shard::getConnection);
+        startupMetrics.recordFirstConnection();
+        return connection;
+    }
+
+    /**
+     * Menjalankan query di setiap shard secara paralel (scatter-gather)
+     * Tanpa sharding, callback dijalankan sekali dengan getConnection(workloadClass)
+     * @param workloadClass Workload default (budget bulkhead berlaku per koneksi shard)
+     * @param callback Query per shard
+     * @return hasil per shard, urut berdasarkan nomor shard
+     * @throws SQLException exception pertama jika salah satu shard gagal
+     */
+    public static <T> List<T> scatterGather(WorkloadClass workloadClass, ShardCallback<T> callback)
+            throws SQLException {
+        ShardRouter shards = getShardRouter();
+        if (shards == null) {
+            try (Connection connection = getConnection(workloadClass)) {
+                return Collections.singletonList(callback.apply(connection));
+            }
+        }
+        return scatterGatherShards(shards, workloadClass, callback);
+    }
+
+    /**
+     * Sama dengan scatterGather(), tapi tanpa sharding memakai getReadConnection(workloadClass)
+     * sehingga query read-only tetap bisa dikirim ke read replica
+     */
+    public static <T> List<T> scatterGatherRead(WorkloadClass workloadClass, ShardCallback<T> callback)
+            throws SQLException {
+        ShardRouter shards = getShardRouter();
+        if (shards == null) {
+            try (Connection connection = getReadConnection(workloadClass)) {
+                return Collections.singletonList(callback.apply(connection));
+            }
+        }
+        return scatterGatherShards(shards, workloadClass, callback);
+    }
+
+    private static <T> List<T> scatterGatherShards(ShardRouter shards, WorkloadClass workloadClass,
+                                                   ShardCallback<T> callback) throws SQLException {
+        // Workload di-resolve di thread pemanggil, karena scope tidak ikut ke thread scatter
+        Bulkhead bulkhead = getBulkhead(workloadClass);
+        List<T> results = shards.scatterGather(
+                shard -> () -> bulkhead.getConnection(limited(bulkhead, shard::getConnection)), callback);
+        startupMetrics.recordFirstConnection();
+        return results;
+    }
+
+    /**
+     * Mengalokasikan ID global dari sequence SERIAL di database primary
+     * Dengan sharding, sequence per shard akan menghasilkan ID yang bentrok antar shard,
+     * jadi users/borrowings baru mendapatkan ID dari primary sebelum di-insert ke shard
+     * @param table Nama tabel (misalnya "users")
+     * @param column Kolom SERIAL (misalnya "user_id")
+     * @return ID berikutnya
+     * @throws SQLException jika operasi database gagal
+     */
+    public static int nextGlobalId(String table, String column) throws SQLException {
+        String sql = "SELECT nextval(pg_get_serial_sequence(?, ?))";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "DatabaseConfig.nextGlobalId")) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, column);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Sequence untuk " + table + "." + column + " tidak ditemukan");
+                }
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Mengalokasikan beberapa ID global sekaligus dalam satu round trip (untuk insert batch)
+     * @param table Nama tabel (misalnya "users")
+     * @param column Kolom SERIAL (misalnya "user_id")
+     * @param count Jumlah ID yang dialokasikan
+     * @return ID berurutan sesuai alokasi sequence
+     * @throws SQLException jika operasi database gagal
+     */
+    public static List<Integer> nextGlobalIds(String table, String column, int count) throws SQLException {
+        String sql = "SELECT nextval(pg_get_serial_sequence(?, ?)) FROM generate_series(1, ?)";
+        List<Integer> ids = new ArrayList<>(count);
+        if (count <= 0) {
+            return ids;
+        }
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "DatabaseConfig.nextGlobalId")) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, column);
+            pstmt.setInt(3, count);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        if (ids.size() != count) {
+            throw new SQLException("Sequence untuk " + table + "." + column + " tidak ditemukan");
+        }
+        return ids;
+    }
+
+    /**
+     * Mendapatkan pool yang aktif, memulai startup secara lazy jika belum di-start
+     * Tidak menunggu warm-up selesai: pool akan membuka koneksi sendiri jika belum ada yang idle
+     */
+    private static ConnectionPool currentPool() {
+        ConnectionPool pool = connectionPool;
+        if (pool == null) {
+            start();
+            pool = connectionPool;
+        }
+        return pool;
+    }
+
+    /**
+     * Getter untuk DataSource (connection pool) yang dipakai oleh getConnection()
+     * @return ConnectionPool untuk database utama
+     */
+    public static ConnectionPool getDataSource() {
+        return currentPool();
+    }
+
+    /**
+     * Mendapatkan counter hit/miss dari prepared statement cache
+     * Berguna untuk membuktikan SQL yang sering dipakai (findById, dll) di-reuse
+     * @return StatementCacheStats dari connection pool utama
+     */
+    public static StatementCacheStats getStatementCacheStats() {
+        return currentPool().getStatementCacheStats();
+    }
+
+    /**
+     * Snapshot metrics connection pool: acquire wait (histogram + percentile),
+     * active/idle, pembuatan koneksi, creation failures, dan acquire timeouts
+     * Data yang sama dipublikasikan lewat JMX MBean
+     * com.praktikum.database.testing.library:type=ConnectionPool,name="primary"
+     * @return PoolMetricsSnapshot dari connection pool utama
+     */
+    public static PoolMetricsSnapshot getPoolMetrics() {
+        return currentPool().getMetricsSnapshot();
+    }
+
+    /**
+     * Laporan koneksi yang sedang dipinjam: hold time, thread, stack trace peminjam,
+     * dan jumlah statement/ResultSet yang masih terbuka
+     * @return List of ConnectionUsage, urut dari yang paling lama ditahan
+     */
+    public static List<ConnectionUsage> getActiveConnectionReport() {
+        return currentPool().getActiveConnectionUsages();
     }
 
     /**
@@ -122,7 +1281,8 @@ public class DatabaseConfig {
      */
     public static boolean testConnection() {
         // Try-with-resources untuk auto-close connection
-        try (Connection conn = getConnection()) {
+        // Ambil langsung dari pool supaya tidak dihitung sebagai query pertama aplikasi
+        try (Connection conn = currentPool().getConnection()) {
             // Check jika koneksi valid dan tidak closed
             boolean isValid = conn != null && !conn.isClosed();
 
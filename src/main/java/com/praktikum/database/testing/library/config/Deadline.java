@@ -0,0 +1,117 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline per thread untuk satu operasi (misalnya BorrowingService.borrowBook)
+ * Semua statement DAO yang dijalankan di dalam scope memakai sisa waktu deadline
+ * sebagai query timeout (lihat QueryTimeouts.apply), dan waktu tunggu bulkhead, limiter
+ * dan pool dibatasi sisa deadline yang sama
+ *
+ * Scope bisa nested: deadline efektif adalah yang paling cepat habis
+ */
+public final class Deadline {
+    // Deadline aktif di thread ini (System.nanoTime), null = tanpa deadline
+    private static final ThreadLocal<Long> current = new ThreadLocal<>();
+
+    private Deadline() {
+    }
+
+    /**
+     * Memulai deadline baru yang berlaku sampai scope ditutup
+     * @param timeoutMillis Batas waktu dari sekarang (0 atau negatif = tanpa deadline baru)
+     * @return scope yang wajib ditutup (try-with-resources)
+     */
+    public static Scope within(long timeoutMillis) {
+        Long previous = current.get();
+        if (timeoutMillis > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            if (previous == null || deadline - previous < 0) {
+                current.set(deadline);
+            }
+        }
+        return new Scope(previous);
+    }
+
+    /**
+     * @return true jika thread ini berada di dalam deadline
+     */
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * @return sisa waktu deadline (ms, bisa 0 jika sudah lewat), atau Long.MAX_VALUE jika tanpa deadline
+     */
+    public static long remainingMillis() {
+        Long deadline = current.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * @return sisa waktu deadline (ns, bisa 0 jika sudah lewat), atau Long.MAX_VALUE jika tanpa deadline
+     */
+    public static long remainingNanos() {
+        Long deadline = current.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Batas menunggu resource (bulkhead, limiter, pool) di dalam deadline aktif
+     * @param maxWaitMillis Batas tunggu milik resource itu sendiri
+     * @return min(maxWaitMillis, sisa deadline) dalam nanodetik
+     */
+    static long capWaitNanos(long maxWaitMillis) {
+        return Math.min(TimeUnit.MILLISECONDS.toNanos(maxWaitMillis), remainingNanos());
+    }
+
+    /**
+     * Exception untuk operasi yang deadline-nya habis sebelum resource didapat
+     * SQLState 57014 sama dengan query yang dibatalkan karena timeout
+     * @param waitingFor Resource yang ditunggu (untuk pesan error)
+     */
+    static SQLTimeoutException expired(String waitingFor) {
+        return new SQLTimeoutException("Deadline operasi terlewati saat menunggu " + waitingFor,
+                QueryTimeouts.QUERY_CANCELED_SQL_STATE);
+    }
+
+    /**
+     * @return true jika deadline aktif sudah terlewati
+     */
+    public static boolean isExpired() {
+        Long deadline = current.get();
+        return deadline != null && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Scope within(), mengembalikan deadline sebelumnya saat ditutup
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Long previous;
+        private boolean closed;
+
+        private Scope(Long previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+}
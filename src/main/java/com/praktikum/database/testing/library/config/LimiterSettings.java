@@ -0,0 +1,99 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Properties;
+
+/**
+ * Konfigurasi untuk AdaptiveConcurrencyLimiter
+ * Nilai dibaca dari key db.limiter.* di database.properties
+ */
+@Getter
+@Builder(toBuilder = true)
+@EqualsAndHashCode
+@ToString
+public class LimiterSettings {
+    // Aktifkan limiter di depan koneksi workload oltp (reporting/background hanya dibatasi bulkhead)
+    @Builder.Default
+    private final boolean enabled = true;
+
+    // Limit in-flight awal sebelum ada sample latency
+    @Builder.Default
+    private final int initialLimit = 10;
+
+    // Batas bawah dan atas limit yang boleh dicapai
+    @Builder.Default
+    private final int minLimit = 2;
+
+    @Builder.Default
+    private final int maxLimit = 20;
+
+    // Eksekusi statement lebih lama dari ini dianggap tanda database overload
+    @Builder.Default
+    private final long latencyThresholdMillis = 250;
+
+    // Faktor pengali limit saat overload (multiplicative decrease)
+    @Builder.Default
+    private final double backoffRatio = 0.9;
+
+    // Jumlah maksimum caller yang boleh antri ketika limit tercapai (0 = langsung ditolak)
+    @Builder.Default
+    private final int maxQueue = 50;
+
+    // Batas waktu menunggu slot in-flight sebelum ditolak
+    @Builder.Default
+    private final long maxWaitMillis = 1_000;
+
+    /**
+     * Membaca LimiterSettings dari properties database.properties
+     * Default maxLimit mengikuti db.pool.maxTotal
+     * @param properties Properties hasil load database.properties
+     * @param poolSettings Setting pool primary
+     * @return LimiterSettings yang sudah divalidasi
+     */
+    public static LimiterSettings fromProperties(Properties properties, PoolSettings poolSettings) {
+        LimiterSettings defaults = LimiterSettings.builder().build();
+
+        LimiterSettings settings = LimiterSettings.builder()
+                .enabled(PoolSettings.booleanProperty(properties, "db.limiter.enabled", defaults.enabled))
+                .initialLimit(PoolSettings.intProperty(properties, "db.limiter.initialLimit", defaults.initialLimit))
+                .minLimit(PoolSettings.intProperty(properties, "db.limiter.minLimit", defaults.minLimit))
+                .maxLimit(PoolSettings.intProperty(properties, "db.limiter.maxLimit", poolSettings.getMaxTotal()))
+                .latencyThresholdMillis(PoolSettings.longProperty(properties, "db.limiter.latencyThresholdMillis",
+                        defaults.latencyThresholdMillis))
+                .backoffRatio(PoolSettings.doubleProperty(properties, "db.limiter.backoffRatio",
+                        defaults.backoffRatio))
+                .maxQueue(PoolSettings.intProperty(properties, "db.limiter.maxQueue", defaults.maxQueue))
+                .maxWaitMillis(PoolSettings.longProperty(properties, "db.limiter.maxWaitMillis",
+                        defaults.maxWaitMillis))
+                .build();
+
+        settings.validate();
+        return settings;
+    }
+
+    /**
+     * Validasi bahwa kombinasi nilai limiter masuk akal
+     */
+    public void validate() {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new RuntimeException("db.limiter.minLimit harus di antara 1 dan maxLimit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new RuntimeException("db.limiter.initialLimit harus di antara minLimit dan maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new RuntimeException("db.limiter.backoffRatio harus di antara 0 dan 1");
+        }
+        if (latencyThresholdMillis <= 0) {
+            throw new RuntimeException("db.limiter.latencyThresholdMillis harus lebih besar dari 0");
+        }
+        if (maxQueue < 0 || maxWaitMillis < 0) {
+            throw new RuntimeException("db.limiter.maxQueue dan maxWaitMillis tidak boleh negatif");
+        }
+    }
+}
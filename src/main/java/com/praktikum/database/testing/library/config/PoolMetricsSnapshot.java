@@ -0,0 +1,52 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot metrics ConnectionPool pada satu titik waktu
+ * Data yang sama juga dipublikasikan lewat JMX (ConnectionPoolMXBean)
+ */
+@Getter
+@Builder
+@ToString(exclude = {"acquireWaitBucketCounts", "acquireWaitBucketBoundsMicros"})
+public class PoolMetricsSnapshot {
+    private final String poolName;
+    private final long timestampMillis;
+
+    // Jumlah koneksi saat ini
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int maxTotal;
+
+    // Thread yang sedang menunggu permit koneksi
+    private final int threadsAwaitingConnection;
+
+    // Counter acquire
+    private final long acquireCount;
+    private final long acquireTimeouts;
+
+    // Latency menunggu koneksi (microseconds)
+    private final double acquireWaitMeanMicros;
+    private final long acquireWaitP50Micros;
+    private final long acquireWaitP95Micros;
+    private final long acquireWaitP99Micros;
+    private final long acquireWaitMaxMicros;
+    private final long[] acquireWaitBucketCounts;
+    private final long[] acquireWaitBucketBoundsMicros;
+
+    // Pembuatan koneksi fisik
+    private final long connectionsCreated;
+    private final long connectionsDestroyed;
+    private final long connectionCreationFailures;
+    private final double connectionCreationRatePerMinute;
+
+    // Statement cache dan leak detection
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long leaksDetected;
+    private final long leaksReclaimed;
+}
@@ -0,0 +1,171 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Properties;
+
+/**
+ * Konfigurasi untuk ConnectionPool
+ * Nilai dibaca dari key db.pool.* di database.properties (penamaan mengikuti DBCP)
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class PoolSettings {
+    // Jumlah koneksi yang dibuka saat pool pertama kali di-start
+    @Builder.Default
+    private final int initialSize = 5;
+
+    // Jumlah maksimum koneksi (active + idle) yang boleh dibuka
+    @Builder.Default
+    private final int maxTotal = 20;
+
+    // Jumlah maksimum koneksi idle yang disimpan, sisanya ditutup saat dikembalikan
+    @Builder.Default
+    private final int maxIdle = 10;
+
+    // Jumlah minimum koneksi idle yang dijaga oleh eviction thread
+    @Builder.Default
+    private final int minIdle = 5;
+
+    // Batas waktu menunggu koneksi dari pool sebelum timeout
+    @Builder.Default
+    private final long maxWaitMillis = 10_000;
+
+    // Koneksi idle lebih lama dari ini akan ditutup (selama idle > minIdle)
+    @Builder.Default
+    private final long minEvictableIdleTimeMillis = 600_000;
+
+    // Interval eviction thread berjalan
+    @Builder.Default
+    private final long timeBetweenEvictionRunsMillis = 30_000;
+
+    // Validasi koneksi sebelum diberikan ke caller
+    @Builder.Default
+    private final boolean testOnBorrow = true;
+
+    // Timeout validasi koneksi (detik, sesuai Connection.isValid)
+    @Builder.Default
+    private final int validationQueryTimeout = 5;
+
+    // Cache PreparedStatement per koneksi fisik (key: teks SQL)
+    @Builder.Default
+    private final boolean poolPreparedStatements = true;
+
+    // Jumlah maksimum PreparedStatement di cache per koneksi (LRU eviction)
+    @Builder.Default
+    private final int maxOpenPreparedStatements = 50;
+
+    // Koneksi yang ditahan lebih lama dari ini dilaporkan sebagai leak (0 = nonaktif)
+    // Jika aktif, stack trace peminjam juga disimpan untuk laporan
+    @Builder.Default
+    private final long leakDetectionThresholdMillis = 60_000;
+
+    /**
+     * Membaca PoolSettings dari properties database.properties
+     * Key yang tidak di-set akan memakai default value
+     * @param properties Properties hasil load database.properties
+     * @return PoolSettings yang sudah divalidasi
+     */
+    public static PoolSettings fromProperties(Properties properties) {
+        PoolSettings defaults = PoolSettings.builder().build();
+
+        PoolSettings settings = PoolSettings.builder()
+                .initialSize(intProperty(properties, "db.pool.initialsize", defaults.initialSize))
+                .maxTotal(intProperty(properties, "db.pool.maxTotal", defaults.maxTotal))
+                .maxIdle(intProperty(properties, "db.pool.maxIdle", defaults.maxIdle))
+                .minIdle(intProperty(properties, "db.pool.minIdle", defaults.minIdle))
+                .maxWaitMillis(longProperty(properties, "db.pool.maxWaitMillis", defaults.maxWaitMillis))
+                .minEvictableIdleTimeMillis(longProperty(properties, "db.pool.minEvictableIdleTimeMillis",
+                        defaults.minEvictableIdleTimeMillis))
+                .timeBetweenEvictionRunsMillis(longProperty(properties, "db.pool.timeBetweenEvictionRunsMillis",
+                        defaults.timeBetweenEvictionRunsMillis))
+                .testOnBorrow(Boolean.parseBoolean(properties.getProperty("db.pool.testOnBorrow",
+                        String.valueOf(defaults.testOnBorrow)).trim()))
+                .validationQueryTimeout(intProperty(properties, "db.pool.validationQueryTimeout",
+                        defaults.validationQueryTimeout))
+                .poolPreparedStatements(Boolean.parseBoolean(properties.getProperty("db.pool.poolPreparedStatements",
+                        String.valueOf(defaults.poolPreparedStatements)).trim()))
+                .maxOpenPreparedStatements(intProperty(properties, "db.pool.maxOpenPreparedStatements",
+                        defaults.maxOpenPreparedStatements))
+                .leakDetectionThresholdMillis(longProperty(properties, "db.pool.leakDetectionThresholdMillis",
+                        defaults.leakDetectionThresholdMillis))
+                .build();
+
+        settings.validate();
+        return settings;
+    }
+
+    /**
+     * Validasi bahwa kombinasi nilai pool masuk akal
+     */
+    public void validate() {
+        if (maxTotal <= 0) {
+            throw new RuntimeException("db.pool.maxTotal harus lebih besar dari 0");
+        }
+        if (initialSize < 0 || initialSize > maxTotal) {
+            throw new RuntimeException("db.pool.initialsize harus di antara 0 dan maxTotal");
+        }
+        if (minIdle < 0 || minIdle > maxIdle) {
+            throw new RuntimeException("db.pool.minIdle harus di antara 0 dan maxIdle");
+        }
+        if (maxIdle > maxTotal) {
+            throw new RuntimeException("db.pool.maxIdle tidak boleh lebih besar dari maxTotal");
+        }
+        if (maxWaitMillis < 0) {
+            throw new RuntimeException("db.pool.maxWaitMillis tidak boleh negatif");
+        }
+        if (maxOpenPreparedStatements < 0) {
+            throw new RuntimeException("db.pool.maxOpenPreparedStatements tidak boleh negatif");
+        }
+        if (leakDetectionThresholdMillis < 0) {
+            throw new RuntimeException("db.pool.leakDetectionThresholdMillis tidak boleh negatif");
+        }
+        if (timeBetweenEvictionRunsMillis <= 0) {
+            throw new RuntimeException("db.pool.timeBetweenEvictionRunsMillis harus lebih besar dari 0");
+        }
+    }
+
+    static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Nilai " + key + " harus berupa angka: " + value, e);
+        }
+    }
+
+    static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Nilai " + key + " harus berupa angka: " + value, e);
+        }
+    }
+
+    static double doubleProperty(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Nilai " + key + " harus berupa angka: " + value, e);
+        }
+    }
+
+    static boolean booleanProperty(Properties properties, String key, boolean defaultValue) {
+        return Boolean.parseBoolean(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+}
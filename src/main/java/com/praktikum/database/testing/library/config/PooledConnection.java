@@ -0,0 +1,320 @@
+package com.praktikum.database.testing.library.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Wrapper untuk satu koneksi fisik yang dikelola oleh ConnectionPool
+ * Setiap kali dipinjam, caller mendapat proxy Connection baru (lease)
+ * yang close()-nya mengembalikan koneksi ke pool, bukan menutup socket
+ */
+class PooledConnection {
+    private static final Logger logger = Logger.getLogger(PooledConnection.class.getName());
+
+    private final ConnectionPool pool;
+    private final Connection physicalConnection;
+    private final long createdAt;
+    private final int defaultTransactionIsolation;
+
+    // Generasi ConnectionFactory yang membuat koneksi ini (lihat ConnectionPool.reconfigure)
+    private final int generation;
+
+    // Cache PreparedStatement untuk koneksi fisik ini (null jika cache dimatikan)
+    private final StatementCache statementCache;
+
+    // Waktu terakhir koneksi dikembalikan ke pool (untuk idle eviction)
+    private volatile long lastReturnedAt;
+
+    // Lease yang sedang aktif (null jika koneksi sedang idle)
+    private volatile LeaseHandler currentLease;
+
+    PooledConnection(ConnectionPool pool, Connection physicalConnection, int generation,
+                     int statementCacheSize, StatementCacheStats statementCacheStats) throws SQLException {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.generation = generation;
+        this.createdAt = System.currentTimeMillis();
+        this.lastReturnedAt = createdAt;
+        this.defaultTransactionIsolation = physicalConnection.getTransactionIsolation();
+        this.statementCache = statementCacheSize > 0
+                ? new StatementCache(physicalConnection, statementCacheSize, statementCacheStats)
+                : null;
+    }
+
+    /**
+     * Membuat proxy Connection baru untuk caller yang meminjam koneksi ini
+     * @param captureStackTrace true untuk menyimpan stack trace peminjam (leak detection)
+     * @return Connection proxy yang close()-nya mengembalikan koneksi ke pool
+     */
+    Connection lease(boolean captureStackTrace) {
+        LeaseHandler handler = new LeaseHandler(captureStackTrace);
+        currentLease = handler;
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler);
+        // Jika proxy di-garbage collect tanpa close(), koneksi diambil kembali oleh pool
+        ConnectionPool.CLEANER.register(proxy, handler::reclaimIfLeaked);
+        return proxy;
+    }
+
+    /**
+     * Memasang listener waktu eksekusi statement pada lease koneksi pool
+     * @param connection Connection hasil ConnectionPool.getConnection()
+     * @param listener Listener untuk setiap execute* selama lease aktif
+     * @return false jika connection bukan lease ConnectionPool (listener tidak dipasang)
+     */
+    static boolean setExecutionListener(Connection connection, TrackedStatement.ExecutionListener listener) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof LeaseHandler lease) {
+            lease.counters.executionListener = listener;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Snapshot pemakaian lease yang sedang aktif
+     * @param now Waktu sekarang (epoch millis)
+     * @param leakThresholdMillis Batas waktu hold sebelum dianggap leak (0 = nonaktif)
+     * @return ConnectionUsage, atau null jika koneksi sedang idle
+     */
+    ConnectionUsage usage(long now, long leakThresholdMillis) {
+        LeaseHandler lease = currentLease;
+        if (lease == null) {
+            return null;
+        }
+        long heldMillis = now - lease.acquiredAtMillis;
+        return ConnectionUsage.builder()
+                .poolName(pool.getName())
+                .threadName(lease.threadName)
+                .acquiredAtMillis(lease.acquiredAtMillis)
+                .heldMillis(heldMillis)
+                .openStatements(lease.counters.openStatements.get())
+                .openResultSets(lease.counters.openResultSets.get())
+                .leakSuspected(leakThresholdMillis > 0 && heldMillis >= leakThresholdMillis)
+                .acquiredStackTrace(lease.acquiredStack != null ? lease.acquiredStack.getStackTrace() : null)
+                .build();
+    }
+
+    /**
+     * Log warning sekali per lease jika koneksi ditahan lebih lama dari threshold
+     * @return true jika lease ini baru saja dilaporkan sebagai leak
+     */
+    boolean reportIfHeldTooLong(long now, long leakThresholdMillis) {
+        LeaseHandler lease = currentLease;
+        if (lease == null || lease.leakReported || now - lease.acquiredAtMillis < leakThresholdMillis) {
+            return false;
+        }
+        lease.leakReported = true;
+        logger.log(Level.WARNING, "Kemungkinan connection leak di pool '" + pool.getName()
+                + "': koneksi ditahan " + (now - lease.acquiredAtMillis) + " ms oleh thread '"
+                + lease.threadName + "' (open statements: " + lease.counters.openStatements.get()
+                + ", open result sets: " + lease.counters.openResultSets.get() + ")", lease.acquiredStack);
+        return true;
+    }
+
+    /**
+     * Validasi koneksi fisik masih bisa dipakai
+     * @param timeoutSeconds Timeout validasi dalam detik
+     * @return true jika koneksi valid
+     */
+    boolean isValid(int timeoutSeconds) {
+        try {
+            return !physicalConnection.isClosed() && physicalConnection.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            logger.fine("Validasi koneksi gagal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Mengembalikan state koneksi ke default sebelum masuk pool lagi
+     * Transaksi yang belum di-commit akan di-rollback
+     * @return true jika reset berhasil dan koneksi boleh dipakai ulang
+     */
+    boolean reset() {
+        try {
+            if (physicalConnection.isClosed()) {
+                return false;
+            }
+            if (statementCache != null) {
+                statementCache.releaseAll();
+            }
+            if (!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+                physicalConnection.setAutoCommit(true);
+            }
+            if (physicalConnection.isReadOnly()) {
+                physicalConnection.setReadOnly(false);
+            }
+            if (physicalConnection.getTransactionIsolation() != defaultTransactionIsolation) {
+                physicalConnection.setTransactionIsolation(defaultTransactionIsolation);
+            }
+            physicalConnection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            logger.warning("Gagal reset koneksi sebelum dikembalikan ke pool: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Menutup koneksi fisik (dipanggil saat koneksi dibuang dari pool)
+     */
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        try {
+            physicalConnection.close();
+        } catch (SQLException e) {
+            logger.fine("Gagal menutup koneksi fisik: " + e.getMessage());
+        }
+    }
+
+    void markReturned() {
+        currentLease = null;
+        lastReturnedAt = System.currentTimeMillis();
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    long getIdleMillis(long now) {
+        return now - lastReturnedAt;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    Connection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    /**
+     * InvocationHandler untuk satu kali peminjaman koneksi
+     * Setelah close(), proxy tidak bisa dipakai lagi walaupun koneksi fisiknya
+     * sudah dipinjam oleh caller lain
+     */
+    private class LeaseHandler implements InvocationHandler {
+        private volatile boolean closed;
+
+        // Ditandai true jika koneksi fisik mengalami error level koneksi (SQLState 08xxx)
+        private volatile boolean broken;
+
+        // Informasi peminjaman untuk leak detection dan hold-time tracking
+        private final long acquiredAtMillis = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        private final Throwable acquiredStack;
+        private final TrackedStatement.Counters counters = new TrackedStatement.Counters();
+        private volatile boolean leakReported;
+
+        LeaseHandler(boolean captureStackTrace) {
+            this.acquiredStack = captureStackTrace
+                    ? new Throwable("Connection dipinjam di sini oleh thread '" + threadName + "'")
+                    : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    closeLease();
+                    return null;
+                case "isClosed":
+                    return closed || physicalConnection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physicalConnection + (closed ? ", closed" : "") + "]";
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(physicalConnection)
+                            || physicalConnection.isWrapperFor((Class<?>) args[0]);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(physicalConnection)) {
+                        return physicalConnection;
+                    }
+                    return physicalConnection.unwrap((Class<?>) args[0]);
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection sudah ditutup dan dikembalikan ke pool", "08003");
+            }
+
+            Object result;
+            try {
+                // prepareStatement(String) dilayani dari statement cache
+                if (statementCache != null && "prepareStatement".equals(name)
+                        && args.length == 1 && args[0] instanceof String sql) {
+                    result = statementCache.prepare(sql);
+                } else {
+                    result = method.invoke(physicalConnection, args);
+                }
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && isConnectionError(sqlException)) {
+                    broken = true;
+                }
+                throw cause;
+            }
+
+            // Statement dibungkus supaya statement/ResultSet yang terbuka bisa dihitung
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return TrackedStatement.wrap(statement, method.getReturnType(), (Connection) proxy, counters,
+                        pool.getCircuitBreaker());
+            }
+            return result;
+        }
+
+        private void closeLease() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (currentLease == this) {
+                if (counters.openStatements.get() > 0) {
+                    logger.fine("Koneksi dikembalikan dengan " + counters.openStatements.get()
+                            + " statement yang belum ditutup");
+                }
+                pool.release(PooledConnection.this, broken);
+            }
+        }
+
+        /**
+         * Dipanggil oleh Cleaner ketika proxy Connection sudah tidak direferensikan
+         * Jika caller tidak pernah memanggil close(), koneksi fisik dibuang dan permit dikembalikan
+         */
+        private void reclaimIfLeaked() {
+            if (closed) {
+                return;
+            }
+            logger.log(Level.SEVERE, "Connection leak di pool '" + pool.getName()
+                    + "': koneksi tidak pernah di-close oleh thread '" + threadName
+                    + "', diambil kembali oleh pool", acquiredStack);
+            pool.recordLeakReclaimed();
+            broken = true;
+            closeLease();
+        }
+
+        private boolean isConnectionError(SQLException e) {
+            String sqlState = e.getSQLState();
+            return sqlState != null && sqlState.startsWith("08");
+        }
+    }
+}
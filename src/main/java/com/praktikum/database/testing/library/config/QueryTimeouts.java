@@ -0,0 +1,165 @@
+package com.praktikum.database.testing.library.config;
+
+import org.postgresql.jdbc.PgStatement;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Query timeout per operasi DAO/service, dibaca dari db.timeout.* di database.properties
+ *
+ * db.timeout.default=20000                   (ms, 0 = tanpa timeout)
+ * db.timeout.BookDAO.searchByTitle=5000      (override per DAO method)
+ * db.timeout.BorrowingService.borrowBook=10000 (deadline untuk seluruh operasi service)
+ *
+ * Timeout dipasang lewat Statement.setQueryTimeout sehingga driver membatalkan query
+ * di sisi server (SQLState 57014), lalu dicatat per operasi
+ */
+public class QueryTimeouts {
+    private static final Logger logger = Logger.getLogger(QueryTimeouts.class.getName());
+
+    // SQLState PostgreSQL untuk query_canceled (termasuk statement timeout)
+    public static final String QUERY_CANCELED_SQL_STATE = "57014";
+
+    private static final String PREFIX = "db.timeout.";
+    private static final long DEFAULT_TIMEOUT_MILLIS = 20_000;
+
+    private final long defaultTimeoutMillis;
+    private final Map<String, Long> operationTimeouts;
+    private final Map<String, LongAdder> timeoutCounts = new ConcurrentHashMap<>();
+
+    public QueryTimeouts(long defaultTimeoutMillis, Map<String, Long> operationTimeouts) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.operationTimeouts = Collections.unmodifiableMap(new HashMap<>(operationTimeouts));
+    }
+
+    /**
+     * Membaca db.timeout.default dan db.timeout.&lt;Class.method&gt; dari properties
+     */
+    public static QueryTimeouts fromProperties(Properties properties) {
+        long defaultTimeout = PoolSettings.longProperty(properties, PREFIX + "default", DEFAULT_TIMEOUT_MILLIS);
+        Map<String, Long> overrides = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PREFIX) && !key.equals(PREFIX + "default")) {
+                overrides.put(key.substring(PREFIX.length()), PoolSettings.longProperty(properties, key, defaultTimeout));
+            }
+        }
+        return new QueryTimeouts(defaultTimeout, overrides);
+    }
+
+    /**
+     * Memasang query timeout pada statement milik operasi DAO
+     * Dipanggil langsung setelah statement dibuat:
+     * <pre>
+     * PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.findById")
+     * </pre>
+     * @param statement Statement yang baru dibuat
+     * @param operation Nama operasi (Class.method)
+     * @return statement yang sama
+     * @throws SQLTimeoutException jika deadline operasi service sudah terlewati (statement ditutup)
+     */
+    public static <S extends Statement> S apply(S statement, String operation) throws SQLException {
+        return DatabaseConfig.getQueryTimeouts().applyTo(statement, operation);
+    }
+
+    /**
+     * Memulai deadline untuk operasi service sesuai db.timeout.&lt;Class.method&gt;
+     * Statement DAO di dalam scope memakai sisa waktu deadline jika lebih kecil dari timeout-nya sendiri
+     * @param operation Nama operasi service (misalnya BorrowingService.borrowBook)
+     * @return scope yang wajib ditutup (try-with-resources)
+     */
+    public static Deadline.Scope deadline(String operation) {
+        return Deadline.within(DatabaseConfig.getQueryTimeouts().getTimeoutMillis(operation));
+    }
+
+    /**
+     * Versi instance dari apply(), dipakai langsung oleh unit test
+     */
+    public <S extends Statement> S applyTo(S statement, String operation) throws SQLException {
+        if (Deadline.isExpired()) {
+            recordTimeout(operation);
+            statement.close();
+            throw new SQLTimeoutException("Deadline operasi terlewati sebelum " + operation
+                    + " dijalankan", QUERY_CANCELED_SQL_STATE);
+        }
+
+        long timeoutMillis = getTimeoutMillis(operation);
+        if (timeoutMillis <= 0) {
+            timeoutMillis = Long.MAX_VALUE;
+        }
+        timeoutMillis = Math.min(timeoutMillis, Deadline.remainingMillis());
+        if (timeoutMillis != Long.MAX_VALUE) {
+            setQueryTimeout(statement, timeoutMillis);
+        }
+        TrackedStatement.label(statement, operation, this);
+        return statement;
+    }
+
+    /**
+     * Memasang timeout dalam milidetik lewat pgjdbc (PgStatement.setQueryTimeoutMs), sehingga deadline
+     * di bawah satu detik tetap ditegakkan. Driver lain hanya mendukung setQueryTimeout dalam detik,
+     * dibulatkan ke atas supaya tidak pernah 0 (= tanpa timeout)
+     */
+    private static void setQueryTimeout(Statement statement, long timeoutMillis) throws SQLException {
+        if (statement.isWrapperFor(PgStatement.class)) {
+            statement.unwrap(PgStatement.class).setQueryTimeoutMs(Math.max(1, timeoutMillis));
+            return;
+        }
+        int seconds = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (timeoutMillis + 999) / 1000));
+        statement.setQueryTimeout(seconds);
+    }
+
+    /**
+     * @return timeout untuk operasi (ms), default jika tidak ada override
+     */
+    public long getTimeoutMillis(String operation) {
+        return operationTimeouts.getOrDefault(operation, defaultTimeoutMillis);
+    }
+
+    public long getDefaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+
+    /**
+     * Mencatat satu timeout untuk operasi
+     */
+    void recordTimeout(String operation) {
+        timeoutCounts.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        logger.warning("Query timeout/dibatalkan: " + operation);
+    }
+
+    /**
+     * @return jumlah timeout untuk satu operasi
+     */
+    public long getTimeoutCount(String operation) {
+        LongAdder count = timeoutCounts.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * @return jumlah timeout per operasi, urut berdasarkan nama operasi
+     */
+    public Map<String, Long> getTimeoutCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        timeoutCounts.forEach((operation, count) -> counts.put(operation, count.sum()));
+        return counts;
+    }
+
+    /**
+     * @return true jika exception adalah query yang dibatalkan karena timeout
+     */
+    static boolean isQueryCanceled(Throwable error) {
+        return error instanceof SQLTimeoutException
+                || (error instanceof SQLException sqlException
+                && QUERY_CANCELED_SQL_STATE.equals(sqlException.getSQLState()));
+    }
+}
@@ -0,0 +1,192 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Router read/write splitting antara database utama (primary) dan read replicas
+ * Write dan read di dalam transaksi tetap ke primary, read-only query boleh ke replica
+ *
+ * Jika tidak ada replica (db.replica.urls kosong), semua read dikirim ke primary
+ */
+public class ReplicaRouter implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ReplicaRouter.class.getName());
+
+    /**
+     * Strategi memilih replica untuk read-only query
+     */
+    public enum LoadBalancing {
+        // Bergiliran ke setiap replica
+        ROUND_ROBIN,
+        // Replica dengan koneksi aktif + thread menunggu paling sedikit
+        LEAST_LOADED;
+
+        /**
+         * Parse nilai db.replica.loadBalancing (round_robin / least_loaded)
+         */
+        public static LoadBalancing fromProperty(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return ROUND_ROBIN;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("db.replica.loadBalancing tidak dikenal: " + value);
+            }
+        }
+    }
+
+    // Jumlah scope aktif per thread yang memaksa read ke primary (bisa nested)
+    private static final ThreadLocal<int[]> primaryPins = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final ConnectionPool primary;
+    private final List<ConnectionPool> replicas;
+    private final LoadBalancing loadBalancing;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicas, LoadBalancing loadBalancing) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.loadBalancing = loadBalancing;
+    }
+
+    /**
+     * Mendapatkan koneksi untuk write atau read yang harus konsisten (primary)
+     */
+    public Connection getWriteConnection() throws SQLException {
+        return primary.getConnection();
+    }
+
+    /**
+     * Mendapatkan koneksi untuk read-only query
+     * Ke primary jika tidak ada replica atau thread sedang berada di dalam pinToPrimary()
+     * Jika replica yang dipilih gagal, replica lain dicoba lalu fallback ke primary
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty() || isPinnedToPrimary()) {
+            return primary.getConnection();
+        }
+
+        int start = selectReplica();
+        for (int i = 0; i < replicas.size(); i++) {
+            ConnectionPool replica = replicas.get((start + i) % replicas.size());
+            try {
+                return openReadOnly(replica);
+            } catch (SQLException e) {
+                logger.warning("Replica " + replica.getName() + " tidak tersedia: " + e.getMessage());
+            }
+        }
+
+        logger.warning("Semua replica tidak tersedia, read dialihkan ke primary");
+        return primary.getConnection();
+    }
+
+    /**
+     * Meminjam koneksi replica dan menandainya read-only (di-reset saat kembali ke pool)
+     */
+    private static Connection openReadOnly(ConnectionPool replica) throws SQLException {
+        Connection connection = replica.getConnection();
+        try {
+            connection.setReadOnly(true);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Index replica pertama yang dicoba sesuai strategi load balancing
+     */
+    private int selectReplica() {
+        int roundRobin = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        if (loadBalancing == LoadBalancing.ROUND_ROBIN) {
+            return roundRobin;
+        }
+
+        // Mulai dari posisi round robin supaya replica dengan load sama tetap bergiliran
+        int best = roundRobin;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (roundRobin + i) % replicas.size();
+            ConnectionPool replica = replicas.get(index);
+            int load = replica.getActiveCount() + replica.getThreadsAwaitingConnection();
+            if (load < bestLoad) {
+                best = index;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Memaksa semua read di thread ini ke primary sampai scope ditutup
+     * Dipakai untuk read-after-write dan read di dalam transaksi
+     * <pre>
+     * try (ReplicaRouter.PrimaryScope scope = ReplicaRouter.pinToPrimary()) {
+     *     bookDAO.findAvailableBooks(); // dibaca dari primary
+     * }
+     * </pre>
+     */
+    public static PrimaryScope pinToPrimary() {
+        primaryPins.get()[0]++;
+        return new PrimaryScope();
+    }
+
+    /**
+     * @return true jika thread ini sedang berada di dalam pinToPrimary()
+     */
+    public static boolean isPinnedToPrimary() {
+        return primaryPins.get()[0] > 0;
+    }
+
+    public ConnectionPool getPrimary() {
+        return primary;
+    }
+
+    public List<ConnectionPool> getReplicas() {
+        return replicas;
+    }
+
+    public LoadBalancing getLoadBalancing() {
+        return loadBalancing;
+    }
+
+    /**
+     * Menutup semua pool replica (pool primary ditutup oleh pemiliknya)
+     */
+    @Override
+    public void close() {
+        for (ConnectionPool replica : replicas) {
+            replica.close();
+        }
+    }
+
+    /**
+     * Scope pinToPrimary(), wajib ditutup (try-with-resources)
+     */
+    public static final class PrimaryScope implements AutoCloseable {
+        private boolean closed;
+
+        private PrimaryScope() {
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            int[] pins = primaryPins.get();
+            if (--pins[0] <= 0) {
+                primaryPins.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Membungkus ResultSet yang dibaca lewat cursor menjadi Stream yang lazy
+ *
+ * Baris di-mapping satu per satu saat stream dikonsumsi, jadi memory tetap konstan selama
+ * fetch size di statement dipakai driver (koneksi autocommit off untuk pgjdbc).
+ * ResultSet, statement, dan koneksi ditutup saat stream ditutup, sehingga stream wajib dipakai
+ * dengan try-with-resources:
+ * <pre>
+ * try (Stream&lt;Book&gt; books = bookDAO.streamAll()) {
+ *     books.forEach(exporter::write);
+ * }
+ * </pre>
+ */
+public final class ResultSetStream {
+    private static final Logger logger = Logger.getLogger(ResultSetStream.class.getName());
+
+    private ResultSetStream() {
+    }
+
+    /**
+     * @param connection Koneksi pemilik cursor, ditutup (dikembalikan ke pool) saat stream ditutup
+     * @param statement Statement yang sudah dieksekusi
+     * @param rs ResultSet dari statement
+     * @param mapper Mapping baris ke object
+     * @param operation Nama operasi untuk pesan error
+     * @return Stream sequential, SQLException saat fetch dilempar sebagai UncheckedSQLException
+     */
+    public static <T> Stream<T> of(Connection connection, Statement statement, ResultSet rs,
+                                   RowMapper<T> mapper, String operation) {
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(operation + " gagal membaca baris", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> close(connection, statement, rs));
+    }
+
+    /**
+     * Menutup semua resource, dipakai juga jika stream gagal dibuat
+     */
+    public static void close(Connection connection, Statement statement, ResultSet rs) {
+        // Urutan penting: ResultSet dan statement dulu, lalu koneksi (rollback transaksi read-only)
+        for (AutoCloseable resource : new AutoCloseable[] {rs, statement, connection}) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.fine("Gagal menutup resource stream: " + e.getMessage());
+            }
+        }
+    }
+}
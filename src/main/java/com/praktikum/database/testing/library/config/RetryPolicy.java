@@ -0,0 +1,200 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Retry untuk kegagalan database yang bersifat sementara (transient)
+ *
+ * SQLException diklasifikasikan berdasarkan SQLState (db.retry.retryableSqlStates):
+ * serialization failure, deadlock, dan koneksi putus di-retry dengan exponential backoff
+ * + full jitter; error lain (constraint violation, syntax, query timeout, pool/bulkhead penuh)
+ * langsung dilempar ke caller
+ *
+ * Hanya untuk operasi idempotent (read by id, count, search) atau seluruh transaksi
+ * (DatabaseConfig.inTransaction), karena setiap attempt menjalankan ulang operasi dari awal
+ */
+public class RetryPolicy {
+    private static final Logger logger = Logger.getLogger(RetryPolicy.class.getName());
+
+    // true jika thread ini sedang berada di dalam execute(): retry hanya di level terluar
+    private static final ThreadLocal<Boolean> insideRetry = new ThreadLocal<>();
+
+    private final RetrySettings settings;
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    public RetryPolicy(RetrySettings settings) {
+        settings.validate();
+        this.settings = settings;
+    }
+
+    /**
+     * Menjalankan operasi idempotent dengan RetryPolicy dari DatabaseConfig
+     * <pre>
+     * return RetryPolicy.retry("BookDAO.findById", () -> { ... });
+     * </pre>
+     * @param operation Nama operasi (Class.method) untuk statistik
+     * @param callable Operasi yang dijalankan ulang jika gagal transient
+     */
+    public static <T> T retry(String operation, SqlCallable<T> callable) throws SQLException {
+        return DatabaseConfig.getRetryPolicy().execute(operation, callable);
+    }
+
+    /**
+     * Menjalankan operasi, retry jika SQLState termasuk retryable
+     * Operasi nested (misalnya DAO read di dalam transaksi yang di-retry) hanya dijalankan sekali,
+     * retry dilakukan oleh level terluar supaya jumlah attempt tidak berlipat
+     * @throws SQLException exception terakhir jika semua attempt gagal atau error tidak retryable
+     */
+    public <T> T execute(String operation, SqlCallable<T> callable) throws SQLException {
+        if (Boolean.TRUE.equals(insideRetry.get())) {
+            return callable.call();
+        }
+
+        OperationStats operationStats = stats.computeIfAbsent(operation, key -> new OperationStats());
+        operationStats.calls.increment();
+        insideRetry.set(Boolean.TRUE);
+        try {
+            long retryStartNanos = 0;
+            for (int attempt = 1; ; attempt++) {
+                long attemptStartNanos = System.nanoTime();
+                try {
+                    T result = callable.call();
+                    if (attempt > 1) {
+                        operationStats.recovered.increment();
+                        operationStats.retryNanos.add(attemptStartNanos - retryStartNanos);
+                    }
+                    return result;
+                } catch (SQLException e) {
+                    if (retryStartNanos == 0) {
+                        retryStartNanos = attemptStartNanos;
+                    }
+                    long backoffMillis = backoffMillis(attempt);
+                    if (!shouldRetry(e, attempt, backoffMillis)) {
+                        if (attempt > 1) {
+                            operationStats.exhausted.increment();
+                            operationStats.retryNanos.add(System.nanoTime() - retryStartNanos);
+                        }
+                        throw e;
+                    }
+
+                    operationStats.retries.increment();
+                    logger.fine("Retry " + operation + " attempt " + (attempt + 1) + " setelah "
+                            + backoffMillis + " ms (SQLState " + e.getSQLState() + ")");
+                    if (!sleep(backoffMillis)) {
+                        operationStats.exhausted.increment();
+                        operationStats.retryNanos.add(System.nanoTime() - retryStartNanos);
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            insideRetry.remove();
+        }
+    }
+
+    /**
+     * Retry hanya jika error retryable, attempt belum habis, dan backoff masih muat di deadline
+     */
+    private boolean shouldRetry(SQLException e, int attempt, long backoffMillis) {
+        return attempt < settings.getMaxAttempts()
+                && isRetryable(e)
+                && backoffMillis < Deadline.remainingMillis();
+    }
+
+    /**
+     * Klasifikasi SQLException berdasarkan SQLState (termasuk exception berantai)
+     * @return true jika error bersifat sementara dan operasi aman diulang
+     */
+    public boolean isRetryable(SQLException e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sqlException) {
+                String sqlState = sqlException.getSQLState();
+                if (sqlState != null && settings.getRetryableSqlStates().contains(sqlState)) {
+                    return true;
+                }
+                SQLException next = sqlException.getNextException();
+                if (next != null && next != current && isRetryable(next)) {
+                    return true;
+                }
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Full jitter: random antara 0 dan min(maxBackoff, initialBackoff * multiplier^(attempt-1))
+     */
+    long backoffMillis(int attempt) {
+        double exponential = settings.getInitialBackoffMillis() * Math.pow(settings.getMultiplier(), attempt - 1);
+        long cap = (long) Math.min(settings.getMaxBackoffMillis(), exponential);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public RetrySettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return statistik retry untuk satu operasi (semua nol jika belum pernah dipanggil)
+     */
+    public RetryStats getStats(String operation) {
+        OperationStats operationStats = stats.get(operation);
+        return operationStats == null
+                ? RetryStats.builder().operation(operation).build()
+                : operationStats.snapshot(operation);
+    }
+
+    /**
+     * @return statistik retry semua operasi, urut berdasarkan nama operasi
+     */
+    public Map<String, RetryStats> getAllStats() {
+        Map<String, RetryStats> snapshot = new TreeMap<>();
+        stats.forEach((operation, operationStats) -> snapshot.put(operation, operationStats.snapshot(operation)));
+        return snapshot;
+    }
+
+    /**
+     * Counter retry per operasi
+     */
+    private static class OperationStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder recovered = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+        final LongAdder retryNanos = new LongAdder();
+
+        RetryStats snapshot(String operation) {
+            return RetryStats.builder()
+                    .operation(operation)
+                    .calls(calls.sum())
+                    .retries(retries.sum())
+                    .recoveredCalls(recovered.sum())
+                    .exhaustedCalls(exhausted.sum())
+                    .retryTimeMillis(TimeUnit.NANOSECONDS.toMillis(retryNanos.sum()))
+                    .build();
+        }
+    }
+}
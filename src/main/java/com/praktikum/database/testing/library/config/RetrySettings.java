@@ -0,0 +1,100 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Konfigurasi untuk RetryPolicy
+ * Nilai dibaca dari key db.retry.* di database.properties
+ */
+@Getter
+@Builder(toBuilder = true)
+@EqualsAndHashCode
+@ToString
+public class RetrySettings {
+    // SQLState default yang aman di-retry:
+    // 40001 serialization_failure, 40P01 deadlock_detected,
+    // 08000/08003/08006 koneksi putus, 57P01/57P02/57P03 server restart/shutdown,
+    // 53300 too_many_connections
+    public static final Set<String> DEFAULT_RETRYABLE_SQL_STATES = Collections.unmodifiableSet(new LinkedHashSet<>(
+            Arrays.asList("40001", "40P01", "08000", "08003", "08006", "57P01", "57P02", "57P03", "53300")));
+
+    // Jumlah attempt maksimum termasuk attempt pertama (1 = tanpa retry)
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    // Backoff sebelum retry pertama, naik eksponensial per attempt
+    @Builder.Default
+    private final long initialBackoffMillis = 50;
+
+    // Batas atas backoff per retry
+    @Builder.Default
+    private final long maxBackoffMillis = 1_000;
+
+    // Faktor pengali backoff per attempt
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    // SQLState yang boleh di-retry, selain itu exception langsung dilempar ke caller
+    @Builder.Default
+    private final Set<String> retryableSqlStates = DEFAULT_RETRYABLE_SQL_STATES;
+
+    /**
+     * Membaca RetrySettings dari properties database.properties
+     * db.retry.retryableSqlStates berisi daftar SQLState dipisah koma
+     * @param properties Properties hasil load database.properties
+     * @return RetrySettings yang sudah divalidasi
+     */
+    public static RetrySettings fromProperties(Properties properties) {
+        RetrySettings defaults = RetrySettings.builder().build();
+
+        Set<String> sqlStates = defaults.retryableSqlStates;
+        String configuredStates = properties.getProperty("db.retry.retryableSqlStates");
+        if (configuredStates != null && !configuredStates.trim().isEmpty()) {
+            sqlStates = new LinkedHashSet<>();
+            for (String state : configuredStates.split(",")) {
+                if (!state.trim().isEmpty()) {
+                    sqlStates.add(state.trim().toUpperCase());
+                }
+            }
+            sqlStates = Collections.unmodifiableSet(sqlStates);
+        }
+
+        RetrySettings settings = RetrySettings.builder()
+                .maxAttempts(PoolSettings.intProperty(properties, "db.retry.maxAttempts", defaults.maxAttempts))
+                .initialBackoffMillis(PoolSettings.longProperty(properties, "db.retry.initialBackoffMillis",
+                        defaults.initialBackoffMillis))
+                .maxBackoffMillis(PoolSettings.longProperty(properties, "db.retry.maxBackoffMillis",
+                        defaults.maxBackoffMillis))
+                .multiplier(PoolSettings.doubleProperty(properties, "db.retry.multiplier", defaults.multiplier))
+                .retryableSqlStates(sqlStates)
+                .build();
+
+        settings.validate();
+        return settings;
+    }
+
+    /**
+     * Validasi bahwa kombinasi nilai retry masuk akal
+     */
+    public void validate() {
+        if (maxAttempts < 1) {
+            throw new RuntimeException("db.retry.maxAttempts minimal 1");
+        }
+        if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+            throw new RuntimeException("db.retry.initialBackoffMillis harus di antara 0 dan maxBackoffMillis");
+        }
+        if (multiplier < 1.0) {
+            throw new RuntimeException("db.retry.multiplier minimal 1.0");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot statistik retry untuk satu operasi (misalnya BookDAO.findById)
+ * Dipakai untuk tuning db.retry.* (jumlah attempt dan backoff)
+ */
+@Getter
+@Builder
+@ToString
+public class RetryStats {
+    // Nama operasi (Class.method)
+    private final String operation;
+
+    // Jumlah pemanggilan operasi
+    private final long calls;
+
+    // Jumlah retry (attempt setelah attempt pertama)
+    private final long retries;
+
+    // Jumlah pemanggilan yang berhasil setelah minimal satu retry
+    private final long recoveredCalls;
+
+    // Jumlah pemanggilan yang tetap gagal setelah semua attempt habis
+    private final long exhaustedCalls;
+
+    // Total waktu yang dihabiskan untuk attempt gagal + backoff (ms)
+    private final long retryTimeMillis;
+}
@@ -0,0 +1,13 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping satu baris ResultSet (posisi kursor saat ini) ke object
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,14 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Query yang dijalankan di satu shard (lihat ShardRouter.scatterGather)
+ * Dipanggil sekali per shard, bisa dari thread yang berbeda secara paralel
+ */
+@FunctionalInterface
+public interface ShardCallback<T> {
+
+    T apply(Connection connection) throws SQLException;
+}
@@ -0,0 +1,186 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Routing data per user ke salah satu dari N database (shard)
+ *
+ * user_id dipetakan ke shard lewat ConsistentHashRing, sehingga users dan borrowings milik
+ * satu user selalu berada di shard yang sama. Query tanpa user_id (countAll, laporan overdue)
+ * dijalankan paralel di semua shard lalu hasilnya digabung (scatter-gather)
+ *
+ * Shard diberi nama stabil shard-0..shard-(N-1); posisi di ring tergantung nama, bukan URL,
+ * jadi memindahkan shard ke host lain tidak memindahkan data
+ */
+public class ShardRouter implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ShardRouter.class.getName());
+
+    private final List<ConnectionPool> shards;
+    private final ConsistentHashRing<Integer> ring;
+    private final ExecutorService scatterExecutor;
+
+    /**
+     * @param shards Pool untuk setiap shard, index list = nomor shard
+     * @param virtualNodes Jumlah virtual node per shard di hash ring
+     */
+    public ShardRouter(List<ConnectionPool> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new RuntimeException("ShardRouter membutuhkan minimal satu shard");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            nodes.put(shardName(i), i);
+        }
+        this.ring = new ConsistentHashRing<>(nodes, virtualNodes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "db-shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Nama stabil shard di hash ring
+     */
+    public static String shardName(int index) {
+        return "shard-" + index;
+    }
+
+    /**
+     * @return nomor shard yang menyimpan data user
+     */
+    public int shardFor(int userId) {
+        return ring.nodeFor(Integer.toString(userId));
+    }
+
+    /**
+     * @return pool shard yang menyimpan data user
+     */
+    public ConnectionPool getShard(int userId) {
+        return shards.get(shardFor(userId));
+    }
+
+    /**
+     * Meminjam koneksi ke shard milik user
+     */
+    public Connection getConnection(int userId) throws SQLException {
+        return getShard(userId).getConnection();
+    }
+
+    /**
+     * Menjalankan callback di semua shard secara paralel
+     * @return hasil per shard, urut berdasarkan nomor shard
+     */
+    public <T> List<T> scatterGather(ShardCallback<T> callback) throws SQLException {
+        return scatterGather(shard -> shard::getConnection, callback);
+    }
+
+    /**
+     * Menjalankan callback di semua shard secara paralel
+     * Deadline thread pemanggil ikut berlaku di setiap shard (query timeout tetap terbatas)
+     * Jika satu shard gagal, exception pertama dilempar setelah semua shard selesai,
+     * exception shard lain ditambahkan sebagai suppressed
+     * @param connector Sumber koneksi untuk setiap shard (misalnya lewat bulkhead)
+     * @param callback Query yang dijalankan di setiap shard
+     * @return hasil per shard, urut berdasarkan nomor shard
+     */
+    public <T> List<T> scatterGather(Function<ConnectionPool, ConnectionFactory> connector,
+                                     ShardCallback<T> callback) throws SQLException {
+        long deadlineMillis = Deadline.isActive() ? Math.max(1, Deadline.remainingMillis()) : 0;
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (ConnectionPool shard : shards) {
+            ConnectionFactory source = connector.apply(shard);
+            futures.add(scatterExecutor.submit(() -> {
+                try (Deadline.Scope deadline = Deadline.within(deadlineMillis);
+                     Connection connection = source.createConnection()) {
+                    return callback.apply(connection);
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<>(shards.size());
+        SQLException failure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new SQLException("Scatter-gather ke shard dihentikan (interrupted)", e);
+            } catch (ExecutionException | CancellationException e) {
+                SQLException error = toSqlException(shardName(i), e);
+                if (failure == null) {
+                    failure = error;
+                } else {
+                    failure.addSuppressed(error);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    private static SQLException toSqlException(String shard, Exception e) {
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new SQLException("Query di " + shard + " gagal: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Menggabungkan hasil list dari setiap shard dengan urutan yang sama seperti ORDER BY query
+     */
+    public static <T> List<T> merge(List<List<T>> perShard, Comparator<? super T> order) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<T> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(order);
+        return merged;
+    }
+
+    public List<ConnectionPool> getShards() {
+        return shards;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Menutup semua shard pool dan thread scatter-gather
+     */
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+        for (ConnectionPool shard : shards) {
+            shard.close();
+        }
+        logger.info("ShardRouter ditutup (" + shards.size() + " shard)");
+    }
+}
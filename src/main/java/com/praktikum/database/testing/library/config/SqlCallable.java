@@ -0,0 +1,13 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.SQLException;
+
+/**
+ * Operasi database yang mengembalikan hasil dan boleh melempar SQLException
+ * Dipakai oleh RetryPolicy untuk membungkus query idempotent atau seluruh transaksi
+ */
+@FunctionalInterface
+public interface SqlCallable<T> {
+
+    T call() throws SQLException;
+}
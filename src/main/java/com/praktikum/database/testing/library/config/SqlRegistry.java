@@ -0,0 +1,59 @@
+package com.praktikum.database.testing.library.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry pusat untuk semua SQL statement DAO
+ *
+ * DAO mendaftarkan SQL-nya di satu class (db.warmup.statements) lewat register(), lalu memakai
+ * String yang dikembalikan sebagai SQL. Dengan begitu StatementWarmer tahu persis statement
+ * apa saja yang akan dipakai aplikasi dan bisa menyiapkannya sebelum readiness
+ */
+public final class SqlRegistry {
+    // Key = teks SQL, satu operasi bisa punya beberapa SQL (misalnya varian sharded)
+    private static final Map<String, SqlStatement> statements = new LinkedHashMap<>();
+
+    private SqlRegistry() {
+    }
+
+    /**
+     * Mendaftarkan statement, mendaftarkan SQL yang sama dua kali tidak berpengaruh
+     * @return teks SQL statement
+     * @throws RuntimeException jika SQL yang sama sudah terdaftar untuk operasi lain
+     */
+    public static synchronized String register(SqlStatement statement) {
+        SqlStatement existing = statements.putIfAbsent(statement.getSql(), statement);
+        if (existing != null && !existing.getOperation().equals(statement.getOperation())) {
+            throw new RuntimeException("SQL untuk " + statement.getOperation()
+                    + " sudah terdaftar sebagai " + existing.getOperation());
+        }
+        return statement.getSql();
+    }
+
+    /**
+     * @return semua statement terdaftar, urut sesuai urutan pendaftaran
+     */
+    public static synchronized List<SqlStatement> all() {
+        return new ArrayList<>(statements.values());
+    }
+
+    /**
+     * @return statement read-only saja (untuk read replica)
+     */
+    public static synchronized List<SqlStatement> readOnly() {
+        List<SqlStatement> result = new ArrayList<>();
+        for (SqlStatement statement : statements.values()) {
+            if (statement.isReadOnly()) {
+                result.add(statement);
+            }
+        }
+        return result;
+    }
+
+    public static synchronized int size() {
+        return statements.size();
+    }
+}
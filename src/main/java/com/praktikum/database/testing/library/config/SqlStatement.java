@@ -0,0 +1,35 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Satu SQL statement DAO yang terdaftar di SqlRegistry
+ * Dipakai StatementWarmer untuk menyiapkan statement di setiap koneksi sebelum aplikasi siap
+ */
+@Getter
+@Builder
+@ToString
+public class SqlStatement {
+    // Nama operasi (Class.method), sama dengan nama di db.timeout.* dan db.retry.*
+    private final String operation;
+
+    private final String sql;
+
+    // true jika statement hanya membaca data (boleh di-warm di read replica)
+    private final boolean readOnly;
+
+    // Parameter contoh untuk lookup saat warm-up, null = statement hanya di-prepare
+    private final List<Object> sampleParameters;
+
+    /**
+     * @return true jika statement boleh dieksekusi saat warm-up (read-only dan punya parameter contoh)
+     */
+    public boolean isLookup() {
+        return readOnly && sampleParameters != null;
+    }
+}
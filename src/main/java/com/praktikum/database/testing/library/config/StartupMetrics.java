@@ -0,0 +1,140 @@
+package com.praktikum.database.testing.library.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics waktu startup DatabaseConfig
+ * Semua titik waktu dicatat dengan System.nanoTime() relatif terhadap
+ * saat initialize() dipanggil, sehingga bisa dipakai untuk mengukur
+ * time-to-ready dan time-to-first-query
+ */
+public class StartupMetrics {
+    // Nilai -1 berarti event belum terjadi
+    private static final long NOT_RECORDED = -1;
+
+    private final AtomicLong initializeStartedAt = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong configLoadedAt = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong startRequestedAt = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong connectivityCheckedAt = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong poolWarmedAt = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong firstConnectionAt = new AtomicLong(NOT_RECORDED);
+
+    // Jumlah koneksi yang dibuka saat warm-up
+    private volatile int warmedConnections;
+
+    // Jumlah statement DAO yang di-prepare saat warm-up (dijumlah untuk semua koneksi dan pool)
+    private volatile int warmedStatements;
+
+    void recordInitializeStarted() {
+        initializeStartedAt.compareAndSet(NOT_RECORDED, System.nanoTime());
+    }
+
+    void recordConfigLoaded() {
+        configLoadedAt.compareAndSet(NOT_RECORDED, System.nanoTime());
+    }
+
+    void recordStartRequested() {
+        startRequestedAt.compareAndSet(NOT_RECORDED, System.nanoTime());
+    }
+
+    void recordConnectivityChecked() {
+        connectivityCheckedAt.compareAndSet(NOT_RECORDED, System.nanoTime());
+    }
+
+    void recordPoolWarmed(int connections) {
+        warmedConnections = connections;
+        poolWarmedAt.compareAndSet(NOT_RECORDED, System.nanoTime());
+    }
+
+    void recordStatementsWarmed(int statements) {
+        warmedStatements = statements;
+    }
+
+    /**
+     * Dicatat sekali, saat getConnection() pertama kali berhasil
+     */
+    void recordFirstConnection() {
+        if (firstConnectionAt.get() == NOT_RECORDED) {
+            firstConnectionAt.compareAndSet(NOT_RECORDED, System.nanoTime());
+        }
+    }
+
+    /**
+     * Reset untuk siklus start/shutdown berikutnya (config tetap dianggap sudah di-load)
+     */
+    void resetRuntimeEvents() {
+        startRequestedAt.set(NOT_RECORDED);
+        connectivityCheckedAt.set(NOT_RECORDED);
+        poolWarmedAt.set(NOT_RECORDED);
+        firstConnectionAt.set(NOT_RECORDED);
+        warmedConnections = 0;
+        warmedStatements = 0;
+    }
+
+    /**
+     * @return waktu load dan validasi database.properties (ms), atau -1
+     */
+    public long getConfigLoadMillis() {
+        return elapsedMillis(configLoadedAt);
+    }
+
+    /**
+     * @return waktu sampai test koneksi selesai (ms sejak initialize), atau -1
+     */
+    public long getConnectivityCheckMillis() {
+        return elapsedMillis(connectivityCheckedAt);
+    }
+
+    /**
+     * @return waktu sampai pool selesai warm-up dan siap (ms sejak initialize), atau -1
+     */
+    public long getTimeToReadyMillis() {
+        return elapsedMillis(poolWarmedAt);
+    }
+
+    /**
+     * @return waktu sampai koneksi pertama berhasil diberikan ke caller (ms sejak initialize), atau -1
+     */
+    public long getTimeToFirstQueryMillis() {
+        return elapsedMillis(firstConnectionAt);
+    }
+
+    /**
+     * @return selisih waktu antara start() dan pool siap (ms), atau -1
+     */
+    public long getStartToReadyMillis() {
+        long start = startRequestedAt.get();
+        long ready = poolWarmedAt.get();
+        if (start == NOT_RECORDED || ready == NOT_RECORDED) {
+            return NOT_RECORDED;
+        }
+        return (ready - start) / 1_000_000;
+    }
+
+    public int getWarmedConnections() {
+        return warmedConnections;
+    }
+
+    public int getWarmedStatements() {
+        return warmedStatements;
+    }
+
+    private long elapsedMillis(AtomicLong event) {
+        long origin = initializeStartedAt.get();
+        long at = event.get();
+        if (origin == NOT_RECORDED || at == NOT_RECORDED) {
+            return NOT_RECORDED;
+        }
+        return (at - origin) / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "StartupMetrics[configLoad=" + getConfigLoadMillis() + "ms"
+                + ", connectivityCheck=" + getConnectivityCheckMillis() + "ms"
+                + ", timeToReady=" + getTimeToReadyMillis() + "ms"
+                + ", timeToFirstQuery=" + getTimeToFirstQueryMillis() + "ms"
+                + ", warmedConnections=" + warmedConnections
+                + ", warmedStatements=" + warmedStatements + "]";
+    }
+}
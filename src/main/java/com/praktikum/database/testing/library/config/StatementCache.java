@@ -0,0 +1,231 @@
+package com.praktikum.database.testing.library.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Cache PreparedStatement per koneksi fisik, dengan key berupa teks SQL
+ * dan LRU eviction ketika jumlah statement melebihi maxSize
+ *
+ * Karena object PreparedStatement yang sama dipakai ulang, PgJDBC akan
+ * mengubahnya menjadi server-side prepared statement setelah prepareThreshold
+ * eksekusi, sehingga PostgreSQL tidak perlu parse/plan ulang query yang sama
+ */
+class StatementCache {
+    private static final Logger logger = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection physicalConnection;
+    private final int maxSize;
+    private final StatementCacheStats stats;
+
+    // LinkedHashMap dengan accessOrder=true sebagai LRU
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection physicalConnection, int maxSize, StatementCacheStats stats) {
+        this.physicalConnection = physicalConnection;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                stats.recordEviction();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Mengambil PreparedStatement dari cache, atau membuat yang baru jika belum ada
+     * @param sql Teks SQL sebagai key cache
+     * @return PreparedStatement proxy yang close()-nya mengembalikan statement ke cache
+     * @throws SQLException jika gagal prepare statement
+     */
+    synchronized PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            stats.recordHit();
+            return cached.checkout();
+        }
+
+        stats.recordMiss();
+        PreparedStatement physicalStatement = physicalConnection.prepareStatement(sql);
+        if (cached != null) {
+            // SQL yang sama sedang dipakai (nested), statement kedua tidak di-cache
+            return physicalStatement;
+        }
+
+        CachedStatement created = new CachedStatement(physicalStatement);
+        statements.put(sql, created);
+        return created.checkout();
+    }
+
+    /**
+     * Menandai semua statement tidak sedang dipakai
+     * Dipanggil saat koneksi dikembalikan ke pool, untuk statement yang lupa ditutup caller
+     */
+    synchronized void releaseAll() {
+        for (CachedStatement cached : new ArrayList<>(statements.values())) {
+            cached.checkin();
+        }
+    }
+
+    /**
+     * Menutup semua statement di cache (dipanggil saat koneksi fisik ditutup)
+     */
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Satu PreparedStatement fisik di dalam cache beserta state peminjamannya
+     */
+    private class CachedStatement {
+        private final PreparedStatement physicalStatement;
+        private boolean inUse;
+        private boolean evicted;
+
+        // Proxy untuk peminjaman saat ini, dan ResultSet yang terakhir dibuka
+        private StatementLease currentLease;
+
+        CachedStatement(PreparedStatement physicalStatement) {
+            this.physicalStatement = physicalStatement;
+        }
+
+        PreparedStatement checkout() {
+            inUse = true;
+            currentLease = new StatementLease(this);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    currentLease);
+        }
+
+        void checkin() {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            if (currentLease != null) {
+                currentLease.closed = true;
+                currentLease.closeOpenResultSets();
+                currentLease = null;
+            }
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                // Reset state supaya peminjam berikutnya mendapat statement yang bersih
+                physicalStatement.clearParameters();
+                physicalStatement.clearWarnings();
+                physicalStatement.setQueryTimeout(0);
+                physicalStatement.setMaxRows(0);
+                physicalStatement.setFetchSize(0);
+            } catch (SQLException e) {
+                logger.fine("Gagal reset cached statement, statement dibuang: " + e.getMessage());
+                evicted = true;
+                statements.values().remove(this);
+                closePhysical();
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physicalStatement.close();
+            } catch (SQLException e) {
+                logger.fine("Gagal menutup cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * InvocationHandler untuk satu kali peminjaman cached statement
+     */
+    private class StatementLease implements InvocationHandler {
+        private final CachedStatement owner;
+        private final List<ResultSet> openResultSets = new ArrayList<>();
+        private boolean closed;
+
+        StatementLease(CachedStatement owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (!closed && owner.currentLease == this) {
+                            owner.checkin();
+                        }
+                        closed = true;
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + owner.physicalStatement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("PreparedStatement sudah ditutup");
+            }
+
+            try {
+                Object result = method.invoke(owner.physicalStatement, args);
+                if (result instanceof ResultSet resultSet) {
+                    openResultSets.add(resultSet);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void closeOpenResultSets() {
+            for (ResultSet resultSet : openResultSets) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    logger.fine("Gagal menutup ResultSet: " + e.getMessage());
+                }
+            }
+            openResultSets.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.praktikum.database.testing.library.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter hit/miss untuk prepared statement cache
+ * Satu instance dipakai bersama oleh semua koneksi dalam satu ConnectionPool
+ */
+public class StatementCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * @return jumlah prepareStatement() yang dilayani dari cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return jumlah prepareStatement() yang harus membuat statement baru
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return jumlah statement yang ditutup karena LRU eviction
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return rasio hit terhadap total request (0.0 jika belum ada request)
+     */
+    public double getHitRatio() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0.0 : (double) getHits() / total;
+    }
+
+    /**
+     * Reset semua counter (berguna untuk mengukur satu skenario benchmark)
+     */
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheStats[hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + "]";
+    }
+}
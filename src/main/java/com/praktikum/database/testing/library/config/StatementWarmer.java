@@ -0,0 +1,125 @@
+package com.praktikum.database.testing.library.config;
+
+import org.postgresql.PGStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Menyiapkan SQL statement DAO di setiap koneksi pool sebelum database dilaporkan siap
+ *
+ * Semua koneksi idle dipinjam sekaligus supaya setiap koneksi fisik mendapat statement-nya sendiri
+ * (StatementCache dan prepared statement server bersifat per koneksi). Untuk setiap statement:
+ * - prepareThreshold pgjdbc diset 1, jadi eksekusi pertama langsung memakai named statement server
+ * - lookup read-only dengan parameter contoh dieksekusi beberapa kali (warm JIT, plan cache, buffer)
+ * - statement lain hanya di-describe (parse + catalog lookup di server, SQL divalidasi tanpa mengubah data)
+ */
+public final class StatementWarmer {
+    private static final Logger logger = Logger.getLogger(StatementWarmer.class.getName());
+
+    // Nama operasi untuk query timeout (db.timeout.StatementWarmer.warmUp)
+    static final String OPERATION = "StatementWarmer.warmUp";
+
+    private StatementWarmer() {
+    }
+
+    /**
+     * @param pool Pool yang koneksinya akan di-warm
+     * @param statements Statement yang disiapkan di setiap koneksi
+     * @param lookupIterations Jumlah eksekusi per lookup, 0 = hanya prepare
+     * @return ringkasan hasil warm-up
+     * @throws SQLException jika tidak ada satu koneksi pun yang bisa dipinjam
+     */
+    public static WarmupReport warmUp(ConnectionPool pool, Collection<SqlStatement> statements,
+                                      int lookupIterations) throws SQLException {
+        long startNanos = System.nanoTime();
+        List<Connection> connections = borrowAll(pool);
+        int prepared = 0;
+        int lookups = 0;
+        int failures = 0;
+        try {
+            for (Connection connection : connections) {
+                for (SqlStatement statement : statements) {
+                    try {
+                        lookups += warm(connection, statement, lookupIterations);
+                        prepared++;
+                    } catch (SQLException e) {
+                        failures++;
+                        logger.fine("Warm-up " + statement.getOperation() + " di " + pool.getName()
+                                + " gagal: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.fine("Gagal mengembalikan koneksi warm-up: " + e.getMessage());
+                }
+            }
+        }
+        return WarmupReport.builder()
+                .pool(pool.getName())
+                .connections(connections.size())
+                .statementsPrepared(prepared)
+                .lookupsExecuted(lookups)
+                .failures(failures)
+                .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                .build();
+    }
+
+    /**
+     * Meminjam semua koneksi idle (minimal satu), berhenti di kegagalan pertama setelah koneksi pertama
+     */
+    private static List<Connection> borrowAll(ConnectionPool pool) throws SQLException {
+        int target = Math.max(1, pool.getIdleCount());
+        List<Connection> connections = new ArrayList<>(target);
+        connections.add(pool.getConnection());
+        while (connections.size() < target) {
+            try {
+                connections.add(pool.getConnection());
+            } catch (SQLException e) {
+                logger.fine("Warm-up " + pool.getName() + " memakai " + connections.size()
+                        + " koneksi: " + e.getMessage());
+                break;
+            }
+        }
+        return connections;
+    }
+
+    /**
+     * @return jumlah lookup yang dieksekusi
+     */
+    private static int warm(Connection connection, SqlStatement statement, int lookupIterations)
+            throws SQLException {
+        try (PreparedStatement pstmt = QueryTimeouts.apply(connection.prepareStatement(statement.getSql()), OPERATION)) {
+            if (pstmt.isWrapperFor(PGStatement.class)) {
+                pstmt.unwrap(PGStatement.class).setPrepareThreshold(1);
+            }
+            if (!statement.isLookup() || lookupIterations <= 0) {
+                pstmt.getParameterMetaData();
+                return 0;
+            }
+
+            List<Object> parameters = statement.getSampleParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            for (int i = 0; i < lookupIterations; i++) {
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Baca semua baris supaya eksekusi sama dengan pemakaian DAO
+                    }
+                }
+            }
+            return lookupIterations;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.praktikum.database.testing.library.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proxy Statement yang menghitung statement dan ResultSet yang masih terbuka
+ * untuk satu peminjaman koneksi (dipakai oleh leak detection di ConnectionPool)
+ */
+class TrackedStatement implements InvocationHandler {
+    private final Statement delegate;
+    private final Connection logicalConnection;
+    private final Counters counters;
+
+    // Menerima hasil eksekusi statement (null jika pool tanpa circuit breaker)
+    private final CircuitBreaker circuitBreaker;
+
+    // ResultSet milik statement ini yang belum ditutup
+    private final List<TrackedResultSet> openResultSets = new ArrayList<>();
+    private boolean closed;
+
+    // Operasi DAO pemilik statement (di-set oleh QueryTimeouts.apply) untuk menghitung timeout
+    private volatile String operation;
+    private volatile QueryTimeouts queryTimeouts;
+
+    private TrackedStatement(Statement delegate, Connection logicalConnection, Counters counters,
+                             CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.logicalConnection = logicalConnection;
+        this.counters = counters;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Membungkus statement sehingga open/close-nya tercatat di counters
+     * @param statement Statement asli (atau cached statement proxy)
+     * @param type Interface yang dikembalikan ke caller (Statement, PreparedStatement, CallableStatement)
+     * @param logicalConnection Connection proxy milik caller
+     * @param counters Counter milik lease koneksi
+     * @param circuitBreaker Circuit breaker pool (boleh null)
+     * @return Statement proxy
+     */
+    static Object wrap(Statement statement, Class<?> type, Connection logicalConnection, Counters counters,
+                       CircuitBreaker circuitBreaker) {
+        counters.openStatements.incrementAndGet();
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                new TrackedStatement(statement, logicalConnection, counters, circuitBreaker));
+    }
+
+    /**
+     * Menandai statement dengan nama operasi supaya query yang dibatalkan (57014) tercatat
+     * Tidak melakukan apa-apa jika statement bukan TrackedStatement (misalnya koneksi tanpa pool)
+     */
+    static void label(Statement statement, String operation, QueryTimeouts queryTimeouts) {
+        if (Proxy.isProxyClass(statement.getClass())
+                && Proxy.getInvocationHandler(statement) instanceof TrackedStatement tracked) {
+            tracked.operation = operation;
+            tracked.queryTimeouts = queryTimeouts;
+        }
+    }
+
+    @Override
+    public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "close":
+                if (!closed) {
+                    closed = true;
+                    counters.openStatements.decrementAndGet();
+                    closeAllResultSets();
+                    delegate.close();
+                }
+                return null;
+            case "isClosed":
+                return closed || delegate.isClosed();
+            case "getConnection":
+                return logicalConnection;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "TrackedStatement[" + delegate + "]";
+            default:
+                break;
+        }
+
+        // Sesuai spec JDBC, setiap execute* menutup ResultSet sebelumnya dari statement ini
+        boolean execute = name.startsWith("execute");
+        if (execute) {
+            closeAllResultSets();
+        }
+
+        long startNanos = execute ? System.nanoTime() : 0L;
+        Object result;
+        try {
+            result = method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (execute) {
+                recordExecution(startNanos);
+            }
+            if (operation != null && QueryTimeouts.isQueryCanceled(cause)) {
+                queryTimeouts.recordTimeout(operation);
+            }
+            if (execute && circuitBreaker != null && cause instanceof SQLException sqlException) {
+                circuitBreaker.onFailure(sqlException);
+            }
+            throw cause;
+        }
+        if (execute) {
+            recordExecution(startNanos);
+        }
+        if (execute && circuitBreaker != null) {
+            circuitBreaker.onSuccess();
+        }
+
+        if (result instanceof ResultSet resultSet && method.getReturnType() == ResultSet.class) {
+            TrackedResultSet tracked = new TrackedResultSet(resultSet, (Statement) proxy);
+            openResultSets.add(tracked);
+            counters.openResultSets.incrementAndGet();
+            return Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    tracked);
+        }
+        return result;
+    }
+
+    /**
+     * Meneruskan waktu eksekusi statement ke listener lease (jika ada)
+     */
+    private void recordExecution(long startNanos) {
+        ExecutionListener listener = counters.executionListener;
+        if (listener != null) {
+            listener.onExecuted(startNanos, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Tandai semua ResultSet milik statement ini sudah tertutup (tanpa round trip)
+     */
+    private void closeAllResultSets() {
+        for (TrackedResultSet tracked : openResultSets) {
+            tracked.resultSetClosed = true;
+        }
+        counters.openResultSets.addAndGet(-openResultSets.size());
+        openResultSets.clear();
+    }
+
+    /**
+     * Counter resource yang terbuka untuk satu peminjaman koneksi
+     */
+    static class Counters {
+        final AtomicInteger openStatements = new AtomicInteger();
+        final AtomicInteger openResultSets = new AtomicInteger();
+
+        // Menerima waktu eksekusi setiap execute* (dipasang oleh AdaptiveConcurrencyLimiter)
+        volatile ExecutionListener executionListener;
+    }
+
+    /**
+     * Listener waktu eksekusi statement untuk satu peminjaman koneksi
+     */
+    interface ExecutionListener {
+        /**
+         * @param startNanos System.nanoTime() saat execute* dipanggil
+         * @param elapsedNanos Lama eksekusi sampai hasil (atau exception) diterima
+         */
+        void onExecuted(long startNanos, long elapsedNanos);
+    }
+
+    /**
+     * Proxy ResultSet yang mengurangi counter saat ditutup
+     */
+    private class TrackedResultSet implements InvocationHandler {
+        private final ResultSet delegateResultSet;
+        private final Statement statementProxy;
+        private boolean resultSetClosed;
+
+        TrackedResultSet(ResultSet delegateResultSet, Statement statementProxy) {
+            this.delegateResultSet = delegateResultSet;
+            this.statementProxy = statementProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (TrackedStatement.this) {
+                        if (!resultSetClosed) {
+                            resultSetClosed = true;
+                            openResultSets.remove(this);
+                            counters.openResultSets.decrementAndGet();
+                        }
+                    }
+                    delegateResultSet.close();
+                    return null;
+                case "getStatement":
+                    return statementProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(delegateResultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
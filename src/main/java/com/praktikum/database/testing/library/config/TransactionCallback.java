@@ -0,0 +1,14 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Isi satu transaksi database (lihat DatabaseConfig.inTransaction)
+ * Semua statement harus memakai connection yang diberikan supaya ikut commit/rollback
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+
+    T doInTransaction(Connection connection) throws SQLException;
+}
@@ -0,0 +1,19 @@
+package com.praktikum.database.testing.library.config;
+
+import java.sql.SQLException;
+
+/**
+ * SQLException yang dibungkus supaya bisa dilempar dari Stream (lihat ResultSetStream)
+ * SQLException asli tersedia lewat getCause()
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message + ": " + cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,30 @@
+package com.praktikum.database.testing.library.config;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Hasil StatementWarmer untuk satu pool
+ */
+@Getter
+@Builder
+@ToString
+public class WarmupReport {
+    private final String pool;
+
+    // Jumlah koneksi fisik yang di-warm
+    private final int connections;
+
+    // Jumlah statement yang berhasil di-prepare (dijumlah untuk semua koneksi)
+    private final int statementsPrepared;
+
+    // Jumlah eksekusi lookup contoh
+    private final int lookupsExecuted;
+
+    // Statement yang gagal di-prepare atau dieksekusi (misalnya tabel tidak ada di shard ini)
+    private final int failures;
+
+    private final long durationMillis;
+}
@@ -0,0 +1,87 @@
+package com.praktikum.database.testing.library.config;
+
+/**
+ * Kelas workload untuk bulkhead koneksi database
+ * Setiap kelas punya budget koneksi dan antrian sendiri (db.workload.&lt;nama&gt;.*)
+ * sehingga query laporan yang lambat tidak menghabiskan koneksi untuk transaksi interaktif
+ */
+public enum WorkloadClass {
+    // Transaksi interaktif: borrowBook, returnBook, lookup by id
+    OLTP("oltp"),
+    // Query laporan/listing besar: findAll, search, history
+    REPORTING("reporting"),
+    // Job terjadwal: updateOverdueStatus, maintenance
+    BACKGROUND("background");
+
+    // Workload yang sedang aktif di thread ini (null = pakai tag default DAO)
+    private static final ThreadLocal<WorkloadClass> current = new ThreadLocal<>();
+
+    private final String propertyName;
+
+    WorkloadClass(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    /**
+     * @return nama kelas di database.properties (oltp, reporting, background)
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Menjalankan semua akses database di thread ini sebagai workload ini sampai scope ditutup
+     * Tag dari service operation menang atas tag default di DAO method
+     * <pre>
+     * try (WorkloadClass.Scope scope = WorkloadClass.BACKGROUND.enter()) {
+     *     borrowingDAO.findOverdueBorrowings();
+     * }
+     * </pre>
+     * @return scope yang wajib ditutup (try-with-resources)
+     */
+    public Scope enter() {
+        Scope scope = new Scope(current.get());
+        current.set(this);
+        return scope;
+    }
+
+    /**
+     * @return workload aktif di thread ini, atau null jika tidak ada scope
+     */
+    public static WorkloadClass current() {
+        return current.get();
+    }
+
+    /**
+     * Workload efektif: scope aktif jika ada, selain itu tag default dari pemanggil
+     */
+    static WorkloadClass resolve(WorkloadClass defaultClass) {
+        WorkloadClass active = current.get();
+        return active != null ? active : defaultClass;
+    }
+
+    /**
+     * Scope enter(), mengembalikan workload sebelumnya saat ditutup (bisa nested)
+     */
+    public static final class Scope implements AutoCloseable {
+        private final WorkloadClass previous;
+        private boolean closed;
+
+        private Scope(WorkloadClass previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+}
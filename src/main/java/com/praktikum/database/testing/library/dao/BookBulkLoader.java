@@ -0,0 +1,261 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import classes untuk database operations dan model
+import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.config.WorkloadClass;
+import com.praktikum.database.testing.library.model.Book;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk loader katalog books lewat COPY FROM STDIN (pgjdbc CopyManager)
+ *
+ * Book di-encode ke CSV satu per satu saat dibaca dari iterator dan dikirim per buffer 64 KB,
+ * jadi dataset tidak pernah dimuat utuh ke memory. Input dikirim per batch (satu COPY per batch);
+ * hanya batch yang sedang dikirim yang disimpan, supaya baris yang ditolak server bisa dilaporkan.
+ *
+ * COPY bersifat all-or-nothing: jika server menolak satu baris, batch tersebut dibatalkan,
+ * baris yang gagal (dari "COPY books, line N") dicatat sebagai rejected, lalu sisa batch dikirim ulang
+ */
+public class BookBulkLoader {
+    private static final Logger logger = Logger.getLogger(BookBulkLoader.class.getName());
+
+    public static final int DEFAULT_BATCH_ROWS = 10_000;
+    public static final int DEFAULT_MAX_REJECTED_ROWS = 1_000;
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final Pattern COPY_LINE = Pattern.compile("COPY books, line (\\d+)");
+
+    private final int batchRows;
+    private final int maxRejectedRows;
+
+    public BookBulkLoader() {
+        this(DEFAULT_BATCH_ROWS, DEFAULT_MAX_REJECTED_ROWS);
+    }
+
+    /**
+     * @param batchRows Jumlah baris per COPY
+     * @param maxRejectedRows Load dihentikan jika baris yang ditolak melebihi batas ini
+     */
+    public BookBulkLoader(int batchRows, int maxRejectedRows) {
+        if (batchRows <= 0) {
+            throw new RuntimeException("batchRows harus lebih besar dari 0");
+        }
+        this.batchRows = batchRows;
+        this.maxRejectedRows = maxRejectedRows;
+    }
+
+    public BulkLoadResult load(Iterable<Book> books) throws SQLException {
+        return load(books.iterator());
+    }
+
+    /**
+     * Memuat semua book dari iterator ke tabel books
+     * Batch yang sudah selesai tetap tersimpan walaupun load dihentikan di tengah jalan
+     * @param books Sumber data, dibaca satu kali secara berurutan
+     * @return jumlah baris yang dimuat, throughput, dan baris yang ditolak
+     * @throws SQLException jika koneksi gagal atau baris yang ditolak melebihi maxRejectedRows
+     */
+    public BulkLoadResult load(Iterator<Book> books) throws SQLException {
+        long startNanos = System.nanoTime();
+        List<BulkLoadResult.RejectedRow> rejected = new ArrayList<>();
+        long loaded = 0;
+        long rowNumber = 0;
+
+        try (Connection conn = DatabaseConfig.getConnection(WorkloadClass.BACKGROUND)) {
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            List<Book> batch = new ArrayList<>(batchRows);
+            List<Long> batchRowNumbers = new ArrayList<>(batchRows);
+
+            while (books.hasNext()) {
+                Book book = books.next();
+                rowNumber++;
+                String invalid = validate(book);
+                if (invalid != null) {
+                    reject(rejected, rowNumber, book, invalid);
+                    continue;
+                }
+                batch.add(book);
+                batchRowNumbers.add(rowNumber);
+                if (batch.size() == batchRows) {
+                    loaded += copyBatch(copyManager, batch, batchRowNumbers, rejected);
+                    batch.clear();
+                    batchRowNumbers.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                loaded += copyBatch(copyManager, batch, batchRowNumbers, rejected);
+            }
+        }
+
+        BulkLoadResult result = BulkLoadResult.builder()
+                .rowsLoaded(loaded)
+                .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                .rejectedRows(rejected)
+                .build();
+        logger.info("Bulk load books selesai: " + loaded + " baris, " + rejected.size() + " ditolak, "
+                + String.format("%.0f", result.getRowsPerSecond()) + " baris/detik");
+        return result;
+    }
+
+    /**
+     * Mengirim satu batch, membuang baris yang ditolak server lalu mengulang sisa batch
+     * @return jumlah baris yang dimuat
+     */
+    private long copyBatch(CopyManager copyManager, List<Book> batch, List<Long> rowNumbers,
+                           List<BulkLoadResult.RejectedRow> rejected) throws SQLException {
+        while (!batch.isEmpty()) {
+            try {
+                return copy(copyManager, batch);
+            } catch (SQLException e) {
+                int line = failedLine(e);
+                if (line < 1 || line > batch.size()) {
+                    throw e;
+                }
+                Book book = batch.remove(line - 1);
+                reject(rejected, rowNumbers.remove(line - 1), book, reason(e));
+            }
+        }
+        return 0;
+    }
+
+    private long copy(CopyManager copyManager, List<Book> batch) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(DaoStatements.BOOK_COPY_IN);
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(WRITE_BUFFER_BYTES + 4096);
+            StringBuilder row = new StringBuilder(256);
+            for (Book book : batch) {
+                row.setLength(0);
+                encodeRow(book, row);
+                byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                buffer.write(bytes, 0, bytes.length);
+                if (buffer.size() >= WRITE_BUFFER_BYTES) {
+                    copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    buffer.reset();
+                }
+            }
+            if (buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+            }
+            return copyIn.endCopy();
+        } catch (SQLException e) {
+            if (copyIn.isActive()) {
+                try {
+                    copyIn.cancelCopy();
+                } catch (SQLException cancelError) {
+                    e.addSuppressed(cancelError);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void reject(List<BulkLoadResult.RejectedRow> rejected, long rowNumber, Book book, String reason)
+            throws SQLException {
+        rejected.add(new BulkLoadResult.RejectedRow(rowNumber, book != null ? book.getIsbn() : null, reason));
+        if (rejected.size() > maxRejectedRows) {
+            throw new SQLException("Bulk load books dihentikan: lebih dari " + maxRejectedRows
+                    + " baris ditolak (terakhir baris " + rowNumber + ": " + reason + ")");
+        }
+    }
+
+    /**
+     * Validasi kolom NOT NULL di client, constraint lain diperiksa server
+     * @return alasan penolakan, atau null jika valid
+     */
+    static String validate(Book book) {
+        if (book == null) {
+            return "book null";
+        }
+        if (book.getIsbn() == null || book.getIsbn().trim().isEmpty()) {
+            return "isbn harus diisi";
+        }
+        if (book.getTitle() == null || book.getTitle().trim().isEmpty()) {
+            return "title harus diisi";
+        }
+        if (book.getAuthorId() == null) {
+            return "authorId harus diisi";
+        }
+        if (book.getTotalCopies() == null || book.getAvailableCopies() == null) {
+            return "totalCopies dan availableCopies harus diisi";
+        }
+        return null;
+    }
+
+    /**
+     * Encode satu book sebagai baris CSV, urutan kolom sama dengan BOOK_COPY_IN
+     * Field kosong tanpa quote = NULL, string selalu di-quote supaya "" tetap string kosong
+     */
+    static void encodeRow(Book book, StringBuilder row) {
+        appendText(row, book.getIsbn()).append(',');
+        appendText(row, book.getTitle()).append(',');
+        appendValue(row, book.getAuthorId()).append(',');
+        appendValue(row, book.getPublisherId()).append(',');
+        appendValue(row, book.getCategoryId()).append(',');
+        appendValue(row, book.getPublicationYear()).append(',');
+        appendValue(row, book.getPages()).append(',');
+        appendText(row, book.getLanguage()).append(',');
+        appendText(row, book.getDescription()).append(',');
+        appendValue(row, book.getTotalCopies()).append(',');
+        appendValue(row, book.getAvailableCopies()).append(',');
+        appendValue(row, book.getPrice() != null ? book.getPrice().toPlainString() : null).append(',');
+        appendText(row, book.getLocation()).append(',');
+        // Gunakan default value jika status null (sama dengan BookDAO.create)
+        appendText(row, book.getStatus() != null ? book.getStatus() : "available").append('\n');
+    }
+
+    private static StringBuilder appendValue(StringBuilder row, Object value) {
+        return value == null ? row : row.append(value);
+    }
+
+    private static StringBuilder appendText(StringBuilder row, String value) {
+        if (value == null) {
+            return row;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        return row.append('"');
+    }
+
+    /**
+     * @return nomor baris (dalam batch, mulai dari 1) yang ditolak server, atau -1 jika tidak diketahui
+     */
+    static int failedLine(SQLException e) {
+        String where = null;
+        if (e instanceof PSQLException psqlException && psqlException.getServerErrorMessage() != null) {
+            where = psqlException.getServerErrorMessage().getWhere();
+        }
+        Matcher matcher = COPY_LINE.matcher(where != null ? where : String.valueOf(e.getMessage()));
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private static String reason(SQLException e) {
+        if (e instanceof PSQLException psqlException) {
+            ServerErrorMessage message = psqlException.getServerErrorMessage();
+            if (message != null && message.getMessage() != null) {
+                return message.getMessage() + (message.getDetail() != null ? " (" + message.getDetail() + ")" : "");
+            }
+        }
+        return e.getMessage();
+    }
+}
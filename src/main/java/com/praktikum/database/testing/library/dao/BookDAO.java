@@ -2,18 +2,45 @@ package com.praktikum.database.testing.library.dao;
 
 // Import classes untuk database operations dan model
 import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.config.QueryTimeouts;
+import com.praktikum.database.testing.library.config.ResultSetStream;
+import com.praktikum.database.testing.library.config.RetryPolicy;
+import com.praktikum.database.testing.library.config.RowMapper;
+import com.praktikum.database.testing.library.config.WorkloadClass;
 import com.praktikum.database.testing.library.model.Book;
+import com.praktikum.database.testing.library.model.BookRowMapper;
+import com.praktikum.database.testing.library.model.BookSearchHit;
+import com.praktikum.database.testing.library.model.BookSummary;
+import com.praktikum.database.testing.library.model.BookSummaryRowMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) class untuk entity Book
  * Menangani semua operasi CRUD untuk tabel books
  */
 public class BookDAO {
+    // Jenis listing di page token, token dari listing lain ditolak
+    private static final String PAGE_BY_ID = "books.id";
+    private static final String PAGE_BY_TITLE = "books.title";
+    private static final String PAGE_AVAILABLE = "books.available";
+    private static final String PAGE_SEARCH = "books.search";
+    private static final String PAGE_FUZZY = "books.fuzzy";
+
+    // Jumlah parameter per baris di BOOK_CREATE dan upsert (setBookParameters)
+    private static final int BOOK_PARAMETERS = 14;
+    // Batas bind parameter per statement di protokol PostgreSQL (jumlah parameter dikirim sebagai int16)
+    private static final int MAX_BIND_PARAMETERS = 32_767;
+    // Jumlah baris per INSERT ... ON CONFLICT multi-row di upsertAllByIsbn
+    private static final int UPSERT_CHUNK_ROWS = 1_000;
 
     /**
      * CREATE - Insert book baru ke database
@@ -23,32 +50,13 @@ public class BookDAO {
      */
     public Book create(Book book) throws SQLException {
         // SQL query dengan banyak parameters untuk book data
-        String sql = "INSERT INTO books (isbn, title, author_id, publisher_id, category_id, " +
-                "publication_year, pages, language, description, total_copies, " +
-                "available_copies, price, location, status) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "RETURNING book_id, created_at, updated_at";
+        String sql = DaoStatements.BOOK_CREATE;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.create")) {
 
             // Set semua parameter values
-            pstmt.setString(1, book.getIsbn());
-            pstmt.setString(2, book.getTitle());
-            pstmt.setInt(3, book.getAuthorId());
-            // Handle nullable fields dengan setObject
-            pstmt.setObject(4, book.getPublisherId());
-            pstmt.setObject(5, book.getCategoryId());
-            pstmt.setObject(6, book.getPublicationYear());
-            pstmt.setObject(7, book.getPages());
-            pstmt.setString(8, book.getLanguage());
-            pstmt.setString(9, book.getDescription());
-            pstmt.setInt(10, book.getTotalCopies());
-            pstmt.setInt(11, book.getAvailableCopies());
-            pstmt.setBigDecimal(12, book.getPrice());
-            pstmt.setString(13, book.getLocation());
-            // Gunakan default value jika status null
-            pstmt.setString(14, book.getStatus() != null ? book.getStatus() : "available");
+            setBookParameters(pstmt, book, 1);
 
             ResultSet rs = pstmt.executeQuery();
 
@@ -63,6 +71,196 @@ public class BookDAO {
         }
     }
 
+    private void setBookParameters(PreparedStatement pstmt, Book book, int firstIndex) throws SQLException {
+        pstmt.setString(firstIndex, book.getIsbn());
+        pstmt.setString(firstIndex + 1, book.getTitle());
+        pstmt.setInt(firstIndex + 2, book.getAuthorId());
+        // Handle nullable fields dengan setObject
+        pstmt.setObject(firstIndex + 3, book.getPublisherId());
+        pstmt.setObject(firstIndex + 4, book.getCategoryId());
+        pstmt.setObject(firstIndex + 5, book.getPublicationYear());
+        pstmt.setObject(firstIndex + 6, book.getPages());
+        pstmt.setString(firstIndex + 7, book.getLanguage());
+        pstmt.setString(firstIndex + 8, book.getDescription());
+        pstmt.setInt(firstIndex + 9, book.getTotalCopies());
+        pstmt.setInt(firstIndex + 10, book.getAvailableCopies());
+        pstmt.setBigDecimal(firstIndex + 11, book.getPrice());
+        pstmt.setString(firstIndex + 12, book.getLocation());
+        // Gunakan default value jika status null
+        pstmt.setString(firstIndex + 13, book.getStatus() != null ? book.getStatus() : "available");
+    }
+
+    /**
+     * UPSERT - Insert book baru atau update book dengan ISBN yang sama, update yang tidak mengubah
+     * apa pun dilewati
+     * @see #upsertByIsbn(Book, boolean)
+     */
+    public UpsertOutcome upsertByIsbn(Book book) throws SQLException {
+        return upsertByIsbn(book, true);
+    }
+
+    /**
+     * UPSERT - Insert book baru atau update book dengan ISBN yang sama dalam satu round trip
+     * (INSERT ... ON CONFLICT (isbn) DO UPDATE), menggantikan findByIsbn lalu create/update
+     * yang butuh dua round trip dan bisa race di antaranya
+     * Saat update, available_copies disesuaikan dengan perubahan total_copies (bukan diambil dari book)
+     * supaya buku yang sedang dipinjam tetap terhitung
+     * @param book Book dengan ISBN; bookId, createdAt dan updatedAt diisi dari database
+     * Dengan skipUnchanged, jika ISBN yang sama di-insert transaksi lain secara bersamaan dan datanya sama,
+     * statement tidak mengembalikan baris (snapshot-nya tidak melihat baris tersebut); baris lalu dibaca
+     * ulang dengan snapshot baru dan hasilnya UNCHANGED
+     * @param skipUnchanged true untuk melewati update jika semua kolom sama, sehingga tidak ada dead tuple
+     * @return INSERTED, UPDATED atau UNCHANGED
+     * @throws IllegalArgumentException jika ISBN kosong
+     * @throws SQLException jika operasi database gagal
+     */
+    public UpsertOutcome upsertByIsbn(Book book, boolean skipUnchanged) throws SQLException {
+        requireIsbn(book);
+        String sql = skipUnchanged ? DaoStatements.BOOK_UPSERT_BY_ISBN_SKIP_UNCHANGED : DaoStatements.BOOK_UPSERT_BY_ISBN;
+
+        // Upsert idempotent, jadi aman diulang saat error transient
+        return RetryPolicy.retry("BookDAO.upsertByIsbn", () -> {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.upsertByIsbn")) {
+
+                setBookParameters(pstmt, book, 1);
+                if (skipUnchanged) {
+                    pstmt.setString(BOOK_PARAMETERS + 1, book.getIsbn());
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        // Baris dari insert transaksi lain yang bersamaan tidak terlihat oleh snapshot statement
+                        return readUnchanged(conn, book);
+                    }
+                    book.setBookId(rs.getInt("book_id"));
+                    book.setCreatedAt(rs.getTimestamp("created_at"));
+                    book.setUpdatedAt(rs.getTimestamp("updated_at"));
+                    // inserted NULL: baris lama dikembalikan karena update dilewati
+                    boolean inserted = rs.getBoolean("inserted");
+                    if (rs.wasNull()) {
+                        return UpsertOutcome.UNCHANGED;
+                    }
+                    return inserted ? UpsertOutcome.INSERTED : UpsertOutcome.UPDATED;
+                }
+            }
+        });
+    }
+
+    /**
+     * Update dilewati untuk baris yang di-insert transaksi lain secara bersamaan: baris dibaca ulang
+     * dengan snapshot baru di koneksi yang sama. Jika baris sudah dihapus lagi, dilempar SQLState 40001
+     * supaya RetryPolicy menjalankan ulang upsert
+     */
+    private UpsertOutcome readUnchanged(Connection conn, Book book) throws SQLException {
+        try (PreparedStatement pstmt = QueryTimeouts.apply(
+                conn.prepareStatement(DaoStatements.BOOK_FIND_BY_ISBN), "BookDAO.upsertByIsbn")) {
+            pstmt.setString(1, book.getIsbn());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Upsert ISBN " + book.getIsbn() + " tidak mengembalikan baris", "40001");
+                }
+                Book stored = mapResultSetToBook(rs);
+                book.setBookId(stored.getBookId());
+                book.setCreatedAt(stored.getCreatedAt());
+                book.setUpdatedAt(stored.getUpdatedAt());
+                return UpsertOutcome.UNCHANGED;
+            }
+        }
+    }
+
+    /**
+     * UPSERT batch - Upsert semua book per ISBN
+     * @see #upsertAllByIsbn(Iterator, boolean)
+     */
+    public UpsertResult upsertAllByIsbn(Iterable<Book> books, boolean skipUnchanged) throws SQLException {
+        return upsertAllByIsbn(books.iterator(), skipUnchanged);
+    }
+
+    /**
+     * UPSERT batch - Upsert semua book dari iterator per ISBN, untuk feed katalog yang besar
+     * Book dikirim per chunk dengan satu INSERT multi-row ... ON CONFLICT per chunk, dibaca satu kali
+     * tanpa menyimpan seluruh input. Setiap chunk commit sendiri (dan diulang sendiri saat error transient),
+     * jadi chunk yang sudah selesai tetap tersimpan walaupun upsert berhenti di tengah jalan
+     * @param books Sumber data, dibaca satu kali secara berurutan; ISBN yang muncul lagi menimpa yang sebelumnya
+     * @param skipUnchanged true untuk melewati update jika semua kolom sama, sehingga tidak ada dead tuple
+     * @return jumlah baris inserted, updated dan unchanged
+     * @throws IllegalArgumentException jika ada book tanpa ISBN (chunk sebelumnya sudah tersimpan)
+     * @throws SQLException jika operasi database gagal
+     */
+    public UpsertResult upsertAllByIsbn(Iterator<Book> books, boolean skipUnchanged) throws SQLException {
+        long startNanos = System.nanoTime();
+        int chunkRows = Math.min(UPSERT_CHUNK_ROWS, MAX_BIND_PARAMETERS / BOOK_PARAMETERS);
+        long inserted = 0;
+        long updated = 0;
+        long rows = 0;
+        Map<String, Book> chunk = new LinkedHashMap<>();
+
+        while (books.hasNext()) {
+            Book book = books.next();
+            requireIsbn(book);
+            // ISBN yang sama dua kali dalam satu statement ditolak ON CONFLICT, jadi chunk dikirim lebih dulu
+            if (chunk.size() == chunkRows || chunk.containsKey(book.getIsbn())) {
+                long[] counts = upsertChunk(chunk.values(), skipUnchanged);
+                inserted += counts[0];
+                updated += counts[1];
+                rows += chunk.size();
+                chunk.clear();
+            }
+            chunk.put(book.getIsbn(), book);
+        }
+        if (!chunk.isEmpty()) {
+            long[] counts = upsertChunk(chunk.values(), skipUnchanged);
+            inserted += counts[0];
+            updated += counts[1];
+            rows += chunk.size();
+        }
+
+        return UpsertResult.builder()
+                .inserted(inserted)
+                .updated(updated)
+                .unchanged(rows - inserted - updated)
+                .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                .build();
+    }
+
+    /**
+     * @return {inserted, updated} untuk satu chunk, baris yang dilewati tidak dikembalikan RETURNING
+     */
+    private long[] upsertChunk(Collection<Book> chunk, boolean skipUnchanged) throws SQLException {
+        String sql = DaoStatements.bookUpsertAll(chunk.size(), skipUnchanged);
+
+        return RetryPolicy.retry("BookDAO.upsertAllByIsbn", () -> {
+            long inserted = 0;
+            long updated = 0;
+            try (Connection conn = DatabaseConfig.getConnection(WorkloadClass.BACKGROUND);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.upsertAllByIsbn")) {
+
+                int index = 1;
+                for (Book book : chunk) {
+                    setBookParameters(pstmt, book, index);
+                    index += BOOK_PARAMETERS;
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (rs.getBoolean("inserted")) {
+                            inserted++;
+                        } else {
+                            updated++;
+                        }
+                    }
+                }
+            }
+            return new long[]{inserted, updated};
+        });
+    }
+
+    private static void requireIsbn(Book book) {
+        if (book.getIsbn() == null || book.getIsbn().isBlank()) {
+            throw new IllegalArgumentException("ISBN wajib diisi untuk upsert: " + book);
+        }
+    }
+
     /**
      * READ - Mencari book berdasarkan ID
      * @param bookId ID book yang dicari
@@ -70,20 +268,42 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public Optional<Book> findById(Integer bookId) throws SQLException {
-        String sql = "SELECT * FROM books WHERE book_id = ?";
+        return RetryPolicy.retry("BookDAO.findById", () -> {
+            String sql = DaoStatements.BOOK_FIND_BY_ID;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.findById")) {
 
-            pstmt.setInt(1, bookId);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, bookId);
+                ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return Optional.of(mapResultSetToBook(rs));
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToBook(rs));
+                }
+
+                return Optional.empty();
             }
+        });
+    }
 
-            return Optional.empty();
+    /**
+     * READ - Mencari banyak books sekaligus berdasarkan ID (multi-get)
+     * Satu query "book_id = ANY(?)" per 1000 id unik, bukan satu query per id
+     * @param bookIds ID books yang dicari, boleh berisi duplikat
+     * @return Map book_id -> Book urut sesuai input, ID yang tidak ditemukan tidak ada di Map
+     * @throws SQLException jika operasi database gagal
+     */
+    public Map<Integer, Book> findByIds(Collection<Integer> bookIds) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        for (List<Integer> chunk : MultiGet.chunks(bookIds, MultiGet.CHUNK_SIZE)) {
+            books.addAll(RetryPolicy.retry("BookDAO.findByIds", () -> {
+                try (Connection conn = DatabaseConfig.getConnection()) {
+                    return MultiGet.query(conn, DaoStatements.BOOK_FIND_BY_IDS, "BookDAO.findByIds",
+                            chunk, this::mapResultSetToBook);
+                }
+            }));
         }
+        return MultiGet.byId(bookIds, books, Book::getBookId);
     }
 
     /**
@@ -93,41 +313,323 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public Optional<Book> findByIsbn(String isbn) throws SQLException {
-        String sql = "SELECT * FROM books WHERE isbn = ?";
+        return RetryPolicy.retry("BookDAO.findByIsbn", () -> {
+            String sql = DaoStatements.BOOK_FIND_BY_ISBN;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.findByIsbn")) {
 
-            pstmt.setString(1, isbn);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setString(1, isbn);
+                ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return Optional.of(mapResultSetToBook(rs));
-            }
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToBook(rs));
+                }
 
-            return Optional.empty();
-        }
+                return Optional.empty();
+            }
+        });
     }
 
     /**
      * READ - Mendapatkan semua books dari database
+     * Read-only query (workload reporting), dikirim ke read replica jika tersedia
      * @return List of semua books
      * @throws SQLException jika operasi database gagal
      */
     public List<Book> findAll() throws SQLException {
-        String sql = "SELECT * FROM books ORDER BY book_id";
-        List<Book> books = new ArrayList<>();
+        return RetryPolicy.retry("BookDAO.findAll", () -> {
+            String sql = DaoStatements.BOOK_FIND_ALL;
+            List<Book> books = new ArrayList<>();
+
+            try (Connection conn = DatabaseConfig.getReadConnection(WorkloadClass.REPORTING);
+                 PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.findAll");
+                 ResultSet rs = stmt.executeQuery()) {
 
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+
+            return books;
+        });
+    }
+
+    /**
+     * READ - Streaming semua books lewat server-side cursor (untuk export dan reindex)
+     * Memakai db.stream.fetchSize sebagai jumlah baris per fetch
+     * @return Stream yang wajib ditutup (try-with-resources), koneksi dipegang sampai stream ditutup
+     * @throws SQLException jika query gagal dijalankan
+     */
+    public Stream<Book> streamAll() throws SQLException {
+        return streamAll(DatabaseConfig.getStreamFetchSize());
+    }
+
+    /**
+     * READ - Streaming semua books dengan fetch size tertentu
+     * pgjdbc hanya memakai cursor jika autocommit off, jadi query berjalan dalam transaksi read-only
+     * yang di-rollback saat koneksi dikembalikan ke pool. Memory tetap konstan berapapun jumlah books
+     * Tidak di-retry: stream yang sudah sebagian dikonsumsi tidak bisa diulang dari awal
+     * @param fetchSize Jumlah baris per round trip ke server
+     * @return Stream yang wajib ditutup (try-with-resources)
+     * @throws SQLException jika query gagal dijalankan
+     */
+    public Stream<Book> streamAll(int fetchSize) throws SQLException {
+        Connection conn = DatabaseConfig.getReadConnection(WorkloadClass.REPORTING);
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            pstmt = QueryTimeouts.apply(conn.prepareStatement(DaoStatements.BOOK_FIND_ALL), "BookDAO.streamAll");
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+            return ResultSetStream.of(conn, pstmt, rs, this::mapResultSetToBook, "BookDAO.streamAll");
+        } catch (SQLException | RuntimeException e) {
+            ResultSetStream.close(conn, pstmt, rs);
+            throw e;
+        }
+    }
+
+    /**
+     * READ - Satu halaman books urut book_id (keyset pagination)
+     * Memakai seek predicate book_id > ?, jadi halaman ke-N sama cepatnya dengan halaman pertama
+     * (berbeda dengan OFFSET yang harus membaca dan membuang semua baris sebelumnya)
+     * @param lastBookId book_id terakhir dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah books per halaman (1..Page.MAX_LIMIT)
+     * @return halaman books beserta token halaman berikutnya
+     * @throws SQLException jika operasi database gagal
+     */
+    public Page<Book> findPageAfter(Integer lastBookId, int limit) throws SQLException {
+        int pageLimit = Page.checkLimit(limit);
+        List<Book> rows = queryRows("BookDAO.findPage", DaoStatements.BOOK_PAGE,
+                this::mapResultSetToBook,
+                lastBookId != null ? lastBookId : 0, pageLimit + 1);
+        return Page.of(rows, pageLimit, book -> PageToken.encode(PAGE_BY_ID, book.getBookId()));
+    }
+
+    /**
+     * READ - Halaman books urut book_id berdasarkan token dari halaman sebelumnya
+     * @param pageToken Token dari Page.getNextPageToken(), null untuk halaman pertama
+     * @param limit Jumlah books per halaman
+     * @throws IllegalArgumentException jika token tidak valid atau berasal dari listing lain
+     */
+    public Page<Book> findPage(String pageToken, int limit) throws SQLException {
+        Integer lastBookId = pageToken != null ? PageToken.decode(pageToken, PAGE_BY_ID, 1).getInt(0) : null;
+        return findPageAfter(lastBookId, limit);
+    }
+
+    /**
+     * SEARCH - Halaman hasil pencarian judul, urut (title, book_id)
+     * book_id ikut di key supaya judul yang sama tidak terlewat atau muncul dua kali antar halaman
+     * @param title Keyword judul (partial match, case-insensitive)
+     * @param pageToken Token dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah books per halaman
+     */
+    public Page<Book> searchByTitlePage(String title, String pageToken, int limit) throws SQLException {
+        int pageLimit = Page.checkLimit(limit);
+        PageToken after = pageToken != null ? PageToken.decode(pageToken, PAGE_BY_TITLE, 2) : null;
+        List<Book> rows = queryRows("BookDAO.searchByTitlePage", DaoStatements.BOOK_SEARCH_BY_TITLE_PAGE,
+                this::mapResultSetToBook,
+                "%" + title + "%",
+                after != null ? after.getString(1) : "",
+                after != null ? after.getInt(0) : 0,
+                pageLimit + 1);
+        return Page.of(rows, pageLimit, book -> PageToken.encode(PAGE_BY_TITLE, book.getBookId(), book.getTitle()));
+    }
+
+    /**
+     * SEARCH - Full-text search judul dan description, urut relevansi (ts_rank) lalu book_id
+     * Memakai GIN index di search_vector (lihat ensureSearchIndex), berbeda dengan LIKE '%x%' yang
+     * selalu full scan. Query memakai sintaks websearch_to_tsquery: kata biasa (AND), "frasa", or, -kata
+     * @param query Kata kunci pencarian
+     * @param pageToken Token dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah hasil per halaman
+     * @return halaman BookSearchHit, skor tertinggi lebih dulu
+     * @throws IllegalArgumentException jika token tidak valid atau berasal dari listing lain
+     */
+    public Page<BookSearchHit> searchFullText(String query, String pageToken, int limit) throws SQLException {
+        int pageLimit = Page.checkLimit(limit);
+        PageToken after = pageToken != null ? PageToken.decode(pageToken, PAGE_SEARCH, 2) : null;
+        double lastRank = after != null ? after.getDouble(1) : Double.POSITIVE_INFINITY;
+        List<BookSearchHit> rows = queryRows("BookDAO.searchFullText", DaoStatements.BOOK_FULL_TEXT_SEARCH_PAGE,
+                this::mapResultSetToBookSearchHit,
+                DatabaseConfig.getSearchTextConfig(), query,
+                lastRank, lastRank,
+                after != null ? after.getInt(0) : 0,
+                pageLimit + 1);
+        return Page.of(rows, pageLimit,
+                hit -> PageToken.encode(PAGE_SEARCH, hit.getBook().getBookId(), hit.getRank()));
+    }
+
+    /**
+     * SEARCH - Fuzzy search judul (toleran salah ketik) dengan pg_trgm, urut similarity lalu book_id
+     * Memakai batas db.search.similarityThreshold
+     * @see #searchFuzzy(String, double, String, int)
+     */
+    public Page<BookSearchHit> searchFuzzy(String title, String pageToken, int limit) throws SQLException {
+        return searchFuzzy(title, DatabaseConfig.getSearchSimilarityThreshold(), pageToken, limit);
+    }
+
+    /**
+     * SEARCH - Fuzzy search judul dengan batas similarity tertentu
+     * Kandidat dicari lewat GIN trigram index (lihat ensureTrigramIndex); threshold di-set dengan
+     * set_config lokal transaksi, jadi tidak bocor ke pemakai koneksi pool berikutnya
+     * @param title Judul yang dicari, boleh salah ketik
+     * @param threshold Similarity minimal (0..1], makin kecil makin banyak kandidat
+     * @param pageToken Token dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah hasil per halaman
+     * @return halaman BookSearchHit, similarity tertinggi lebih dulu
+     * @throws IllegalArgumentException jika threshold di luar (0..1] atau token tidak valid
+     */
+    public Page<BookSearchHit> searchFuzzy(String title, double threshold, String pageToken, int limit)
+            throws SQLException {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Similarity threshold harus di antara 0 (eksklusif) dan 1: " + threshold);
+        }
+        int pageLimit = Page.checkLimit(limit);
+        PageToken after = pageToken != null ? PageToken.decode(pageToken, PAGE_FUZZY, 2) : null;
+        double lastScore = after != null ? after.getDouble(1) : Double.POSITIVE_INFINITY;
+        int lastBookId = after != null ? after.getInt(0) : 0;
+
+        List<BookSearchHit> rows = DatabaseConfig.inReadTransaction("BookDAO.searchFuzzy", WorkloadClass.REPORTING,
+                conn -> {
+                    try (PreparedStatement pstmt = QueryTimeouts.apply(
+                            conn.prepareStatement(DaoStatements.BOOK_SET_SIMILARITY_THRESHOLD), "BookDAO.searchFuzzy")) {
+                        pstmt.setString(1, Double.toString(threshold));
+                        pstmt.executeQuery().close();
+                    }
+
+                    List<BookSearchHit> hits = new ArrayList<>();
+                    try (PreparedStatement pstmt = QueryTimeouts.apply(
+                            conn.prepareStatement(DaoStatements.BOOK_FUZZY_SEARCH_PAGE), "BookDAO.searchFuzzy")) {
+                        pstmt.setString(1, title);
+                        pstmt.setString(2, title);
+                        pstmt.setDouble(3, lastScore);
+                        pstmt.setDouble(4, lastScore);
+                        pstmt.setInt(5, lastBookId);
+                        pstmt.setInt(6, pageLimit + 1);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                hits.add(BookSearchHit.builder()
+                                        .book(mapResultSetToBookSummary(rs))
+                                        .rank(rs.getDouble("score"))
+                                        .build());
+                            }
+                        }
+                    }
+                    return hits;
+                });
+        return Page.of(rows, pageLimit,
+                hit -> PageToken.encode(PAGE_FUZZY, hit.getBook().getBookId(), hit.getRank()));
+    }
+
+    /**
+     * DDL - Membuat index (title, book_id) untuk keyset searchByTitlePage dan findAvailableBooksPage jika belum ada
+     * @throws SQLException jika operasi database gagal
+     */
+    public void ensureTitleIndex() throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : DaoStatements.bookTitleSchema()) {
+                stmt.execute(ddl);
+            }
+        }
+    }
+
+    /**
+     * DDL - Membuat extension pg_trgm dan trigram index judul jika belum ada
+     * Index ini juga mempercepat searchByTitle dan searchByTitlePage (LIKE '%x%')
+     * @throws SQLException jika operasi database gagal (misalnya tidak punya hak CREATE EXTENSION)
+     */
+    public void ensureTrigramIndex() throws SQLException {
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : DaoStatements.bookTrigramSchema()) {
+                stmt.execute(ddl);
+            }
+        }
+    }
 
-            while (rs.next()) {
-                books.add(mapResultSetToBook(rs));
+    /**
+     * DDL - Membuat kolom search_vector dan GIN index untuk searchFullText jika belum ada
+     * Dijalankan sekali saat deploy (ALTER TABLE me-rewrite tabel books dengan lock eksklusif)
+     * @throws SQLException jika operasi database gagal
+     */
+    public void ensureSearchIndex() throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : DaoStatements.bookSearchSchema(DatabaseConfig.getSearchTextConfig())) {
+                stmt.execute(ddl);
             }
         }
+    }
 
-        return books;
+    /**
+     * FIND - Halaman available books, urut (title, book_id)
+     * @param pageToken Token dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah books per halaman
+     */
+    public Page<Book> findAvailableBooksPage(String pageToken, int limit) throws SQLException {
+        int pageLimit = Page.checkLimit(limit);
+        PageToken after = pageToken != null ? PageToken.decode(pageToken, PAGE_AVAILABLE, 2) : null;
+        List<Book> rows = queryRows("BookDAO.findAvailableBooksPage", DaoStatements.BOOK_FIND_AVAILABLE_PAGE,
+                this::mapResultSetToBook,
+                after != null ? after.getString(1) : "",
+                after != null ? after.getInt(0) : 0,
+                pageLimit + 1);
+        return Page.of(rows, pageLimit, book -> PageToken.encode(PAGE_AVAILABLE, book.getBookId(), book.getTitle()));
+    }
+
+    /**
+     * READ - Semua books sebagai BookSummary (layar daftar)
+     * Hanya kolom di BookSummary yang di-select, description dan kolom lain tidak dikirim dari database
+     * @return List of BookSummary, sorted by book_id
+     * @throws SQLException jika operasi database gagal
+     */
+    public List<BookSummary> findAllSummaries() throws SQLException {
+        return queryRows("BookDAO.findAllSummaries", DaoStatements.BOOK_SUMMARY_FIND_ALL,
+                this::mapResultSetToBookSummary);
+    }
+
+    /**
+     * READ - Halaman BookSummary urut book_id
+     * Token sama dengan findPage, jadi halaman Book dan BookSummary bisa dilanjutkan satu sama lain
+     * @param pageToken Token dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah books per halaman
+     * @throws IllegalArgumentException jika token tidak valid atau berasal dari listing lain
+     */
+    public Page<BookSummary> findSummaryPage(String pageToken, int limit) throws SQLException {
+        int pageLimit = Page.checkLimit(limit);
+        int lastBookId = pageToken != null ? PageToken.decode(pageToken, PAGE_BY_ID, 1).getInt(0) : 0;
+        List<BookSummary> rows = queryRows("BookDAO.findSummaryPage", DaoStatements.BOOK_SUMMARY_PAGE,
+                this::mapResultSetToBookSummary, lastBookId, pageLimit + 1);
+        return Page.of(rows, pageLimit, book -> PageToken.encode(PAGE_BY_ID, book.getBookId()));
+    }
+
+    /**
+     * Menjalankan query read-only (dengan retry) dan mapping semua baris dengan mapper
+     */
+    private <T> List<T> queryRows(String operation, String sql, RowMapper<T> mapper, Object... parameters)
+            throws SQLException {
+        return RetryPolicy.retry(operation, () -> {
+            List<T> rows = new ArrayList<>();
+
+            try (Connection conn = DatabaseConfig.getReadConnection(WorkloadClass.REPORTING);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), operation)) {
+
+                for (int i = 0; i < parameters.length; i++) {
+                    pstmt.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapper.map(rs));
+                    }
+                }
+            }
+
+            return rows;
+        });
     }
 
     /**
@@ -138,10 +640,10 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public boolean updateAvailableCopies(Integer bookId, Integer newAvailableCopies) throws SQLException {
-        String sql = "UPDATE books SET available_copies = ? WHERE book_id = ?";
+        String sql = DaoStatements.BOOK_UPDATE_AVAILABLE_COPIES;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.updateAvailableCopies")) {
 
             pstmt.setInt(1, newAvailableCopies);
             pstmt.setInt(2, bookId);
@@ -157,11 +659,10 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public boolean decreaseAvailableCopies(Integer bookId) throws SQLException {
-        String sql = "UPDATE books SET available_copies = available_copies - 1 " +
-                "WHERE book_id = ? AND available_copies > 0";
+        String sql = DaoStatements.BOOK_DECREASE_AVAILABLE_COPIES;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.decreaseAvailableCopies")) {
 
             pstmt.setInt(1, bookId);
             return pstmt.executeUpdate() > 0;
@@ -176,11 +677,10 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public boolean increaseAvailableCopies(Integer bookId) throws SQLException {
-        String sql = "UPDATE books SET available_copies = available_copies + 1 " +
-                "WHERE book_id = ? AND available_copies < total_copies";
+        String sql = DaoStatements.BOOK_INCREASE_AVAILABLE_COPIES;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.increaseAvailableCopies")) {
 
             pstmt.setInt(1, bookId);
             return pstmt.executeUpdate() > 0;
@@ -194,10 +694,10 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public boolean delete(Integer bookId) throws SQLException {
-        String sql = "DELETE FROM books WHERE book_id = ?";
+        String sql = DaoStatements.BOOK_DELETE;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.delete")) {
 
             pstmt.setInt(1, bookId);
             return pstmt.executeUpdate() > 0;
@@ -206,75 +706,85 @@ public class BookDAO {
 
     /**
      * SEARCH - Mencari books berdasarkan title (case-insensitive)
+     * LIKE '%x%' tidak bisa memakai index B-tree, hanya trigram index (lihat ensureTrigramIndex);
+     * untuk pencarian kata di tabel besar gunakan searchFullText, untuk salah ketik searchFuzzy
+     * Read-only query (workload reporting), dikirim ke read replica jika tersedia
      * @param title Keyword untuk search
      * @return List of books yang match search criteria
      * @throws SQLException jika operasi database gagal
      */
     public List<Book> searchByTitle(String title) throws SQLException {
-        String sql = "SELECT * FROM books WHERE LOWER(title) LIKE LOWER(?) ORDER BY title";
-        List<Book> books = new ArrayList<>();
+        return RetryPolicy.retry("BookDAO.searchByTitle", () -> {
+            String sql = DaoStatements.BOOK_SEARCH_BY_TITLE;
+            List<Book> books = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConfig.getReadConnection(WorkloadClass.REPORTING);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.searchByTitle")) {
 
-            // Use wildcard untuk partial matching
-            pstmt.setString(1, "%" + title + "%");
-            ResultSet rs = pstmt.executeQuery();
+                // Use wildcard untuk partial matching
+                pstmt.setString(1, "%" + title + "%");
+                ResultSet rs = pstmt.executeQuery();
 
-            while (rs.next()) {
-                books.add(mapResultSetToBook(rs));
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
             }
-        }
 
-        return books;
+            return books;
+        });
     }
 
     /**
      * FIND - Mencari available books (available_copies > 0)
+     * Read-only query (workload reporting), dikirim ke read replica jika tersedia
      * @return List of available books
      * @throws SQLException jika operasi database gagal
      */
     public List<Book> findAvailableBooks() throws SQLException {
-        String sql = "SELECT * FROM books WHERE available_copies > 0 ORDER BY title";
-        List<Book> books = new ArrayList<>();
+        return RetryPolicy.retry("BookDAO.findAvailableBooks", () -> {
+            String sql = DaoStatements.BOOK_FIND_AVAILABLE;
+            List<Book> books = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = DatabaseConfig.getReadConnection(WorkloadClass.REPORTING);
+                 PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.findAvailableBooks");
+                 ResultSet rs = stmt.executeQuery()) {
 
-            while (rs.next()) {
-                books.add(mapResultSetToBook(rs));
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
             }
-        }
 
-        return books;
+            return books;
+        });
     }
 
     /**
      * Helper method untuk mapping ResultSet ke Book object
+     * Memakai BookRowMapper hasil generate (@RowMapped): kolom dibaca berdasarkan posisi,
+     * jadi query wajib memakai BookRowMapper.COLUMNS sebagai select list
      * @param rs ResultSet dari database query
      * @return Book object yang sudah di-mapping
      * @throws SQLException jika mapping gagal
      */
     private Book mapResultSetToBook(ResultSet rs) throws SQLException {
-        return Book.builder()
-                .bookId(rs.getInt("book_id"))
-                .isbn(rs.getString("isbn"))
-                .title(rs.getString("title"))
-                .authorId(rs.getInt("author_id"))
-                .publisherId((Integer) rs.getObject("publisher_id"))
-                .categoryId((Integer) rs.getObject("category_id"))
-                .publicationYear((Integer) rs.getObject("publication_year"))
-                .pages((Integer) rs.getObject("pages"))
-                .language(rs.getString("language"))
-                .description(rs.getString("description"))
-                .totalCopies(rs.getInt("total_copies"))
-                .availableCopies(rs.getInt("available_copies"))
-                .price(rs.getBigDecimal("price"))
-                .location(rs.getString("location"))
-                .status(rs.getString("status"))
-                .createdAt(rs.getTimestamp("created_at"))
-                .updatedAt(rs.getTimestamp("updated_at"))
+        return BookRowMapper.INSTANCE.map(rs);
+    }
+
+    /**
+     * Helper method untuk mapping ResultSet ke BookSummary (hanya kolom projection)
+     * Mapper posisional hasil generate, query wajib memakai BookSummaryRowMapper.COLUMNS
+     */
+    private BookSummary mapResultSetToBookSummary(ResultSet rs) throws SQLException {
+        return BookSummaryRowMapper.INSTANCE.map(rs);
+    }
+
+    /**
+     * Helper method untuk mapping hasil full-text search: kolom BookSummary lalu kolom rank
+     */
+    private BookSearchHit mapResultSetToBookSearchHit(ResultSet rs) throws SQLException {
+        return BookSearchHit.builder()
+                .book(BookSummaryRowMapper.INSTANCE.map(rs))
+                .rank(rs.getDouble("rank"))
                 .build();
     }
 
@@ -284,18 +794,20 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public int countAll() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM books";
+        return RetryPolicy.retry("BookDAO.countAll", () -> {
+            String sql = DaoStatements.BOOK_COUNT_ALL;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.countAll");
+                 ResultSet rs = stmt.executeQuery()) {
 
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
 
-            return 0;
-        }
+                return 0;
+            }
+        });
     }
 
     /**
@@ -304,17 +816,19 @@ public class BookDAO {
      * @throws SQLException jika operasi database gagal
      */
     public int countAvailableBooks() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM books WHERE available_copies > 0";
+        return RetryPolicy.retry("BookDAO.countAvailableBooks", () -> {
+            String sql = DaoStatements.BOOK_COUNT_AVAILABLE;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BookDAO.countAvailableBooks");
+                 ResultSet rs = stmt.executeQuery()) {
 
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
 
-            return 0;
-        }
+                return 0;
+            }
+        });
     }
 }
\ No newline at end of file
@@ -2,19 +2,44 @@ package com.praktikum.database.testing.library.dao;
 
 // Import classes untuk database operations dan model
 import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.config.QueryTimeouts;
+import com.praktikum.database.testing.library.config.RetryPolicy;
+import com.praktikum.database.testing.library.config.ShardCallback;
+import com.praktikum.database.testing.library.config.ShardRouter;
+import com.praktikum.database.testing.library.config.WorkloadClass;
 import com.praktikum.database.testing.library.model.Borrowing;
+import com.praktikum.database.testing.library.model.BorrowingRowMapper;
+import com.praktikum.database.testing.library.model.BorrowingSummary;
+import com.praktikum.database.testing.library.model.BorrowingSummaryRowMapper;
+import org.postgresql.PGStatement;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Data Access Object (DAO) class untuk entity Borrowing
  * Menangani semua operasi CRUD untuk tabel borrowings
  * Mengelola data peminjaman buku oleh users
+ *
+ * Jika sharding aktif (db.shard.urls), borrowings disimpan di shard milik user_id peminjam.
+ * Query berdasarkan user_id dikirim ke satu shard, query lain dijalankan paralel di semua shard
  */
 public class BorrowingDAO {
+    // Urutan ORDER BY borrow_date DESC untuk menggabungkan hasil dari beberapa shard
+    private static final Comparator<Borrowing> BY_BORROW_DATE_DESC = Comparator.comparing(
+            Borrowing::getBorrowDate, Comparator.nullsLast(Comparator.<Timestamp>reverseOrder()));
+
+    // Jenis listing di page token
+    private static final String PAGE_BY_USER = "borrowings.user";
+
+    // Sentinel untuk rentang tanggal terbuka dan key halaman pertama (dikirim pgjdbc sebagai -infinity/infinity)
+    private static final Timestamp NEGATIVE_INFINITY = new Timestamp(PGStatement.DATE_NEGATIVE_INFINITY);
+    private static final Timestamp POSITIVE_INFINITY = new Timestamp(PGStatement.DATE_POSITIVE_INFINITY);
 
     /**
      * CREATE - Insert borrowing record baru ke database
@@ -24,20 +49,25 @@ public class BorrowingDAO {
      */
     public Borrowing create(Borrowing borrowing) throws SQLException {
         // SQL query untuk insert borrowing record
-        String sql = "INSERT INTO borrowings (user_id, book_id, due_date, status, notes) " +
-                "VALUES (?, ?, ?, ?, ?) " +
-                "RETURNING borrowing_id, borrow_date, created_at, updated_at";
+        // Dengan sharding, borrowing_id dialokasikan dari sequence global supaya unik antar shard
+        boolean sharded = DatabaseConfig.isSharded();
+        String sql = sharded ? DaoStatements.BORROWING_CREATE_SHARDED : DaoStatements.BORROWING_CREATE;
+        Integer borrowingId = sharded ? DatabaseConfig.nextGlobalId("borrowings", "borrowing_id") : null;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getShardConnection(borrowing.getUserId());
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.create")) {
 
             // Set parameter values
-            pstmt.setInt(1, borrowing.getUserId());
-            pstmt.setInt(2, borrowing.getBookId());
-            pstmt.setTimestamp(3, borrowing.getDueDate());
+            int index = 1;
+            if (borrowingId != null) {
+                pstmt.setInt(index++, borrowingId);
+            }
+            pstmt.setInt(index++, borrowing.getUserId());
+            pstmt.setInt(index++, borrowing.getBookId());
+            pstmt.setTimestamp(index++, borrowing.getDueDate());
             // Gunakan default value jika status null
-            pstmt.setString(4, borrowing.getStatus() != null ? borrowing.getStatus() : "borrowed");
-            pstmt.setString(5, borrowing.getNotes());
+            pstmt.setString(index++, borrowing.getStatus() != null ? borrowing.getStatus() : "borrowed");
+            pstmt.setString(index, borrowing.getNotes());
 
             ResultSet rs = pstmt.executeQuery();
 
@@ -60,20 +90,44 @@ public class BorrowingDAO {
      * @throws SQLException jika operasi database gagal
      */
     public Optional<Borrowing> findById(Integer borrowingId) throws SQLException {
-        String sql = "SELECT * FROM borrowings WHERE borrowing_id = ?";
+        return RetryPolicy.retry("BorrowingDAO.findById", () -> {
+            String sql = DaoStatements.BORROWING_FIND_BY_ID;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            List<Optional<Borrowing>> perShard = DatabaseConfig.scatterGather(WorkloadClass.OLTP, conn -> {
+                try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findById")) {
 
-            pstmt.setInt(1, borrowingId);
-            ResultSet rs = pstmt.executeQuery();
+                    pstmt.setInt(1, borrowingId);
+                    ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return Optional.of(mapResultSetToBorrowing(rs));
-            }
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToBorrowing(rs));
+                    }
+
+                    return Optional.empty();
+                }
+            });
+            return perShard.stream().flatMap(Optional::stream).findFirst();
+        });
+    }
 
-            return Optional.empty();
+    /**
+     * READ - Mencari banyak borrowing records sekaligus berdasarkan ID (multi-get)
+     * Satu query "borrowing_id = ANY(?)" per 1000 id unik. borrowing_id bukan key routing,
+     * jadi dengan sharding setiap chunk dijalankan paralel di semua shard
+     * @param borrowingIds ID borrowing records yang dicari, boleh berisi duplikat
+     * @return Map borrowing_id -> Borrowing urut sesuai input, ID yang tidak ditemukan tidak ada di Map
+     * @throws SQLException jika operasi database gagal
+     */
+    public Map<Integer, Borrowing> findByIds(Collection<Integer> borrowingIds) throws SQLException {
+        List<Borrowing> borrowings = new ArrayList<>();
+        for (List<Integer> chunk : MultiGet.chunks(borrowingIds, MultiGet.CHUNK_SIZE)) {
+            List<List<Borrowing>> perShard = RetryPolicy.retry("BorrowingDAO.findByIds", () ->
+                    DatabaseConfig.scatterGather(WorkloadClass.OLTP, conn ->
+                            MultiGet.query(conn, DaoStatements.BORROWING_FIND_BY_IDS, "BorrowingDAO.findByIds",
+                                    chunk, this::mapResultSetToBorrowing)));
+            perShard.forEach(borrowings::addAll);
         }
+        return MultiGet.byId(borrowingIds, borrowings, Borrowing::getBorrowingId);
     }
 
     /**
@@ -83,21 +137,117 @@ public class BorrowingDAO {
      * @throws SQLException jika operasi database gagal
      */
     public List<Borrowing> findByUserId(Integer userId) throws SQLException {
-        String sql = "SELECT * FROM borrowings WHERE user_id = ? ORDER BY borrow_date DESC";
-        List<Borrowing> borrowings = new ArrayList<>();
+        return RetryPolicy.retry("BorrowingDAO.findByUserId", () -> {
+            String sql = DaoStatements.BORROWING_FIND_BY_USER_ID;
+            List<Borrowing> borrowings = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConfig.getShardConnection(userId);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findByUserId")) {
 
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, userId);
+                ResultSet rs = pstmt.executeQuery();
 
-            while (rs.next()) {
-                borrowings.add(mapResultSetToBorrowing(rs));
+                while (rs.next()) {
+                    borrowings.add(mapResultSetToBorrowing(rs));
+                }
             }
+
+            return borrowings;
+        });
+    }
+
+    /**
+     * READ - Riwayat peminjaman user sebagai BorrowingSummary
+     * Hanya kolom di BorrowingSummary yang di-select (tanpa denda, notes dan timestamp audit)
+     * @param userId ID user yang borrowing records-nya dicari
+     * @return List of BorrowingSummary, borrow_date terbaru dulu
+     * @throws SQLException jika operasi database gagal
+     */
+    public List<BorrowingSummary> findSummariesByUserId(Integer userId) throws SQLException {
+        return RetryPolicy.retry("BorrowingDAO.findSummariesByUserId", () -> {
+            String sql = DaoStatements.BORROWING_SUMMARY_FIND_BY_USER_ID;
+            List<BorrowingSummary> borrowings = new ArrayList<>();
+
+            try (Connection conn = DatabaseConfig.getShardConnection(userId);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findSummariesByUserId")) {
+
+                pstmt.setInt(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        borrowings.add(mapResultSetToBorrowingSummary(rs));
+                    }
+                }
+            }
+
+            return borrowings;
+        });
+    }
+
+    /**
+     * READ - Halaman borrowing records satu user, urut borrow_date terbaru dulu
+     * Filter active/returned, rentang borrow_date dan limit dijalankan di SQL (satu shard, milik user)
+     * @param filter Filter dengan userId wajib diisi
+     * @param pageToken Token dari Page.getNextPageToken(), null untuk halaman pertama
+     * @param limit Jumlah borrowings per halaman
+     * @return Halaman borrowings yang cocok dengan filter
+     * @throws IllegalArgumentException jika userId kosong, limit di luar batas atau token tidak valid
+     * @throws SQLException jika operasi database gagal
+     */
+    public Page<Borrowing> findByUser(BorrowingFilter filter, String pageToken, int limit) throws SQLException {
+        if (filter.getUserId() == null) {
+            throw new IllegalArgumentException("userId harus diisi untuk BorrowingDAO.findByUser");
         }
+        int pageLimit = Page.checkLimit(limit);
+        PageToken after = pageToken != null ? PageToken.decode(pageToken, PAGE_BY_USER, 2) : null;
+        Timestamp afterBorrowDate = after != null ? parseTimestamp(after.getString(1)) : POSITIVE_INFINITY;
+        int afterBorrowingId = after != null ? after.getInt(0) : Integer.MAX_VALUE;
+
+        String sql = switch (filter.getState()) {
+            case ACTIVE -> DaoStatements.BORROWING_FIND_ACTIVE_BY_USER_PAGE;
+            case RETURNED -> DaoStatements.BORROWING_FIND_RETURNED_BY_USER_PAGE;
+            case ALL -> DaoStatements.BORROWING_FIND_BY_USER_PAGE;
+        };
+
+        List<Borrowing> rows = RetryPolicy.retry("BorrowingDAO.findByUser", () -> {
+            List<Borrowing> borrowings = new ArrayList<>();
+
+            try (Connection conn = DatabaseConfig.getShardConnection(filter.getUserId());
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findByUser")) {
+
+                pstmt.setInt(1, filter.getUserId());
+                pstmt.setTimestamp(2, filter.getBorrowedFrom() != null ? filter.getBorrowedFrom() : NEGATIVE_INFINITY);
+                pstmt.setTimestamp(3, filter.getBorrowedBefore() != null ? filter.getBorrowedBefore() : POSITIVE_INFINITY);
+                pstmt.setTimestamp(4, afterBorrowDate);
+                pstmt.setInt(5, afterBorrowingId);
+                pstmt.setInt(6, pageLimit + 1);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        borrowings.add(mapResultSetToBorrowing(rs));
+                    }
+                }
+            }
+
+            return borrowings;
+        });
+        return Page.of(rows, pageLimit, borrowing ->
+                PageToken.encode(PAGE_BY_USER, borrowing.getBorrowingId(), borrowing.getBorrowDate()));
+    }
 
-        return borrowings;
+    /**
+     * DDL - Membuat index (user_id, borrow_date DESC, borrowing_id DESC) untuk findByUser jika belum ada
+     * Dengan sharding, index dibuat di setiap shard
+     * @throws SQLException jika operasi database gagal
+     */
+    public void ensureUserHistoryIndex() throws SQLException {
+        DatabaseConfig.scatterGather(WorkloadClass.BACKGROUND, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String ddl : DaoStatements.borrowingSchema()) {
+                    stmt.execute(ddl);
+                }
+            }
+            return null;
+        });
     }
 
     /**
@@ -107,159 +257,252 @@ public class BorrowingDAO {
      * @throws SQLException jika operasi database gagal
      */
     public List<Borrowing> findByBookId(Integer bookId) throws SQLException {
-        String sql = "SELECT * FROM borrowings WHERE book_id = ? ORDER BY borrow_date DESC";
-        List<Borrowing> borrowings = new ArrayList<>();
+        return RetryPolicy.retry("BorrowingDAO.findByBookId", () -> {
+            String sql = DaoStatements.BORROWING_FIND_BY_BOOK_ID;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            List<List<Borrowing>> perShard = DatabaseConfig.scatterGather(WorkloadClass.OLTP, conn -> {
+                List<Borrowing> borrowings = new ArrayList<>();
 
-            pstmt.setInt(1, bookId);
-            ResultSet rs = pstmt.executeQuery();
+                try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findByBookId")) {
 
-            while (rs.next()) {
-                borrowings.add(mapResultSetToBorrowing(rs));
-            }
-        }
+                    pstmt.setInt(1, bookId);
+                    ResultSet rs = pstmt.executeQuery();
 
-        return borrowings;
+                    while (rs.next()) {
+                        borrowings.add(mapResultSetToBorrowing(rs));
+                    }
+                }
+
+                return borrowings;
+            });
+            return ShardRouter.merge(perShard, BY_BORROW_DATE_DESC);
+        });
     }
 
     /**
      * READ - Mencari active borrowing records (belum dikembalikan)
+     * Query listing, dijalankan di bulkhead reporting
      * @return List of active borrowing records
      * @throws SQLException jika operasi database gagal
      */
     public List<Borrowing> findActiveBorrowings() throws SQLException {
-        String sql = "SELECT * FROM borrowings WHERE return_date IS NULL ORDER BY borrow_date DESC";
-        List<Borrowing> borrowings = new ArrayList<>();
+        return RetryPolicy.retry("BorrowingDAO.findActiveBorrowings", () -> {
+            String sql = DaoStatements.BORROWING_FIND_ACTIVE;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            List<List<Borrowing>> perShard = DatabaseConfig.scatterGather(WorkloadClass.REPORTING, conn -> {
+                List<Borrowing> borrowings = new ArrayList<>();
 
-            while (rs.next()) {
-                borrowings.add(mapResultSetToBorrowing(rs));
-            }
-        }
+                try (PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findActiveBorrowings");
+                     ResultSet rs = stmt.executeQuery()) {
 
-        return borrowings;
+                    while (rs.next()) {
+                        borrowings.add(mapResultSetToBorrowing(rs));
+                    }
+                }
+
+                return borrowings;
+            });
+            return ShardRouter.merge(perShard, BY_BORROW_DATE_DESC);
+        });
     }
 
     /**
      * READ - Mencari overdue borrowing records (melewati due_date dan belum dikembalikan)
+     * Read-only query (workload reporting), dikirim ke read replica jika tersedia
+     * Dengan sharding, query dijalankan paralel di semua shard
      * @return List of overdue borrowing records
      * @throws SQLException jika operasi database gagal
      */
     public List<Borrowing> findOverdueBorrowings() throws SQLException {
-        String sql = "SELECT * FROM borrowings WHERE return_date IS NULL AND due_date < CURRENT_TIMESTAMP " +
-                "ORDER BY due_date ASC";
-        List<Borrowing> borrowings = new ArrayList<>();
+        return RetryPolicy.retry("BorrowingDAO.findOverdueBorrowings", () -> {
+            String sql = DaoStatements.BORROWING_FIND_OVERDUE;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            List<List<Borrowing>> perShard = DatabaseConfig.scatterGatherRead(WorkloadClass.REPORTING, conn -> {
+                List<Borrowing> borrowings = new ArrayList<>();
 
-            while (rs.next()) {
-                borrowings.add(mapResultSetToBorrowing(rs));
-            }
-        }
+                try (PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.findOverdueBorrowings");
+                     ResultSet rs = stmt.executeQuery()) {
 
-        return borrowings;
+                    while (rs.next()) {
+                        borrowings.add(mapResultSetToBorrowing(rs));
+                    }
+                }
+
+                return borrowings;
+            });
+            return ShardRouter.merge(perShard, Comparator.comparing(Borrowing::getDueDate,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+        });
     }
 
     /**
      * UPDATE - Update borrowing record untuk menandai buku dikembalikan
+     * Dengan sharding, pemilik borrowing dicari dulu lewat findById lalu update dikirim ke shard-nya
      * @param borrowingId ID borrowing record yang akan di-update
      * @param returnDate Tanggal pengembalian buku
      * @return true jika update berhasil
      * @throws SQLException jika operasi database gagal
      */
     public boolean returnBook(Integer borrowingId, Timestamp returnDate) throws SQLException {
-        String sql = "UPDATE borrowings SET return_date = ?, status = 'returned', updated_at = CURRENT_TIMESTAMP " +
-                "WHERE borrowing_id = ? AND return_date IS NULL";
+        return updateOwned(borrowingId, returnBookUpdate(borrowingId, returnDate));
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * UPDATE - Menandai buku dikembalikan, langsung di shard milik user
+     * @param userId ID user pemilik borrowing (key routing)
+     * @param borrowingId ID borrowing record yang akan di-update
+     * @param returnDate Tanggal pengembalian buku
+     * @return true jika update berhasil
+     * @throws SQLException jika operasi database gagal
+     */
+    public boolean returnBook(Integer userId, Integer borrowingId, Timestamp returnDate) throws SQLException {
+        return updateOnShard(userId, returnBookUpdate(borrowingId, returnDate));
+    }
 
-            pstmt.setTimestamp(1, returnDate);
-            pstmt.setInt(2, borrowingId);
-            return pstmt.executeUpdate() > 0;
-        }
+    private ShardCallback<Integer> returnBookUpdate(Integer borrowingId, Timestamp returnDate) {
+        String sql = DaoStatements.BORROWING_RETURN_BOOK;
+
+        return conn -> {
+            try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.returnBook")) {
+
+                pstmt.setTimestamp(1, returnDate);
+                pstmt.setInt(2, borrowingId);
+                return pstmt.executeUpdate();
+            }
+        };
     }
 
     /**
      * UPDATE - Update status borrowing record
+     * Dengan sharding, pemilik borrowing dicari dulu lewat findById lalu update dikirim ke shard-nya
      * @param borrowingId ID borrowing record yang akan di-update
      * @param status Status baru (borrowed, returned, overdue, lost)
      * @return true jika update berhasil
      * @throws SQLException jika operasi database gagal
      */
     public boolean updateStatus(Integer borrowingId, String status) throws SQLException {
-        String sql = "UPDATE borrowings SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE borrowing_id = ?";
+        return updateOwned(borrowingId, statusUpdate(borrowingId, status));
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * UPDATE - Update status borrowing record, langsung di shard milik user
+     * @param userId ID user pemilik borrowing (key routing)
+     * @param borrowingId ID borrowing record yang akan di-update
+     * @param status Status baru (borrowed, returned, overdue, lost)
+     * @return true jika update berhasil
+     * @throws SQLException jika operasi database gagal
+     */
+    public boolean updateStatus(Integer userId, Integer borrowingId, String status) throws SQLException {
+        return updateOnShard(userId, statusUpdate(borrowingId, status));
+    }
 
-            pstmt.setString(1, status);
-            pstmt.setInt(2, borrowingId);
-            return pstmt.executeUpdate() > 0;
-        }
+    private ShardCallback<Integer> statusUpdate(Integer borrowingId, String status) {
+        String sql = DaoStatements.BORROWING_UPDATE_STATUS;
+
+        return conn -> {
+            try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.updateStatus")) {
+
+                pstmt.setString(1, status);
+                pstmt.setInt(2, borrowingId);
+                return pstmt.executeUpdate();
+            }
+        };
     }
 
     /**
      * UPDATE - Update fine amount untuk borrowing record
+     * Dengan sharding, pemilik borrowing dicari dulu lewat findById lalu update dikirim ke shard-nya
      * @param borrowingId ID borrowing record yang akan di-update
      * @param fineAmount Jumlah denda yang harus dibayar
      * @return true jika update berhasil
      * @throws SQLException jika operasi database gagal
      */
     public boolean updateFineAmount(Integer borrowingId, Double fineAmount) throws SQLException {
-        String sql = "UPDATE borrowings SET fine_amount = ?, updated_at = CURRENT_TIMESTAMP WHERE borrowing_id = ?";
+        return updateOwned(borrowingId, fineAmountUpdate(borrowingId, fineAmount));
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * UPDATE - Update fine amount, langsung di shard milik user
+     * @param userId ID user pemilik borrowing (key routing)
+     * @param borrowingId ID borrowing record yang akan di-update
+     * @param fineAmount Jumlah denda yang harus dibayar
+     * @return true jika update berhasil
+     * @throws SQLException jika operasi database gagal
+     */
+    public boolean updateFineAmount(Integer userId, Integer borrowingId, Double fineAmount) throws SQLException {
+        return updateOnShard(userId, fineAmountUpdate(borrowingId, fineAmount));
+    }
 
-            pstmt.setDouble(1, fineAmount);
-            pstmt.setInt(2, borrowingId);
-            return pstmt.executeUpdate() > 0;
-        }
+    private ShardCallback<Integer> fineAmountUpdate(Integer borrowingId, Double fineAmount) {
+        String sql = DaoStatements.BORROWING_UPDATE_FINE_AMOUNT;
+
+        return conn -> {
+            try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.updateFineAmount")) {
+
+                pstmt.setDouble(1, fineAmount);
+                pstmt.setInt(2, borrowingId);
+                return pstmt.executeUpdate();
+            }
+        };
     }
 
     /**
      * DELETE - Menghapus borrowing record berdasarkan ID
+     * Dengan sharding, pemilik borrowing dicari dulu lewat findById lalu delete dikirim ke shard-nya
      * @param borrowingId ID borrowing record yang akan dihapus
      * @return true jika delete berhasil
      * @throws SQLException jika operasi database gagal
      */
     public boolean delete(Integer borrowingId) throws SQLException {
-        String sql = "DELETE FROM borrowings WHERE borrowing_id = ?";
+        return updateOwned(borrowingId, deleteUpdate(borrowingId));
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * DELETE - Menghapus borrowing record, langsung di shard milik user
+     * @param userId ID user pemilik borrowing (key routing)
+     * @param borrowingId ID borrowing record yang akan dihapus
+     * @return true jika delete berhasil
+     * @throws SQLException jika operasi database gagal
+     */
+    public boolean delete(Integer userId, Integer borrowingId) throws SQLException {
+        return updateOnShard(userId, deleteUpdate(borrowingId));
+    }
 
-            pstmt.setInt(1, borrowingId);
-            return pstmt.executeUpdate() > 0;
-        }
+    private ShardCallback<Integer> deleteUpdate(Integer borrowingId) {
+        String sql = DaoStatements.BORROWING_DELETE;
+
+        return conn -> {
+            try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.delete")) {
+
+                pstmt.setInt(1, borrowingId);
+                return pstmt.executeUpdate();
+            }
+        };
     }
 
     /**
      * COUNT - Menghitung total borrowing records
+     * Dengan sharding, COUNT dijalankan paralel di semua shard lalu dijumlahkan
      * @return jumlah total borrowing records
      * @throws SQLException jika operasi database gagal
      */
     public int countAll() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM borrowings";
-
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
-            return 0;
-        }
+        return RetryPolicy.retry("BorrowingDAO.countAll", () -> {
+            String sql = DaoStatements.BORROWING_COUNT_ALL;
+
+            List<Integer> perShard = DatabaseConfig.scatterGather(WorkloadClass.OLTP, conn -> {
+                try (PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.countAll");
+                     ResultSet rs = stmt.executeQuery()) {
+
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
+
+                    return 0;
+                }
+            });
+            return perShard.stream().mapToInt(Integer::intValue).sum();
+        });
     }
 
     /**
@@ -269,42 +512,80 @@ public class BorrowingDAO {
      * @throws SQLException jika operasi database gagal
      */
     public int countActiveBorrowingsByUser(Integer userId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM borrowings WHERE user_id = ? AND return_date IS NULL";
+        return RetryPolicy.retry("BorrowingDAO.countActiveBorrowingsByUser", () -> {
+            String sql = DaoStatements.BORROWING_COUNT_ACTIVE_BY_USER;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConfig.getShardConnection(userId);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "BorrowingDAO.countActiveBorrowingsByUser")) {
 
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, userId);
+                ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return rs.getInt(1);
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Helper untuk UPDATE/DELETE di shard milik user (tanpa sharding: database primary)
+     * @return true jika ada row yang berubah
+     */
+    private boolean updateOnShard(Integer userId, ShardCallback<Integer> update) throws SQLException {
+        try (Connection conn = DatabaseConfig.getShardConnection(userId)) {
+            return update.apply(conn) > 0;
+        }
+    }
+
+    /**
+     * Helper untuk UPDATE/DELETE yang hanya tahu borrowing_id: borrowing_id bukan key routing,
+     * jadi dengan sharding user_id pemilik dibaca dulu (findById) dan write hanya dikirim ke shard itu
+     * @return true jika ada row yang berubah, false jika borrowing tidak ditemukan
+     */
+    private boolean updateOwned(Integer borrowingId, ShardCallback<Integer> update) throws SQLException {
+        if (!DatabaseConfig.isSharded()) {
+            try (Connection conn = DatabaseConfig.getConnection()) {
+                return update.apply(conn) > 0;
             }
+        }
+        Optional<Borrowing> owner = findById(borrowingId);
+        if (owner.isEmpty()) {
+            return false;
+        }
+        return updateOnShard(owner.get().getUserId(), update);
+    }
 
-            return 0;
+    /**
+     * Parse borrow_date dari page token (format Timestamp.toString, presisi mikrodetik tetap utuh)
+     */
+    private static Timestamp parseTimestamp(String value) {
+        try {
+            return Timestamp.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Page token tidak valid", e);
         }
     }
 
+    /**
+     * Helper method untuk mapping ResultSet ke BorrowingSummary (hanya kolom projection)
+     * Mapper posisional hasil generate, query wajib memakai BorrowingSummaryRowMapper.COLUMNS
+     */
+    private BorrowingSummary mapResultSetToBorrowingSummary(ResultSet rs) throws SQLException {
+        return BorrowingSummaryRowMapper.INSTANCE.map(rs);
+    }
+
     /**
      * Helper method untuk mapping ResultSet ke Borrowing object
+     * Memakai BorrowingRowMapper hasil generate (@RowMapped): kolom dibaca berdasarkan posisi,
+     * jadi query wajib memakai BorrowingRowMapper.COLUMNS sebagai select list
      * @param rs ResultSet dari database query
      * @return Borrowing object yang sudah di-mapping
      * @throws SQLException jika mapping gagal
      */
     private Borrowing mapResultSetToBorrowing(ResultSet rs) throws SQLException {
-        return Borrowing.builder()
-                .borrowingId(rs.getInt("borrowing_id"))
-                .userId(rs.getInt("user_id"))
-                .bookId(rs.getInt("book_id"))
-                .borrowDate(rs.getTimestamp("borrow_date"))
-                .dueDate(rs.getTimestamp("due_date"))
-                .returnDate(rs.getTimestamp("return_date"))
-                .status(rs.getString("status"))
-                .fineAmount(rs.getBigDecimal("fine_amount"))
-                .finePaid(rs.getBoolean("fine_paid"))
-                .notes(rs.getString("notes"))
-                .createdAt(rs.getTimestamp("created_at"))
-                .updatedAt(rs.getTimestamp("updated_at"))
-                .build();
+        return BorrowingRowMapper.INSTANCE.map(rs);
     }
 }
\ No newline at end of file
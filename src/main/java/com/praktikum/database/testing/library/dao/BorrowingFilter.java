@@ -0,0 +1,40 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.sql.Timestamp;
+
+/**
+ * Filter untuk BorrowingDAO.findByUser
+ * Semua kondisi dijalankan di SQL, jadi hanya baris yang cocok yang dikirim dari database
+ */
+@Getter
+@Builder
+@ToString
+public class BorrowingFilter {
+    /**
+     * Status pengembalian berdasarkan kolom return_date
+     */
+    public enum State {
+        // return_date IS NULL
+        ACTIVE,
+        // return_date IS NOT NULL
+        RETURNED,
+        ALL
+    }
+
+    // Wajib diisi, menentukan shard tempat query dijalankan
+    private final Integer userId;
+
+    @Builder.Default
+    private final State state = State.ALL;
+
+    // borrow_date >= borrowedFrom, null = tanpa batas bawah
+    private final Timestamp borrowedFrom;
+
+    // borrow_date < borrowedBefore, null = tanpa batas atas
+    private final Timestamp borrowedBefore;
+}
@@ -0,0 +1,46 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import Lombok annotations
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Hasil BookBulkLoader: jumlah baris yang masuk, throughput, dan baris yang ditolak
+ */
+@Getter
+@Builder
+@ToString
+public class BulkLoadResult {
+    private final long rowsLoaded;
+
+    private final long durationMillis;
+
+    // Baris yang tidak dimuat beserta alasannya, urut sesuai posisi di input
+    private final List<RejectedRow> rejectedRows;
+
+    /**
+     * @return throughput dalam baris per detik
+     */
+    public double getRowsPerSecond() {
+        return durationMillis == 0 ? rowsLoaded * 1000.0 : rowsLoaded * 1000.0 / durationMillis;
+    }
+
+    /**
+     * Satu baris input yang ditolak (validasi di client atau error dari server saat COPY)
+     */
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class RejectedRow {
+        // Posisi baris di input, mulai dari 1
+        private final long rowNumber;
+
+        private final String isbn;
+
+        private final String reason;
+    }
+}
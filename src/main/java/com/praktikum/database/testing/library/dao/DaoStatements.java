@@ -0,0 +1,418 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import classes untuk registry SQL dan select list RowMapper hasil generate
+import com.praktikum.database.testing.library.config.SqlRegistry;
+import com.praktikum.database.testing.library.config.SqlStatement;
+import com.praktikum.database.testing.library.model.BookRowMapper;
+import com.praktikum.database.testing.library.model.BookSummaryRowMapper;
+import com.praktikum.database.testing.library.model.BorrowingRowMapper;
+import com.praktikum.database.testing.library.model.BorrowingSummaryRowMapper;
+import com.praktikum.database.testing.library.model.UserRowMapper;
+import com.praktikum.database.testing.library.model.UserSummaryRowMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Semua SQL statement yang dipakai BookDAO, UserDAO dan BorrowingDAO
+ * Setiap SQL didaftarkan ke SqlRegistry saat class ini di-load, sehingga DatabaseConfig bisa
+ * menyiapkan semuanya di setiap koneksi pool sebelum database dilaporkan siap (db.warmup.*)
+ *
+ * - lookup(): query read-only yang dieksekusi saat warm-up dengan parameter contoh
+ * - query(): query read-only yang hanya di-prepare (full scan atau hasil besar)
+ * - update(): INSERT/UPDATE/DELETE, hanya di-prepare, tidak pernah dieksekusi saat warm-up
+ *
+ * SELECT memakai select list tetap dari RowMapper hasil generate (XxxRowMapper.COLUMNS, lihat @RowMapped),
+ * bukan SELECT *, karena mapper membaca kolom berdasarkan posisi
+ */
+public final class DaoStatements {
+
+    // ================================
+    // BOOKS
+    // ================================
+
+    public static final String BOOK_CREATE = update("BookDAO.create",
+            "INSERT INTO books (isbn, title, author_id, publisher_id, category_id, " +
+                    "publication_year, pages, language, description, total_copies, " +
+                    "available_copies, price, location, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "RETURNING book_id, created_at, updated_at");
+
+    // Kolom upsert, urutan sama dengan BOOK_CREATE
+    private static final String BOOK_UPSERT_COLUMNS = "isbn, title, author_id, publisher_id, category_id, " +
+            "publication_year, pages, language, description, total_copies, available_copies, price, location, status";
+
+    // Upsert per ISBN: satu round trip untuk insert atau update, inserted = (xmax = 0) karena baris
+    // yang baru di-insert belum punya xmax, baris yang di-update lewat ON CONFLICT punya
+    public static final String BOOK_UPSERT_BY_ISBN = update("BookDAO.upsertByIsbn",
+            "WITH upsert AS (" + bookUpsert(1, false) + " RETURNING book_id, created_at, updated_at, " +
+                    "(xmax = 0) AS inserted) SELECT book_id, created_at, updated_at, inserted FROM upsert");
+
+    // Skip unchanged: update dilewati jika semua kolom sama (tanpa dead tuple), id diambil dari baris lama
+    public static final String BOOK_UPSERT_BY_ISBN_SKIP_UNCHANGED = update("BookDAO.upsertByIsbn",
+            "WITH upsert AS (" + bookUpsert(1, true) + " RETURNING book_id, created_at, updated_at, " +
+                    "(xmax = 0) AS inserted) SELECT book_id, created_at, updated_at, inserted FROM upsert " +
+                    "UNION ALL SELECT book_id, created_at, updated_at, NULL::boolean FROM books " +
+                    "WHERE isbn = ? AND NOT EXISTS (SELECT 1 FROM upsert)");
+
+    // BookBulkLoader: COPY tidak bisa di-prepare jadi tidak didaftarkan ke registry
+    public static final String BOOK_COPY_IN = "COPY books (isbn, title, author_id, publisher_id, category_id, " +
+            "publication_year, pages, language, description, total_copies, " +
+            "available_copies, price, location, status) FROM STDIN WITH (FORMAT csv)";
+
+    public static final String BOOK_FIND_BY_ID = lookup("BookDAO.findById",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE book_id = ?", 1);
+
+    // Multi-get: satu array parameter int4[] untuk semua id dalam satu chunk
+    public static final String BOOK_FIND_BY_IDS = query("BookDAO.findByIds",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE book_id = ANY(?)");
+
+    public static final String BOOK_FIND_BY_ISBN = lookup("BookDAO.findByIsbn",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE isbn = ?", "");
+
+    public static final String BOOK_FIND_ALL = query("BookDAO.findAll",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books ORDER BY book_id");
+
+    public static final String BOOK_UPDATE_AVAILABLE_COPIES = update("BookDAO.updateAvailableCopies",
+            "UPDATE books SET available_copies = ? WHERE book_id = ?");
+
+    public static final String BOOK_DECREASE_AVAILABLE_COPIES = update("BookDAO.decreaseAvailableCopies",
+            "UPDATE books SET available_copies = available_copies - 1 " +
+                    "WHERE book_id = ? AND available_copies > 0");
+
+    public static final String BOOK_INCREASE_AVAILABLE_COPIES = update("BookDAO.increaseAvailableCopies",
+            "UPDATE books SET available_copies = available_copies + 1 " +
+                    "WHERE book_id = ? AND available_copies < total_copies");
+
+    public static final String BOOK_DELETE = update("BookDAO.delete",
+            "DELETE FROM books WHERE book_id = ?");
+
+    public static final String BOOK_SEARCH_BY_TITLE = query("BookDAO.searchByTitle",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE LOWER(title) LIKE LOWER(?) ORDER BY title");
+
+    public static final String BOOK_FIND_AVAILABLE = query("BookDAO.findAvailableBooks",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE available_copies > 0 ORDER BY title");
+
+    // Keyset pagination: seek setelah key baris terakhir, halaman pertama memakai key (0) atau ('', 0)
+    // Urutan (title, book_id) memakai index books (title, book_id), lihat bookTitleSchema
+    public static final String BOOK_PAGE = lookup("BookDAO.findPage",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE book_id > ? ORDER BY book_id LIMIT ?", 0, 21);
+
+    public static final String BOOK_SEARCH_BY_TITLE_PAGE = query("BookDAO.searchByTitlePage",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books " +
+                    "WHERE LOWER(title) LIKE LOWER(?) AND (title, book_id) > (?, ?) " +
+                    "ORDER BY title, book_id LIMIT ?");
+
+    public static final String BOOK_FIND_AVAILABLE_PAGE = lookup("BookDAO.findAvailableBooksPage",
+            "SELECT " + BookRowMapper.COLUMNS + " FROM books " +
+                    "WHERE available_copies > 0 AND (title, book_id) > (?, ?) " +
+                    "ORDER BY title, book_id LIMIT ?", "", 0, 21);
+
+    // Projection BookSummary: hanya kolom layar daftar, tanpa description dan kolom besar lain
+    public static final String BOOK_SUMMARY_FIND_ALL = query("BookDAO.findAllSummaries",
+            "SELECT " + BookSummaryRowMapper.COLUMNS + " FROM books ORDER BY book_id");
+
+    public static final String BOOK_SUMMARY_PAGE = lookup("BookDAO.findSummaryPage",
+            "SELECT " + BookSummaryRowMapper.COLUMNS + " FROM books WHERE book_id > ? ORDER BY book_id LIMIT ?", 0, 21);
+
+    // Full-text search: kolom search_vector (lihat bookSearchSchema) dicocokkan lewat GIN index,
+    // ranking ts_rank dan keyset (rank DESC, book_id); halaman pertama memakai rank Infinity
+    // rank di-cast ke float8 supaya nilai di page token sama persis saat dibandingkan kembali
+    public static final String BOOK_FULL_TEXT_SEARCH_PAGE = query("BookDAO.searchFullText",
+            "SELECT " + BookSummaryRowMapper.COLUMNS + ", rank FROM (" +
+                    "SELECT " + BookSummaryRowMapper.COLUMNS + ", ts_rank(search_vector, q)::float8 AS rank " +
+                    "FROM books, websearch_to_tsquery(?::regconfig, ?) q WHERE search_vector @@ q) hits " +
+                    "WHERE rank < ? OR (rank = ? AND book_id > ?) " +
+                    "ORDER BY rank DESC, book_id LIMIT ?");
+
+    // Fuzzy search (pg_trgm): operator % memakai GIN trigram index di LOWER(title) (lihat bookTrigramSchema)
+    // dengan batas dari pg_trgm.similarity_threshold, di-set per transaksi oleh BOOK_SET_SIMILARITY_THRESHOLD
+    public static final String BOOK_SET_SIMILARITY_THRESHOLD = query("BookDAO.searchFuzzy",
+            "SELECT set_config('pg_trgm.similarity_threshold', ?, true)");
+
+    public static final String BOOK_FUZZY_SEARCH_PAGE = query("BookDAO.searchFuzzy",
+            "SELECT " + BookSummaryRowMapper.COLUMNS + ", score FROM (" +
+                    "SELECT " + BookSummaryRowMapper.COLUMNS + ", " +
+                    "similarity(LOWER(title), LOWER(?))::float8 AS score FROM books WHERE LOWER(title) % LOWER(?)) hits " +
+                    "WHERE score < ? OR (score = ? AND book_id > ?) " +
+                    "ORDER BY score DESC, book_id LIMIT ?");
+
+    public static final String BOOK_COUNT_ALL = query("BookDAO.countAll",
+            "SELECT COUNT(*) FROM books");
+
+    public static final String BOOK_COUNT_AVAILABLE = query("BookDAO.countAvailableBooks",
+            "SELECT COUNT(*) FROM books WHERE available_copies > 0");
+
+    // ================================
+    // USERS
+    // ================================
+
+    public static final String USER_CREATE = update("UserDAO.create",
+            "INSERT INTO users (username, email, full_name, phone, role, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "RETURNING user_id, registration_date, created_at, updated_at");
+
+    // Varian sharded: user_id dialokasikan dari sequence global di primary
+    public static final String USER_CREATE_SHARDED = update("UserDAO.create",
+            "INSERT INTO users (user_id, username, email, full_name, phone, role, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                    "RETURNING user_id, registration_date, created_at, updated_at");
+
+    // createAll: satu INSERT per chunk dengan satu array per kolom (unnest WITH ORDINALITY)
+    // Hasil RETURNING dicocokkan ke baris input lewat ord, bukan urutan RETURNING atau username
+    public static final String USER_CREATE_ALL = update("UserDAO.createAll", userCreateAll(false));
+
+    // Varian sharded: user_id dialokasikan dari sequence global di primary dan ikut dikirim sebagai array
+    public static final String USER_CREATE_ALL_SHARDED = update("UserDAO.createAll", userCreateAll(true));
+
+    public static final String USER_FIND_BY_ID = lookup("UserDAO.findById",
+            "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE user_id = ?", 1);
+
+    public static final String USER_FIND_BY_IDS = query("UserDAO.findByIds",
+            "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE user_id = ANY(?)");
+
+    public static final String USER_FIND_BY_USERNAME = lookup("UserDAO.findByUsername",
+            "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE username = ?", "");
+
+    public static final String USER_FIND_ALL = query("UserDAO.findAll",
+            "SELECT " + UserRowMapper.COLUMNS + " FROM users ORDER BY user_id");
+
+    public static final String USER_PAGE = lookup("UserDAO.findPage",
+            "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE user_id > ? ORDER BY user_id LIMIT ?", 0, 21);
+
+    // Projection UserSummary: tanpa kontak dan timestamp audit
+    public static final String USER_SUMMARY_FIND_ALL = query("UserDAO.findAllSummaries",
+            "SELECT " + UserSummaryRowMapper.COLUMNS + " FROM users ORDER BY user_id");
+
+    public static final String USER_UPDATE = update("UserDAO.update",
+            "UPDATE users SET email = ?, full_name = ?, phone = ?, " +
+                    "role = ?, status = ?, last_login = ? WHERE user_id = ?");
+
+    public static final String USER_DELETE = update("UserDAO.delete",
+            "DELETE FROM users WHERE user_id = ?");
+
+    public static final String USER_COUNT_ALL = query("UserDAO.countAll",
+            "SELECT COUNT(*) FROM users");
+
+    public static final String USER_UPDATE_LAST_LOGIN = update("UserDAO.updateLastLogin",
+            "UPDATE users SET last_login = CURRENT_TIMESTAMP WHERE user_id = ?");
+
+    // ================================
+    // BORROWINGS
+    // ================================
+
+    public static final String BORROWING_CREATE = update("BorrowingDAO.create",
+            "INSERT INTO borrowings (user_id, book_id, due_date, status, notes) " +
+                    "VALUES (?, ?, ?, ?, ?) " +
+                    "RETURNING borrowing_id, borrow_date, created_at, updated_at");
+
+    // Varian sharded: borrowing_id dialokasikan dari sequence global supaya unik antar shard
+    public static final String BORROWING_CREATE_SHARDED = update("BorrowingDAO.create",
+            "INSERT INTO borrowings (borrowing_id, user_id, book_id, due_date, status, notes) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "RETURNING borrowing_id, borrow_date, created_at, updated_at");
+
+    public static final String BORROWING_FIND_BY_ID = lookup("BorrowingDAO.findById",
+            "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings WHERE borrowing_id = ?", 1);
+
+    public static final String BORROWING_FIND_BY_IDS = query("BorrowingDAO.findByIds",
+            "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings WHERE borrowing_id = ANY(?)");
+
+    public static final String BORROWING_FIND_BY_USER_ID = lookup("BorrowingDAO.findByUserId",
+            "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings WHERE user_id = ? ORDER BY borrow_date DESC", 1);
+
+    // Projection BorrowingSummary: tanpa denda, notes dan timestamp audit
+    public static final String BORROWING_SUMMARY_FIND_BY_USER_ID = lookup("BorrowingDAO.findSummariesByUserId",
+            "SELECT " + BorrowingSummaryRowMapper.COLUMNS + " FROM borrowings " +
+                    "WHERE user_id = ? ORDER BY borrow_date DESC", 1);
+
+    // Keyset pagination borrowings satu user, urut (borrow_date, borrowing_id) DESC
+    // Satu varian SQL per BorrowingFilter.State
+    // Halaman pertama memakai key ('infinity', Integer.MAX_VALUE), rentang tanggal terbuka memakai -infinity/infinity
+    // Memakai index borrowings (user_id, borrow_date DESC, borrowing_id DESC), lihat borrowingSchema
+    public static final String BORROWING_FIND_BY_USER_PAGE = query("BorrowingDAO.findByUser",
+            borrowingsByUserPage(""));
+
+    public static final String BORROWING_FIND_ACTIVE_BY_USER_PAGE = query("BorrowingDAO.findByUser",
+            borrowingsByUserPage("AND return_date IS NULL "));
+
+    public static final String BORROWING_FIND_RETURNED_BY_USER_PAGE = query("BorrowingDAO.findByUser",
+            borrowingsByUserPage("AND return_date IS NOT NULL "));
+
+    public static final String BORROWING_FIND_BY_BOOK_ID = lookup("BorrowingDAO.findByBookId",
+            "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings " +
+                    "WHERE book_id = ? ORDER BY borrow_date DESC", 1);
+
+    public static final String BORROWING_FIND_ACTIVE = query("BorrowingDAO.findActiveBorrowings",
+            "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings " +
+                    "WHERE return_date IS NULL ORDER BY borrow_date DESC");
+
+    public static final String BORROWING_FIND_OVERDUE = query("BorrowingDAO.findOverdueBorrowings",
+            "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings " +
+                    "WHERE return_date IS NULL AND due_date < CURRENT_TIMESTAMP " +
+                    "ORDER BY due_date ASC");
+
+    public static final String BORROWING_RETURN_BOOK = update("BorrowingDAO.returnBook",
+            "UPDATE borrowings SET return_date = ?, status = 'returned', updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE borrowing_id = ? AND return_date IS NULL");
+
+    public static final String BORROWING_UPDATE_STATUS = update("BorrowingDAO.updateStatus",
+            "UPDATE borrowings SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE borrowing_id = ?");
+
+    public static final String BORROWING_UPDATE_FINE_AMOUNT = update("BorrowingDAO.updateFineAmount",
+            "UPDATE borrowings SET fine_amount = ?, updated_at = CURRENT_TIMESTAMP WHERE borrowing_id = ?");
+
+    public static final String BORROWING_DELETE = update("BorrowingDAO.delete",
+            "DELETE FROM borrowings WHERE borrowing_id = ?");
+
+    public static final String BORROWING_COUNT_ALL = query("BorrowingDAO.countAll",
+            "SELECT COUNT(*) FROM borrowings");
+
+    public static final String BORROWING_COUNT_ACTIVE_BY_USER = lookup("BorrowingDAO.countActiveBorrowingsByUser",
+            "SELECT COUNT(*) FROM borrowings WHERE user_id = ? AND return_date IS NULL", 1);
+
+    private DaoStatements() {
+    }
+
+    /**
+     * INSERT users dari array per kolom untuk UserDAO.createAll
+     * user_id setiap baris ditentukan di CTE input (dari parameter atau nextval sequence users),
+     * lalu hasil INSERT di-join kembali ke input lewat user_id sehingga setiap baris hasil membawa ord
+     * (posisi 1-based di array input)
+     * @param explicitIds true jika user_id ikut dikirim sebagai array integer pertama (sharding)
+     */
+    private static String userCreateAll(boolean explicitIds) {
+        String columns = "username, email, full_name, phone, role, status";
+        return "WITH input AS MATERIALIZED (" +
+                "SELECT " + (explicitIds ? "" : "nextval(pg_get_serial_sequence('users', 'user_id'))::integer AS user_id, ") +
+                "v.* FROM unnest(" + (explicitIds ? "?::integer[], " : "") +
+                "?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[]) " +
+                "WITH ORDINALITY AS v(" + (explicitIds ? "user_id, " : "") + columns + ", ord)), " +
+                "inserted AS (INSERT INTO users (user_id, " + columns + ") " +
+                "SELECT user_id, " + columns + " FROM input ORDER BY ord " +
+                "RETURNING user_id, registration_date, created_at, updated_at) " +
+                "SELECT input.ord, inserted.user_id, inserted.registration_date, inserted.created_at, " +
+                "inserted.updated_at FROM inserted JOIN input USING (user_id)";
+    }
+
+    /**
+     * DDL full-text search books, idempotent (IF NOT EXISTS), dijalankan oleh BookDAO.ensureSearchIndex
+     * search_vector adalah generated column (PostgreSQL 12+), jadi selalu ikut INSERT/UPDATE tanpa trigger;
+     * judul berbobot A dan description berbobot B. Menambah kolom me-rewrite tabel books sekali
+     * @param textConfig Nama text search configuration (sudah divalidasi DatabaseConfig.getSearchTextConfig)
+     */
+    public static List<String> bookSearchSchema(String textConfig) {
+        String config = "'" + textConfig + "'::regconfig";
+        return List.of(
+                "ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                        "setweight(to_tsvector(" + config + ", coalesce(title, '')), 'A') || " +
+                        "setweight(to_tsvector(" + config + ", coalesce(description, '')), 'B')) STORED",
+                "CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector)");
+    }
+
+    /**
+     * DDL trigram index untuk judul, idempotent, dijalankan oleh BookDAO.ensureTrigramIndex
+     * Index GIN di LOWER(title) dipakai oleh fuzzy search (%) dan juga LOWER(title) LIKE '%x%'
+     * di searchByTitle/searchByTitlePage, yang sebelumnya selalu full scan
+     */
+    public static List<String> bookTrigramSchema() {
+        return List.of(
+                "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                "CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING GIN (LOWER(title) gin_trgm_ops)");
+    }
+
+    /**
+     * DDL index keyset (title, book_id), idempotent, dijalankan oleh BookDAO.ensureTitleIndex
+     * Tanpa index ini searchByTitlePage dan findAvailableBooksPage harus sort seluruh tabel
+     * di setiap halaman, sehingga halaman dalam makin lambat
+     */
+    public static List<String> bookTitleSchema() {
+        return List.of(
+                "CREATE INDEX IF NOT EXISTS idx_books_title_book_id ON books (title, book_id)");
+    }
+
+    /**
+     * DDL index riwayat borrowings per user, idempotent, dijalankan oleh BorrowingDAO.ensureUserHistoryIndex
+     * Urutan index sama dengan keyset BorrowingDAO.findByUser, sehingga halaman mana pun cukup
+     * index range scan tanpa sort
+     */
+    public static List<String> borrowingSchema() {
+        return List.of(
+                "CREATE INDEX IF NOT EXISTS idx_borrowings_user_history " +
+                        "ON borrowings (user_id, borrow_date DESC, borrowing_id DESC)");
+    }
+
+    /**
+     * Upsert books multi-row per ISBN untuk BookDAO.upsertAllByIsbn (14 parameter per baris, urutan BOOK_CREATE)
+     * @param rows Jumlah baris dalam satu statement, ISBN dalam satu statement harus unik
+     * @param skipUnchanged true jika baris yang semua kolomnya sama tidak di-update
+     */
+    public static String bookUpsertAll(int rows, boolean skipUnchanged) {
+        return bookUpsert(rows, skipUnchanged) + " RETURNING (xmax = 0) AS inserted";
+    }
+
+    /**
+     * INSERT ... ON CONFLICT (isbn) DO UPDATE tanpa RETURNING
+     * available_copies tidak ditimpa dari input: selisih total_copies ditambahkan supaya
+     * jumlah buku yang sedang dipinjam tetap benar
+     */
+    private static String bookUpsert(int rows, boolean skipUnchanged) {
+        String[] columns = BOOK_UPSERT_COLUMNS.split(", ");
+        StringBuilder sql = new StringBuilder("INSERT INTO books (").append(BOOK_UPSERT_COLUMNS).append(") VALUES ");
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        }
+
+        // Kolom katalog yang diambil dari input (selain isbn dan available_copies)
+        List<String> updated = new ArrayList<>(Arrays.asList(columns));
+        updated.removeAll(List.of("isbn", "available_copies"));
+        sql.append(" ON CONFLICT (isbn) DO UPDATE SET ");
+        for (String column : updated) {
+            sql.append(column).append(" = EXCLUDED.").append(column).append(", ");
+        }
+        sql.append("available_copies = GREATEST(0, books.available_copies + EXCLUDED.total_copies - books.total_copies), ")
+                .append("updated_at = CURRENT_TIMESTAMP");
+        if (skipUnchanged) {
+            sql.append(" WHERE (books.").append(String.join(", books.", updated))
+                    .append(") IS DISTINCT FROM (EXCLUDED.").append(String.join(", EXCLUDED.", updated))
+                    .append(')');
+        }
+        return sql.toString();
+    }
+
+    private static String borrowingsByUserPage(String returnCondition) {
+        return "SELECT " + BorrowingRowMapper.COLUMNS + " FROM borrowings WHERE user_id = ? " + returnCondition +
+                "AND borrow_date >= ? AND borrow_date < ? AND (borrow_date, borrowing_id) < (?, ?) " +
+                "ORDER BY borrow_date DESC, borrowing_id DESC LIMIT ?";
+    }
+
+    private static String lookup(String operation, String sql, Object... sampleParameters) {
+        return SqlRegistry.register(SqlStatement.builder()
+                .operation(operation)
+                .sql(sql)
+                .readOnly(true)
+                .sampleParameters(Arrays.asList(sampleParameters))
+                .build());
+    }
+
+    private static String query(String operation, String sql) {
+        return SqlRegistry.register(SqlStatement.builder()
+                .operation(operation)
+                .sql(sql)
+                .readOnly(true)
+                .build());
+    }
+
+    private static String update(String operation, String sql) {
+        return SqlRegistry.register(SqlStatement.builder()
+                .operation(operation)
+                .sql(sql)
+                .readOnly(false)
+                .build());
+    }
+}
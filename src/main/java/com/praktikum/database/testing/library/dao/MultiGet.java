@@ -0,0 +1,92 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import classes untuk database operations
+import com.praktikum.database.testing.library.config.QueryTimeouts;
+import com.praktikum.database.testing.library.config.RowMapper;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Helper untuk findByIds di DAO: satu query "WHERE id = ANY(?)" per chunk, bukan satu query per id
+ *
+ * ID duplikat dan null dibuang sebelum query, jadi setiap id dikirim sekali. Array dikirim sebagai
+ * satu parameter int4[], sehingga teks SQL (dan prepared statement di cache) sama untuk jumlah id berapa pun
+ */
+final class MultiGet {
+    // Jumlah id per query, membatasi ukuran array parameter dan hasil per round trip
+    static final int CHUNK_SIZE = 1_000;
+
+    private MultiGet() {
+    }
+
+    /**
+     * @return id unik (tanpa null) sesuai urutan kemunculan pertama
+     */
+    static List<Integer> distinct(Collection<Integer> ids) {
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * @return id unik (tanpa null) sesuai urutan kemunculan pertama, dipotong per chunkSize
+     */
+    static List<List<Integer>> chunks(Collection<Integer> ids, int chunkSize) {
+        List<Integer> ordered = distinct(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < ordered.size(); start += chunkSize) {
+            chunks.add(ordered.subList(start, Math.min(start + chunkSize, ordered.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Menjalankan query ANY(?) untuk satu chunk id di koneksi yang diberikan
+     */
+    static <T> List<T> query(Connection conn, String sql, String operation, List<Integer> ids,
+                             RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>(ids.size());
+        Array array = conn.createArrayOf("integer", ids.toArray());
+        try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), operation)) {
+            pstmt.setArray(1, array);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        } finally {
+            array.free();
+        }
+        return rows;
+    }
+
+    /**
+     * Menyusun hasil sebagai Map id -> entity, urut sesuai input; id yang tidak ditemukan tidak ada di Map
+     */
+    static <T> Map<Integer, T> byId(Collection<Integer> ids, List<T> rows, Function<T, Integer> idOf) {
+        Map<Integer, T> found = new LinkedHashMap<>();
+        for (T row : rows) {
+            found.put(idOf.apply(row), row);
+        }
+        Map<Integer, T> result = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            T row = id != null ? found.get(id) : null;
+            if (row != null) {
+                result.putIfAbsent(id, row);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import Lombok annotations
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Satu halaman hasil keyset pagination
+ * nextPageToken bersifat opaque: berikan kembali ke method page yang sama untuk halaman berikutnya
+ */
+@Getter
+@ToString
+public class Page<T> {
+    // Batas atas ukuran halaman supaya satu request tidak berubah menjadi findAll
+    public static final int MAX_LIMIT = 1_000;
+
+    private final List<T> items;
+
+    // null jika ini halaman terakhir
+    private final String nextPageToken;
+
+    public Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Membuat halaman dari hasil query yang mengambil limit + 1 baris
+     * Baris ekstra hanya menandakan masih ada halaman berikutnya dan tidak dikembalikan
+     * @param rows Hasil query (maksimal limit + 1 baris)
+     * @param limit Ukuran halaman
+     * @param tokenOf Membuat token dari baris terakhir halaman
+     */
+    static <T> Page<T> of(List<T> rows, int limit, Function<T, String> tokenOf) {
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new Page<>(items, tokenOf.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * @throws IllegalArgumentException jika limit di luar 1..MAX_LIMIT
+     */
+    static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit harus antara 1 dan " + MAX_LIMIT + ": " + limit);
+        }
+        return limit;
+    }
+}
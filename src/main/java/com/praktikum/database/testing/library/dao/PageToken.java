@@ -0,0 +1,79 @@
+package com.praktikum.database.testing.library.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encoding continuation token untuk keyset pagination
+ *
+ * Token berisi jenis listing dan nilai key baris terakhir (misalnya book_id dan title), di-encode
+ * Base64 URL-safe supaya aman dipakai di query string. Token dari listing lain ditolak, karena
+ * key-nya tidak cocok dengan urutan query. Key terakhir boleh berisi karakter apa pun (untuk title)
+ */
+final class PageToken {
+    private static final char SEPARATOR = '\u001F';
+
+    private final List<String> values;
+
+    private PageToken(List<String> values) {
+        this.values = values;
+    }
+
+    static String encode(String kind, Object... keys) {
+        StringBuilder raw = new StringBuilder(kind);
+        for (Object key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token Token dari halaman sebelumnya
+     * @param kind Jenis listing yang diharapkan
+     * @param keyCount Jumlah key dalam token
+     * @throws IllegalArgumentException jika token rusak atau berasal dari listing lain
+     */
+    static PageToken decode(String token, String kind, int keyCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Page token tidak valid", e);
+        }
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= raw.length(); i++) {
+            if (i == raw.length() || (raw.charAt(i) == SEPARATOR && parts.size() < keyCount)) {
+                parts.add(raw.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (parts.size() != keyCount + 1 || !parts.get(0).equals(kind)) {
+            throw new IllegalArgumentException("Page token bukan untuk listing " + kind);
+        }
+        return new PageToken(parts.subList(1, parts.size()));
+    }
+
+    String getString(int index) {
+        return values.get(index);
+    }
+
+    int getInt(int index) {
+        try {
+            return Integer.parseInt(values.get(index));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Page token tidak valid", e);
+        }
+    }
+
+    double getDouble(int index) {
+        try {
+            return Double.parseDouble(values.get(index));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Page token tidak valid", e);
+        }
+    }
+}
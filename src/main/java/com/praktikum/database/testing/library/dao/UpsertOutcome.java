@@ -0,0 +1,13 @@
+package com.praktikum.database.testing.library.dao;
+
+/**
+ * Hasil upsert satu book per ISBN (BookDAO.upsertByIsbn)
+ */
+public enum UpsertOutcome {
+    // ISBN belum ada, baris baru di-insert
+    INSERTED,
+    // ISBN sudah ada dan kolom katalog di-update
+    UPDATED,
+    // ISBN sudah ada dan semua kolom sama, update dilewati (hanya dengan skipUnchanged)
+    UNCHANGED
+}
@@ -0,0 +1,35 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Hasil BookDAO.upsertAllByIsbn: jumlah baris per UpsertOutcome dan throughput
+ */
+@Getter
+@Builder
+@ToString
+public class UpsertResult {
+    private final long inserted;
+
+    private final long updated;
+
+    // Baris yang sama persis dengan database (hanya dengan skipUnchanged), tidak menghasilkan dead tuple
+    private final long unchanged;
+
+    private final long durationMillis;
+
+    public long getRowsProcessed() {
+        return inserted + updated + unchanged;
+    }
+
+    /**
+     * @return throughput dalam baris per detik
+     */
+    public double getRowsPerSecond() {
+        long rows = getRowsProcessed();
+        return durationMillis == 0 ? rows * 1000.0 : rows * 1000.0 / durationMillis;
+    }
+}
@@ -2,19 +2,40 @@ package com.praktikum.database.testing.library.dao;
 
 // Import classes untuk database operations dan model
 import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.config.QueryTimeouts;
+import com.praktikum.database.testing.library.config.RetryPolicy;
+import com.praktikum.database.testing.library.config.ShardRouter;
+import com.praktikum.database.testing.library.config.WorkloadClass;
 import com.praktikum.database.testing.library.model.User;
+import com.praktikum.database.testing.library.model.UserRowMapper;
+import com.praktikum.database.testing.library.model.UserSummary;
+import com.praktikum.database.testing.library.model.UserSummaryRowMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) class untuk entity User
  * Menangani semua operasi CRUD (Create, Read, Update, Delete) untuk tabel users
  * Menggunakan PreparedStatement untuk prevent SQL injection
+ *
+ * Jika sharding aktif (db.shard.urls), query dengan user_id dikirim ke shard milik user,
+ * query lain dijalankan paralel di semua shard lalu hasilnya digabung
  */
 public class UserDAO {
+    // Jenis listing di page token
+    private static final String PAGE_BY_ID = "users.id";
+    // Jumlah baris per INSERT di createAll (satu array per kolom, jadi tidak dibatasi jumlah bind parameter)
+    private static final int CREATE_ALL_CHUNK_ROWS = 1_000;
 
     /**
      * CREATE - Insert user baru ke database
@@ -23,24 +44,19 @@ public class UserDAO {
      * @throws SQLException jika operasi database gagal
      */
     public User create(User user) throws SQLException {
+        if (DatabaseConfig.isSharded()) {
+            return createSharded(user);
+        }
+
         // SQL query dengan RETURNING clause untuk mendapatkan generated ID
-        String sql = "INSERT INTO users (username, email, full_name, phone, role, status) " +
-                "VALUES (?, ?, ?, ?, ?, ?) " +
-                "RETURNING user_id, registration_date, created_at, updated_at";
+        String sql = DaoStatements.USER_CREATE;
 
         // Try-with-resources untuk auto-close connection dan prepared statement
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.create")) {
 
             // Set parameter values untuk prepared statement
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getEmail());
-            pstmt.setString(3, user.getFullName());
-            pstmt.setString(4, user.getPhone());
-            // Gunakan default value jika role null
-            pstmt.setString(5, user.getRole() != null ? user.getRole() : "member");
-            // Gunakan default value jika status null
-            pstmt.setString(6, user.getStatus() != null ? user.getStatus() : "active");
+            setUserParameters(pstmt, user, 1);
 
             // Execute query dan dapatkan ResultSet
             ResultSet rs = pstmt.executeQuery();
@@ -58,6 +74,144 @@ public class UserDAO {
         }
     }
 
+    /**
+     * CREATE dengan sharding: user_id dialokasikan dari sequence global di primary,
+     * lalu user di-insert ke shard yang ditentukan oleh user_id tersebut
+     */
+    private User createSharded(User user) throws SQLException {
+        int userId = DatabaseConfig.nextGlobalId("users", "user_id");
+        String sql = DaoStatements.USER_CREATE_SHARDED;
+
+        try (Connection conn = DatabaseConfig.getShardConnection(userId);
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.create")) {
+
+            pstmt.setInt(1, userId);
+            setUserParameters(pstmt, user, 2);
+
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                user.setUserId(rs.getInt("user_id"));
+                user.setRegistrationDate(rs.getTimestamp("registration_date"));
+                user.setCreatedAt(rs.getTimestamp("created_at"));
+                user.setUpdatedAt(rs.getTimestamp("updated_at"));
+            }
+
+            return user;
+        }
+    }
+
+    /**
+     * CREATE batch - Insert banyak user sekaligus
+     * User dikirim per chunk dengan satu INSERT ... SELECT FROM unnest(array per kolom) per chunk,
+     * sehingga 50.000 user hanya butuh puluhan round trip, bukan 50.000
+     * Semua chunk berjalan dalam satu transaksi (dengan sharding: satu transaksi per shard)
+     * @param users User yang akan dibuat (tanpa userId), username harus unik
+     * @return list yang sama, userId dan timestamp terisi sesuai urutan input
+     * @throws IllegalArgumentException jika ada username duplikat di input (dicek sebelum insert apapun)
+     * @throws SQLException jika operasi database gagal (misalnya username duplikat). Tanpa sharding tidak ada
+     *         user yang tersimpan; dengan sharding hanya atomik per shard, user di shard yang sudah commit
+     *         sebelum kegagalan tetap tersimpan (dan userId-nya sudah terisi di object input)
+     */
+    public List<User> createAll(List<User> users) throws SQLException {
+        if (users.isEmpty()) {
+            return users;
+        }
+        Set<String> usernames = new HashSet<>();
+        for (User user : users) {
+            if (!usernames.add(user.getUsername())) {
+                throw new IllegalArgumentException("Username duplikat di createAll: " + user.getUsername());
+            }
+        }
+        if (!DatabaseConfig.isSharded()) {
+            DatabaseConfig.inTransaction("UserDAO.createAll", conn -> {
+                insertChunks(conn, users, null);
+                return null;
+            });
+            return users;
+        }
+
+        // Sharding: alokasikan semua user_id dalam satu round trip, lalu insert per shard
+        List<Integer> ids = DatabaseConfig.nextGlobalIds("users", "user_id", users.size());
+        Map<Integer, List<User>> usersByShard = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> idsByShard = new HashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            int shard = DatabaseConfig.getShardRouter().shardFor(ids.get(i));
+            usersByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(users.get(i));
+            idsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(ids.get(i));
+        }
+        for (Map.Entry<Integer, List<User>> entry : usersByShard.entrySet()) {
+            List<Integer> shardIds = idsByShard.get(entry.getKey());
+            DatabaseConfig.inShardTransaction("UserDAO.createAll", shardIds.get(0), conn -> {
+                insertChunks(conn, entry.getValue(), shardIds);
+                return null;
+            });
+        }
+        return users;
+    }
+
+    /**
+     * @param ids user_id eksplisit per user (sharding), null jika di-generate database
+     */
+    private void insertChunks(Connection conn, List<User> users, List<Integer> ids) throws SQLException {
+        String sql = ids != null ? DaoStatements.USER_CREATE_ALL_SHARDED : DaoStatements.USER_CREATE_ALL;
+
+        for (int from = 0; from < users.size(); from += CREATE_ALL_CHUNK_ROWS) {
+            int to = Math.min(users.size(), from + CREATE_ALL_CHUNK_ROWS);
+            List<User> chunk = users.subList(from, to);
+
+            // Satu array per kolom, urutan sama dengan setUserParameters
+            String[][] columns = new String[6][chunk.size()];
+            for (int row = 0; row < chunk.size(); row++) {
+                User user = chunk.get(row);
+                columns[0][row] = user.getUsername();
+                columns[1][row] = user.getEmail();
+                columns[2][row] = user.getFullName();
+                columns[3][row] = user.getPhone();
+                columns[4][row] = user.getRole() != null ? user.getRole() : "member";
+                columns[5][row] = user.getStatus() != null ? user.getStatus() : "active";
+            }
+
+            List<Array> arrays = new ArrayList<>();
+            try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.createAll")) {
+                if (ids != null) {
+                    arrays.add(conn.createArrayOf("integer", ids.subList(from, to).toArray()));
+                }
+                for (String[] column : columns) {
+                    arrays.add(conn.createArrayOf("text", column));
+                }
+                for (int i = 0; i < arrays.size(); i++) {
+                    pstmt.setArray(i + 1, arrays.get(i));
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        // ord adalah posisi 1-based baris di array input chunk ini
+                        User user = chunk.get(rs.getInt("ord") - 1);
+                        user.setUserId(rs.getInt("user_id"));
+                        user.setRegistrationDate(rs.getTimestamp("registration_date"));
+                        user.setCreatedAt(rs.getTimestamp("created_at"));
+                        user.setUpdatedAt(rs.getTimestamp("updated_at"));
+                    }
+                }
+            } finally {
+                for (Array array : arrays) {
+                    array.free();
+                }
+            }
+        }
+    }
+
+    private void setUserParameters(PreparedStatement pstmt, User user, int firstIndex) throws SQLException {
+        pstmt.setString(firstIndex, user.getUsername());
+        pstmt.setString(firstIndex + 1, user.getEmail());
+        pstmt.setString(firstIndex + 2, user.getFullName());
+        pstmt.setString(firstIndex + 3, user.getPhone());
+        // Gunakan default value jika role null
+        pstmt.setString(firstIndex + 4, user.getRole() != null ? user.getRole() : "member");
+        // Gunakan default value jika status null
+        pstmt.setString(firstIndex + 5, user.getStatus() != null ? user.getStatus() : "active");
+    }
+
     /**
      * READ - Mencari user berdasarkan ID
      * @param userId ID user yang dicari
@@ -65,72 +219,189 @@ public class UserDAO {
      * @throws SQLException jika operasi database gagal
      */
     public Optional<User> findById(Integer userId) throws SQLException {
-        // SQL query untuk select user by ID
-        String sql = "SELECT * FROM users WHERE user_id = ?";
+        return RetryPolicy.retry("UserDAO.findById", () -> {
+            // SQL query untuk select user by ID
+            String sql = DaoStatements.USER_FIND_BY_ID;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConfig.getShardConnection(userId);
+                 PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.findById")) {
 
-            // Set parameter userId
-            pstmt.setInt(1, userId);
+                // Set parameter userId
+                pstmt.setInt(1, userId);
 
-            // Execute query
-            ResultSet rs = pstmt.executeQuery();
+                // Execute query
+                ResultSet rs = pstmt.executeQuery();
 
-            // Jika user ditemukan, map ResultSet ke User object
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
+                // Jika user ditemukan, map ResultSet ke User object
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToUser(rs));
+                }
+
+                // Return empty Optional jika user tidak ditemukan
+                return Optional.empty();
             }
+        });
+    }
+
+    /**
+     * READ - Mencari banyak users sekaligus berdasarkan ID (multi-get)
+     * Satu query "user_id = ANY(?)" per 1000 id unik; dengan sharding id dikelompokkan per shard,
+     * jadi setiap shard hanya menerima id miliknya
+     * @param userIds ID users yang dicari, boleh berisi duplikat
+     * @return Map user_id -> User urut sesuai input, ID yang tidak ditemukan tidak ada di Map
+     * @throws SQLException jika operasi database gagal
+     */
+    public Map<Integer, User> findByIds(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, List<Integer>> idsByShard = new LinkedHashMap<>();
+        for (Integer userId : MultiGet.distinct(userIds)) {
+            int shard = DatabaseConfig.isSharded() ? DatabaseConfig.getShardRouter().shardFor(userId) : 0;
+            idsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(userId);
+        }
 
-            // Return empty Optional jika user tidak ditemukan
-            return Optional.empty();
+        List<User> users = new ArrayList<>();
+        for (List<Integer> shardIds : idsByShard.values()) {
+            for (List<Integer> chunk : MultiGet.chunks(shardIds, MultiGet.CHUNK_SIZE)) {
+                users.addAll(RetryPolicy.retry("UserDAO.findByIds", () -> {
+                    // Semua id di chunk berada di shard yang sama, id pertama dipakai sebagai routing key
+                    try (Connection conn = DatabaseConfig.getShardConnection(chunk.get(0))) {
+                        return MultiGet.query(conn, DaoStatements.USER_FIND_BY_IDS, "UserDAO.findByIds",
+                                chunk, this::mapResultSetToUser);
+                    }
+                }));
+            }
         }
+        return MultiGet.byId(userIds, users, User::getUserId);
     }
 
     /**
      * READ - Mencari user berdasarkan username
+     * Username bukan key routing, jadi dengan sharding dicari di semua shard
      * @param username Username yang dicari
      * @return Optional containing User jika ditemukan, empty Optional jika tidak
      * @throws SQLException jika operasi database gagal
      */
     public Optional<User> findByUsername(String username) throws SQLException {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        return RetryPolicy.retry("UserDAO.findByUsername", () -> {
+            String sql = DaoStatements.USER_FIND_BY_USERNAME;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            List<Optional<User>> perShard = DatabaseConfig.scatterGather(WorkloadClass.OLTP, conn -> {
+                try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.findByUsername")) {
 
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
+                    pstmt.setString(1, username);
+                    ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
-            }
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToUser(rs));
+                    }
 
-            return Optional.empty();
-        }
+                    return Optional.empty();
+                }
+            });
+            return perShard.stream().flatMap(Optional::stream).findFirst();
+        });
     }
 
     /**
      * READ - Mendapatkan semua users dari database
+     * Query listing, dijalankan di bulkhead reporting
      * @return List of semua users, sorted by user_id
      * @throws SQLException jika operasi database gagal
      */
     public List<User> findAll() throws SQLException {
-        String sql = "SELECT * FROM users ORDER BY user_id";
-        List<User> users = new ArrayList<>();
+        return RetryPolicy.retry("UserDAO.findAll", () -> {
+            String sql = DaoStatements.USER_FIND_ALL;
+
+            List<List<User>> perShard = DatabaseConfig.scatterGather(WorkloadClass.REPORTING, conn -> {
+                List<User> users = new ArrayList<>();
+
+                try (PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.findAll");
+                     ResultSet rs = stmt.executeQuery()) {
+
+                    // Iterate melalui semua rows di ResultSet
+                    while (rs.next()) {
+                        // Map setiap row ke User object dan tambahkan ke list
+                        users.add(mapResultSetToUser(rs));
+                    }
+                }
+
+                return users;
+            });
+            return ShardRouter.merge(perShard, Comparator.comparing(User::getUserId));
+        });
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * READ - Semua users sebagai UserSummary (layar daftar)
+     * Hanya kolom di UserSummary yang di-select, dengan sharding dijalankan paralel di semua shard
+     * @return List of UserSummary, sorted by user_id
+     * @throws SQLException jika operasi database gagal
+     */
+    public List<UserSummary> findAllSummaries() throws SQLException {
+        return RetryPolicy.retry("UserDAO.findAllSummaries", () -> {
+            String sql = DaoStatements.USER_SUMMARY_FIND_ALL;
 
-            // Iterate melalui semua rows di ResultSet
-            while (rs.next()) {
-                // Map setiap row ke User object dan tambahkan ke list
-                users.add(mapResultSetToUser(rs));
-            }
-        }
+            List<List<UserSummary>> perShard = DatabaseConfig.scatterGather(WorkloadClass.REPORTING, conn -> {
+                List<UserSummary> users = new ArrayList<>();
 
-        return users;
+                try (PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.findAllSummaries");
+                     ResultSet rs = stmt.executeQuery()) {
+
+                    while (rs.next()) {
+                        users.add(mapResultSetToUserSummary(rs));
+                    }
+                }
+
+                return users;
+            });
+            return ShardRouter.merge(perShard, Comparator.comparing(UserSummary::getUserId));
+        });
+    }
+
+    /**
+     * READ - Satu halaman users urut user_id (keyset pagination dengan seek predicate user_id > ?)
+     * Dengan sharding, setiap shard mengembalikan maksimal limit + 1 baris setelah key yang sama,
+     * lalu hasilnya digabung dan dipotong, jadi biaya per halaman tetap konstan
+     * @param lastUserId user_id terakhir dari halaman sebelumnya, null untuk halaman pertama
+     * @param limit Jumlah users per halaman (1..Page.MAX_LIMIT)
+     * @return halaman users beserta token halaman berikutnya
+     * @throws SQLException jika operasi database gagal
+     */
+    public Page<User> findPageAfter(Integer lastUserId, int limit) throws SQLException {
+        int pageLimit = Page.checkLimit(limit);
+        int after = lastUserId != null ? lastUserId : 0;
+        List<User> rows = RetryPolicy.retry("UserDAO.findPage", () -> {
+            String sql = DaoStatements.USER_PAGE;
+
+            List<List<User>> perShard = DatabaseConfig.scatterGatherRead(WorkloadClass.REPORTING, conn -> {
+                List<User> users = new ArrayList<>();
+
+                try (PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.findPage")) {
+                    pstmt.setInt(1, after);
+                    pstmt.setInt(2, pageLimit + 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            users.add(mapResultSetToUser(rs));
+                        }
+                    }
+                }
+
+                return users;
+            });
+            List<User> merged = ShardRouter.merge(perShard, Comparator.comparing(User::getUserId));
+            return merged.size() > pageLimit + 1 ? merged.subList(0, pageLimit + 1) : merged;
+        });
+        return Page.of(rows, pageLimit, user -> PageToken.encode(PAGE_BY_ID, user.getUserId()));
+    }
+
+    /**
+     * READ - Halaman users urut user_id berdasarkan token dari halaman sebelumnya
+     * @param pageToken Token dari Page.getNextPageToken(), null untuk halaman pertama
+     * @param limit Jumlah users per halaman
+     * @throws IllegalArgumentException jika token tidak valid atau berasal dari listing lain
+     */
+    public Page<User> findPage(String pageToken, int limit) throws SQLException {
+        Integer lastUserId = pageToken != null ? PageToken.decode(pageToken, PAGE_BY_ID, 1).getInt(0) : null;
+        return findPageAfter(lastUserId, limit);
     }
 
     /**
@@ -141,11 +412,10 @@ public class UserDAO {
      */
     public boolean update(User user) throws SQLException {
         // SQL query untuk update user
-        String sql = "UPDATE users SET email = ?, full_name = ?, phone = ?, " +
-                "role = ?, status = ?, last_login = ? WHERE user_id = ?";
+        String sql = DaoStatements.USER_UPDATE;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getShardConnection(user.getUserId());
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.update")) {
 
             // Set parameter values
             pstmt.setString(1, user.getEmail());
@@ -168,57 +438,59 @@ public class UserDAO {
      * @throws SQLException jika operasi database gagal
      */
     public boolean delete(Integer userId) throws SQLException {
-        String sql = "DELETE FROM users WHERE user_id = ?";
+        String sql = DaoStatements.USER_DELETE;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getShardConnection(userId);
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.delete")) {
 
             pstmt.setInt(1, userId);
             return pstmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * Helper method untuk mapping ResultSet ke UserSummary (hanya kolom projection)
+     * Mapper posisional hasil generate, query wajib memakai UserSummaryRowMapper.COLUMNS
+     */
+    private UserSummary mapResultSetToUserSummary(ResultSet rs) throws SQLException {
+        return UserSummaryRowMapper.INSTANCE.map(rs);
+    }
+
     /**
      * Helper method untuk mapping ResultSet ke User object
+     * Memakai UserRowMapper hasil generate (@RowMapped): kolom dibaca berdasarkan posisi,
+     * jadi query wajib memakai UserRowMapper.COLUMNS sebagai select list
      * @param rs ResultSet dari database query
      * @return User object yang sudah di-mapping
      * @throws SQLException jika mapping gagal
      */
     private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        // Use builder pattern untuk membuat User object
-        return User.builder()
-                .userId(rs.getInt("user_id"))
-                .username(rs.getString("username"))
-                .email(rs.getString("email"))
-                .fullName(rs.getString("full_name"))
-                .phone(rs.getString("phone"))
-                .role(rs.getString("role"))
-                .status(rs.getString("status"))
-                .registrationDate(rs.getTimestamp("registration_date"))
-                .lastLogin(rs.getTimestamp("last_login"))
-                .createdAt(rs.getTimestamp("created_at"))
-                .updatedAt(rs.getTimestamp("updated_at"))
-                .build();
+        return UserRowMapper.INSTANCE.map(rs);
     }
 
     /**
      * COUNT - Menghitung total jumlah users
+     * Dengan sharding, COUNT dijalankan paralel di semua shard lalu dijumlahkan
      * @return jumlah total users
      * @throws SQLException jika operasi database gagal
      */
     public int countAll() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM users";
-
-        try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
-            return 0;
-        }
+        return RetryPolicy.retry("UserDAO.countAll", () -> {
+            String sql = DaoStatements.USER_COUNT_ALL;
+
+            List<Integer> perShard = DatabaseConfig.scatterGather(WorkloadClass.OLTP, conn -> {
+                try (PreparedStatement stmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.countAll");
+                     ResultSet rs = stmt.executeQuery()) {
+
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
+
+                    return 0;
+                }
+            });
+            return perShard.stream().mapToInt(Integer::intValue).sum();
+        });
     }
 
     /**
@@ -228,10 +500,10 @@ public class UserDAO {
      * @throws SQLException jika operasi database gagal
      */
     public boolean updateLastLogin(Integer userId) throws SQLException {
-        String sql = "UPDATE users SET last_login = CURRENT_TIMESTAMP WHERE user_id = ?";
+        String sql = DaoStatements.USER_UPDATE_LAST_LOGIN;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getShardConnection(userId);
+             PreparedStatement pstmt = QueryTimeouts.apply(conn.prepareStatement(sql), "UserDAO.updateLastLogin")) {
 
             pstmt.setInt(1, userId);
             return pstmt.executeUpdate() > 0;
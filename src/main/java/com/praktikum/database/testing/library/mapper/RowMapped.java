@@ -0,0 +1,21 @@
+package com.praktikum.database.testing.library.mapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Menandai class model yang RowMapper-nya dibuat saat compile oleh RowMapperProcessor
+ *
+ * Untuk class Book dibuat BookRowMapper (package yang sama) dengan:
+ * - COLUMNS: select list tetap, nama kolom = nama field dalam snake_case, urut sesuai deklarasi field
+ * - INSTANCE: mapper yang membaca kolom berdasarkan posisi dan memanggil constructor semua field
+ *
+ * Class wajib punya constructor dengan semua field sesuai urutan deklarasi
+ * (Lombok @AllArgsConstructor, atau constructor package-private dari @Builder)
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface RowMapped {
+}
@@ -0,0 +1,162 @@
+package com.praktikum.database.testing.library.mapper.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor yang membuat RowMapper posisional untuk setiap class dengan @RowMapped
+ *
+ * Mapper hasil generate membaca kolom berdasarkan index (bukan nama), memakai getter primitive
+ * (getInt, getLong, ...) dengan cek wasNull untuk field boxed, dan memanggil constructor langsung
+ * tanpa builder. Dikompilasi terpisah sebelum source lain (lihat execution compile-row-mapper-processor
+ * di pom.xml), jadi class ini tidak boleh memakai Lombok atau class lain dari project.
+ */
+@SupportedAnnotationTypes(RowMapperProcessor.ROW_MAPPED)
+public class RowMapperProcessor extends AbstractProcessor {
+    static final String ROW_MAPPED = "com.praktikum.database.testing.library.mapper.RowMapped";
+
+    private static final String ROW_MAPPER = "com.praktikum.database.testing.library.config.RowMapper";
+
+    // Tipe field -> {getter ResultSet, tipe primitive untuk field boxed (null = getter sudah mengembalikan object)}
+    private static final Map<String, String[]> GETTERS = Map.ofEntries(
+            Map.entry("int", new String[]{"getInt", null}),
+            Map.entry("java.lang.Integer", new String[]{"getInt", "int"}),
+            Map.entry("long", new String[]{"getLong", null}),
+            Map.entry("java.lang.Long", new String[]{"getLong", "long"}),
+            Map.entry("double", new String[]{"getDouble", null}),
+            Map.entry("java.lang.Double", new String[]{"getDouble", "double"}),
+            Map.entry("boolean", new String[]{"getBoolean", null}),
+            Map.entry("java.lang.Boolean", new String[]{"getBoolean", "boolean"}),
+            Map.entry("java.lang.String", new String[]{"getString", null}),
+            Map.entry("java.math.BigDecimal", new String[]{"getBigDecimal", null}),
+            Map.entry("java.sql.Timestamp", new String[]{"getTimestamp", null}),
+            Map.entry("java.sql.Date", new String[]{"getDate", null}));
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS
+                        || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+                    error(element, "@RowMapped hanya untuk top-level class");
+                    continue;
+                }
+                generate((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC)) {
+                fields.add(field);
+            }
+        }
+        for (VariableElement field : fields) {
+            if (!GETTERS.containsKey(field.asType().toString())) {
+                error(field, "Tipe field tidak didukung @RowMapped: " + field.asType());
+                return;
+            }
+        }
+
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        String modelName = type.getSimpleName().toString();
+        String mapperName = modelName + "RowMapper";
+
+        StringBuilder columns = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            VariableElement field = fields.get(i);
+            String fieldType = field.asType().toString();
+            String[] getter = GETTERS.get(fieldType);
+            int index = i + 1;
+
+            columns.append(i == 0 ? "" : ", ").append(snakeCase(field.getSimpleName().toString()));
+            arguments.append(i == 0 ? "" : ", ").append("c").append(index);
+            if (getter[1] != null) {
+                body.append("        ").append(getter[1]).append(" p").append(index)
+                        .append(" = rs.").append(getter[0]).append('(').append(index).append(");\n")
+                        .append("        ").append(fieldType).append(" c").append(index)
+                        .append(" = rs.wasNull() ? null : p").append(index).append(";\n");
+            } else {
+                body.append("        ").append(fieldType).append(" c").append(index)
+                        .append(" = rs.").append(getter[0]).append('(').append(index).append(");\n");
+            }
+        }
+
+        String source = "package " + packageName + ";\n"
+                + "\n"
+                + "/**\n"
+                + " * RowMapper posisional untuk " + modelName + ", dibuat oleh RowMapperProcessor dari @RowMapped\n"
+                + " * Query wajib memakai COLUMNS sebagai select list (index kolom = urutan field)\n"
+                + " */\n"
+                + "@javax.annotation.processing.Generated(\"" + RowMapperProcessor.class.getName() + "\")\n"
+                + "public final class " + mapperName + " implements " + ROW_MAPPER + "<" + modelName + "> {\n"
+                + "    public static final String COLUMNS = \"" + columns + "\";\n"
+                + "\n"
+                + "    public static final " + mapperName + " INSTANCE = new " + mapperName + "();\n"
+                + "\n"
+                + "    private " + mapperName + "() {\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public " + modelName + " map(java.sql.ResultSet rs) throws java.sql.SQLException {\n"
+                + body
+                + "        return new " + modelName + "(" + arguments + ");\n"
+                + "    }\n"
+                + "}\n";
+
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName + "." + mapperName, type)
+                .openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            error(type, "Gagal menulis " + mapperName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * bookId -> book_id
+     */
+    static String snakeCase(String fieldName) {
+        StringBuilder column = new StringBuilder(fieldName.length() + 4);
+        for (int i = 0; i < fieldName.length(); i++) {
+            char c = fieldName.charAt(i);
+            if (Character.isUpperCase(c)) {
+                column.append('_').append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -1,6 +1,7 @@
 package com.praktikum.database.testing.library.model;
 
-// Import Lombok annotations
+// Import annotation untuk RowMapper hasil generate dan Lombok annotations
+import com.praktikum.database.testing.library.mapper.RowMapped;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,7 @@ import java.sql.Timestamp;
  * Entity class yang merepresentasikan tabel 'books' dalam database
  * Menyimpan informasi tentang buku yang ada di perpustakaan
  */
+@RowMapped
 @Data
 @Builder
 @NoArgsConstructor
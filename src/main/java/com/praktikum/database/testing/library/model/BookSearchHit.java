@@ -0,0 +1,21 @@
+package com.praktikum.database.testing.library.model;
+
+// Import Lombok annotations
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Satu hasil pencarian books (BookDAO.searchFullText dan BookDAO.searchFuzzy)
+ * Berisi BookSummary dan skor relevansinya: ts_rank untuk full-text search (judul berbobot A lebih
+ * berpengaruh dari description berbobot B), similarity pg_trgm (0..1) untuk fuzzy search
+ */
+@Getter
+@Builder
+@ToString
+public class BookSearchHit {
+    private final BookSummary book;
+
+    // Skor relevansi, hasil diurutkan dari skor tertinggi
+    private final double rank;
+}
@@ -0,0 +1,37 @@
+package com.praktikum.database.testing.library.model;
+
+// Import annotation untuk RowMapper hasil generate dan Lombok annotations
+import com.praktikum.database.testing.library.mapper.RowMapped;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read model ringkas untuk tabel 'books' (layar daftar dan hasil pencarian)
+ * Hanya kolom identitas dan ketersediaan; description, price dan kolom lain tidak di-select
+ */
+@RowMapped
+@Getter
+@Builder
+@ToString
+public class BookSummary {
+    private final Integer bookId;
+
+    private final String isbn;
+
+    private final String title;
+
+    // Foreign key ke tabel authors
+    private final Integer authorId;
+
+    private final Integer totalCopies;
+
+    private final Integer availableCopies;
+
+    // Status buku: available, unavailable, maintenance
+    private final String status;
+
+    public boolean isAvailable() {
+        return availableCopies != null && availableCopies > 0;
+    }
+}
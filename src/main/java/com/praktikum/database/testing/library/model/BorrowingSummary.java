@@ -0,0 +1,35 @@
+package com.praktikum.database.testing.library.model;
+
+// Import annotation untuk RowMapper hasil generate dan Lombok annotations
+import com.praktikum.database.testing.library.mapper.RowMapped;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.sql.Timestamp;
+
+/**
+ * Read model ringkas untuk tabel 'borrowings' (riwayat peminjaman user)
+ * Denda, notes dan timestamp audit tidak di-select
+ */
+@RowMapped
+@Getter
+@Builder
+@ToString
+public class BorrowingSummary {
+    private final Integer borrowingId;
+
+    private final Integer userId;
+
+    private final Integer bookId;
+
+    private final Timestamp borrowDate;
+
+    private final Timestamp dueDate;
+
+    // null jika buku belum dikembalikan
+    private final Timestamp returnDate;
+
+    // Status: borrowed, returned, overdue, lost
+    private final String status;
+}
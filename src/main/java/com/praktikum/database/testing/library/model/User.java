@@ -1,6 +1,7 @@
 package com.praktikum.database.testing.library.model;
 
-// Import annotations Lombok untuk mengurangi boilerplate code
+// Import annotation untuk RowMapper hasil generate dan annotations Lombok untuk mengurangi boilerplate code
+import com.praktikum.database.testing.library.mapper.RowMapped;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,7 @@ import java.sql.Timestamp;
  * Menggunakan Lombok annotations untuk generate getter, setter,
  * constructor otomatis
  */
+@RowMapped
 @Data // Lombok: Generate getter, setter, toString, equals, hashCode otomatis
 @Builder // Lombok: Implement builder pattern untuk object creation
 @NoArgsConstructor // Lombok: Generate constructor tanpa parameter
@@ -0,0 +1,29 @@
+package com.praktikum.database.testing.library.model;
+
+// Import annotation untuk RowMapper hasil generate dan Lombok annotations
+import com.praktikum.database.testing.library.mapper.RowMapped;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read model ringkas untuk tabel 'users' (layar daftar user)
+ * Kontak (email, phone) dan timestamp audit tidak di-select
+ */
+@RowMapped
+@Getter
+@Builder
+@ToString
+public class UserSummary {
+    private final Integer userId;
+
+    private final String username;
+
+    private final String fullName;
+
+    // Role: member, librarian, admin
+    private final String role;
+
+    // Status: active, inactive, suspended
+    private final String status;
+}
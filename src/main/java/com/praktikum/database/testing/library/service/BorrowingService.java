@@ -1,8 +1,15 @@
 package com.praktikum.database.testing.library.service;
 
 // Import DAO classes dan model classes
+import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.config.Deadline;
+import com.praktikum.database.testing.library.config.QueryTimeouts;
+import com.praktikum.database.testing.library.config.ReplicaRouter;
+import com.praktikum.database.testing.library.config.WorkloadClass;
 import com.praktikum.database.testing.library.dao.BookDAO;
 import com.praktikum.database.testing.library.dao.BorrowingDAO;
+import com.praktikum.database.testing.library.dao.BorrowingFilter;
+import com.praktikum.database.testing.library.dao.Page;
 import com.praktikum.database.testing.library.dao.UserDAO;
 import com.praktikum.database.testing.library.model.Book;
 import com.praktikum.database.testing.library.model.Borrowing;
@@ -65,6 +72,15 @@ public class BorrowingService {
      */
     public Borrowing borrowBook(Integer userId, Integer bookId, int
             borrowDays) throws SQLException {
+        // Transaksi interaktif, dijalankan di bulkhead oltp dengan deadline untuk semua query
+        try (WorkloadClass.Scope scope = WorkloadClass.OLTP.enter();
+             Deadline.Scope deadline = QueryTimeouts.deadline("BorrowingService.borrowBook")) {
+            return processBorrow(userId, bookId, borrowDays);
+        }
+    }
+
+    private Borrowing processBorrow(Integer userId, Integer bookId, int
+            borrowDays) throws SQLException {
         logger.info("Memproses peminjaman buku - User: " + userId +
                 ", Book: " + bookId);
         // STEP 1: Validasi user exists dan active
@@ -146,6 +162,15 @@ public class BorrowingService {
      */
     public boolean returnBook(Integer borrowingId) throws
             SQLException {
+        // Transaksi interaktif, dijalankan di bulkhead oltp dengan deadline untuk semua query
+        try (WorkloadClass.Scope scope = WorkloadClass.OLTP.enter();
+             Deadline.Scope deadline = QueryTimeouts.deadline("BorrowingService.returnBook")) {
+            return processReturn(borrowingId);
+        }
+    }
+
+    private boolean processReturn(Integer borrowingId) throws
+            SQLException {
         logger.info("Memproses pengembalian buku - Borrowing ID: "
                 + borrowingId);
         // STEP 1: Validasi borrowing exists
@@ -166,8 +191,8 @@ public class BorrowingService {
         // STEP 3: Update return date di borrowing record
         Timestamp returnDate = new
                 Timestamp(System.currentTimeMillis());
-        boolean updated = borrowingDAO.returnBook(borrowingId,
-                returnDate);
+        boolean updated = borrowingDAO.returnBook(
+                borrowing.get().getUserId(), borrowingId, returnDate);
         if (!updated) {
             logger.severe("Gagal update return date untuk borrowing " +
                     "ID: " + borrowingId);
@@ -254,16 +279,29 @@ public class BorrowingService {
 
     /**
      * Mendapatkan active borrowings untuk user tertentu
+     * Filter return_date IS NULL dijalankan di database, returned
+     * borrowings tidak ikut dikirim. Biasanya cukup satu halaman
+     * (user maksimal punya 5 active borrowings), tapi halaman
+     * berikutnya tetap diikuti sampai token habis
      * @param userId ID user
      * @return List of active borrowing records
      * @throws SQLException jika operasi database gagal
      */
     public java.util.List<Borrowing>
     getUserActiveBorrowings(Integer userId) throws SQLException {
-        return borrowingDAO.findByUserId(userId).stream()
-                .filter(borrowing -> borrowing.getReturnDate() ==
-                        null)
-                .toList();
+        BorrowingFilter filter = BorrowingFilter.builder()
+                .userId(userId)
+                .state(BorrowingFilter.State.ACTIVE)
+                .build();
+        java.util.List<Borrowing> active = new java.util.ArrayList<>();
+        String token = null;
+        do {
+            Page<Borrowing> page =
+                    borrowingDAO.findByUser(filter, token, Page.MAX_LIMIT);
+            active.addAll(page.getItems());
+            token = page.getNextPageToken();
+        } while (token != null);
+        return active;
     }
 
     /**
@@ -278,6 +316,21 @@ public class BorrowingService {
         return borrowingDAO.findByUserId(userId);
     }
 
+    /**
+     * Mendapatkan satu halaman borrowing history user, urut
+     * borrow_date terbaru dulu
+     * @param filter Filter active/returned dan rentang borrow_date
+     * @param pageToken Token dari halaman sebelumnya, null untuk
+     * halaman pertama
+     * @param limit Jumlah borrowings per halaman
+     * @return Halaman borrowing records
+     * @throws SQLException jika operasi database gagal
+     */
+    public Page<Borrowing> getUserBorrowingHistory(BorrowingFilter
+            filter, String pageToken, int limit) throws SQLException {
+        return borrowingDAO.findByUser(filter, pageToken, limit);
+    }
+
     /**
      * Update status borrowing menjadi overdue jika melewati
      * due_date
@@ -286,16 +339,29 @@ public class BorrowingService {
      * @throws SQLException jika operasi database gagal
      */
     public void updateOverdueStatus() throws SQLException {
+        // Job periodik, dijalankan di bulkhead background supaya tidak mengganggu peminjaman
+        try (WorkloadClass.Scope scope = WorkloadClass.BACKGROUND.enter();
+             Deadline.Scope deadline = QueryTimeouts.deadline("BorrowingService.updateOverdueStatus")) {
+            markOverdueBorrowings();
+        }
+    }
+
+    private void markOverdueBorrowings() throws SQLException {
         logger.info("Memperbarui status overdue borrowings...");
-        java.util.List<Borrowing> overdueBorrowings =
-                borrowingDAO.findOverdueBorrowings();
+        // Baca dari primary karena hasilnya langsung dipakai untuk update
+        java.util.List<Borrowing> overdueBorrowings;
+        try (ReplicaRouter.PrimaryScope scope = DatabaseConfig.pinToPrimary()) {
+            overdueBorrowings = borrowingDAO.findOverdueBorrowings();
+        }
         for (Borrowing borrowing : overdueBorrowings) {
             if (!"overdue".equals(borrowing.getStatus())) {
-                borrowingDAO.updateStatus(borrowing.getBorrowingId(), "overdue");
+                borrowingDAO.updateStatus(borrowing.getUserId(),
+                        borrowing.getBorrowingId(), "overdue");
                 // Calculate dan update fine
                 double fine =
                         calculateFine(borrowing.getBorrowingId());
-                borrowingDAO.updateFineAmount(borrowing.getBorrowingId(), fine);
+                borrowingDAO.updateFineAmount(borrowing.getUserId(),
+                        borrowing.getBorrowingId(), fine);
                 logger.info("Updated to overdue - Borrowing ID: " +
                         borrowing.getBorrowingId() + ", Fine: " + fine);
             }
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -33,8 +34,8 @@ public class BaseDatabaseTest {
         logger.info(" Setting up Database Test Environment");
         logger.info("===============================");
 
-        // Test koneksi database
-        boolean connected = DatabaseConfig.testConnection();
+        // Start connection pool dan tunggu test koneksi + warm-up selesai
+        boolean connected = DatabaseConfig.awaitReady(30, TimeUnit.SECONDS);
         if (!connected) {
             throw new RuntimeException("Tidak bisa terkoneksi ke database. Tests tidak bisa dijalankan.");
         }
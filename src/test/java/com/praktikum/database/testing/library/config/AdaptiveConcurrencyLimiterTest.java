@@ -0,0 +1,259 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk AdaptiveConcurrencyLimiter (AIMD)
+ * Koneksi berasal dari mock ConnectionFactory, atau ConnectionPool dengan koneksi fisik mock
+ * untuk test yang mengukur latency statement, sehingga tidak membutuhkan database
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Test Suite")
+public class AdaptiveConcurrencyLimiterTest {
+    private static final Logger logger = Logger.getLogger(AdaptiveConcurrencyLimiterTest.class.getName());
+
+    private final ConnectionFactory source = () -> mock(Connection.class);
+
+    // Lama setiap execute() pada koneksi fisik mock milik pool
+    private volatile long statementMillis;
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("TC641: Limit naik bertahap ketika query cepat dan limit terpakai")
+    void testAdditiveIncreaseWhenFastAndUtilized() throws SQLException {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = createLimiter(4, 0, 0);
+        pool = createPool();
+
+        // ACT - 4 query bersamaan, semua selesai cepat, diulang beberapa window
+        for (int window = 0; window < 8; window++) {
+            List<Connection> inFlight = new ArrayList<>();
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                inFlight.add(limiter.getConnection(pool::getConnection));
+            }
+            for (Connection connection : inFlight) {
+                executeStatement(connection);
+                connection.close();
+            }
+        }
+
+        // ASSERT
+        assertThat(limiter.getLimit()).isGreaterThan(4).isLessThanOrEqualTo(20);
+        assertThat(limiter.getLimitIncreases()).isPositive();
+        assertThat(limiter.getInFlight()).isZero();
+
+        logger.info("TC641 PASSED: " + limiter);
+    }
+
+    @Test
+    @DisplayName("TC642: Limit turun multiplicative ketika query lambat atau pool timeout, minimal minLimit")
+    void testMultiplicativeDecreaseOnSlowQueries() throws Exception {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = createLimiter(16, 0, 0);
+        pool = createPool();
+        statementMillis = 120;
+
+        // ACT - setiap statement berjalan lebih lama dari latencyThresholdMillis, satu per satu
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = limiter.getConnection(pool::getConnection)) {
+                executeStatement(connection);
+            }
+        }
+        int afterSlow = limiter.getLimit();
+
+        ConnectionFactory exhausted = () -> {
+            throw new SQLTransientConnectionException("Timeout menunggu koneksi", "08001");
+        };
+        assertThatThrownBy(() -> limiter.getConnection(exhausted))
+                .isInstanceOf(SQLTransientConnectionException.class);
+
+        // ASSERT
+        assertThat(afterSlow).isEqualTo(2);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getLimitDecreases()).isPositive();
+        assertThat(limiter.getInFlight()).isZero();
+
+        logger.info("TC642 PASSED: " + limiter);
+    }
+
+    @Test
+    @DisplayName("TC643: Query ditolak dengan ConcurrencyLimitExceededException ketika limit dan antrian penuh")
+    void testRejectsWhenLimitReached() throws SQLException {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 0, 0);
+        Connection first = limiter.getConnection(source);
+        Connection second = limiter.getConnection(source);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> limiter.getConnection(source))
+                .isInstanceOf(ConcurrencyLimitExceededException.class)
+                .hasMessageContaining("limit=2")
+                .satisfies(e -> assertThat(((ConcurrencyLimitExceededException) e).getInFlight()).isEqualTo(2));
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+
+        first.close();
+        second.close();
+        assertThat(limiter.getInFlight()).isZero();
+
+        logger.info("TC643 PASSED: " + limiter);
+    }
+
+    @Test
+    @DisplayName("TC644: Caller yang antri mendapat slot setelah query lain selesai")
+    void testQueuedCallerProceedsAfterRelease() throws Exception {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 5, 2000);
+        Connection first = limiter.getConnection(source);
+        Connection second = limiter.getConnection(source);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // ACT
+            Future<Connection> queued = executor.submit(() -> limiter.getConnection(source));
+            long deadline = System.currentTimeMillis() + 2000;
+            while (limiter.getQueued() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(limiter.getQueued()).isEqualTo(1);
+            first.close();
+
+            // ASSERT
+            Connection third = queued.get(2, TimeUnit.SECONDS);
+            assertThat(third).isNotNull();
+            assertThat(limiter.getInFlight()).isEqualTo(2);
+            third.close();
+            second.close();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("TC644 PASSED: " + limiter);
+    }
+
+    @Test
+    @DisplayName("TC645: Burst statement lambat bersamaan hanya menurunkan limit sekali per window")
+    void testConcurrentSlowSamplesDecreaseOncePerWindow() throws Exception {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = createLimiter(20, 0, 0);
+        pool = createPool();
+        statementMillis = 150;
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        CountDownLatch borrowed = new CountDownLatch(20);
+
+        try {
+            // ACT - 20 statement lambat dimulai bersamaan (misalnya burst laporan)
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection connection = limiter.getConnection(pool::getConnection)) {
+                        borrowed.countDown();
+                        borrowed.await(2, TimeUnit.SECONDS);
+                        executeStatement(connection);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // ASSERT - 20 x 0.5 sekali, bukan 0.5^20 sampai minLimit
+        assertThat(limiter.getLimitDecreases()).isEqualTo(1);
+        assertThat(limiter.getLimit()).isEqualTo(10).isGreaterThan(2);
+        assertThat(limiter.getInFlight()).isZero();
+
+        logger.info("TC645 PASSED: " + limiter);
+    }
+
+    @Test
+    @DisplayName("TC646: Lama koneksi ditahan tanpa statement tidak dihitung sebagai latency")
+    void testHoldTimeIsNotSampled() throws Exception {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = createLimiter(16, 0, 0);
+        pool = createPool();
+
+        // ACT - koneksi ditahan lebih lama dari threshold, statement-nya sendiri cepat
+        try (Connection connection = limiter.getConnection(pool::getConnection)) {
+            executeStatement(connection);
+            Thread.sleep(150);
+        }
+
+        // ASSERT
+        assertThat(limiter.getLimit()).isEqualTo(16);
+        assertThat(limiter.getLimitDecreases()).isZero();
+        assertThat(limiter.getAverageLatencyMillis()).isLessThan(100);
+
+        logger.info("TC646 PASSED: " + limiter);
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private AdaptiveConcurrencyLimiter createLimiter(int initialLimit, int maxQueue, long maxWaitMillis) {
+        return new AdaptiveConcurrencyLimiter("test", LimiterSettings.builder()
+                .initialLimit(initialLimit)
+                .minLimit(2)
+                .maxLimit(20)
+                .latencyThresholdMillis(100)
+                .backoffRatio(0.5)
+                .maxQueue(maxQueue)
+                .maxWaitMillis(maxWaitMillis)
+                .build());
+    }
+
+    private ConnectionPool createPool() {
+        return new ConnectionPool("limiter-test", this::createMockConnection,
+                PoolSettings.builder().initialSize(0).minIdle(0).maxTotal(32).maxIdle(32).build());
+    }
+
+    private void executeStatement(Connection connection) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT 1")) {
+            pstmt.execute();
+        }
+    }
+
+    private Connection createMockConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            PreparedStatement pstmt = mock(PreparedStatement.class);
+            when(pstmt.execute()).thenAnswer(execute -> {
+                Thread.sleep(statementMillis);
+                return true;
+            });
+            return pstmt;
+        });
+        return connection;
+    }
+}
@@ -0,0 +1,147 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk Bulkhead dan WorkloadClass
+ * Memakai ConnectionPool dengan koneksi Mockito sehingga tidak membutuhkan database
+ */
+@DisplayName("Bulkhead Test Suite")
+public class BulkheadTest {
+    private static final Logger logger = Logger.getLogger(BulkheadTest.class.getName());
+
+    private ConnectionPool pool;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool("test", this::createMockConnection, PoolSettings.builder()
+                .initialSize(0).minIdle(0).maxTotal(6).maxIdle(6)
+                .maxWaitMillis(1000)
+                .build());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("TC631: Bulkhead menolak caller jika budget dan antrian penuh")
+    void testRejectsWhenBudgetAndQueueFull() throws Exception {
+        // ARRANGE
+        Bulkhead reporting = new Bulkhead(WorkloadClass.REPORTING, 2, 1, 2000);
+        List<Connection> held = new ArrayList<>();
+        held.add(reporting.getConnection(pool::getConnection));
+        held.add(reporting.getConnection(pool::getConnection));
+
+        // ACT - satu thread mengisi antrian, caller berikutnya langsung ditolak
+        CountDownLatch queued = new CountDownLatch(1);
+        Future<Connection> waiter = executor.submit(() -> {
+            queued.countDown();
+            return reporting.getConnection(pool::getConnection);
+        });
+        queued.await();
+        awaitWaiting(reporting, 1);
+
+        // ASSERT
+        assertThatThrownBy(() -> reporting.getConnection(pool::getConnection))
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("penuh");
+        assertThat(reporting.getRejectedCount()).isEqualTo(1);
+
+        held.get(0).close();
+        try (Connection handedOver = waiter.get(2, TimeUnit.SECONDS)) {
+            assertThat(handedOver).isNotNull();
+            assertThat(reporting.getActiveConnections()).isEqualTo(2);
+        }
+        held.get(1).close();
+        assertThat(reporting.getActiveConnections()).isZero();
+
+        logger.info("TC631 PASSED: " + reporting);
+    }
+
+    @Test
+    @DisplayName("TC632: Reporting yang penuh tidak menahan koneksi oltp")
+    void testReportingSaturationDoesNotBlockOltp() throws SQLException {
+        // ARRANGE
+        Bulkhead oltp = new Bulkhead(WorkloadClass.OLTP, 4, 10, 1000);
+        Bulkhead reporting = new Bulkhead(WorkloadClass.REPORTING, 2, 0, 50);
+        Connection report1 = reporting.getConnection(pool::getConnection);
+        Connection report2 = reporting.getConnection(pool::getConnection);
+
+        // ACT
+        long start = System.nanoTime();
+        Connection checkout = oltp.getConnection(pool::getConnection);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // ASSERT
+        assertThat(checkout).isNotNull();
+        assertThat(elapsedMillis).isLessThan(500);
+        assertThatThrownBy(() -> reporting.getConnection(pool::getConnection))
+                .isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(pool.getActiveCount()).isEqualTo(3);
+
+        checkout.close();
+        report1.close();
+        report2.close();
+
+        logger.info("TC632 PASSED: oltp checkout took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("TC633: Scope workload service menang atas tag default DAO dan bisa nested")
+    void testWorkloadScopeResolution() {
+        // ASSERT - tanpa scope, tag default dari DAO dipakai
+        assertThat(WorkloadClass.resolve(WorkloadClass.REPORTING)).isEqualTo(WorkloadClass.REPORTING);
+
+        try (WorkloadClass.Scope background = WorkloadClass.BACKGROUND.enter()) {
+            assertThat(WorkloadClass.resolve(WorkloadClass.REPORTING)).isEqualTo(WorkloadClass.BACKGROUND);
+            try (WorkloadClass.Scope oltp = WorkloadClass.OLTP.enter()) {
+                assertThat(WorkloadClass.current()).isEqualTo(WorkloadClass.OLTP);
+            }
+            assertThat(WorkloadClass.current()).isEqualTo(WorkloadClass.BACKGROUND);
+        }
+        assertThat(WorkloadClass.current()).isNull();
+
+        logger.info("TC633 PASSED: Workload scope resolved correctly");
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private void awaitWaiting(Bulkhead bulkhead, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (bulkhead.getWaitingThreads() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Connection createMockConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        return connection;
+    }
+}
@@ -0,0 +1,231 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk CircuitBreaker
+ * Database down disimulasikan dengan ConnectionFactory yang melempar SQLState 08001
+ */
+@DisplayName("CircuitBreaker Test Suite")
+public class CircuitBreakerTest {
+    private static final Logger logger = Logger.getLogger(CircuitBreakerTest.class.getName());
+
+    private static final SQLException CONNECTION_REFUSED = new SQLException("Connection refused", "08001");
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("TC671: Breaker OPEN setelah kegagalan berturut-turut lalu fail fast")
+    void testOpensAfterConsecutiveFailures() throws SQLException {
+        // ARRANGE
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerSettings.builder()
+                .consecutiveFailureThreshold(3)
+                .openDurationMillis(60_000)
+                .build());
+
+        // ACT
+        for (int i = 0; i < 3; i++) {
+            breaker.acquirePermission();
+            breaker.onFailure(CONNECTION_REFUSED);
+        }
+
+        // ASSERT
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission)
+                .isInstanceOf(CircuitBreakerOpenException.class)
+                .satisfies(e -> assertThat(((CircuitBreakerOpenException) e).getRetryAfterMillis()).isPositive());
+        assertThat(breaker.getNotPermittedCalls()).isEqualTo(1);
+        assertThat(breaker.getTransitionsToOpen()).isEqualTo(1);
+
+        logger.info("TC671 PASSED: " + breaker);
+    }
+
+    @Test
+    @DisplayName("TC672: Failure rate di sliding window membuka breaker, error SQL biasa tidak")
+    void testOpensOnFailureRate() throws SQLException {
+        // ARRANGE
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerSettings.builder()
+                .consecutiveFailureThreshold(100)
+                .slidingWindowSize(10)
+                .minimumCalls(10)
+                .failureRateThreshold(50.0)
+                .build());
+
+        // ACT: unique violation berarti database menjawab, dihitung sukses
+        for (int i = 0; i < 5; i++) {
+            breaker.acquirePermission();
+            breaker.onFailure(new SQLException("duplicate key value", "23505"));
+        }
+        for (int i = 0; i < 4; i++) {
+            breaker.acquirePermission();
+            breaker.onFailure(CONNECTION_REFUSED);
+            breaker.onSuccess();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.onFailure(CONNECTION_REFUSED);
+
+        // ASSERT
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getFailedCalls()).isEqualTo(5);
+        assertThat(breaker.getSuccessfulCalls()).isEqualTo(9);
+
+        logger.info("TC672 PASSED: " + breaker);
+    }
+
+    @Test
+    @DisplayName("TC673: Half-open menutup breaker jika trial sukses, membuka lagi jika trial gagal")
+    void testHalfOpenTrialCalls() throws SQLException {
+        // ARRANGE
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerSettings.builder()
+                .consecutiveFailureThreshold(1)
+                .openDurationMillis(30)
+                .halfOpenTrialCalls(2)
+                .build());
+        List<CircuitBreakerEvent> events = new CopyOnWriteArrayList<>();
+        breaker.addListener(events::add);
+
+        // ACT: trial gagal -> OPEN lagi
+        breaker.onFailure(CONNECTION_REFUSED);
+        pause(50);
+        breaker.acquirePermission();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onFailure(CONNECTION_REFUSED);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // ACT: trial sukses -> CLOSED, trial ketiga ditolak selama half-open
+        pause(50);
+        long firstTrial = breaker.acquirePermission();
+        long secondTrial = breaker.acquirePermission();
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(firstTrial);
+        breaker.onSuccess(secondTrial);
+
+        // ASSERT
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(events).extracting(CircuitBreakerEvent::getToState).containsExactly(
+                CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.OPEN,
+                CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED);
+
+        logger.info("TC673 PASSED: " + events.size() + " transitions");
+    }
+
+    @Test
+    @DisplayName("TC674: Pool dengan breaker OPEN tidak memanggil ConnectionFactory")
+    void testPoolFailsFastWhenOpen() throws SQLException {
+        // ARRANGE
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        AtomicInteger factoryCalls = new AtomicInteger();
+        pool = new ConnectionPool("test", () -> {
+            factoryCalls.incrementAndGet();
+            if (databaseDown.get()) {
+                throw CONNECTION_REFUSED;
+            }
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            return connection;
+        }, PoolSettings.builder().initialSize(0).minIdle(0).build());
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerSettings.builder()
+                .consecutiveFailureThreshold(2)
+                .openDurationMillis(50)
+                .halfOpenTrialCalls(1)
+                .build());
+        pool.setCircuitBreaker(breaker);
+
+        // ACT
+        assertThatThrownBy(pool::getConnection).isSameAs(CONNECTION_REFUSED);
+        assertThatThrownBy(pool::getConnection).isSameAs(CONNECTION_REFUSED);
+        assertThatThrownBy(pool::getConnection).isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(pool.fill(1)).isZero();
+        int callsWhileOpen = factoryCalls.get();
+
+        databaseDown.set(false);
+        pause(70);
+        pool.getConnection().close();
+
+        // ASSERT
+        assertThat(callsWhileOpen).isEqualTo(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getNotPermittedCalls()).isEqualTo(1);
+
+        logger.info("TC674 PASSED: " + breaker);
+    }
+
+    @Test
+    @DisplayName("TC675: Satu trial lease dengan banyak statement tidak menutup breaker half-open")
+    void testStatementsOnOneTrialLeaseDoNotCloseBreaker() throws SQLException {
+        // ARRANGE
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        pool = new ConnectionPool("test", () -> {
+            if (databaseDown.get()) {
+                throw CONNECTION_REFUSED;
+            }
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+            return connection;
+        }, PoolSettings.builder().initialSize(0).minIdle(0).build());
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerSettings.builder()
+                .consecutiveFailureThreshold(1)
+                .openDurationMillis(30)
+                .halfOpenTrialCalls(3)
+                .build());
+        pool.setCircuitBreaker(breaker);
+        assertThatThrownBy(pool::getConnection).isSameAs(CONNECTION_REFUSED);
+        databaseDown.set(false);
+        pause(50);
+
+        // ACT - satu trial lease menjalankan 5 statement
+        try (Connection trialLease = pool.getConnection()) {
+            for (int i = 0; i < 5; i++) {
+                try (PreparedStatement pstmt = trialLease.prepareStatement("SELECT " + i)) {
+                    pstmt.execute();
+                }
+            }
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        }
+        pool.getConnection().close();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        pool.getConnection().close();
+
+        // ASSERT - baru CLOSED setelah 3 trial lease sukses
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getTransitionsToClosed()).isEqualTo(1);
+
+        logger.info("TC675 PASSED: " + breaker);
+    }
+
+    private void pause(long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
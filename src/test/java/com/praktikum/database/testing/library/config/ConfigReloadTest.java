@@ -0,0 +1,85 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Import static assertions
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit test untuk hot reload konfigurasi (DatabaseConfig.reload dan ConfigFileWatcher)
+ * Tidak membutuhkan database: reload yang invalid ditolak sebelum menyentuh pool
+ */
+@DisplayName("Config Reload Test Suite")
+public class ConfigReloadTest {
+    private static final Logger logger = Logger.getLogger(ConfigReloadTest.class.getName());
+
+    @Test
+    @DisplayName("TC681: Watcher memanggil callback sekali untuk perubahan file yang beruntun")
+    void testWatcherDetectsChange(@TempDir Path directory) throws IOException, InterruptedException {
+        // ARRANGE
+        Path file = directory.resolve("database.properties");
+        Files.write(file, "db.pool.maxTotal=20\n".getBytes(StandardCharsets.UTF_8));
+        CountDownLatch changed = new CountDownLatch(1);
+
+        // ACT
+        try (ConfigFileWatcher watcher = new ConfigFileWatcher(file, 100, changed::countDown)) {
+            watcher.start();
+            Files.write(directory.resolve("other.txt"), "abaikan".getBytes(StandardCharsets.UTF_8));
+            Files.write(file, "db.pool.maxTotal=30\n".getBytes(StandardCharsets.UTF_8));
+            Files.write(file, "db.pool.maxTotal=40\n".getBytes(StandardCharsets.UTF_8));
+
+            // ASSERT
+            assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        logger.info("TC681 PASSED: File change detected");
+    }
+
+    @Test
+    @DisplayName("TC682: Reload dengan konfigurasi invalid ditolak dan konfigurasi lama tetap dipakai")
+    void testInvalidReloadRejected() {
+        // ARRANGE
+        Properties candidate = new Properties();
+        candidate.putAll(propertiesOf(DatabaseConfig.getProperties()));
+        candidate.setProperty("db.pool.maxTotal", "0");
+        String urlBefore = DatabaseConfig.getDbUrl();
+        long versionBefore = DatabaseConfig.getConfigVersion();
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> DatabaseConfig.reload(candidate))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("ditolak");
+
+        candidate.setProperty("db.pool.maxTotal", "20");
+        candidate.remove("db.url");
+        assertThatThrownBy(() -> DatabaseConfig.reload(candidate))
+                .hasMessageContaining("Database URL harus diisi");
+
+        assertThat(DatabaseConfig.getDbUrl()).isEqualTo(urlBefore);
+        assertThat(DatabaseConfig.getConfigVersion()).isEqualTo(versionBefore);
+
+        logger.info("TC682 PASSED: Invalid reload rejected");
+    }
+
+    /**
+     * getProperties() mengembalikan Properties dengan defaults, jadi key disalin satu per satu
+     */
+    private static Properties propertiesOf(Properties source) {
+        Properties copy = new Properties();
+        for (String key : source.stringPropertyNames()) {
+            copy.setProperty(key, source.getProperty(key));
+        }
+        return copy;
+    }
+}
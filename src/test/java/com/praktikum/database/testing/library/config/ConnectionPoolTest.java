@@ -0,0 +1,435 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk ConnectionPool
+ * Menggunakan Mockito Connection sebagai koneksi fisik sehingga
+ * tidak membutuhkan database yang berjalan
+ */
+@DisplayName("ConnectionPool Test Suite")
+public class ConnectionPoolTest {
+    private static final Logger logger = Logger.getLogger(ConnectionPoolTest.class.getName());
+
+    // Semua koneksi fisik yang dibuat oleh factory
+    private List<Connection> physicalConnections;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        physicalConnections = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("TC601: Koneksi yang ditutup dipakai ulang oleh caller berikutnya")
+    void testConnectionIsReusedAfterClose() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().build());
+
+        // ACT
+        Connection first = pool.getConnection();
+        Connection physicalFirst = first.unwrap(Connection.class);
+        first.close();
+        Connection second = pool.getConnection();
+
+        // ASSERT
+        assertThat(second.unwrap(Connection.class)).isSameAs(physicalFirst);
+        assertThat(physicalConnections).hasSize(1);
+        assertThat(first.isClosed()).isTrue();
+        assertThatThrownBy(first::createStatement).isInstanceOf(SQLException.class);
+        second.close();
+
+        logger.info("TC601 PASSED: Physical connection reused");
+    }
+
+    @Test
+    @DisplayName("TC602: Acquire timeout ketika semua koneksi sedang dipakai")
+    void testAcquireTimeoutWhenPoolExhausted() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder()
+                .initialSize(0).maxTotal(1).maxIdle(1).minIdle(0)
+                .maxWaitMillis(50)
+                .build());
+        Connection held = pool.getConnection();
+
+        // ACT & ASSERT
+        assertThatThrownBy(pool::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("Timeout");
+        held.close();
+        assertThatCode(() -> pool.getConnection().close()).doesNotThrowAnyException();
+
+        logger.info("TC602 PASSED: Acquire timeout enforced");
+    }
+
+    @Test
+    @DisplayName("TC603: Koneksi idle yang tidak valid dibuang saat dipinjam")
+    void testInvalidIdleConnectionIsDiscarded() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().build());
+        Connection first = pool.getConnection();
+        Connection physicalFirst = first.unwrap(Connection.class);
+        first.close();
+        when(physicalFirst.isValid(anyInt())).thenReturn(false);
+
+        // ACT
+        Connection second = pool.getConnection();
+
+        // ASSERT
+        assertThat(second.unwrap(Connection.class)).isNotSameAs(physicalFirst);
+        verify(physicalFirst).close();
+        assertThat(pool.getTotalCount()).isEqualTo(1);
+        second.close();
+
+        logger.info("TC603 PASSED: Invalid connection discarded");
+    }
+
+    @Test
+    @DisplayName("TC604: Transaksi yang belum selesai di-rollback saat dikembalikan ke pool")
+    void testUncommittedTransactionIsRolledBack() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().build());
+        Connection connection = pool.getConnection();
+        Connection physical = connection.unwrap(Connection.class);
+        when(physical.getAutoCommit()).thenReturn(false);
+
+        // ACT
+        connection.close();
+
+        // ASSERT
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+
+        logger.info("TC604 PASSED: Pending transaction rolled back on release");
+    }
+
+    @Test
+    @DisplayName("TC605: fill() membuka koneksi awal tanpa melewati maxTotal")
+    void testFillRespectsMaxTotal() {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder()
+                .initialSize(2).maxTotal(3).maxIdle(3).minIdle(0)
+                .build());
+
+        // ACT
+        int created = pool.fill(10);
+
+        // ASSERT
+        assertThat(created).isEqualTo(3);
+        assertThat(pool.getIdleCount()).isEqualTo(3);
+        assertThat(pool.getTotalCount()).isEqualTo(3);
+
+        logger.info("TC605 PASSED: fill() bounded by maxTotal");
+    }
+
+    @Test
+    @DisplayName("TC606: prepareStatement dengan SQL yang sama dilayani dari statement cache")
+    void testPreparedStatementIsCachedPerConnection() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().build());
+        String sql = "SELECT * FROM books WHERE book_id = ?";
+
+        // ACT - dua kali pinjam koneksi dan prepare SQL yang sama
+        for (int i = 0; i < 2; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setInt(1, i);
+            }
+        }
+
+        // ASSERT
+        Connection physical = physicalConnections.get(0);
+        verify(physical, times(1)).prepareStatement(sql);
+        assertThat(pool.getStatementCacheStats().getHits()).isEqualTo(1);
+        assertThat(pool.getStatementCacheStats().getMisses()).isEqualTo(1);
+
+        logger.info("TC606 PASSED: Statement reused from cache");
+    }
+
+    @Test
+    @DisplayName("TC607: Statement cache melakukan LRU eviction ketika penuh")
+    void testStatementCacheEvictsLeastRecentlyUsed() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().maxOpenPreparedStatements(2).build());
+
+        // ACT
+        try (Connection connection = pool.getConnection()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 1").close(); // SELECT 2 jadi least recently used
+            connection.prepareStatement("SELECT 3").close(); // evict SELECT 2
+            connection.prepareStatement("SELECT 1").close();
+        }
+
+        // ASSERT
+        assertThat(pool.getStatementCacheStats().getEvictions()).isEqualTo(1);
+        assertThat(pool.getStatementCacheStats().getHits()).isEqualTo(2);
+        verify(physicalConnections.get(0), times(1)).prepareStatement("SELECT 1");
+
+        logger.info("TC607 PASSED: LRU eviction works");
+    }
+
+    @Test
+    @DisplayName("TC608: Laporan koneksi aktif berisi hold time, statement dan ResultSet yang terbuka")
+    void testActiveConnectionReportTracksOpenResources() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().leakDetectionThresholdMillis(1).build());
+        Connection connection = pool.getConnection();
+        PreparedStatement pstmt = connection.prepareStatement("SELECT * FROM users WHERE user_id = ?");
+        pstmt.executeQuery(); // ResultSet sengaja tidak ditutup, seperti di DAO
+        pause(5);
+
+        // ACT
+        List<ConnectionUsage> report = pool.getActiveConnectionUsages();
+
+        // ASSERT
+        assertThat(report).hasSize(1);
+        ConnectionUsage usage = report.get(0);
+        assertThat(usage.getOpenStatements()).isEqualTo(1);
+        assertThat(usage.getOpenResultSets()).isEqualTo(1);
+        assertThat(usage.isLeakSuspected()).isTrue();
+        assertThat(usage.getAcquiredStackTrace()).isNotEmpty();
+        assertThat(usage.getThreadName()).isEqualTo(Thread.currentThread().getName());
+
+        // Menutup statement ikut menutup ResultSet-nya
+        pstmt.close();
+        assertThat(pool.getActiveConnectionUsages().get(0).getOpenResultSets()).isZero();
+        connection.close();
+        assertThat(pool.getActiveConnectionUsages()).isEmpty();
+
+        logger.info("TC608 PASSED: " + usage);
+    }
+
+    @Test
+    @DisplayName("TC609: Koneksi yang tidak pernah di-close diambil kembali oleh pool")
+    void testLeakedConnectionIsReclaimed() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder()
+                .initialSize(0).maxTotal(1).maxIdle(1).minIdle(0)
+                .maxWaitMillis(50)
+                .build());
+        leakConnection();
+
+        // ACT - tunggu GC menemukan proxy yang tidak direferensikan lagi
+        for (int i = 0; i < 50 && pool.getLeaksReclaimed() == 0; i++) {
+            System.gc();
+            pause(20);
+        }
+
+        // ASSERT
+        assertThat(pool.getLeaksReclaimed()).isEqualTo(1);
+        assertThatCode(() -> pool.getConnection().close()).doesNotThrowAnyException();
+
+        logger.info("TC609 PASSED: Leaked connection reclaimed");
+    }
+
+    @Test
+    @DisplayName("TC610: Metrics snapshot dan MBean mencatat acquire, timeout, dan pembuatan koneksi")
+    void testMetricsSnapshotAndMBean() throws Exception {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder()
+                .initialSize(0).maxTotal(1).maxIdle(1).minIdle(0)
+                .maxWaitMillis(20)
+                .build());
+        pool.registerMBean();
+
+        // ACT
+        Connection held = pool.getConnection();
+        assertThatThrownBy(pool::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        held.close();
+        pool.getConnection().close();
+        PoolMetricsSnapshot snapshot = pool.getMetricsSnapshot();
+
+        // ASSERT
+        assertThat(snapshot.getAcquireCount()).isEqualTo(2);
+        assertThat(snapshot.getAcquireTimeouts()).isEqualTo(1);
+        assertThat(snapshot.getConnectionsCreated()).isEqualTo(1);
+        assertThat(snapshot.getConnectionCreationFailures()).isZero();
+        assertThat(snapshot.getIdleConnections()).isEqualTo(1);
+        assertThat(snapshot.getAcquireWaitBucketCounts()).hasSameSizeAs(snapshot.getAcquireWaitBucketBoundsMicros());
+
+        ObjectName objectName = new ObjectName(
+                "com.praktikum.database.testing.library:type=ConnectionPool,name=\"test\"");
+        Object acquireCount = ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "AcquireCount");
+        assertThat(acquireCount).isEqualTo(2L);
+
+        logger.info("TC610 PASSED: " + snapshot);
+    }
+
+    @Test
+    @DisplayName("TC611: Reconfigure mengubah maxTotal secara live tanpa menutup pool")
+    void testReconfigureResizesPoolLive() throws SQLException {
+        // ARRANGE
+        PoolSettings small = PoolSettings.builder()
+                .initialSize(0).maxTotal(1).maxIdle(1).minIdle(0)
+                .maxWaitMillis(20)
+                .build();
+        pool = createPool(small);
+        Connection first = pool.getConnection();
+        assertThatThrownBy(pool::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        // ACT: naikkan maxTotal, lalu turunkan lagi saat dua koneksi masih dipinjam
+        pool.reconfigure(null, small.toBuilder().maxTotal(2).maxIdle(2).build());
+        Connection second = pool.getConnection();
+        pool.reconfigure(null, small);
+        second.close();
+
+        // ASSERT: koneksi berlebih dikembalikan, tapi maxTotal 1 tetap berlaku
+        assertThatThrownBy(pool::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        first.close();
+        pool.getConnection().close();
+        assertThat(pool.getSettings().getMaxTotal()).isEqualTo(1);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+        assertThat(pool.isClosed()).isFalse();
+
+        logger.info("TC611 PASSED: Pool resized live");
+    }
+
+    @Test
+    @DisplayName("TC612: Factory baru dari reload, koneksi lama di-drain secara graceful")
+    void testReconfigureDrainsOldConnections() throws SQLException {
+        // ARRANGE
+        pool = createPool(PoolSettings.builder().initialSize(0).minIdle(0).build());
+        Connection active = pool.getConnection();
+        Connection oldPhysical = active.unwrap(Connection.class);
+        pool.getConnection().close(); // satu koneksi lama idle
+        List<Connection> newFactoryConnections = new ArrayList<>();
+
+        // ACT
+        pool.reconfigure(() -> {
+            Connection connection = createMockConnection();
+            newFactoryConnections.add(connection);
+            return connection;
+        }, pool.getSettings());
+
+        // ASSERT: idle lama langsung ditutup, koneksi aktif lama tetap bisa dipakai sampai close()
+        assertThat(pool.getIdleCount()).isZero();
+        assertThat(active.isClosed()).isFalse();
+        active.prepareStatement("SELECT 1").close();
+        active.close();
+        verify(oldPhysical).close();
+        assertThat(pool.getIdleCount()).isZero();
+
+        Connection fresh = pool.getConnection();
+        assertThat(fresh.unwrap(Connection.class)).isIn(newFactoryConnections);
+        fresh.close();
+
+        logger.info("TC612 PASSED: Old connections drained");
+    }
+
+    @Test
+    @DisplayName("TC613: fill() dan getConnection() bersamaan tidak membuka koneksi fisik melebihi maxTotal")
+    void testConcurrentFillAndBorrowRespectMaxTotal() throws Exception {
+        // ARRANGE - factory lambat supaya fill() dan borrower saling tumpang tindih
+        int maxTotal = 4;
+        AtomicInteger openPhysical = new AtomicInteger();
+        AtomicInteger maxOpenPhysical = new AtomicInteger();
+        pool = new ConnectionPool("test", () -> {
+            pause(5);
+            Connection connection = createMockConnection();
+            maxOpenPhysical.accumulateAndGet(openPhysical.incrementAndGet(), Math::max);
+            doAnswer(invocation -> openPhysical.decrementAndGet()).when(connection).close();
+            return connection;
+        }, PoolSettings.builder()
+                .initialSize(0).minIdle(0).maxTotal(maxTotal).maxIdle(maxTotal)
+                .maxWaitMillis(5_000)
+                .build());
+        ExecutorService executor = Executors.newFixedThreadPool(maxTotal + 1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // ACT - satu thread mengisi pool, thread lain meminjam dan mengembalikan koneksi berulang kali
+        try {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    pool.fill(maxTotal);
+                }
+            }));
+            for (int t = 0; t < maxTotal; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        try (Connection connection = pool.getConnection()) {
+                            assertThat(pool.getTotalCount()).isLessThanOrEqualTo(maxTotal);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // ASSERT
+        assertThat(pool.getTotalCount()).isLessThanOrEqualTo(maxTotal);
+        assertThat(maxOpenPhysical.get()).isLessThanOrEqualTo(maxTotal);
+
+        logger.info("TC613 PASSED: Max open physical connections " + maxOpenPhysical.get());
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private ConnectionPool createPool(PoolSettings settings) {
+        return new ConnectionPool("test", this::createMockConnection, settings);
+    }
+
+    private void leakConnection() throws SQLException {
+        pool.getConnection(); // sengaja tidak di-close
+    }
+
+    private void pause(long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Connection createMockConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            PreparedStatement pstmt = mock(PreparedStatement.class);
+            when(pstmt.executeQuery()).thenAnswer(query -> mock(ResultSet.class));
+            return pstmt;
+        });
+        physicalConnections.add(connection);
+        return connection;
+    }
+}
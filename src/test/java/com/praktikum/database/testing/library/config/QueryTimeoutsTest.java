@@ -0,0 +1,179 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+import org.postgresql.jdbc.PgStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk QueryTimeouts dan Deadline
+ * Statement berasal dari Mockito sehingga tidak membutuhkan database
+ */
+@DisplayName("QueryTimeouts Test Suite")
+public class QueryTimeoutsTest {
+    private static final Logger logger = Logger.getLogger(QueryTimeoutsTest.class.getName());
+
+    private final QueryTimeouts queryTimeouts = new QueryTimeouts(20_000,
+            Map.of("BookDAO.searchByTitle", 5_000L, "BorrowingService.borrowBook", 1_500L));
+
+    @Test
+    @DisplayName("TC651: Timeout per DAO method dipasang lewat setQueryTimeout")
+    void testOperationTimeoutApplied() throws SQLException {
+        // ARRANGE
+        PreparedStatement search = mock(PreparedStatement.class);
+        PreparedStatement findById = mock(PreparedStatement.class);
+
+        // ACT
+        queryTimeouts.applyTo(search, "BookDAO.searchByTitle");
+        queryTimeouts.applyTo(findById, "BookDAO.findById");
+
+        // ASSERT
+        verify(search).setQueryTimeout(5);
+        verify(findById).setQueryTimeout(20);
+
+        logger.info("TC651 PASSED: Per-operation timeouts applied");
+    }
+
+    @Test
+    @DisplayName("TC652: Deadline service memperpendek timeout dan menolak query setelah lewat")
+    void testServiceDeadlinePropagatesToStatements() throws Exception {
+        // ARRANGE
+        PreparedStatement insideDeadline = mock(PreparedStatement.class);
+        PreparedStatement afterDeadline = mock(PreparedStatement.class);
+
+        // ACT & ASSERT
+        try (Deadline.Scope deadline = Deadline.within(
+                queryTimeouts.getTimeoutMillis("BorrowingService.borrowBook"))) {
+            queryTimeouts.applyTo(insideDeadline, "BookDAO.searchByTitle");
+            verify(insideDeadline).setQueryTimeout(2);
+
+            Thread.sleep(1_600);
+            assertThatThrownBy(() -> queryTimeouts.applyTo(afterDeadline, "BookDAO.findById"))
+                    .isInstanceOf(SQLTimeoutException.class)
+                    .satisfies(e -> assertThat(((SQLException) e).getSQLState()).isEqualTo("57014"));
+        }
+
+        verify(afterDeadline).close();
+        assertThat(queryTimeouts.getTimeoutCount("BookDAO.findById")).isEqualTo(1);
+        assertThat(Deadline.isActive()).isFalse();
+
+        logger.info("TC652 PASSED: Deadline propagated, counts " + queryTimeouts.getTimeoutCounts());
+    }
+
+    @Test
+    @DisplayName("TC653: Query yang dibatalkan server (57014) dihitung per method")
+    void testCanceledQueryCountedPerOperation() throws SQLException {
+        // ARRANGE
+        ConnectionPool pool = new ConnectionPool("test", () -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+                PreparedStatement pstmt = mock(PreparedStatement.class);
+                when(pstmt.executeQuery()).thenThrow(
+                        new SQLException("canceling statement due to user request", "57014"));
+                return pstmt;
+            });
+            return connection;
+        }, PoolSettings.builder().initialSize(0).minIdle(0).build());
+
+        // ACT
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = queryTimeouts.applyTo(
+                     conn.prepareStatement("SELECT * FROM books WHERE title LIKE ?"), "BookDAO.searchByTitle")) {
+            assertThatThrownBy(pstmt::executeQuery).isInstanceOf(SQLException.class);
+        } finally {
+            pool.close();
+        }
+
+        // ASSERT
+        assertThat(queryTimeouts.getTimeoutCount("BookDAO.searchByTitle")).isEqualTo(1);
+        assertThat(queryTimeouts.getTimeoutCounts()).containsEntry("BookDAO.searchByTitle", 1L);
+
+        logger.info("TC653 PASSED: Timeout counted for BookDAO.searchByTitle");
+    }
+
+    @Test
+    @DisplayName("TC654: Deadline di bawah satu detik dipasang dalam milidetik ke statement pgjdbc")
+    void testSubSecondDeadlineUsesMillisecondTimeout() throws SQLException {
+        // ARRANGE
+        PreparedStatement statement = mock(PreparedStatement.class);
+        PgStatement pgStatement = mock(PgStatement.class);
+        when(statement.isWrapperFor(PgStatement.class)).thenReturn(true);
+        when(statement.unwrap(PgStatement.class)).thenReturn(pgStatement);
+
+        // ACT
+        try (Deadline.Scope deadline = Deadline.within(300)) {
+            queryTimeouts.applyTo(statement, "BookDAO.findById");
+        }
+
+        // ASSERT - bukan dibulatkan ke 1 detik
+        verify(pgStatement).setQueryTimeoutMs(longThat(millis -> millis > 0 && millis <= 300));
+        verify(statement, never()).setQueryTimeout(anyInt());
+
+        logger.info("TC654 PASSED: Sub-second deadline applied in milliseconds");
+    }
+
+    @Test
+    @DisplayName("TC655: Waktu tunggu bulkhead, limiter dan pool dibatasi sisa deadline")
+    void testAcquireWaitsBoundedByDeadline() throws Exception {
+        // ARRANGE - semua resource penuh dengan maxWait 5 detik
+        ConnectionPool pool = new ConnectionPool("test", () -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            return connection;
+        }, PoolSettings.builder().initialSize(0).minIdle(0).maxTotal(1).maxIdle(1).maxWaitMillis(5_000).build());
+        Bulkhead bulkhead = new Bulkhead(WorkloadClass.OLTP, 1, 5, 5_000);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", LimiterSettings.builder()
+                .initialLimit(2).minLimit(2).maxLimit(2).maxQueue(5).maxWaitMillis(5_000).build());
+        ConnectionFactory unlimited = () -> mock(Connection.class);
+
+        try (Connection held = bulkhead.getConnection(pool::getConnection);
+             Connection first = limiter.getConnection(unlimited);
+             Connection second = limiter.getConnection(unlimited)) {
+
+            // ACT & ASSERT - setiap tunggu berhenti di deadline 200 ms, bukan maxWait
+            assertFailsWithinDeadline(pool::getConnection);
+            assertFailsWithinDeadline(() -> bulkhead.getConnection(unlimited));
+            assertFailsWithinDeadline(() -> limiter.getConnection(unlimited));
+
+            // Deadline yang sudah habis langsung ditolak tanpa menunggu
+            try (Deadline.Scope deadline = Deadline.within(1)) {
+                Thread.sleep(5);
+                assertThatThrownBy(() -> limiter.getConnection(unlimited)).isInstanceOf(SQLTimeoutException.class);
+            }
+        } finally {
+            pool.close();
+        }
+
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+        assertThat(limiter.getRejectedCount()).isEqualTo(2);
+
+        logger.info("TC655 PASSED: Acquire waits bounded by deadline");
+    }
+
+    private void assertFailsWithinDeadline(ConnectionFactory acquire) {
+        long startNanos = System.nanoTime();
+        try (Deadline.Scope deadline = Deadline.within(200)) {
+            assertThatThrownBy(acquire::createConnection)
+                    .isInstanceOf(SQLTimeoutException.class)
+                    .satisfies(e -> assertThat(((SQLException) e).getSQLState()).isEqualTo("57014"));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).isBetween(150L, 2_000L);
+    }
+}
@@ -0,0 +1,177 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk ReplicaRouter
+ * Setiap endpoint (primary, replica-0, replica-1) memakai koneksi Mockito
+ * yang dicatat asal endpoint-nya, sehingga routing bisa diverifikasi tanpa database
+ */
+@DisplayName("ReplicaRouter Test Suite")
+public class ReplicaRouterTest {
+    private static final Logger logger = Logger.getLogger(ReplicaRouterTest.class.getName());
+
+    // Koneksi fisik -> nama endpoint yang membuatnya
+    private Map<Connection, String> endpoints;
+    private List<ConnectionPool> pools;
+
+    @BeforeEach
+    void setUp() {
+        endpoints = new IdentityHashMap<>();
+        pools = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(ConnectionPool::close);
+    }
+
+    @Test
+    @DisplayName("TC621: Round robin membagi read bergiliran ke setiap replica")
+    void testRoundRobinAlternatesReplicas() throws SQLException {
+        // ARRANGE
+        ReplicaRouter router = createRouter(ReplicaRouter.LoadBalancing.ROUND_ROBIN, false);
+
+        // ACT
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            try (Connection conn = router.getReadConnection()) {
+                used.add(endpointOf(conn));
+            }
+        }
+
+        // ASSERT
+        assertThat(used).containsExactly("replica-0", "replica-1", "replica-0", "replica-1");
+
+        logger.info("TC621 PASSED: Reads routed " + used);
+    }
+
+    @Test
+    @DisplayName("TC622: Least loaded memilih replica dengan koneksi aktif paling sedikit")
+    void testLeastLoadedPicksIdleReplica() throws SQLException {
+        // ARRANGE
+        ReplicaRouter router = createRouter(ReplicaRouter.LoadBalancing.LEAST_LOADED, false);
+        Connection first = router.getReadConnection();
+        String busyReplica = endpointOf(first);
+
+        // ACT
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = router.getReadConnection()) {
+                used.add(endpointOf(conn));
+            }
+        }
+        first.close();
+
+        // ASSERT
+        assertThat(used).hasSize(3).doesNotContain(busyReplica);
+
+        logger.info("TC622 PASSED: Busy " + busyReplica + ", reads routed " + used);
+    }
+
+    @Test
+    @DisplayName("TC623: Write dan read di dalam pinToPrimary tetap ke primary")
+    void testWritesAndPinnedReadsUsePrimary() throws SQLException {
+        // ARRANGE
+        ReplicaRouter router = createRouter(ReplicaRouter.LoadBalancing.ROUND_ROBIN, false);
+
+        // ACT
+        String writeEndpoint;
+        try (Connection conn = router.getWriteConnection()) {
+            writeEndpoint = endpointOf(conn);
+        }
+        String pinnedEndpoint;
+        try (ReplicaRouter.PrimaryScope scope = ReplicaRouter.pinToPrimary();
+             Connection conn = router.getReadConnection()) {
+            pinnedEndpoint = endpointOf(conn);
+        }
+        String readEndpoint;
+        try (Connection conn = router.getReadConnection()) {
+            readEndpoint = endpointOf(conn);
+            verify(conn.unwrap(Connection.class)).setReadOnly(true);
+        }
+
+        // ASSERT
+        assertThat(writeEndpoint).isEqualTo("primary");
+        assertThat(pinnedEndpoint).isEqualTo("primary");
+        assertThat(readEndpoint).startsWith("replica-");
+        assertThat(ReplicaRouter.isPinnedToPrimary()).isFalse();
+
+        logger.info("TC623 PASSED: Writes and pinned reads stay on primary");
+    }
+
+    @Test
+    @DisplayName("TC624: Read fallback ke replica lain lalu ke primary jika replica down")
+    void testFallbackWhenReplicaDown() throws SQLException {
+        // ARRANGE
+        ReplicaRouter router = createRouter(ReplicaRouter.LoadBalancing.ROUND_ROBIN, true);
+
+        // ACT
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            try (Connection conn = router.getReadConnection()) {
+                used.add(endpointOf(conn));
+            }
+        }
+
+        // ASSERT - replica-0 down, semua read dilayani replica-1
+        assertThat(used).containsOnly("replica-1");
+
+        logger.info("TC624 PASSED: Reads routed " + used);
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private ReplicaRouter createRouter(ReplicaRouter.LoadBalancing loadBalancing,
+                                       boolean firstReplicaDown) {
+        ConnectionPool primary = createPool("primary", false);
+        List<ConnectionPool> replicas = List.of(
+                createPool("replica-0", firstReplicaDown),
+                createPool("replica-1", false));
+        return new ReplicaRouter(primary, replicas, loadBalancing);
+    }
+
+    private ConnectionPool createPool(String endpoint, boolean down) {
+        PoolSettings settings = PoolSettings.builder()
+                .initialSize(0).minIdle(0).maxTotal(4).maxIdle(4)
+                .maxWaitMillis(100)
+                .build();
+        ConnectionPool pool = new ConnectionPool(endpoint, () -> {
+            if (down) {
+                throw new SQLNonTransientConnectionException("Connection refused", "08001");
+            }
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            synchronized (endpoints) {
+                endpoints.put(connection, endpoint);
+            }
+            return connection;
+        }, settings);
+        pools.add(pool);
+        return pool;
+    }
+
+    private String endpointOf(Connection logical) throws SQLException {
+        synchronized (endpoints) {
+            return endpoints.get(logical.unwrap(Connection.class));
+        }
+    }
+}
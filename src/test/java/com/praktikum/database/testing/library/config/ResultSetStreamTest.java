@@ -0,0 +1,77 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk ResultSetStream dengan Mockito ResultSet
+ */
+@DisplayName("ResultSetStream Test Suite")
+public class ResultSetStreamTest {
+    private static final Logger logger = Logger.getLogger(ResultSetStreamTest.class.getName());
+
+    @Test
+    @DisplayName("TC711: Baris dibaca lazy dan semua resource ditutup saat stream ditutup")
+    void testLazyMappingAndClose() throws SQLException {
+        // ARRANGE
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getInt(1)).thenReturn(1, 2, 3);
+
+        // ACT
+        List<Integer> firstTwo;
+        try (Stream<Integer> rows = ResultSetStream.of(connection, statement, rs, row -> row.getInt(1), "Test.stream")) {
+            firstTwo = rows.limit(2).collect(Collectors.toList());
+
+            // ASSERT - limit(2) tidak membaca baris ketiga, resource belum ditutup
+            verify(rs, times(2)).next();
+            verify(connection, never()).close();
+        }
+
+        // ASSERT
+        assertThat(firstTwo).containsExactly(1, 2);
+        var order = inOrder(rs, statement, connection);
+        order.verify(rs).close();
+        order.verify(statement).close();
+        order.verify(connection).close();
+
+        logger.info("TC711 PASSED: Lazy stream closed resources");
+    }
+
+    @Test
+    @DisplayName("TC712: SQLException saat fetch dilempar sebagai UncheckedSQLException")
+    void testFetchErrorIsUnchecked() throws SQLException {
+        // ARRANGE
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true).thenThrow(new SQLException("connection reset", "08006"));
+        when(rs.getInt(1)).thenReturn(1);
+
+        // ACT & ASSERT
+        try (Stream<Integer> rows = ResultSetStream.of(connection, statement, rs, row -> row.getInt(1), "Test.stream")) {
+            assertThatThrownBy(() -> rows.forEach(row -> { }))
+                    .isInstanceOf(UncheckedSQLException.class)
+                    .hasMessageContaining("Test.stream")
+                    .satisfies(e -> assertThat(((UncheckedSQLException) e).getCause().getSQLState()).isEqualTo("08006"));
+        }
+        verify(connection).close();
+
+        logger.info("TC712 PASSED: Fetch error wrapped");
+    }
+}
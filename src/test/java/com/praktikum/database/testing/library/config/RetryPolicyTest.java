@@ -0,0 +1,128 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Import static assertions
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit test untuk RetryPolicy
+ * Operasi disimulasikan dengan lambda yang melempar SQLException dengan SQLState tertentu
+ */
+@DisplayName("RetryPolicy Test Suite")
+public class RetryPolicyTest {
+    private static final Logger logger = Logger.getLogger(RetryPolicyTest.class.getName());
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(RetrySettings.builder()
+            .maxAttempts(3)
+            .initialBackoffMillis(5)
+            .maxBackoffMillis(20)
+            .build());
+
+    @Test
+    @DisplayName("TC661: Serialization failure (40001) dan deadlock (40P01) di-retry sampai berhasil")
+    void testRetryableSqlStateRecovers() throws SQLException {
+        // ARRANGE
+        AtomicInteger attempts = new AtomicInteger();
+
+        // ACT
+        String result = retryPolicy.execute("BookDAO.findById", () -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                throw new SQLException("could not serialize access", "40001");
+            }
+            if (attempt == 2) {
+                throw new SQLException("deadlock detected", "40P01");
+            }
+            return "ok";
+        });
+
+        // ASSERT
+        RetryStats stats = retryPolicy.getStats("BookDAO.findById");
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(stats.getCalls()).isEqualTo(1);
+        assertThat(stats.getRetries()).isEqualTo(2);
+        assertThat(stats.getRecoveredCalls()).isEqualTo(1);
+        assertThat(stats.getExhaustedCalls()).isZero();
+
+        logger.info("TC661 PASSED: " + stats);
+    }
+
+    @Test
+    @DisplayName("TC662: Error non-retryable (unique violation, pool penuh) langsung dilempar")
+    void testNonRetryableFailsImmediately() {
+        // ARRANGE
+        AtomicInteger attempts = new AtomicInteger();
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> retryPolicy.execute("UserDAO.findByUsername", () -> {
+            attempts.incrementAndGet();
+            throw new SQLException("duplicate key value", "23505");
+        })).hasMessageContaining("duplicate key");
+        assertThatThrownBy(() -> retryPolicy.execute("UserDAO.findByUsername", () -> {
+            attempts.incrementAndGet();
+            throw new SQLTransientConnectionException("Timeout menunggu koneksi", "08001");
+        })).isInstanceOf(SQLTransientConnectionException.class);
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(retryPolicy.getStats("UserDAO.findByUsername").getRetries()).isZero();
+
+        logger.info("TC662 PASSED: Non-retryable errors not retried");
+    }
+
+    @Test
+    @DisplayName("TC663: Retry berhenti setelah maxAttempts dan waktu retry tercatat")
+    void testRetriesExhausted() {
+        // ARRANGE
+        AtomicInteger attempts = new AtomicInteger();
+        SQLException connectionReset = new SQLException("An I/O error occurred", "08006");
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> retryPolicy.execute("BookDAO.countAll", () -> {
+            attempts.incrementAndGet();
+            throw connectionReset;
+        })).isSameAs(connectionReset);
+
+        RetryStats stats = retryPolicy.getStats("BookDAO.countAll");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(stats.getRetries()).isEqualTo(2);
+        assertThat(stats.getExhaustedCalls()).isEqualTo(1);
+        assertThat(retryPolicy.getAllStats()).containsKey("BookDAO.countAll");
+
+        logger.info("TC663 PASSED: " + stats);
+    }
+
+    @Test
+    @DisplayName("TC664: Operasi nested hanya di-retry oleh level terluar (transaksi)")
+    void testNestedOperationsRetriedOnlyAtOuterLevel() throws SQLException {
+        // ARRANGE
+        AtomicInteger innerAttempts = new AtomicInteger();
+        AtomicInteger outerAttempts = new AtomicInteger();
+
+        // ACT
+        int result = retryPolicy.execute("BorrowingService.borrowBook", () -> {
+            outerAttempts.incrementAndGet();
+            return retryPolicy.execute("BookDAO.findById", () -> {
+                if (innerAttempts.incrementAndGet() < 3) {
+                    throw new SQLException("deadlock detected", "40P01");
+                }
+                return 42;
+            });
+        });
+
+        // ASSERT
+        assertThat(result).isEqualTo(42);
+        assertThat(outerAttempts.get()).isEqualTo(3);
+        assertThat(innerAttempts.get()).isEqualTo(3);
+        assertThat(retryPolicy.getStats("BorrowingService.borrowBook").getRetries()).isEqualTo(2);
+
+        logger.info("TC664 PASSED: Nested retry handled by outer transaction");
+    }
+}
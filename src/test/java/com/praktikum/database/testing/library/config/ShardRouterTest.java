@@ -0,0 +1,238 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk ConsistentHashRing dan ShardRouter
+ * Setiap shard memakai ConnectionPool dengan Mockito Connection, jadi tidak butuh database;
+ * TC695 berjalan terhadap dua schema (shard_test_0, shard_test_1) di database test
+ */
+@DisplayName("ShardRouter Test Suite")
+public class ShardRouterTest {
+    private static final Logger logger = Logger.getLogger(ShardRouterTest.class.getName());
+
+    private ShardRouter router;
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.close();
+        }
+    }
+
+    @Test
+    @DisplayName("TC691: Hash ring membagi user_id cukup rata dan deterministik")
+    void testRingDistribution() {
+        // ARRANGE
+        ConsistentHashRing<Integer> ring = ring(4);
+        int[] counts = new int[4];
+
+        // ACT
+        for (int userId = 1; userId <= 10_000; userId++) {
+            counts[ring.nodeFor(Integer.toString(userId))]++;
+        }
+
+        // ASSERT
+        for (int count : counts) {
+            assertThat(count).isBetween(1_500, 3_500);
+        }
+        assertThat(ring(4).nodeFor("42")).isEqualTo(ring.nodeFor("42"));
+
+        logger.info("TC691 PASSED: distribution " + Arrays.toString(counts));
+    }
+
+    @Test
+    @DisplayName("TC692: Menambah shard hanya memindahkan sebagian kecil key ke shard baru")
+    void testAddingShardMovesFewKeys() {
+        // ARRANGE
+        ConsistentHashRing<Integer> before = ring(4);
+        ConsistentHashRing<Integer> after = ring(5);
+        int moved = 0;
+
+        // ACT & ASSERT
+        for (int userId = 1; userId <= 10_000; userId++) {
+            String key = Integer.toString(userId);
+            int oldShard = before.nodeFor(key);
+            int newShard = after.nodeFor(key);
+            if (oldShard != newShard) {
+                moved++;
+                assertThat(newShard).isEqualTo(4);
+            }
+        }
+        assertThat(moved).isBetween(1_000, 3_000);
+
+        logger.info("TC692 PASSED: " + moved + " of 10000 keys moved");
+    }
+
+    @Test
+    @DisplayName("TC693: Koneksi untuk user_id dipinjam dari shard pemilik")
+    void testRoutesByUserId() throws SQLException {
+        // ARRANGE
+        Map<Integer, List<Connection>> created = new HashMap<>();
+        router = createRouter(3, created);
+
+        // ACT & ASSERT
+        for (int userId = 1; userId <= 30; userId++) {
+            int shard = router.shardFor(userId);
+            try (Connection connection = router.getConnection(userId)) {
+                assertThat(created.get(shard)).contains(connection.unwrap(Connection.class));
+            }
+        }
+        assertThat(router.getShard(7)).isSameAs(router.getShards().get(router.shardFor(7)));
+
+        logger.info("TC693 PASSED: Routed by user_id");
+    }
+
+    @Test
+    @DisplayName("TC694: Scatter-gather berjalan paralel dan error shard dilempar ke caller")
+    void testScatterGatherParallel() throws SQLException {
+        // ARRANGE
+        router = createRouter(3, new ConcurrentHashMap<>());
+        CountDownLatch allShardsStarted = new CountDownLatch(3);
+
+        // ACT: setiap shard menunggu shard lain mulai, hanya selesai jika benar-benar paralel
+        List<Boolean> results = router.scatterGather(connection -> {
+            allShardsStarted.countDown();
+            try {
+                return allShardsStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        List<Integer> merged = ShardRouter.merge(Arrays.asList(
+                Arrays.asList(1, 4), Arrays.asList(2, 5), Arrays.asList(3)), Comparator.naturalOrder());
+
+        // ASSERT
+        assertThat(results).containsExactly(true, true, true);
+        assertThat(merged).containsExactly(1, 2, 3, 4, 5);
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> router.scatterGather(connection -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new SQLException("relation does not exist", "42P01");
+            }
+            return 1;
+        })).isInstanceOf(SQLException.class).hasMessageContaining("does not exist");
+        assertThat(calls.get()).isEqualTo(3);
+
+        logger.info("TC694 PASSED: Scatter-gather parallel");
+    }
+
+    @Test
+    @DisplayName("TC695: Routing dan scatter-gather terhadap dua schema shard di database test")
+    void testRoutingAgainstTwoSchemaShards() throws SQLException {
+        // ARRANGE - setiap shard adalah schema terpisah di database test (currentSchema di URL)
+        List<String> schemas = Arrays.asList("shard_test_0", "shard_test_1");
+        List<ConnectionPool> shards = new ArrayList<>();
+        try (Connection admin = DriverManager.getConnection(DatabaseConfig.getDbUrl(),
+                DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+             Statement stmt = admin.createStatement()) {
+            for (String schema : schemas) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                stmt.execute("CREATE SCHEMA " + schema);
+                stmt.execute("CREATE TABLE " + schema + ".shard_probe (user_id INTEGER PRIMARY KEY)");
+                String shardUrl = DatabaseConfig.getDbUrl()
+                        + (DatabaseConfig.getDbUrl().contains("?") ? "&" : "?") + "currentSchema=" + schema;
+                shards.add(new ConnectionPool(ShardRouter.shardName(shards.size()),
+                        () -> DriverManager.getConnection(shardUrl,
+                                DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword()),
+                        PoolSettings.builder().initialSize(0).minIdle(0).build()));
+            }
+        }
+        router = new ShardRouter(shards, 128);
+
+        try {
+            // ACT - write per user_id ke shard pemilik, lalu baca semua shard paralel
+            for (int userId = 1; userId <= 40; userId++) {
+                try (Connection connection = router.getConnection(userId);
+                     Statement stmt = connection.createStatement()) {
+                    stmt.executeUpdate("INSERT INTO shard_probe (user_id) VALUES (" + userId + ")");
+                }
+            }
+            List<List<Integer>> perShard = router.scatterGather(connection -> {
+                List<Integer> userIds = new ArrayList<>();
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT user_id FROM shard_probe ORDER BY user_id")) {
+                    while (rs.next()) {
+                        userIds.add(rs.getInt(1));
+                    }
+                }
+                return userIds;
+            });
+
+            // ASSERT - setiap row hanya ada di shard pemiliknya, dan kedua shard terpakai
+            assertThat(perShard).hasSize(2);
+            for (int shard = 0; shard < perShard.size(); shard++) {
+                assertThat(perShard.get(shard)).isNotEmpty();
+                for (int userId : perShard.get(shard)) {
+                    assertThat(router.shardFor(userId)).isEqualTo(shard);
+                }
+            }
+            assertThat(ShardRouter.merge(perShard, Comparator.naturalOrder())).hasSize(40).doesNotHaveDuplicates();
+
+            logger.info("TC695 PASSED: " + perShard.get(0).size() + "/" + perShard.get(1).size() + " rows per shard");
+        } finally {
+            router.close();
+            router = null;
+            try (Connection admin = DriverManager.getConnection(DatabaseConfig.getDbUrl(),
+                    DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+                 Statement stmt = admin.createStatement()) {
+                for (String schema : schemas) {
+                    stmt.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                }
+            }
+        }
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private static ConsistentHashRing<Integer> ring(int shards) {
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < shards; i++) {
+            nodes.put(ShardRouter.shardName(i), i);
+        }
+        return new ConsistentHashRing<>(nodes, 128);
+    }
+
+    private static ShardRouter createRouter(int shardCount, Map<Integer, List<Connection>> created) {
+        List<ConnectionPool> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            shards.add(new ConnectionPool(ShardRouter.shardName(i), () -> {
+                Connection connection = mock(Connection.class);
+                when(connection.isValid(anyInt())).thenReturn(true);
+                when(connection.getAutoCommit()).thenReturn(true);
+                created.computeIfAbsent(shard, key -> new CopyOnWriteArrayList<>()).add(connection);
+                return connection;
+            }, PoolSettings.builder().initialSize(0).minIdle(0).build()));
+        }
+        return new ShardRouter(shards, 128);
+    }
+}
@@ -0,0 +1,142 @@
+package com.praktikum.database.testing.library.config;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+// Import static assertions dan Mockito
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test untuk StatementWarmer dan SqlRegistry
+ * Koneksi fisik adalah Mockito Connection, jadi tidak butuh database
+ */
+@DisplayName("StatementWarmer Test Suite")
+public class StatementWarmerTest {
+    private static final Logger logger = Logger.getLogger(StatementWarmerTest.class.getName());
+
+    private static final SqlStatement FIND_BY_ID = SqlStatement.builder()
+            .operation("BookDAO.findById")
+            .sql("SELECT * FROM books WHERE book_id = ?")
+            .readOnly(true)
+            .sampleParameters(Arrays.asList(1))
+            .build();
+
+    private static final SqlStatement DELETE = SqlStatement.builder()
+            .operation("BookDAO.delete")
+            .sql("DELETE FROM books WHERE book_id = ?")
+            .readOnly(false)
+            .build();
+
+    private final List<Connection> physicalConnections = new CopyOnWriteArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("TC701: Semua koneksi idle di-warm, lookup dieksekusi dan statement write hanya di-describe")
+    void testWarmsEveryIdleConnection() throws SQLException {
+        // ARRANGE
+        pool = createPool(null);
+        pool.fill(3);
+
+        // ACT
+        WarmupReport report = StatementWarmer.warmUp(pool, Arrays.asList(FIND_BY_ID, DELETE), 2);
+
+        // ASSERT
+        assertThat(report.getConnections()).isEqualTo(3);
+        assertThat(report.getStatementsPrepared()).isEqualTo(6);
+        assertThat(report.getLookupsExecuted()).isEqualTo(6);
+        assertThat(report.getFailures()).isZero();
+        assertThat(physicalConnections).hasSize(3);
+        for (Connection physical : physicalConnections) {
+            verify(physical).prepareStatement(FIND_BY_ID.getSql());
+            verify(physical).prepareStatement(DELETE.getSql());
+        }
+        assertThat(pool.getIdleCount()).isEqualTo(3);
+        assertThat(pool.getActiveCount()).isZero();
+
+        logger.info("TC701 PASSED: " + report);
+    }
+
+    @Test
+    @DisplayName("TC702: Statement yang gagal dihitung sebagai failure tanpa menghentikan warm-up")
+    void testFailureDoesNotStopWarmup() throws SQLException {
+        // ARRANGE
+        pool = createPool(DELETE.getSql());
+        pool.fill(2);
+
+        // ACT
+        WarmupReport report = StatementWarmer.warmUp(pool, Arrays.asList(DELETE, FIND_BY_ID), 0);
+
+        // ASSERT
+        assertThat(report.getConnections()).isEqualTo(2);
+        assertThat(report.getFailures()).isEqualTo(2);
+        assertThat(report.getStatementsPrepared()).isEqualTo(2);
+        assertThat(report.getLookupsExecuted()).isZero();
+        assertThat(pool.getActiveCount()).isZero();
+
+        logger.info("TC702 PASSED: " + report);
+    }
+
+    @Test
+    @DisplayName("TC703: SqlRegistry menolak SQL yang sama untuk operasi berbeda")
+    void testRegistryRejectsConflictingOperation() {
+        // ARRANGE
+        String sql = "SELECT 1 /* StatementWarmerTest */";
+        SqlRegistry.register(SqlStatement.builder().operation("Test.first").sql(sql).readOnly(true).build());
+
+        // ACT & ASSERT
+        assertThat(SqlRegistry.register(SqlStatement.builder().operation("Test.first").sql(sql).build()))
+                .isEqualTo(sql);
+        assertThatThrownBy(() -> SqlRegistry.register(
+                SqlStatement.builder().operation("Test.second").sql(sql).build()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Test.first");
+        assertThat(SqlRegistry.readOnly()).extracting(SqlStatement::getSql).contains(sql);
+
+        logger.info("TC703 PASSED: Conflicting SQL rejected");
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    /**
+     * @param failingSql SQL yang gagal saat di-describe (parse error di server), null = tidak ada
+     */
+    private ConnectionPool createPool(String failingSql) {
+        return new ConnectionPool("warmup-test", () -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+                PreparedStatement statement = mock(PreparedStatement.class);
+                ResultSet rs = mock(ResultSet.class);
+                when(statement.executeQuery()).thenReturn(rs);
+                if (invocation.getArgument(0).equals(failingSql)) {
+                    when(statement.getParameterMetaData()).thenThrow(new SQLException("syntax error", "42601"));
+                }
+                return statement;
+            });
+            physicalConnections.add(connection);
+            return connection;
+        }, PoolSettings.builder().initialSize(0).minIdle(0).build());
+    }
+}
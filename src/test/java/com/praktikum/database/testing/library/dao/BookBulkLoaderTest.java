@@ -0,0 +1,169 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import classes untuk testing
+import com.praktikum.database.testing.library.BaseDatabaseTest;
+import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.model.Book;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Import static assertions
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test suite untuk BookBulkLoader (COPY FROM STDIN)
+ * COPY berjalan di koneksi sendiri (autocommit), jadi data test dihapus di tearDownAll
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("BookBulkLoader Test Suite")
+public class BookBulkLoaderTest extends BaseDatabaseTest {
+    // Prefix ISBN unik per run supaya cleanup hanya menghapus data test ini
+    private static final String ISBN_PREFIX = "977" + (System.currentTimeMillis() % 1_000_000_000L);
+
+    private static BookBulkLoader loader;
+    private static BookDAO bookDAO;
+
+    @BeforeAll
+    static void setUpAll() {
+        logger.info("Starting BookBulkLoader Tests");
+        loader = new BookBulkLoader(500, 100);
+        bookDAO = new BookDAO();
+    }
+
+    @AfterAll
+    static void tearDownAll() throws SQLException {
+        logger.info("BookBulkLoader Tests Completed");
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM books WHERE isbn LIKE ?")) {
+            pstmt.setString(1, ISBN_PREFIX + "%");
+            logger.info("Cleaned up " + pstmt.executeUpdate() + " bulk loaded books");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("TC150: Bulk load 2000 books dari iterator (streaming) - Should Success")
+    void testLoad_StreamedBooks_ShouldLoadAllRows() throws SQLException {
+        // ARRANGE - iterator membuat book saat dibaca, tidak ada list berisi seluruh dataset
+        int numberOfBooks = 2_000;
+        int countBefore = bookDAO.countAll();
+
+        // ACT
+        BulkLoadResult result = loader.load(generatedBooks(0, numberOfBooks));
+
+        // ASSERT
+        assertThat(result.getRowsLoaded()).isEqualTo(numberOfBooks);
+        assertThat(result.getRejectedRows()).isEmpty();
+        assertThat(result.getRowsPerSecond()).isPositive();
+        assertThat(bookDAO.countAll()).isEqualTo(countBefore + numberOfBooks);
+        assertThat(bookDAO.findByIsbn(isbn(42)))
+                .hasValueSatisfying(book -> {
+                    assertThat(book.getTitle()).isEqualTo("Bulk \"Quoted\", Title 42");
+                    assertThat(book.getPublisherId()).isNull();
+                    assertThat(book.getStatus()).isEqualTo("available");
+                });
+
+        logger.info("TC150 PASSED: " + result.getRowsLoaded() + " rows in " + result.getDurationMillis()
+                + " ms (" + String.format("%.0f", result.getRowsPerSecond()) + " rows/s)");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("TC151: Baris invalid dan duplicate ISBN ditolak, baris lain tetap dimuat")
+    void testLoad_WithInvalidRows_ShouldReportRejectedRows() throws SQLException {
+        // ARRANGE
+        List<Book> books = new ArrayList<>();
+        generatedBooks(10_000, 10).forEachRemaining(books::add);
+        books.get(2).setTitle(null);            // ditolak validasi client
+        books.get(5).setIsbn(isbn(7));          // duplicate ISBN dari TC150, ditolak server
+        books.get(8).setAvailableCopies(10);    // available > total (check_available_copies), ditolak server
+
+        // ACT
+        BulkLoadResult result = loader.load(books);
+
+        // ASSERT
+        assertThat(result.getRowsLoaded()).isEqualTo(7);
+        assertThat(result.getRejectedRows())
+                .extracting(BulkLoadResult.RejectedRow::getRowNumber)
+                .containsExactlyInAnyOrder(3L, 6L, 9L);
+        assertThat(result.getRejectedRows())
+                .filteredOn(row -> row.getRowNumber() == 6)
+                .singleElement()
+                .satisfies(row -> assertThat(row.getReason()).contains("duplicate"));
+
+        logger.info("TC151 PASSED: Rejected " + result.getRejectedRows());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("TC152: Encoding CSV membedakan NULL dan string kosong, quote di-escape")
+    void testEncodeRow_QuotesAndNulls() {
+        // ARRANGE
+        Book book = Book.builder()
+                .isbn("977-1").title("A \"B\", C").authorId(1)
+                .description("").totalCopies(2).availableCopies(1)
+                .price(new BigDecimal("1.50"))
+                .build();
+        StringBuilder row = new StringBuilder();
+
+        // ACT
+        BookBulkLoader.encodeRow(book, row);
+
+        // ASSERT
+        assertThat(row.toString())
+                .isEqualTo("\"977-1\",\"A \"\"B\"\", C\",1,,,,,,\"\",2,1,1.50,,\"available\"\n");
+
+        logger.info("TC152 PASSED: " + row.toString().trim());
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private static String isbn(int index) {
+        return ISBN_PREFIX + String.format("%05d", index);
+    }
+
+    /**
+     * Iterator yang membuat book satu per satu
+     */
+    private static Iterator<Book> generatedBooks(int firstIndex, int count) {
+        return new Iterator<>() {
+            private int next = firstIndex;
+
+            @Override
+            public boolean hasNext() {
+                return next < firstIndex + count;
+            }
+
+            @Override
+            public Book next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = next++;
+                return Book.builder()
+                        .isbn(isbn(index))
+                        .title("Bulk \"Quoted\", Title " + index)
+                        .authorId(1) // Assuming author_id 1 exists from sample data
+                        .categoryId(1)
+                        .publicationYear(2024)
+                        .pages(100 + index % 500)
+                        .language("Indonesian")
+                        .totalCopies(3)
+                        .availableCopies(3)
+                        .price(new BigDecimal("50000.00"))
+                        .location("Rak B-" + index % 10)
+                        .build();
+            }
+        };
+    }
+}
@@ -3,10 +3,16 @@ package com.praktikum.database.testing.library.dao;
 // Import classes untuk testing
 import com.github.javafaker.Faker;
 import com.praktikum.database.testing.library.BaseDatabaseTest;
+import com.praktikum.database.testing.library.config.DatabaseConfig;
 import com.praktikum.database.testing.library.model.Book;
+import com.praktikum.database.testing.library.model.BookSearchHit;
+import com.praktikum.database.testing.library.model.BookSummary;
 import org.junit.jupiter.api.*;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
@@ -448,10 +454,272 @@ public class BookDAOTest extends BaseDatabaseTest {
         logger.info("TC140 PASSED: Average search time: " + averageTimeMs + " ms");
     }
 
+    @Test
+    @Order(41)
+    @DisplayName("TC141: Keyset pagination mengunjungi setiap book tepat sekali")
+    void testFindPage_VisitsEveryBookOnce() throws SQLException {
+        // ARRANGE
+        int pageSize = 7;
+        java.util.Set<Integer> seen = new java.util.HashSet<>();
+        Integer previousId = null;
+
+        // ACT & ASSERT
+        Page<Book> page = bookDAO.findPage(null, pageSize);
+        while (true) {
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(pageSize);
+            for (Book book : page.getItems()) {
+                assertThat(seen.add(book.getBookId())).isTrue();
+                if (previousId != null) {
+                    assertThat(book.getBookId()).isGreaterThan(previousId);
+                }
+                previousId = book.getBookId();
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = bookDAO.findPage(page.getNextPageToken(), pageSize);
+        }
+
+        assertThat(seen).hasSize(bookDAO.countAll());
+        assertThatThrownBy(() -> bookDAO.findAvailableBooksPage(
+                bookDAO.findPage(null, 1).getNextPageToken(), pageSize))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        logger.info("TC141 PASSED: Visited " + seen.size() + " books");
+    }
+
+    @Test
+    @Order(42)
+    @DisplayName("TC142: findByIds mengambil banyak books dalam satu query, sama dengan findById")
+    void testFindByIds_MatchesFindById() throws SQLException {
+        // ARRANGE - ambil id yang ada, tambah duplikat dan id yang tidak ada
+        java.util.List<Integer> ids = new java.util.ArrayList<>();
+        bookDAO.findPage(null, 20).getItems().forEach(book -> ids.add(book.getBookId()));
+        ids.add(ids.get(0));
+        ids.add(999999);
+
+        // ACT
+        java.util.Map<Integer, Book> books = bookDAO.findByIds(ids);
+
+        // ASSERT
+        assertThat(books).hasSize(ids.size() - 2).doesNotContainKey(999999);
+        for (java.util.Map.Entry<Integer, Book> entry : books.entrySet()) {
+            assertThat(entry.getValue().getBookId()).isEqualTo(entry.getKey());
+            assertThat(entry.getValue().getIsbn())
+                    .isEqualTo(bookDAO.findById(entry.getKey()).orElseThrow().getIsbn());
+        }
+        assertThat(bookDAO.findByIds(java.util.List.of())).isEmpty();
+
+        logger.info("TC142 PASSED: Fetched " + books.size() + " books in one query");
+    }
+
+    @Test
+    @Order(43)
+    @DisplayName("TC143: BookSummary berisi kolom yang sama dengan Book untuk setiap baris")
+    void testFindAllSummaries_MatchesFindAll() throws SQLException {
+        // ARRANGE
+        java.util.Map<Integer, Book> books = new java.util.HashMap<>();
+        bookDAO.findAll().forEach(book -> books.put(book.getBookId(), book));
+
+        // ACT
+        java.util.List<BookSummary> summaries = bookDAO.findAllSummaries();
+        Page<BookSummary> firstPage = bookDAO.findSummaryPage(null, 3);
+
+        // ASSERT
+        assertThat(summaries).hasSize(books.size());
+        assertThat(summaries).allSatisfy(summary -> {
+            Book book = books.get(summary.getBookId());
+            assertThat(summary.getIsbn()).isEqualTo(book.getIsbn());
+            assertThat(summary.getTitle()).isEqualTo(book.getTitle());
+            assertThat(summary.getAuthorId()).isEqualTo(book.getAuthorId());
+            assertThat(summary.getAvailableCopies()).isEqualTo(book.getAvailableCopies());
+            assertThat(summary.getStatus()).isEqualTo(book.getStatus());
+        });
+        // Token halaman summary bisa dilanjutkan oleh findPage (listing dan urutan sama)
+        if (firstPage.hasNext()) {
+            assertThat(bookDAO.findPage(firstPage.getNextPageToken(), 1).getItems())
+                    .extracting(Book::getBookId)
+                    .containsExactly(summaries.get(3).getBookId());
+        }
+
+        logger.info("TC143 PASSED: " + summaries.size() + " summaries");
+    }
+
+    @Test
+    @Order(44)
+    @DisplayName("TC144: Full-text search - judul lebih relevan dari description, halaman tanpa duplikat")
+    void testSearchFullText_RanksTitleAboveDescription() throws SQLException {
+        // ARRANGE - kata unik per run supaya hanya book dari test ini yang cocok
+        bookDAO.ensureSearchIndex();
+        String keyword = "fts" + System.currentTimeMillis();
+        Book inTitle = createTestBook();
+        inTitle.setIsbn(inTitle.getIsbn() + "1");
+        inTitle.setTitle("Panduan " + keyword);
+        Book inDescription = createTestBook();
+        inDescription.setIsbn(inDescription.getIsbn() + "2");
+        inDescription.setDescription("Bab terakhir membahas " + keyword);
+        Book other = createTestBook();
+        other.setIsbn(other.getIsbn() + "3");
+        for (Book book : List.of(inTitle, inDescription, other)) {
+            createdBookIds.add(bookDAO.create(book).getBookId());
+        }
+
+        // ACT - satu hasil per halaman supaya token ikut diuji
+        Page<BookSearchHit> first = bookDAO.searchFullText(keyword, null, 1);
+        Page<BookSearchHit> second = bookDAO.searchFullText(keyword, first.getNextPageToken(), 1);
+
+        // ASSERT
+        assertThat(first.getItems()).singleElement()
+                .satisfies(hit -> assertThat(hit.getBook().getBookId()).isEqualTo(inTitle.getBookId()));
+        assertThat(second.getItems()).singleElement()
+                .satisfies(hit -> assertThat(hit.getBook().getBookId()).isEqualTo(inDescription.getBookId()));
+        assertThat(first.getItems().get(0).getRank()).isGreaterThan(second.getItems().get(0).getRank());
+        assertThat(second.hasNext()).isFalse();
+        assertThat(bookDAO.searchFullText("-" + keyword + " " + keyword, null, 10).getItems()).isEmpty();
+
+        logger.info("TC144 PASSED: " + first.getItems() + " " + second.getItems());
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("TC145: Fuzzy search - judul salah ketik tetap ditemukan, urut similarity di atas threshold")
+    void testSearchFuzzy_FindsMisspelledTitle() throws SQLException {
+        // ARRANGE
+        bookDAO.ensureTrigramIndex();
+        String suffix = String.valueOf(System.currentTimeMillis());
+        Book book = createTestBook();
+        book.setTitle("Ensiklopedia Kupu-kupu Nusantara " + suffix);
+        createdBookIds.add(bookDAO.create(book).getBookId());
+
+        // ACT - huruf hilang dan tertukar
+        Page<BookSearchHit> page = bookDAO.searchFuzzy("Ensiklopedi Kupu-kupu Nusnatara " + suffix, 0.3, null, 20);
+
+        // ASSERT
+        assertThat(page.getItems())
+                .extracting(hit -> hit.getBook().getBookId())
+                .contains(book.getBookId());
+        assertThat(page.getItems())
+                .extracting(BookSearchHit::getRank)
+                .allSatisfy(rank -> assertThat(rank).isGreaterThanOrEqualTo(0.3))
+                .isSortedAccordingTo(java.util.Comparator.reverseOrder());
+        // Judul yang tidak mirip sama sekali tidak lolos threshold
+        assertThat(bookDAO.searchFuzzy("zqxj " + suffix + " wvkp", 0.9, null, 20).getItems()).isEmpty();
+        assertThatThrownBy(() -> bookDAO.searchFuzzy("x", 0, null, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        logger.info("TC145 PASSED: " + page.getItems());
+    }
+
+    @Test
+    @Order(46)
+    @DisplayName("TC146: Upsert by ISBN - insert, update, dan update tanpa perubahan dilewati")
+    void testUpsertByIsbn_InsertUpdateAndSkipUnchanged() throws SQLException {
+        // ARRANGE
+        Book book = createTestBook();
+
+        // ACT & ASSERT - ISBN baru
+        assertThat(bookDAO.upsertByIsbn(book)).isEqualTo(UpsertOutcome.INSERTED);
+        createdBookIds.add(book.getBookId());
+        Integer bookId = book.getBookId();
+        String versionBefore = rowVersion(book.getIsbn());
+
+        // Data sama persis: tidak ada versi baris baru (tanpa dead tuple), id tetap dikembalikan
+        Book same = bookDAO.findById(bookId).orElseThrow();
+        assertThat(bookDAO.upsertByIsbn(same)).isEqualTo(UpsertOutcome.UNCHANGED);
+        assertThat(same.getBookId()).isEqualTo(bookId);
+        assertThat(rowVersion(book.getIsbn())).isEqualTo(versionBefore);
+
+        // Satu copy dipinjam, lalu feed menambah 2 copy: yang dipinjam tetap terhitung
+        bookDAO.decreaseAvailableCopies(bookId);
+        Book changed = bookDAO.findById(bookId).orElseThrow();
+        changed.setTitle(changed.getTitle() + " (Edisi Revisi)");
+        changed.setTotalCopies(changed.getTotalCopies() + 2);
+        changed.setAvailableCopies(changed.getTotalCopies());
+        assertThat(bookDAO.upsertByIsbn(changed)).isEqualTo(UpsertOutcome.UPDATED);
+
+        // Tanpa skipUnchanged, data yang sama tetap di-update
+        assertThat(bookDAO.upsertByIsbn(bookDAO.findById(bookId).orElseThrow(), false))
+                .isEqualTo(UpsertOutcome.UPDATED);
+        assertThatThrownBy(() -> bookDAO.upsertByIsbn(Book.builder().title("Tanpa ISBN").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Book stored = bookDAO.findById(bookId).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo(changed.getTitle());
+        assertThat(stored.getTotalCopies()).isEqualTo(7);
+        assertThat(stored.getAvailableCopies()).isEqualTo(6);
+
+        logger.info("TC146 PASSED: " + stored);
+    }
+
+    @Test
+    @Order(47)
+    @DisplayName("TC147: Batch upsert by ISBN - feed kedua hanya meng-update baris yang berubah")
+    void testUpsertAllByIsbn_SecondFeedUpdatesChangedRowsOnly() throws SQLException {
+        // ARRANGE - lebih dari satu chunk, dengan ISBN duplikat di dalam feed
+        String prefix = "978ups" + System.currentTimeMillis() % 1_000_000;
+        int numberOfBooks = 2_500;
+        List<Book> feed = new java.util.ArrayList<>();
+        for (int i = 0; i < numberOfBooks; i++) {
+            Book book = createTestBook();
+            book.setIsbn(prefix + i);
+            book.setTitle("Feed Title " + i);
+            feed.add(book);
+        }
+        Book duplicate = createTestBook();
+        duplicate.setIsbn(prefix + 7);
+        duplicate.setTitle("Feed Title 7 (Koreksi)");
+        feed.add(duplicate);
+
+        try {
+            // ACT - feed pertama: semua baru, duplikat menimpa baris sebelumnya
+            UpsertResult first = bookDAO.upsertAllByIsbn(feed, true);
+
+            // Feed kedua: 100 judul berubah, sisanya sama
+            for (int i = 0; i < 100; i++) {
+                feed.get(i * 20).setTitle("Feed Title " + (i * 20) + " v2");
+            }
+            UpsertResult second = bookDAO.upsertAllByIsbn(feed, true);
+
+            // ASSERT
+            assertThat(first.getInserted()).isEqualTo(numberOfBooks);
+            assertThat(first.getUpdated()).isEqualTo(1);
+            assertThat(second.getInserted()).isZero();
+            // 100 judul berubah + ISBN 7 dua kali (judul lama lalu koreksi), keduanya berbeda dari database
+            assertThat(second.getUpdated()).isEqualTo(102);
+            assertThat(second.getUnchanged()).isEqualTo(numberOfBooks + 1 - 102);
+            assertThat(bookDAO.findByIsbn(prefix + 7))
+                    .hasValueSatisfying(book -> assertThat(book.getTitle()).isEqualTo("Feed Title 7 (Koreksi)"));
+            assertThat(bookDAO.findByIsbn(prefix + 20))
+                    .hasValueSatisfying(book -> assertThat(book.getTitle()).isEqualTo("Feed Title 20 v2"));
+
+            logger.info("TC147 PASSED: " + first + " " + second);
+        } finally {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement("DELETE FROM books WHERE isbn LIKE ?")) {
+                pstmt.setString(1, prefix + "%");
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
     // ================================
     // HELPER METHODS
     // ================================
 
+    /**
+     * Versi baris (xmin): berubah setiap kali UPDATE membuat tuple baru
+     */
+    private static String rowVersion(String isbn) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT xmin::text FROM books WHERE isbn = ?")) {
+            pstmt.setString(1, isbn);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
     /**
      * Helper method untuk membuat test book dengan data yang valid
      * @return Book object untuk testing
@@ -0,0 +1,54 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Import static assertions
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit test untuk MultiGet (tidak membutuhkan database)
+ */
+@DisplayName("MultiGet Test Suite")
+public class MultiGetTest {
+    private static final Logger logger = Logger.getLogger(MultiGetTest.class.getName());
+
+    @Test
+    @DisplayName("TC171: Duplikat dan null dibuang, id dipotong per chunk sesuai urutan input")
+    void testChunksDeduplicateAndSplit() {
+        // ARRANGE
+        List<Integer> ids = Arrays.asList(5, 3, 5, null, 9, 3, 1, 7);
+
+        // ACT
+        List<List<Integer>> chunks = MultiGet.chunks(ids, 2);
+
+        // ASSERT
+        assertThat(chunks).containsExactly(
+                Arrays.asList(5, 3), Arrays.asList(9, 1), List.of(7));
+        assertThat(MultiGet.chunks(List.of(), 2)).isEmpty();
+
+        logger.info("TC171 PASSED: " + chunks);
+    }
+
+    @Test
+    @DisplayName("TC172: Hasil disusun per id sesuai urutan input, id yang tidak ditemukan dilewati")
+    void testByIdFollowsInputOrder() {
+        // ARRANGE - hasil query tidak punya urutan tertentu
+        List<Integer> ids = Arrays.asList(30, 10, 99, 20, 10);
+        List<String> rows = List.of("20", "10", "30");
+
+        // ACT
+        Map<Integer, String> byId = MultiGet.byId(ids, rows, Integer::valueOf);
+
+        // ASSERT
+        assertThat(byId.keySet()).containsExactly(30, 10, 20);
+        assertThat(byId).containsEntry(20, "20").doesNotContainKey(99);
+
+        logger.info("TC172 PASSED: " + byId);
+    }
+}
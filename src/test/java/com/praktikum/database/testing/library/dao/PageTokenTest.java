@@ -0,0 +1,93 @@
+package com.praktikum.database.testing.library.dao;
+
+// Import classes untuk testing
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+// Import static assertions
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit test untuk PageToken dan Page (tidak membutuhkan database)
+ */
+@DisplayName("Page Token Test Suite")
+public class PageTokenTest {
+    private static final Logger logger = Logger.getLogger(PageTokenTest.class.getName());
+
+    @Test
+    @DisplayName("TC161: Token round trip, title boleh berisi karakter apa pun")
+    void testRoundTrip() {
+        // ARRANGE
+        String title = "Laskar Pelangi \u001F \"Edisi\" / ? & =";
+
+        // ACT
+        String token = PageToken.encode("books.title", 42, title);
+        PageToken decoded = PageToken.decode(token, "books.title", 2);
+
+        // ASSERT
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(decoded.getInt(0)).isEqualTo(42);
+        assertThat(decoded.getString(1)).isEqualTo(title);
+
+        logger.info("TC161 PASSED: " + token);
+    }
+
+    @Test
+    @DisplayName("TC162: Token rusak atau dari listing lain ditolak")
+    void testRejectsForeignToken() {
+        // ARRANGE
+        String userToken = PageToken.encode("users.id", 7);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> PageToken.decode(userToken, "books.id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageToken.decode("%%%", "books.id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageToken.decode(PageToken.encode("books.id", "abc"), "books.id", 1).getInt(0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        logger.info("TC162 PASSED: Foreign token rejected");
+    }
+
+    @Test
+    @DisplayName("TC163: Page memakai baris ekstra hanya untuk menandai halaman berikutnya")
+    void testPageOfExtraRow() {
+        // ARRANGE
+        List<Integer> full = Arrays.asList(1, 2, 3, 4);
+        List<Integer> last = Arrays.asList(1, 2);
+
+        // ACT
+        Page<Integer> page = Page.of(full, 3, row -> "after-" + row);
+        Page<Integer> lastPage = Page.of(last, 3, row -> "after-" + row);
+
+        // ASSERT
+        assertThat(page.getItems()).containsExactly(1, 2, 3);
+        assertThat(page.getNextPageToken()).isEqualTo("after-3");
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThatThrownBy(() -> Page.checkLimit(0)).isInstanceOf(IllegalArgumentException.class);
+
+        logger.info("TC163 PASSED: " + page);
+    }
+
+    @Test
+    @DisplayName("TC164: Rank double di token kembali ke nilai yang persis sama")
+    void testDoubleRoundTrip() {
+        // ARRANGE - nilai ts_rank (float4) yang di-cast ke float8
+        double rank = (double) 0.0607927f;
+
+        // ACT
+        PageToken decoded = PageToken.decode(PageToken.encode("books.search", 7, rank), "books.search", 2);
+
+        // ASSERT
+        assertThat(decoded.getInt(0)).isEqualTo(7);
+        assertThat(decoded.getDouble(1)).isEqualTo(rank);
+        assertThatThrownBy(() -> PageToken.decode(PageToken.encode("books.search", 7, "x"), "books.search", 2)
+                .getDouble(1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        logger.info("TC164 PASSED: " + decoded.getDouble(1));
+    }
+}
@@ -261,6 +261,35 @@ public class UserDAOTest extends BaseDatabaseTest {
         logger.info("TC008 PASSED: User deleted successfully - ID: " + userIdToDelete);
     }
 
+    @Test
+    @Order(9)
+    @DisplayName("TC009: Create banyak user dengan createAll - ID terisi sesuai urutan input")
+    void testCreateAll_WithValidData_ShouldFillGeneratedValuesInOrder() throws SQLException {
+        // ARRANGE
+        List<User> users = new java.util.ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(createTestUser());
+        }
+
+        // ACT
+        List<User> created = userDAO.createAll(users);
+        created.forEach(user -> createdUserIds.add(user.getUserId()));
+
+        // ASSERT
+        assertThat(created).isSameAs(users);
+        assertThat(created).allSatisfy(user -> {
+            assertThat(user.getUserId()).isNotNull().isPositive();
+            assertThat(user.getCreatedAt()).isNotNull();
+        });
+        assertThat(created).extracting(User::getUserId).doesNotHaveDuplicates();
+        for (User user : created) {
+            assertThat(userDAO.findById(user.getUserId()))
+                    .hasValueSatisfying(found -> assertThat(found.getUsername()).isEqualTo(user.getUsername()));
+        }
+
+        logger.info("TC009 PASSED: " + created.size() + " users created in batch");
+    }
+
     // ================================
     // NEGATIVE TEST CASES - Testing error scenarios and edge cases
     // ================================
@@ -357,6 +386,26 @@ public class UserDAOTest extends BaseDatabaseTest {
         logger.info("TC015 PASSED: Non-existent user delete handled correctly");
     }
 
+    @Test
+    @Order(16)
+    @DisplayName("TC016: createAll dengan username duplikat di input - Should Fail sebelum insert")
+    void testCreateAll_WithDuplicateUsernameInInput_ShouldFail() throws SQLException {
+        // ARRANGE - Dua user baru dengan username yang sama
+        User first = createTestUser();
+        User second = createTestUser();
+        second.setUsername(first.getUsername());
+        int countBefore = userDAO.countAll();
+
+        // ACT & ASSERT - Ditolak sebelum ada baris yang di-insert
+        assertThatThrownBy(() -> userDAO.createAll(java.util.List.of(first, second)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(first.getUsername());
+        assertThat(first.getUserId()).isNull();
+        assertThat(userDAO.countAll()).isEqualTo(countBefore);
+
+        logger.info("TC016 PASSED: Duplicate username in createAll rejected up front");
+    }
+
     // ================================
     // BOUNDARY TEST CASES - Testing limits and boundaries
     // ================================
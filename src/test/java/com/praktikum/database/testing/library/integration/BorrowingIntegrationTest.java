@@ -6,6 +6,8 @@ import com.praktikum.database.testing.library.BaseDatabaseTest;
 import com.praktikum.database.testing.library.config.DatabaseConfig; // Import DatabaseConfig
 import com.praktikum.database.testing.library.dao.BookDAO;
 import com.praktikum.database.testing.library.dao.BorrowingDAO;
+import com.praktikum.database.testing.library.dao.BorrowingFilter;
+import com.praktikum.database.testing.library.dao.Page;
 import com.praktikum.database.testing.library.dao.UserDAO;
 import com.praktikum.database.testing.library.model.Book;
 import com.praktikum.database.testing.library.model.Borrowing;
@@ -18,6 +20,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -435,4 +438,72 @@ public class BorrowingIntegrationTest extends BaseDatabaseTest {
         logger.info("TC411 PASSED: Transaction integrity verified " +
                 "(changes rolled back).");
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(8)
+    @DisplayName("TC412: Active/returned filter dan pagination " +
+            "borrowings user dijalankan di SQL")
+    void testUserBorrowings_FilteredAndPaginated() throws
+            SQLException {
+        // ARRANGE - 3 peminjaman, yang pertama dikembalikan
+        borrowingDAO.ensureUserHistoryIndex();
+        User user = createTestUser();
+        Book book = createTestBook(5);
+        List<Integer> borrowingIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Borrowing b = borrowingService.borrowBook(
+                    user.getUserId(), book.getBookId(), 14);
+            testBorrowingIds.add(b.getBorrowingId());
+            borrowingIds.add(b.getBorrowingId());
+        }
+        borrowingService.returnBook(borrowingIds.get(0));
+        BorrowingFilter all = BorrowingFilter.builder()
+                .userId(user.getUserId())
+                .build();
+        // ACT
+        List<Borrowing> active =
+                borrowingService.getUserActiveBorrowings(user.getUserId());
+        Page<Borrowing> returned = borrowingDAO.findByUser(
+                BorrowingFilter.builder()
+                        .userId(user.getUserId())
+                        .state(BorrowingFilter.State.RETURNED)
+                        .build(), null, 10);
+        Page<Borrowing> firstPage =
+                borrowingService.getUserBorrowingHistory(all, null, 2);
+        Page<Borrowing> secondPage = borrowingService
+                .getUserBorrowingHistory(all, firstPage.getNextPageToken(), 2);
+        Page<Borrowing> future = borrowingDAO.findByUser(
+                BorrowingFilter.builder()
+                        .userId(user.getUserId())
+                        .borrowedFrom(Timestamp.valueOf(
+                                LocalDateTime.now().plusDays(1)))
+                        .build(), null, 10);
+        // ASSERT
+        assertThat(active).extracting(Borrowing::getBorrowingId)
+                .containsExactlyInAnyOrder(borrowingIds.get(1),
+                        borrowingIds.get(2));
+        assertThat(active).allSatisfy(b ->
+                assertThat(b.getReturnDate()).isNull());
+        assertThat(returned.getItems())
+                .extracting(Borrowing::getBorrowingId)
+                .containsExactly(borrowingIds.get(0));
+        assertThat(returned.hasNext()).isFalse();
+        // Urut borrow_date terbaru dulu, tanpa duplikat antar halaman
+        assertThat(firstPage.getItems()).hasSize(2);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getItems()).hasSize(1);
+        assertThat(secondPage.hasNext()).isFalse();
+        List<Integer> paged = new ArrayList<>();
+        firstPage.getItems().forEach(b -> paged.add(b.getBorrowingId()));
+        secondPage.getItems().forEach(b -> paged.add(b.getBorrowingId()));
+        assertThat(paged).containsExactly(borrowingIds.get(2),
+                borrowingIds.get(1), borrowingIds.get(0));
+        assertThat(future.getItems()).isEmpty();
+        // Token dari listing lain ditolak
+        assertThatThrownBy(() -> borrowingDAO.findByUser(all,
+                "bm90LWEtdG9rZW4", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        logger.info("TC412 PASSED: Active=" + active.size() +
+                ", pages=" + paged);
+    }
+}
@@ -0,0 +1,185 @@
+package com.praktikum.database.testing.library.performance;
+
+// Import classes untuk benchmark
+import com.praktikum.database.testing.library.config.DatabaseConfig;
+import com.praktikum.database.testing.library.config.RowMapper;
+import com.praktikum.database.testing.library.model.Book;
+import com.praktikum.database.testing.library.model.BookRowMapper;
+import com.praktikum.database.testing.library.model.Borrowing;
+import com.praktikum.database.testing.library.model.BorrowingRowMapper;
+import com.praktikum.database.testing.library.model.User;
+import com.praktikum.database.testing.library.model.UserRowMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: RowMapper hasil generate (@RowMapped, kolom per posisi) vs mapper manual lama
+ * (kolom per nama, getObject untuk Integer nullable, Lombok builder)
+ *
+ * Baris diambil sekali dari database ke ResultSet scrollable pgjdbc (semua baris di memory), lalu setiap
+ * invocation memetakan ulang semua baris, jadi yang diukur hanya mapping, bukan round trip database.
+ * Membutuhkan database dari database.properties (sama dengan test lain). Jalankan dengan:
+ *
+ * mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.praktikum.database.testing.library.performance.RowMapperBenchmark"
+ *
+ * GC profiler aktif, jadi hasil juga berisi alokasi per operasi (gc.alloc.rate.norm)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+    // Jumlah baris maksimal per tabel yang dipetakan di setiap invocation
+    private static final int ROWS = 1_000;
+
+    @Param({"books", "users", "borrowings"})
+    private String table;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private RowMapper<?> handWritten;
+    private RowMapper<?> generated;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String columns;
+        String orderBy;
+        switch (table) {
+            case "books" -> {
+                columns = BookRowMapper.COLUMNS;
+                orderBy = "book_id";
+                handWritten = RowMapperBenchmark::mapResultSetToBook;
+                generated = BookRowMapper.INSTANCE;
+            }
+            case "users" -> {
+                columns = UserRowMapper.COLUMNS;
+                orderBy = "user_id";
+                handWritten = RowMapperBenchmark::mapResultSetToUser;
+                generated = UserRowMapper.INSTANCE;
+            }
+            case "borrowings" -> {
+                columns = BorrowingRowMapper.COLUMNS;
+                orderBy = "borrowing_id";
+                handWritten = RowMapperBenchmark::mapResultSetToBorrowing;
+                generated = BorrowingRowMapper.INSTANCE;
+            }
+            default -> throw new IllegalStateException("Tabel tidak dikenal: " + table);
+        }
+
+        // Koneksi langsung tanpa pool, supaya proxy pool tidak ikut terukur
+        connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(),
+                DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        statement = connection.prepareStatement(
+                "SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + " LIMIT " + ROWS,
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        resultSet = statement.executeQuery();
+        if (!resultSet.isBeforeFirst()) {
+            throw new IllegalStateException("Tabel " + table + " kosong, tidak ada baris untuk benchmark");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        resultSet.close();
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void handWritten(Blackhole blackhole) throws SQLException {
+        mapAll(handWritten, blackhole);
+    }
+
+    @Benchmark
+    public void generated(Blackhole blackhole) throws SQLException {
+        mapAll(generated, blackhole);
+    }
+
+    private void mapAll(RowMapper<?> mapper, Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(mapper.map(resultSet));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RowMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    // ================================
+    // MAPPER MANUAL (baseline, sama dengan DAO sebelum @RowMapped)
+    // ================================
+
+    private static Book mapResultSetToBook(ResultSet rs) throws SQLException {
+        return Book.builder()
+                .bookId(rs.getInt("book_id"))
+                .isbn(rs.getString("isbn"))
+                .title(rs.getString("title"))
+                .authorId(rs.getInt("author_id"))
+                .publisherId((Integer) rs.getObject("publisher_id"))
+                .categoryId((Integer) rs.getObject("category_id"))
+                .publicationYear((Integer) rs.getObject("publication_year"))
+                .pages((Integer) rs.getObject("pages"))
+                .language(rs.getString("language"))
+                .description(rs.getString("description"))
+                .totalCopies(rs.getInt("total_copies"))
+                .availableCopies(rs.getInt("available_copies"))
+                .price(rs.getBigDecimal("price"))
+                .location(rs.getString("location"))
+                .status(rs.getString("status"))
+                .createdAt(rs.getTimestamp("created_at"))
+                .updatedAt(rs.getTimestamp("updated_at"))
+                .build();
+    }
+
+    private static User mapResultSetToUser(ResultSet rs) throws SQLException {
+        return User.builder()
+                .userId(rs.getInt("user_id"))
+                .username(rs.getString("username"))
+                .email(rs.getString("email"))
+                .fullName(rs.getString("full_name"))
+                .phone(rs.getString("phone"))
+                .role(rs.getString("role"))
+                .status(rs.getString("status"))
+                .registrationDate(rs.getTimestamp("registration_date"))
+                .lastLogin(rs.getTimestamp("last_login"))
+                .createdAt(rs.getTimestamp("created_at"))
+                .updatedAt(rs.getTimestamp("updated_at"))
+                .build();
+    }
+
+    private static Borrowing mapResultSetToBorrowing(ResultSet rs) throws SQLException {
+        return Borrowing.builder()
+                .borrowingId(rs.getInt("borrowing_id"))
+                .userId(rs.getInt("user_id"))
+                .bookId(rs.getInt("book_id"))
+                .borrowDate(rs.getTimestamp("borrow_date"))
+                .dueDate(rs.getTimestamp("due_date"))
+                .returnDate(rs.getTimestamp("return_date"))
+                .status(rs.getString("status"))
+                .fineAmount(rs.getBigDecimal("fine_amount"))
+                .finePaid(rs.getBoolean("fine_paid"))
+                .notes(rs.getString("notes"))
+                .createdAt(rs.getTimestamp("created_at"))
+                .updatedAt(rs.getTimestamp("updated_at"))
+                .build();
+    }
+}